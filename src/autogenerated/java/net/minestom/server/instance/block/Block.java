@@ -8,7 +8,6 @@ import net.minestom.server.registry.Registries;
 import net.minestom.server.utils.NamespaceID;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 @SuppressWarnings({"deprecation"})
@@ -1260,6 +1259,7 @@ public enum Block {
     private boolean singleState;
 
     private List<BlockAlternative> alternatives = new ArrayList<BlockAlternative>();
+    private BlockProperties blockProperties = null;
 
     Block(String namespaceID, short defaultID, double hardness, double resistance, boolean isAir, boolean isSolid, NamespaceID blockEntity, boolean singleState) {
         this.namespaceID = namespaceID;
@@ -1318,16 +1318,12 @@ public enum Block {
 
     public void addBlockAlternative(BlockAlternative alternative) {
         alternatives.add(alternative);
-        BlockMap.blocksMap.put(alternative.getId(), this);
+        BlockStates.register(this, alternative);
     }
 
     public BlockAlternative getAlternative(short blockId) {
-        for (BlockAlternative alt : alternatives) {
-            if (alt.getId() == blockId) {
-                return alt;
-            }
-        }
-        return null;
+        final BlockAlternative alternative = BlockStates.getAlternative(blockId);
+        return alternative != null && alternative.getBlock() == this ? alternative : null;
     }
 
     public List<BlockAlternative> getAlternatives() {
@@ -1335,15 +1331,27 @@ public enum Block {
     }
 
     public short withProperties(String... properties) {
-        for (BlockAlternative alt : alternatives) {
-            if (Arrays.equals(alt.getProperties(), properties)) {
-                return alt.getId();
-            }
+        return getBlockProperties().withProperties(defaultID, properties);
+    }
+
+    public short withProperty(short blockId, String property, String value) {
+        return getBlockProperties().withProperty(blockId, property, value);
+    }
+
+    public String getProperty(short blockId, String property) {
+        return getBlockProperties().getProperty(blockId, property);
+    }
+
+    BlockProperties getBlockProperties() {
+        // Computed once all the alternatives are registered, immutable so a concurrent initialization is harmless
+        if (blockProperties == null) {
+            blockProperties = new BlockProperties(alternatives);
         }
-        return defaultID;
+        return blockProperties;
     }
 
     public static Block fromStateId(short blockStateId) {
-        return BlockMap.blocksMap.getOrDefault(blockStateId, AIR);
+        final Block block = BlockStates.getBlock(blockStateId);
+        return block != null ? block : AIR;
     }
 }
@@ -1,5 +0,0 @@
-package net.minestom.server.instance.block;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
-final class BlockMap {
-	static final Short2ObjectOpenHashMap<Block> blocksMap = new Short2ObjectOpenHashMap<>();
-}
@@ -4,7 +4,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import it.unimi.dsi.fastutil.shorts.Short2ObjectOpenHashMap;
 import net.minestom.codegen.EnumGenerator;
 import net.minestom.codegen.MinestomEnumGenerator;
 import net.minestom.codegen.PrismarinePaths;
@@ -245,9 +244,9 @@ public class BlockEnumGenerator extends MinestomEnumGenerator<BlockContainer> {
         generator.addImport(NamespaceID.class.getCanonicalName());
         generator.addImport(List.class.getCanonicalName());
         generator.addImport(ArrayList.class.getCanonicalName());
-        generator.addImport(Arrays.class.getCanonicalName());
         generator.addImport(generator.getPackage()+".states.*");
         generator.addHardcodedField("List<BlockAlternative>", "alternatives", "new ArrayList<BlockAlternative>()");
+        generator.addHardcodedField("BlockProperties", "blockProperties", "null");
         generator.setParams("String namespaceID", "short defaultID", "double hardness", "double resistance", "boolean isAir", "boolean isSolid", "NamespaceID blockEntity", "boolean singleState");
         generator.addMethod("getBlockId", "()", "short", "return defaultID;");
         generator.addMethod("getName", "()", "String", "return namespaceID;");
@@ -261,26 +260,24 @@ public class BlockEnumGenerator extends MinestomEnumGenerator<BlockContainer> {
         generator.addMethod("breaksInstantaneously", "()", "boolean", "return hardness == 0;");
         generator.addMethod("addBlockAlternative", "(BlockAlternative alternative)", "void",
                 "alternatives.add(alternative);",
-                "BlockMap.blocksMap.put(alternative.getId(), this);"
+                "BlockStates.register(this, alternative);"
         );
-        String[] withPropertiesLines = {
-                "for (BlockAlternative alt : alternatives) {",
-                "\tif (Arrays.equals(alt.getProperties(), properties)) {",
-                "\t\treturn alt.getId();",
-                "\t}",
-                "}",
-                "return defaultID;"
-        };
         generator.addMethod("getAlternative", "(short blockId)", "BlockAlternative",
-                "for (BlockAlternative alt : alternatives) {",
-                "\tif (alt.getId() == blockId) {",
-                "\t\treturn alt;",
-                "\t}",
-                "}",
-                "return null;");
+                "final BlockAlternative alternative = BlockStates.getAlternative(blockId);",
+                "return alternative != null && alternative.getBlock() == this ? alternative : null;");
         generator.addMethod("getAlternatives", "()", "List<BlockAlternative>", "return alternatives;");
-        generator.addMethod("withProperties", "(String... properties)", "short", withPropertiesLines);
-        generator.addMethod("fromStateId", "(short blockId)", "static "+className, "return BlockMap.blocksMap.getOrDefault(blockId, AIR);");
+        generator.addMethod("withProperties", "(String... properties)", "short", "return getBlockProperties().withProperties(defaultID, properties);");
+        generator.addMethod("withProperty", "(short blockId, String property, String value)", "short", "return getBlockProperties().withProperty(blockId, property, value);");
+        generator.addMethod("getProperty", "(short blockId, String property)", "String", "return getBlockProperties().getProperty(blockId, property);");
+        generator.addPackageMethod("getBlockProperties", "()", "BlockProperties",
+                "// Computed once all the alternatives are registered, immutable so a concurrent initialization is harmless",
+                "if (blockProperties == null) {",
+                "\tblockProperties = new BlockProperties(alternatives);",
+                "}",
+                "return blockProperties;");
+        generator.addMethod("fromStateId", "(short blockId)", "static "+className,
+                "final Block block = BlockStates.getBlock(blockId);",
+                "return block != null ? block : AIR;");
         generator.appendToConstructor("if(singleState) {");
         generator.appendToConstructor("\taddBlockAlternative(new BlockAlternative(defaultID));");
         generator.appendToConstructor("}");
@@ -339,16 +336,6 @@ public class BlockEnumGenerator extends MinestomEnumGenerator<BlockContainer> {
             subclassFolder.mkdirs();
         }
 
-        StringBuilder blockMapClass = new StringBuilder();
-        blockMapClass.append("package "+getPackageName()+";\n")
-                .append("import "+Short2ObjectOpenHashMap.class.getCanonicalName()+";\n")
-                .append("final class BlockMap {\n")
-                .append("\tstatic final Short2ObjectOpenHashMap<"+getClassName()+"> blocksMap = new Short2ObjectOpenHashMap<>();\n")
-                .append("}\n");
-        LOGGER.debug("Writing BlockMap to file: "+classFolder+"/BlockMap.java");
-        try(Writer writer = new BufferedWriter(new FileWriter(new File(classFolder, "BlockMap.java")))) {
-            writer.write(blockMapClass.toString());
-        }
 
         LOGGER.debug("Writing subclasses for block alternatives...");
         StringBuilder classContents = new StringBuilder();
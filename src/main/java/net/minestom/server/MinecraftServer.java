@@ -31,6 +31,7 @@ import net.minestom.server.network.ConnectionManager;
 import net.minestom.server.network.PacketProcessor;
 import net.minestom.server.network.PacketWriterUtils;
 import net.minestom.server.network.netty.NettyServer;
+import net.minestom.server.network.packet.client.handler.ClientPacketsHandler;
 import net.minestom.server.network.packet.server.play.PluginMessagePacket;
 import net.minestom.server.network.packet.server.play.ServerDifficultyPacket;
 import net.minestom.server.particle.Particle;
@@ -55,6 +56,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.Proxy;
 import java.security.KeyPair;
+import java.util.zip.Deflater;
 
 public class MinecraftServer {
     @Getter
@@ -82,6 +84,21 @@ public class MinecraftServer {
     public static final String THREAD_NAME_PARALLEL_CHUNK_SAVING = "Ms-ParallelChunkSaving";
     public static final int THREAD_COUNT_PARALLEL_CHUNK_SAVING = 4;
 
+    public static final String THREAD_NAME_CHUNK_IO = "Ms-ChunkIOPool";
+    public static final int THREAD_COUNT_CHUNK_IO = 2;
+
+    public static final String THREAD_NAME_CHUNK_GENERATION = "Ms-ChunkGenerationPool";
+    public static final int THREAD_COUNT_CHUNK_GENERATION = 2;
+
+    public static final String THREAD_NAME_STORAGE_WRITER = "Ms-StorageWriterPool";
+    public static final int THREAD_COUNT_STORAGE_WRITER = 1;
+
+    public static final String THREAD_NAME_LIGHTING = "Ms-LightingPool";
+    public static final int THREAD_COUNT_LIGHTING = 2;
+
+    public static final String THREAD_NAME_PATHFINDING = "Ms-PathfindingPool";
+    public static final int THREAD_COUNT_PATHFINDING = 2;
+
     // Config
     public static final int CHUNK_VIEW_DISTANCE = 10;
     public static final int ENTITY_VIEW_DISTANCE = 5;
@@ -104,6 +121,14 @@ public class MinecraftServer {
 
     //Rate Limiting
     private static int rateLimit = 0;
+    private static final int[] packetRateLimits = new int[ClientPacketsHandler.SIZE];
+
+    // Number of received play packets waiting to be processed above which a connection stops being read
+    private static int packetQueueSize = 256;
+
+    // Network
+    private static boolean bufferedWrites = false;
+    private static int compressionLevel = Deflater.DEFAULT_COMPRESSION;
 
     private static PacketListenerManager packetListenerManager;
     private static NettyServer nettyServer;
@@ -241,6 +266,99 @@ public class MinecraftServer {
         MinecraftServer.rateLimit = rateLimit;
     }
 
+    /**
+     * Get the max number of play packets of a type a client can send over 1 second
+     *
+     * @param packetId the id of the play packet
+     * @return the packet count limit over 1 second, 0 if disabled
+     * @throws IllegalArgumentException if {@code packetId} is not a valid packet id
+     */
+    public static int getPacketRateLimit(int packetId) {
+        Check.argCondition(packetId < 0 || packetId >= packetRateLimits.length, "Invalid packet id " + packetId);
+        return packetRateLimits[packetId];
+    }
+
+    /**
+     * Change the number of play packets of a type a client can send over 1 second
+     * <p>
+     * The packets above the limit are ignored and the client is disconnected at the end of the second
+     *
+     * @param packetId  the id of the play packet
+     * @param rateLimit the number of packet, 0 to disable
+     * @throws IllegalArgumentException if {@code packetId} is not a valid packet id or {@code rateLimit} is negative
+     */
+    public static void setPacketRateLimit(int packetId, int rateLimit) {
+        Check.argCondition(packetId < 0 || packetId >= packetRateLimits.length, "Invalid packet id " + packetId);
+        Check.argCondition(rateLimit < 0, "The rate limit cannot be negative");
+        MinecraftServer.packetRateLimits[packetId] = rateLimit;
+    }
+
+    /**
+     * Get the number of received play packets waiting to be processed by a player
+     * above which its connection stops being read until the next player update
+     *
+     * @return the player packet queue size
+     */
+    public static int getPacketQueueSize() {
+        return packetQueueSize;
+    }
+
+    /**
+     * Change the number of received play packets waiting to be processed by a player
+     * above which its connection stops being read until the next player update
+     *
+     * @param packetQueueSize the new player packet queue size
+     * @throws IllegalArgumentException if {@code packetQueueSize} is not positive
+     */
+    public static void setPacketQueueSize(int packetQueueSize) {
+        Check.argCondition(packetQueueSize <= 0, "The packet queue size must be positive");
+        MinecraftServer.packetQueueSize = packetQueueSize;
+    }
+
+    /**
+     * Get if the packets sent to a client are buffered until the next flush instead of being flushed individually
+     *
+     * @return true if the packets are flushed once per tick
+     */
+    public static boolean hasBufferedWrites() {
+        return bufferedWrites;
+    }
+
+    /**
+     * Change if the packets sent to a client are buffered and only flushed once per tick
+     * (at the start of the player update and at the end of the tick)
+     * <p>
+     * Reduces a lot the number of syscalls when a lot of packets are sent, at the cost of a latency up to a tick
+     *
+     * @param bufferedWrites true to flush the packets once per tick, false to flush every packet
+     */
+    public static void setBufferedWrites(boolean bufferedWrites) {
+        MinecraftServer.bufferedWrites = bufferedWrites;
+    }
+
+    /**
+     * Get the level used to compress the packets above {@link #COMPRESSION_THRESHOLD}
+     *
+     * @return the compression level
+     */
+    public static int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Change the level used to compress the packets above {@link #COMPRESSION_THRESHOLD}
+     * <p>
+     * Only applies to the connections created after the change
+     *
+     * @param compressionLevel the new compression level, between 0 and 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IllegalArgumentException if {@code compressionLevel} is not a valid level
+     */
+    public static void setCompressionLevel(int compressionLevel) {
+        Check.argCondition((compressionLevel < 0 || compressionLevel > 9) && compressionLevel != Deflater.DEFAULT_COMPRESSION,
+                "The compression level needs to be between 0 and 9");
+        MinecraftServer.compressionLevel = compressionLevel;
+    }
+
     /**
      * Get the server difficulty showed in game option
      *
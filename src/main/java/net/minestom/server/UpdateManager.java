@@ -1,10 +1,13 @@
 package net.minestom.server;
 
+import net.minestom.server.benchmark.TickTimings;
 import net.minestom.server.chat.ChatColor;
 import net.minestom.server.chat.ColoredText;
 import net.minestom.server.entity.EntityManager;
 import net.minestom.server.entity.Player;
 import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.InstanceContainer;
+import net.minestom.server.instance.InstanceManager;
 import net.minestom.server.network.ConnectionManager;
 import net.minestom.server.network.packet.server.play.KeepAlivePacket;
 import net.minestom.server.thread.PerGroupChunkProvider;
@@ -16,16 +19,22 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Consumer;
 
 public final class UpdateManager {
 
     private static final long KEEP_ALIVE_DELAY = 10_000;
     private static final long KEEP_ALIVE_KICK = 30_000;
+    /**
+     * The maximum number of late ticks executed back to back before the missed ones are dropped
+     */
+    public static final int MAX_CATCH_UP_TICKS = 5;
+
     private static final ColoredText TIMEOUT_TEXT = ColoredText.of(ChatColor.RED + "Timeout");
 
     private ExecutorService mainUpdate = new MinestomThread(1, MinecraftServer.THREAD_NAME_MAIN_UPDATE);
-    private boolean stopRequested;
+    private volatile boolean stopRequested;
 
     private ThreadProvider threadProvider;
 
@@ -33,6 +42,8 @@ public final class UpdateManager {
 
     private ArrayList<Consumer<Double>> tickEndCallbacks = new ArrayList<>();
 
+    private ArrayList<Consumer<TickTimings>> tickMonitors = new ArrayList<>();
+
     {
         //threadProvider = new PerInstanceThreadProvider();
         threadProvider = new PerGroupChunkProvider();
@@ -46,21 +57,29 @@ public final class UpdateManager {
 
     /**
      * Start the server loop in the update thread
+     * <p>
+     * Ticks are scheduled against absolute deadlines, a late tick is followed by the next ones
+     * without waiting until the server caught up or is more than {@link #MAX_CATCH_UP_TICKS} ticks late.
      */
     protected void start() {
         mainUpdate.execute(() -> {
 
             final ConnectionManager connectionManager = MinecraftServer.getConnectionManager();
             final EntityManager entityManager = MinecraftServer.getEntityManager();
+            final InstanceManager instanceManager = MinecraftServer.getInstanceManager();
 
-            final long tickDistance = MinecraftServer.TICK_MS * 1000000;
-            long currentTime;
+            final long tickDistance = MinecraftServer.TICK_MS * 1000000L;
+            long nextTickTime = System.nanoTime();
+            int skippedTicks = 0;
             while (!stopRequested) {
-                currentTime = System.nanoTime();
+                final long[] phaseTimes = new long[TickTimings.Phase.values().length];
+                final long tickStart = System.nanoTime();
+                long phaseStart = tickStart;
                 final long time = System.currentTimeMillis();
 
                 //Tick Callbacks
                 tickStartCallbacks.forEach(Runnable::run);
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.START_CALLBACKS, phaseStart);
 
                 List<Future<?>> futures;
 
@@ -69,9 +88,11 @@ public final class UpdateManager {
                 synchronized (this) {
                     futures = threadProvider.update(time);
                 }
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.THREAD_PROVIDER, phaseStart);
 
                 // Waiting players update (newly connected waiting to get into the server)
                 entityManager.updateWaitingPlayers();
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.WAITING_PLAYERS, phaseStart);
 
                 // Keep Alive Handling
                 final KeepAlivePacket keepAlivePacket = new KeepAlivePacket(time);
@@ -84,6 +105,7 @@ public final class UpdateManager {
                         player.kick(TIMEOUT_TEXT);
                     }
                 }
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.KEEP_ALIVE, phaseStart);
 
                 for (final Future<?> future : futures) {
                     try {
@@ -92,26 +114,58 @@ public final class UpdateManager {
                         e.printStackTrace();
                     }
                 }
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.FUTURES, phaseStart);
 
+                // Send the block changes of the tick
+                for (Instance instance : instanceManager.getInstances()) {
+                    if (instance instanceof InstanceContainer)
+                        ((InstanceContainer) instance).sendBlockChanges();
+                }
+                phaseStart = endPhase(phaseTimes, TickTimings.Phase.BLOCK_CHANGES, phaseStart);
+
+                // Send all the packets written during the tick
+                for (Player player : connectionManager.getOnlinePlayers()) {
+                    player.getPlayerConnection().flush();
+                }
+                endPhase(phaseTimes, TickTimings.Phase.FLUSH, phaseStart);
 
                 //Tick Callbacks
-                double tickTime = (System.nanoTime() - currentTime) / 1000000D;
-                tickEndCallbacks.forEach(doubleConsumer -> doubleConsumer.accept(tickTime));
+                final long tickTime = System.nanoTime() - tickStart;
+                final double tickTimeMs = tickTime / 1000000D;
+                tickEndCallbacks.forEach(doubleConsumer -> doubleConsumer.accept(tickTimeMs));
+                // The end callbacks cannot receive their own time, only the monitors do
+                final long tickEnd = endPhase(phaseTimes, TickTimings.Phase.END_CALLBACKS, tickStart + tickTime);
+                if (!tickMonitors.isEmpty()) {
+                    final TickTimings tickTimings = new TickTimings(phaseTimes, tickEnd - tickStart, skippedTicks);
+                    tickMonitors.forEach(consumer -> consumer.accept(tickTimings));
+                }
 
-                // Sleep until next tick
-                long sleepTime = (tickDistance - (System.nanoTime() - currentTime)) / 1000000;
-                sleepTime = Math.max(1, sleepTime);
+                // Schedule the next tick based on the deadline of this one, not on when it ended
+                nextTickTime += tickDistance;
+                skippedTicks = 0;
+                final long lateness = System.nanoTime() - nextTickTime;
+                if (lateness > tickDistance * MAX_CATCH_UP_TICKS) {
+                    // Too late to catch up, drop the missed ticks
+                    skippedTicks = (int) (lateness / tickDistance);
+                    nextTickTime += skippedTicks * tickDistance;
+                }
 
-                try {
-                    Thread.sleep(sleepTime);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
+                // Sleep until next tick
+                long remaining;
+                while ((remaining = nextTickTime - System.nanoTime()) > 0 && !stopRequested) {
+                    LockSupport.parkNanos(remaining);
                 }
             }
 
         });
     }
 
+    private static long endPhase(long[] phaseTimes, TickTimings.Phase phase, long phaseStart) {
+        final long now = System.nanoTime();
+        phaseTimes[phase.ordinal()] = now - phaseStart;
+        return now;
+    }
+
     /**
      * Get the current thread provider
      *
@@ -158,6 +212,17 @@ public final class UpdateManager {
         this.threadProvider.onChunkUnload(instance, chunkX, chunkZ);
     }
 
+    /**
+     * Signal the thread provider that an instance has been unregistered
+     *
+     * @param instance the unregistered instance
+     */
+    public synchronized void signalInstanceDelete(Instance instance) {
+        if (this.threadProvider == null)
+            return;
+        this.threadProvider.onInstanceDelete(instance);
+    }
+
     public void addTickStartCallback(Runnable callback) {
         tickStartCallbacks.add(callback);
     }
@@ -174,6 +239,19 @@ public final class UpdateManager {
         tickEndCallbacks.remove(callback);
     }
 
+    /**
+     * Add a callback called at the end of every tick with the time spent in each of its phases
+     *
+     * @param monitor the callback receiving the timings of the tick
+     */
+    public void addTickMonitor(Consumer<TickTimings> monitor) {
+        tickMonitors.add(monitor);
+    }
+
+    public void removeTickMonitor(Consumer<TickTimings> monitor) {
+        tickMonitors.remove(monitor);
+    }
+
     /**
      * Stop the server loop
      */
@@ -59,12 +59,10 @@ public interface Viewable {
      * It is better than looping through the viewers
      * to send a packet since it is here only serialized once
      *
-     * @param packets the packets to send
+     * @param packets the packets to send, received in order
      */
     default void sendPacketsToViewers(ServerPacket... packets) {
-        for (ServerPacket packet : packets) {
-            PacketWriterUtils.writeAndSend(getViewers(), packet);
-        }
+        PacketWriterUtils.writeAndSend(getViewers(), packets);
     }
 
     /**
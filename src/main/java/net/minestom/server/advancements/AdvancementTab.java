@@ -37,7 +37,7 @@ public class AdvancementTab implements Viewable {
         cacheAdvancement(rootIdentifier, root, null);
 
         final AdvancementsPacket removePacket = AdvancementUtils.getRemovePacket(new String[]{rootIdentifier});
-        this.removeBuffer = PacketUtils.writePacket(removePacket);
+        this.removeBuffer = PacketUtils.writeUnpooledPacket(removePacket);
     }
 
     /**
@@ -81,7 +81,7 @@ public class AdvancementTab implements Viewable {
      * Update the packet buffer
      */
     protected void updatePacket() {
-        this.createBuffer = PacketUtils.writePacket(createPacket());
+        this.createBuffer = PacketUtils.writeUnpooledPacket(createPacket());
     }
 
     /**
@@ -0,0 +1,62 @@
+package net.minestom.server.benchmark;
+
+/**
+ * The time spent in each phase of a server tick, given to the tick monitors of the {@link net.minestom.server.UpdateManager}
+ */
+public class TickTimings {
+
+    private final long[] phaseTimes;
+    private final long totalTime;
+    private final int skippedTicks;
+
+    public TickTimings(long[] phaseTimes, long totalTime, int skippedTicks) {
+        this.phaseTimes = phaseTimes;
+        this.totalTime = totalTime;
+        this.skippedTicks = skippedTicks;
+    }
+
+    /**
+     * Get the time spent in a phase of the tick
+     *
+     * @param phase the tick phase
+     * @return the time spent in {@code phase} in nanoseconds
+     */
+    public long getTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Get the total time of the tick, from the start callbacks to the end callbacks (included)
+     * <p>
+     * The end callbacks receive the time of the tick before they run, without {@link Phase#END_CALLBACKS}
+     *
+     * @return the tick time in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Get the number of ticks dropped before this one because the server was too late to catch them up
+     *
+     * @return the number of skipped ticks
+     */
+    public int getSkippedTicks() {
+        return skippedTicks;
+    }
+
+    /**
+     * The measured phases of a tick, in execution order
+     */
+    public enum Phase {
+        START_CALLBACKS,
+        THREAD_PROVIDER,
+        WAITING_PLAYERS,
+        KEEP_ALIVE,
+        FUTURES,
+        BLOCK_CHANGES,
+        FLUSH,
+        END_CALLBACKS
+    }
+
+}
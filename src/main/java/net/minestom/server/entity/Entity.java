@@ -38,6 +38,13 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+/**
+ * Base class of all the entities
+ * <p>
+ * The metadata is encoded with {@link #getMetadataConsumer()} and {@link #fillMetadataIndex(BinaryWriter, int)}.
+ * Its encoding is cached for the new viewers, so subclasses must call {@link #sendMetadataIndex(int)}
+ * each time a value written in the metadata changes, including values derived from other fields.
+ */
 public abstract class Entity implements Viewable, EventHandler, DataContainer {
 
     private static final Map<Integer, Entity> entityById = new ConcurrentHashMap<>();
@@ -93,6 +100,9 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
     // Synchronization
     private static final long SYNCHRONIZATION_DELAY = 1500; // In ms
     private long lastSynchronizationTime;
+    private final EntityTracker tracker = new EntityTracker(this);
+
+    private final EntityMetadata metadata = new EntityMetadata(this);
 
     private final Map<Class<? extends Event>, List<EventCallback>> eventCallbacks = new ConcurrentHashMap<>();
 
@@ -237,6 +247,10 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
      */
     public void setView(float yaw, float pitch) {
         refreshView(yaw, pitch);
+        if (!(this instanceof Player)) {
+            // Sent by the tracker at the end of the tick
+            return;
+        }
 
         EntityRotationPacket entityRotationPacket = new EntityRotationPacket();
         entityRotationPacket.entityId = getEntityId();
@@ -331,181 +345,196 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
         if (instance == null)
             return;
 
-        if (scheduledRemoveTime != 0) { // Any entity with scheduled remove does not update
-            final boolean finished = time >= scheduledRemoveTime;
-            if (finished) {
-                remove();
+        try {
+            if (scheduledRemoveTime != 0) { // Any entity with scheduled remove does not update
+                final boolean finished = time >= scheduledRemoveTime;
+                if (finished) {
+                    remove();
+                }
+                return;
             }
-            return;
-        }
 
-        if (shouldRemove()) {
-            remove();
-            return;
-        }
-
-        BlockPosition blockPosition = position.toBlockPosition();
-        if (!ChunkUtils.isLoaded(instance, position.getX(), position.getZ()) || !ChunkUtils.isLoaded(instance, blockPosition.getX(), blockPosition.getZ())) {
-            // No update for entities in unloaded chunk
-            return;
-        }
+            if (shouldRemove()) {
+                remove();
+                return;
+            }
 
-        synchronized (nextTick) {
-            for (final Consumer<Entity> e : nextTick) {
-                e.accept(this);
+            BlockPosition blockPosition = position.toBlockPosition();
+            if (!ChunkUtils.isLoaded(instance, position.getX(), position.getZ()) || !ChunkUtils.isLoaded(instance, blockPosition.getX(), blockPosition.getZ())) {
+                // No update for entities in unloaded chunk
+                return;
             }
-            nextTick.clear();
-        }
-        // Synchronization with updated fields in #getPosition()
-        {
-            // X/Y/Z axis
-            if (cacheX != position.getX() ||
-                    cacheY != position.getY() ||
-                    cacheZ != position.getZ()) {
-                teleport(position);
+
+            synchronized (nextTick) {
+                for (final Consumer<Entity> e : nextTick) {
+                    e.accept(this);
+                }
+                nextTick.clear();
             }
-            // Yaw/Pitch
-            if (cacheYaw != position.getYaw() ||
-                    cachePitch != position.getPitch()) {
-                setView(position);
+            // Synchronization with updated fields in #getPosition()
+            {
+                // X/Y/Z axis
+                if (cacheX != position.getX() ||
+                        cacheY != position.getY() ||
+                        cacheZ != position.getZ()) {
+                    teleport(position);
+                }
+                // Yaw/Pitch
+                if (cacheYaw != position.getYaw() ||
+                        cachePitch != position.getPitch()) {
+                    setView(position);
+                }
             }
-        }
 
-        if (shouldUpdate(time)) {
-            this.lastUpdate = time;
+            if (shouldUpdate(time)) {
+                this.lastUpdate = time;
 
-            // Velocity
-            final boolean applyVelocity = !PlayerUtils.isNettyClient(this) ||
-                    (PlayerUtils.isNettyClient(this) && hasVelocity());
-            if (applyVelocity) {
-                final float tps = MinecraftServer.TICK_PER_SECOND;
-                float newX = position.getX() + velocity.getX() / tps;
-                float newY = position.getY() + velocity.getY() / tps;
-                float newZ = position.getZ() + velocity.getZ() / tps;
+                // Velocity
+                final boolean applyVelocity = !PlayerUtils.isNettyClient(this) ||
+                        (PlayerUtils.isNettyClient(this) && hasVelocity());
+                if (applyVelocity) {
+                    final float tps = MinecraftServer.TICK_PER_SECOND;
+                    float newX = position.getX() + velocity.getX() / tps;
+                    float newY = position.getY() + velocity.getY() / tps;
+                    float newZ = position.getZ() + velocity.getZ() / tps;
 
-                Position newPosition = new Position(newX, newY, newZ);
+                    Position newPosition = new Position(newX, newY, newZ);
 
-                if (!noGravity) {
-                    velocity.setY(velocity.getY() - gravityDragPerTick * tps);
-                }
+                    if (!noGravity) {
+                        velocity.setY(velocity.getY() - gravityDragPerTick * tps);
+                    }
 
-                Vector newVelocityOut = new Vector();
-                final Vector deltaPos = new Vector(
-                        getVelocity().getX() / tps,
-                        getVelocity().getY() / tps,
-                        getVelocity().getZ() / tps
-                );
-                onGround = CollisionUtils.handlePhysics(this, deltaPos, newPosition, newVelocityOut);
-
-                // Check chunk
-                if (!ChunkUtils.isLoaded(instance, newPosition.getX(), newPosition.getZ())) {
-                    return;
-                }
+                    Vector newVelocityOut = new Vector();
+                    final Vector deltaPos = new Vector(
+                            getVelocity().getX() / tps,
+                            getVelocity().getY() / tps,
+                            getVelocity().getZ() / tps
+                    );
+                    onGround = CollisionUtils.handlePhysics(this, deltaPos, newPosition, newVelocityOut);
+
+                    // Check chunk
+                    if (!ChunkUtils.isLoaded(instance, newPosition.getX(), newPosition.getZ())) {
+                        return;
+                    }
 
-                // World border collision
-                {
-                    final WorldBorder worldBorder = instance.getWorldBorder();
-                    final WorldBorder.CollisionAxis collisionAxis = worldBorder.getCollisionAxis(newPosition);
-                    switch (collisionAxis) {
-                        case NONE:
-                            // Apply velocity + gravity
-                            refreshPosition(newPosition);
-                            break;
-                        case BOTH:
-                            // Apply Y velocity/gravity
-                            refreshPosition(position.getX(), newPosition.getY(), position.getZ());
-                            break;
-                        case X:
-                            // Apply Y/Z velocity/gravity
-                            refreshPosition(position.getX(), newPosition.getY(), newPosition.getZ());
-                            break;
-                        case Z:
-                            // Apply X/Y velocity/gravity
-                            refreshPosition(newPosition.getX(), newPosition.getY(), position.getZ());
-                            break;
+                    // World border collision
+                    {
+                        final WorldBorder worldBorder = instance.getWorldBorder();
+                        final WorldBorder.CollisionAxis collisionAxis = worldBorder.getCollisionAxis(newPosition);
+                        switch (collisionAxis) {
+                            case NONE:
+                                // Apply velocity + gravity
+                                refreshPosition(newPosition);
+                                break;
+                            case BOTH:
+                                // Apply Y velocity/gravity
+                                refreshPosition(position.getX(), newPosition.getY(), position.getZ());
+                                break;
+                            case X:
+                                // Apply Y/Z velocity/gravity
+                                refreshPosition(position.getX(), newPosition.getY(), newPosition.getZ());
+                                break;
+                            case Z:
+                                // Apply X/Y velocity/gravity
+                                refreshPosition(newPosition.getX(), newPosition.getY(), position.getZ());
+                                break;
+                        }
                     }
-                }
 
-                velocity.copy(newVelocityOut);
-                velocity.multiply(tps);
+                    velocity.copy(newVelocityOut);
+                    velocity.multiply(tps);
+
+                    float drag;
+                    if (onGround) {
+                        final CustomBlock customBlock =
+                                instance.getCustomBlock(blockPosition);
+                        if (customBlock != null) {
+                            // Custom drag
+                            drag = customBlock.getDrag(instance, blockPosition);
+                        } else {
+                            // Default ground drag
+                            drag = 0.5f;
+                        }
 
-                float drag;
-                if (onGround) {
-                    final CustomBlock customBlock =
-                            instance.getCustomBlock(blockPosition);
-                    if (customBlock != null) {
-                        // Custom drag
-                        drag = customBlock.getDrag(instance, blockPosition);
+                        // Stop player velocity
+                        if (PlayerUtils.isNettyClient(this)) {
+                            velocity.zero();
+                        }
                     } else {
-                        // Default ground drag
-                        drag = 0.5f;
+                        drag = 0.98f; // air drag
                     }
-
-                    // Stop player velocity
-                    if (PlayerUtils.isNettyClient(this)) {
-                        velocity.zero();
+                    velocity.setX(velocity.getX() * drag);
+                    velocity.setZ(velocity.getZ() * drag);
+
+                    // The position is sent at the end of the tick
+                    if (shouldSendVelocityUpdate(time)) {
+                        if (this instanceof Player) {
+                            sendVelocityPacket();
+                        } else {
+                            this.tracker.markVelocityChanged();
+                        }
+                        lastVelocityUpdateTime = time;
                     }
-                } else {
-                    drag = 0.98f; // air drag
                 }
-                velocity.setX(velocity.getX() * drag);
-                velocity.setZ(velocity.getZ() * drag);
 
-                sendSynchronization();
-
-                if (shouldSendVelocityUpdate(time)) {
-                    sendVelocityPacket();
-                    lastVelocityUpdateTime = time;
-                }
-            }
-
-            // handle block contacts
-            final int minX = (int) Math.floor(boundingBox.getMinX());
-            final int maxX = (int) Math.ceil(boundingBox.getMaxX());
-            final int minY = (int) Math.floor(boundingBox.getMinY());
-            final int maxY = (int) Math.ceil(boundingBox.getMaxY());
-            final int minZ = (int) Math.floor(boundingBox.getMinZ());
-            final int maxZ = (int) Math.ceil(boundingBox.getMaxZ());
-            final BlockPosition tmpPosition = new BlockPosition(0, 0, 0); // allow reuse
-            for (int y = minY; y <= maxY; y++) {
-                for (int x = minX; x <= maxX; x++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        final Chunk chunk = instance.getChunkAt(x, z);
-                        if (!ChunkUtils.isLoaded(chunk))
-                            continue;
-
-                        final CustomBlock customBlock = chunk.getCustomBlock(x, y, z);
-                        if (customBlock != null) {
-                            tmpPosition.setX(x);
-                            tmpPosition.setY(y);
-                            tmpPosition.setZ(z);
-                            // checks that we are actually in the block, and not just here because of a rounding error
-                            if (boundingBox.intersect(tmpPosition)) {
-                                // TODO: replace with check with custom block bounding box
-                                customBlock.handleContact(instance, tmpPosition, this);
+                // handle block contacts
+                final int minX = (int) Math.floor(boundingBox.getMinX());
+                final int maxX = (int) Math.ceil(boundingBox.getMaxX());
+                final int minY = (int) Math.floor(boundingBox.getMinY());
+                final int maxY = (int) Math.ceil(boundingBox.getMaxY());
+                final int minZ = (int) Math.floor(boundingBox.getMinZ());
+                final int maxZ = (int) Math.ceil(boundingBox.getMaxZ());
+                final BlockPosition tmpPosition = new BlockPosition(0, 0, 0); // allow reuse
+                for (int y = minY; y <= maxY; y++) {
+                    for (int x = minX; x <= maxX; x++) {
+                        for (int z = minZ; z <= maxZ; z++) {
+                            final Chunk chunk = instance.getChunkAt(x, z);
+                            if (!ChunkUtils.isLoaded(chunk))
+                                continue;
+
+                            final CustomBlock customBlock = chunk.getCustomBlock(x, y, z);
+                            if (customBlock != null) {
+                                tmpPosition.setX(x);
+                                tmpPosition.setY(y);
+                                tmpPosition.setZ(z);
+                                // checks that we are actually in the block, and not just here because of a rounding error
+                                if (boundingBox.intersect(tmpPosition)) {
+                                    // TODO: replace with check with custom block bounding box
+                                    customBlock.handleContact(instance, tmpPosition, this);
+                                }
                             }
                         }
                     }
                 }
-            }
 
-            handleVoid();
+                handleVoid();
 
-            // Call the abstract update method
-            update(time);
+                // Call the abstract update method
+                update(time);
 
-            ticks++;
-            callEvent(EntityTickEvent.class, tickEvent); // reuse tickEvent to avoid recreating it each tick
-        }
+                ticks++;
+                callEvent(EntityTickEvent.class, tickEvent); // reuse tickEvent to avoid recreating it each tick
+            }
 
-        // Scheduled synchronization
-        if (time - lastSynchronizationTime >= SYNCHRONIZATION_DELAY) {
-            lastSynchronizationTime = time;
-            sendSynchronization();
-        }
+            // Scheduled synchronization
+            final boolean synchronize = time - lastSynchronizationTime >= SYNCHRONIZATION_DELAY;
+            if (synchronize) {
+                lastSynchronizationTime = time;
+            }
+            if (this instanceof Player) {
+                // Players send their own relative moves
+                if (synchronize)
+                    sendSynchronization();
+            } else {
+                this.tracker.update(synchronize);
+            }
 
-        if (shouldRemove()) {
-            remove();
+            if (shouldRemove()) {
+                remove();
+            }
+        } finally {
+            // Modified metadata indexes, also sent when the tick stops early (unloaded chunk, scheduled removal)
+            this.metadata.flush();
         }
     }
 
@@ -972,6 +1001,8 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
 
         final Instance instance = getInstance();
         if (instance != null) {
+            instance.getEntityIndex().move(this, lastX, lastY, lastZ, x, y, z);
+
             final Chunk lastChunk = instance.getChunkAt(lastX, lastZ);
             final Chunk newChunk = instance.getChunkAt(x, z);
             if (lastChunk != null && newChunk != null && lastChunk != newChunk) {
@@ -1189,14 +1220,13 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
 
     /**
      * Used to sync entities together, and sent when adding viewers
+     * <p>
+     * The metadata is encoded with {@link #getMetadataConsumer()} and cached until {@link #sendMetadataIndex(int)} is called
      *
      * @return The {@link EntityMetaDataPacket} related to this entity
      */
     public EntityMetaDataPacket getMetadataPacket() {
-        EntityMetaDataPacket metaDataPacket = new EntityMetaDataPacket();
-        metaDataPacket.entityId = getEntityId();
-        metaDataPacket.consumer = getMetadataConsumer();
-        return metaDataPacket;
+        return metadata.getMetadataPacket();
     }
 
     /**
@@ -1217,17 +1247,15 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
     }
 
     /**
-     * Send a {@link EntityMetaDataPacket} containing only the specified index
-     * The index is wrote using {@link #fillMetadataIndex(BinaryWriter, int)}
+     * Mark a metadata index as modified, needs to be called after each metadata modification
+     * <p>
+     * All the indexes modified during a tick are sent at its end in a single {@link EntityMetaDataPacket},
+     * they are written using {@link #fillMetadataIndex(BinaryWriter, int)}
      *
      * @param index the metadata index
      */
     protected void sendMetadataIndex(int index) {
-        EntityMetaDataPacket metaDataPacket = new EntityMetaDataPacket();
-        metaDataPacket.entityId = getEntityId();
-        metaDataPacket.consumer = packet -> fillMetadataIndex(packet, index);
-
-        sendPacketToViewersAndSelf(metaDataPacket);
+        this.metadata.markDirty(index);
     }
 
     /**
@@ -1334,6 +1362,7 @@ public abstract class Entity implements Viewable, EventHandler, DataContainer {
         entityTeleportPacket.position = getPosition();
         entityTeleportPacket.onGround = isOnGround();
         sendPacketToViewers(entityTeleportPacket);
+        this.tracker.synchronize(getPosition());
     }
 
     /**
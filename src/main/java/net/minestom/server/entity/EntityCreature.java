@@ -1,7 +1,6 @@
 package net.minestom.server.entity;
 
 import com.extollit.gaming.ai.path.HydrazinePathFinder;
-import com.extollit.gaming.ai.path.model.IPath;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.attribute.Attribute;
 import net.minestom.server.entity.ai.GoalSelector;
@@ -26,14 +25,11 @@ import net.minestom.server.utils.validate.Check;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
 public abstract class EntityCreature extends LivingEntity {
 
     private PFPathingEntity pathingEntity = new PFPathingEntity(this);
-    private HydrazinePathFinder pathFinder;
-    private IPath path;
     private Position pathPosition;
 
     protected List<GoalSelector> goalSelectors = new ArrayList<>();
@@ -51,8 +47,6 @@ public abstract class EntityCreature extends LivingEntity {
     private ItemStack leggings;
     private ItemStack boots;
 
-    private ReentrantLock pathLock = new ReentrantLock();
-
 
     public EntityCreature(EntityType entityType, Position spawnPosition) {
         super(entityType, spawnPosition);
@@ -118,24 +112,22 @@ public abstract class EntityCreature extends LivingEntity {
         }
 
 
-        // Path finding
+        // Path finding, the path is computed by the instance pathing service
         {
             if (pathPosition != null) {
-                this.pathLock.lock();
-                this.path = pathFinder.updatePathFor(pathingEntity);
-
-                if (path != null) {
-                    final float speed = getAttributeValue(Attribute.MOVEMENT_SPEED);
+                if (pathingEntity.hasPath()) {
                     final Position targetPosition = pathingEntity.getTargetPosition();
-                    moveTowards(targetPosition, speed);
-                } else {
-                    if (pathPosition != null) {
-                        this.pathPosition = null;
-                        this.pathFinder.reset();
+                    if (targetPosition != null) {
+                        final float speed = getAttributeValue(Attribute.MOVEMENT_SPEED);
+                        moveTowards(targetPosition, speed);
                     }
+                    if (pathingEntity.pollJump()) {
+                        jump(1);
+                    }
+                } else {
+                    // Path completed or not found
+                    this.pathPosition = null;
                 }
-
-                this.pathLock.unlock();
             }
         }
 
@@ -145,7 +137,8 @@ public abstract class EntityCreature extends LivingEntity {
     @Override
     public void setInstance(Instance instance) {
         super.setInstance(instance);
-        this.pathFinder = new HydrazinePathFinder(pathingEntity, instance.getInstanceSpace());
+        this.pathPosition = null;
+        this.pathingEntity.setPathFinder(new HydrazinePathFinder(pathingEntity, instance.getInstanceSpace()));
     }
 
     @Override
@@ -325,15 +318,18 @@ public abstract class EntityCreature extends LivingEntity {
     }
 
     /**
-     * Retrieve the path to {@code position} and ask the entity to follow the path
+     * Ask the instance pathing service to find the path to {@code position}, the entity follows it once computed
      * <p>
      * Can be set to null to reset the pathfinder
      * <p>
      * The position is cloned, if you want the entity to continually follow this position object
      * you need to call this when you want the path to update
+     * <p>
+     * The path is computed asynchronously, {@link #getPathPosition()} becomes null
+     * if no path is found or once the path is completed
      *
      * @param position the position to find the path to, null to reset the pathfinder
-     * @return true if a path has been found
+     * @return true if the path computation has been scheduled
      */
     public boolean setPathTo(Position position) {
         if (position != null && getPathPosition() != null && position.isSimilar(getPathPosition())) {
@@ -341,41 +337,37 @@ public abstract class EntityCreature extends LivingEntity {
             return false;
         }
 
-        if (pathFinder == null) {
+        if (instance == null) {
             // Unexpected error
             return false;
         }
 
-        this.pathLock.lock();
-
-        this.pathFinder.reset();
         if (position == null) {
-            this.pathLock.unlock();
+            this.pathPosition = null;
+            this.pathingEntity.requestPath(null);
             return false;
         }
 
         // Can't path outside of the world border
         final WorldBorder worldBorder = instance.getWorldBorder();
         if (!worldBorder.isInside(position)) {
-            this.pathLock.unlock();
+            this.pathPosition = null;
+            this.pathingEntity.requestPath(null);
             return false;
         }
 
         // Can't path in an unloaded chunk
         final Chunk chunk = instance.getChunkAt(position);
         if (!ChunkUtils.isLoaded(chunk)) {
-            this.pathLock.unlock();
+            this.pathPosition = null;
+            this.pathingEntity.requestPath(null);
             return false;
         }
 
         final Position targetPosition = position.clone();
-
-        this.path = pathFinder.initiatePathTo(position.getX(), position.getY(), position.getZ());
-        this.pathLock.unlock();
-        final boolean success = path != null;
-        this.pathPosition = success ? targetPosition : null;
-
-        return success;
+        this.pathPosition = targetPosition;
+        this.pathingEntity.requestPath(targetPosition);
+        return true;
     }
 
     /**
@@ -0,0 +1,104 @@
+package net.minestom.server.entity;
+
+import net.minestom.server.network.packet.server.play.EntityMetaDataPacket;
+import net.minestom.server.utils.binary.BinaryWriter;
+import net.minestom.server.utils.validate.Check;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Track the modified metadata indexes of an {@link Entity}
+ * <p>
+ * Modified indexes are only marked dirty and sent to the viewers in a single {@link EntityMetaDataPacket}
+ * at the end of the entity tick, with their value at that time.
+ * The encoding of the whole metadata, sent to the new viewers, is cached until an index is modified.
+ */
+class EntityMetadata {
+
+    // The dirty indexes are stored as bits
+    private static final int MAX_INDEX = Long.SIZE - 1;
+
+    private final Entity entity;
+
+    private final AtomicLong dirtyIndexes = new AtomicLong();
+
+    // Incremented on each modification, the cache is only set if nothing has been modified while encoding it
+    private long version;
+    private volatile byte[] cachedMetadata;
+
+    EntityMetadata(Entity entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Mark a metadata index to be sent at the end of the tick
+     *
+     * @param index the modified index
+     * @throws IllegalArgumentException if {@code index} is not between 0 and 63
+     */
+    void markDirty(int index) {
+        Check.argCondition(index < 0 || index > MAX_INDEX, "The metadata index must be between 0 and " + MAX_INDEX);
+        this.dirtyIndexes.getAndAccumulate(1L << index, (dirty, bit) -> dirty | bit);
+        invalidate();
+    }
+
+    private synchronized void invalidate() {
+        this.version++;
+        this.cachedMetadata = null;
+    }
+
+    /**
+     * Get a packet containing the whole metadata of the entity, encoded with {@link Entity#getMetadataConsumer()}
+     *
+     * @return the metadata packet
+     */
+    EntityMetaDataPacket getMetadataPacket() {
+        byte[] metadata = cachedMetadata;
+        if (metadata == null) {
+            final long version;
+            synchronized (this) {
+                version = this.version;
+            }
+
+            BinaryWriter writer = new BinaryWriter();
+            entity.getMetadataConsumer().accept(writer);
+            metadata = writer.toByteArray();
+
+            synchronized (this) {
+                if (this.version == version)
+                    this.cachedMetadata = metadata;
+            }
+        }
+
+        final byte[] encodedMetadata = metadata;
+        EntityMetaDataPacket metaDataPacket = new EntityMetaDataPacket();
+        metaDataPacket.entityId = entity.getEntityId();
+        metaDataPacket.consumer = packet -> packet.writeBytes(encodedMetadata);
+        return metaDataPacket;
+    }
+
+    /**
+     * Send the indexes modified since the last call to the viewers, does nothing if none has been
+     */
+    void flush() {
+        final long dirty = dirtyIndexes.getAndSet(0);
+        if (dirty == 0)
+            return;
+
+        // Encoded now, so the packet contains the values of this tick even if it is written later
+        BinaryWriter writer = new BinaryWriter();
+        long remaining = dirty;
+        while (remaining != 0) {
+            final int index = Long.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+            entity.fillMetadataIndex(writer, index);
+        }
+        final byte[] encodedMetadata = writer.toByteArray();
+
+        EntityMetaDataPacket metaDataPacket = new EntityMetaDataPacket();
+        metaDataPacket.entityId = entity.getEntityId();
+        metaDataPacket.consumer = packet -> packet.writeBytes(encodedMetadata);
+        entity.sendPacketToViewersAndSelf(metaDataPacket);
+    }
+
+}
@@ -0,0 +1,157 @@
+package net.minestom.server.entity;
+
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.play.*;
+import net.minestom.server.utils.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synchronize the position, view and velocity of a non-player {@link Entity} with its viewers
+ * <p>
+ * Called at the end of the entity tick, it compares the entity with the state last sent to the viewers and sends
+ * nothing, a relative move, a rotation, or both at once. A teleport is only sent when the move does not fit
+ * in the relative move range or when a synchronization is due (see {@link Entity#askSynchronization()}).
+ * The head look and velocity are sent together with the movement so the viewers receive them in the same flush.
+ */
+class EntityTracker {
+
+    // Relative moves are in 1/4096 of a block
+    private static final double POSITION_SCALE = 4096;
+
+    private final Entity entity;
+
+    // State known by the viewers, positions are scaled by POSITION_SCALE and angles encoded as bytes
+    private long trackedX, trackedY, trackedZ;
+    private byte trackedYaw, trackedPitch;
+    private boolean trackedOnGround;
+
+    private volatile boolean velocityChanged;
+
+    EntityTracker(Entity entity) {
+        this.entity = entity;
+    }
+
+    /**
+     * Send the velocity with the next movement update
+     */
+    void markVelocityChanged() {
+        this.velocityChanged = true;
+    }
+
+    /**
+     * Send the changes since the last update to the viewers
+     *
+     * @param synchronize true to send the absolute position
+     */
+    void update(boolean synchronize) {
+        final Position position = entity.getPosition();
+        final boolean onGround = entity.isOnGround();
+
+        final long x = scale(position.getX());
+        final long y = scale(position.getY());
+        final long z = scale(position.getZ());
+        final byte yaw = encodeAngle(position.getYaw());
+        final byte pitch = encodeAngle(position.getPitch());
+
+        final long deltaX = x - trackedX;
+        final long deltaY = y - trackedY;
+        final long deltaZ = z - trackedZ;
+
+        final boolean positionChanged = deltaX != 0 || deltaY != 0 || deltaZ != 0 || onGround != trackedOnGround;
+        final boolean viewChanged = yaw != trackedYaw || pitch != trackedPitch;
+        final boolean sendVelocity = velocityChanged;
+        this.velocityChanged = false;
+
+        if (!synchronize && !positionChanged && !viewChanged && !sendVelocity)
+            return;
+
+        if (entity.getViewers().isEmpty()) {
+            // Nobody to send it to, the new viewers receive the current position
+            synchronize(position);
+            return;
+        }
+
+        List<ServerPacket> packets = new ArrayList<>(3);
+        if (synchronize || !fitsShort(deltaX) || !fitsShort(deltaY) || !fitsShort(deltaZ)) {
+            EntityTeleportPacket entityTeleportPacket = new EntityTeleportPacket();
+            entityTeleportPacket.entityId = entity.getEntityId();
+            entityTeleportPacket.position = position.clone();
+            entityTeleportPacket.onGround = onGround;
+            packets.add(entityTeleportPacket);
+        } else if (positionChanged && viewChanged) {
+            EntityPositionAndRotationPacket entityPositionAndRotationPacket = new EntityPositionAndRotationPacket();
+            entityPositionAndRotationPacket.entityId = entity.getEntityId();
+            entityPositionAndRotationPacket.deltaX = (short) deltaX;
+            entityPositionAndRotationPacket.deltaY = (short) deltaY;
+            entityPositionAndRotationPacket.deltaZ = (short) deltaZ;
+            entityPositionAndRotationPacket.yaw = position.getYaw();
+            entityPositionAndRotationPacket.pitch = position.getPitch();
+            entityPositionAndRotationPacket.onGround = onGround;
+            packets.add(entityPositionAndRotationPacket);
+        } else if (positionChanged) {
+            EntityPositionPacket entityPositionPacket = new EntityPositionPacket();
+            entityPositionPacket.entityId = entity.getEntityId();
+            entityPositionPacket.deltaX = (short) deltaX;
+            entityPositionPacket.deltaY = (short) deltaY;
+            entityPositionPacket.deltaZ = (short) deltaZ;
+            entityPositionPacket.onGround = onGround;
+            packets.add(entityPositionPacket);
+        } else if (viewChanged) {
+            EntityRotationPacket entityRotationPacket = new EntityRotationPacket();
+            entityRotationPacket.entityId = entity.getEntityId();
+            entityRotationPacket.yaw = position.getYaw();
+            entityRotationPacket.pitch = position.getPitch();
+            entityRotationPacket.onGround = onGround;
+            packets.add(entityRotationPacket);
+        }
+
+        if (viewChanged || synchronize) {
+            EntityHeadLookPacket entityHeadLookPacket = new EntityHeadLookPacket();
+            entityHeadLookPacket.entityId = entity.getEntityId();
+            entityHeadLookPacket.yaw = position.getYaw();
+            packets.add(entityHeadLookPacket);
+        }
+
+        if (sendVelocity) {
+            packets.add(entity.getVelocityPacket());
+        }
+
+        this.trackedX = x;
+        this.trackedY = y;
+        this.trackedZ = z;
+        this.trackedYaw = yaw;
+        this.trackedPitch = pitch;
+        this.trackedOnGround = onGround;
+
+        entity.sendPacketsToViewers(packets.toArray(new ServerPacket[0]));
+    }
+
+    /**
+     * Consider {@code position} as known by the viewers, after a teleport packet has been sent
+     *
+     * @param position the position sent to the viewers
+     */
+    void synchronize(Position position) {
+        this.trackedX = scale(position.getX());
+        this.trackedY = scale(position.getY());
+        this.trackedZ = scale(position.getZ());
+        this.trackedYaw = encodeAngle(position.getYaw());
+        this.trackedPitch = encodeAngle(position.getPitch());
+        this.trackedOnGround = entity.isOnGround();
+    }
+
+    private static long scale(double value) {
+        return (long) Math.floor(value * POSITION_SCALE);
+    }
+
+    private static byte encodeAngle(float angle) {
+        return (byte) (angle * 256 / 360);
+    }
+
+    private static boolean fitsShort(long value) {
+        return value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+    }
+
+}
@@ -7,7 +7,6 @@ import net.minestom.server.event.entity.EntityDamageEvent;
 import net.minestom.server.event.entity.EntityDeathEvent;
 import net.minestom.server.event.entity.EntityFireEvent;
 import net.minestom.server.event.item.PickupItemEvent;
-import net.minestom.server.instance.Chunk;
 import net.minestom.server.inventory.EquipmentHandler;
 import net.minestom.server.item.ItemStack;
 import net.minestom.server.network.packet.server.play.CollectItemPacket;
@@ -21,7 +20,6 @@ import net.minestom.server.utils.Position;
 import net.minestom.server.utils.binary.BinaryWriter;
 import net.minestom.server.utils.time.TimeUnit;
 
-import java.util.Set;
 import java.util.function.Consumer;
 
 public abstract class LivingEntity extends Entity implements EquipmentHandler {
@@ -85,36 +83,31 @@ public abstract class LivingEntity extends Entity implements EquipmentHandler {
 
         // Items picking
         if (canPickupItem()) {
-            final Chunk chunk = instance.getChunkAt(getPosition()); // TODO check surrounding chunks
-            final Set<Entity> entities = instance.getChunkEntities(chunk);
-            for (Entity entity : entities) {
-                if (entity instanceof ItemEntity) {
-
-                    // Do not pickup if not visible
-                    if (this instanceof Player && !entity.isViewer((Player) this))
-                        continue;
-
-                    final ItemEntity itemEntity = (ItemEntity) entity;
-                    if (!itemEntity.isPickable())
-                        continue;
-
-                    final BoundingBox itemBoundingBox = itemEntity.getBoundingBox();
-                    if (expandedBoundingBox.intersect(itemBoundingBox)) {
-                        if (itemEntity.shouldRemove() || itemEntity.isRemoveScheduled())
-                            continue;
-                        final ItemStack item = itemEntity.getItemStack();
-                        PickupItemEvent pickupItemEvent = new PickupItemEvent(item);
-                        callCancellableEvent(PickupItemEvent.class, pickupItemEvent, () -> {
-                            CollectItemPacket collectItemPacket = new CollectItemPacket();
-                            collectItemPacket.collectedEntityId = itemEntity.getEntityId();
-                            collectItemPacket.collectorEntityId = getEntityId();
-                            collectItemPacket.pickupItemCount = item.getAmount();
-                            sendPacketToViewersAndSelf(collectItemPacket);
-                            entity.remove();
-                        });
-                    }
-                }
-            }
+            instance.getEntityIndex().forEachEntityIntersecting(expandedBoundingBox, entity -> {
+                if (!(entity instanceof ItemEntity))
+                    return;
+
+                // Do not pickup if not visible
+                if (this instanceof Player && !entity.isViewer((Player) this))
+                    return;
+
+                final ItemEntity itemEntity = (ItemEntity) entity;
+                if (!itemEntity.isPickable())
+                    return;
+
+                if (itemEntity.shouldRemove() || itemEntity.isRemoveScheduled())
+                    return;
+                final ItemStack item = itemEntity.getItemStack();
+                PickupItemEvent pickupItemEvent = new PickupItemEvent(item);
+                callCancellableEvent(PickupItemEvent.class, pickupItemEvent, () -> {
+                    CollectItemPacket collectItemPacket = new CollectItemPacket();
+                    collectItemPacket.collectedEntityId = itemEntity.getEntityId();
+                    collectItemPacket.collectorEntityId = getEntityId();
+                    collectItemPacket.pickupItemCount = item.getAmount();
+                    sendPacketToViewersAndSelf(collectItemPacket);
+                    entity.remove();
+                });
+            });
         }
     }
 
@@ -426,7 +419,7 @@ public abstract class LivingEntity extends Entity implements EquipmentHandler {
         this.offHand = offHand;
         this.riptideSpinAttack = riptideSpinAttack;
 
-        sendPacketToViewers(getMetadataPacket());
+        sendMetadataIndex(7);
     }
 
     protected void refreshIsDead(boolean isDead) {
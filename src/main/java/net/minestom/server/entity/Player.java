@@ -5,7 +5,6 @@ import net.minestom.server.attribute.Attribute;
 import net.minestom.server.chat.ChatParser;
 import net.minestom.server.chat.ColoredText;
 import net.minestom.server.chat.RichMessage;
-import net.minestom.server.collision.BoundingBox;
 import net.minestom.server.command.CommandManager;
 import net.minestom.server.command.CommandSender;
 import net.minestom.server.effects.Effects;
@@ -18,6 +17,7 @@ import net.minestom.server.event.item.PickupExperienceEvent;
 import net.minestom.server.event.player.*;
 import net.minestom.server.gamedata.tags.TagManager;
 import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.ChunkSendQueue;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.CustomBlock;
 import net.minestom.server.inventory.Inventory;
@@ -28,6 +28,7 @@ import net.minestom.server.network.packet.client.ClientPlayPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.login.JoinGamePacket;
 import net.minestom.server.network.packet.server.play.*;
+import net.minestom.server.network.player.NettyPlayerConnection;
 import net.minestom.server.network.player.PlayerConnection;
 import net.minestom.server.permission.Permission;
 import net.minestom.server.potion.PotionType;
@@ -45,6 +46,7 @@ import net.minestom.server.utils.MathUtils;
 import net.minestom.server.utils.Position;
 import net.minestom.server.utils.binary.BinaryWriter;
 import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.utils.player.PlayerUtils;
 import net.minestom.server.utils.validate.Check;
 import net.minestom.server.world.DimensionType;
 import net.minestom.server.world.LevelType;
@@ -75,6 +77,7 @@ public class Player extends LivingEntity implements CommandSender {
 
     protected boolean onGround;
     private final ConcurrentLinkedQueue<ClientPlayPacket> packets = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger packetCount = new AtomicInteger();
     private final LevelType levelType;
     private final PlayerSettings settings;
     private float exp;
@@ -133,6 +136,9 @@ public class Player extends LivingEntity implements CommandSender {
     // Vehicle
     private final PlayerVehicleInformation vehicleInformation = new PlayerVehicleInformation();
 
+    // Chunks waiting to be sent
+    private final ChunkSendQueue chunkSendQueue = new ChunkSendQueue();
+
     // Tick related
     private final PlayerTickEvent playerTickEvent = new PlayerTickEvent(this);
 
@@ -298,8 +304,16 @@ public class Player extends LivingEntity implements CommandSender {
         // Process received packets
         ClientPlayPacket packet;
         while ((packet = packets.poll()) != null) {
+            this.packetCount.decrementAndGet();
             packet.process(this);
         }
+        // Read the packets which did not fit in the queue
+        if (PlayerUtils.isNettyClient(this)) {
+            ((NettyPlayerConnection) playerConnection).resumeReading();
+        }
+
+        // Send the nearest loaded chunks
+        chunkSendQueue.send(this);
 
         super.update(time); // Super update (item pickup/fire management)
 
@@ -348,23 +362,18 @@ public class Player extends LivingEntity implements CommandSender {
         }
 
         // Experience orb pickup
-        final Chunk chunk = instance.getChunkAt(getPosition()); // TODO check surrounding chunks
-        final Set<Entity> entities = instance.getChunkEntities(chunk);
-        for (Entity entity : entities) {
-            if (entity instanceof ExperienceOrb) {
-                final ExperienceOrb experienceOrb = (ExperienceOrb) entity;
-                final BoundingBox itemBoundingBox = experienceOrb.getBoundingBox();
-                if (expandedBoundingBox.intersect(itemBoundingBox)) {
-                    if (experienceOrb.shouldRemove() || experienceOrb.isRemoveScheduled())
-                        continue;
-                    PickupExperienceEvent pickupExperienceEvent = new PickupExperienceEvent(experienceOrb);
-                    callCancellableEvent(PickupExperienceEvent.class, pickupExperienceEvent, () -> {
-                        short experienceCount = pickupExperienceEvent.getExperienceCount(); // TODO give to player
-                        entity.remove();
-                    });
-                }
-            }
-        }
+        instance.getEntityIndex().forEachEntityIntersecting(expandedBoundingBox, entity -> {
+            if (!(entity instanceof ExperienceOrb))
+                return;
+            final ExperienceOrb experienceOrb = (ExperienceOrb) entity;
+            if (experienceOrb.shouldRemove() || experienceOrb.isRemoveScheduled())
+                return;
+            PickupExperienceEvent pickupExperienceEvent = new PickupExperienceEvent(experienceOrb);
+            callCancellableEvent(PickupExperienceEvent.class, pickupExperienceEvent, () -> {
+                short experienceCount = pickupExperienceEvent.getExperienceCount(); // TODO give to player
+                entity.remove();
+            });
+        });
 
         // Eating animation
         if (isEating()) {
@@ -522,6 +531,8 @@ public class Player extends LivingEntity implements CommandSender {
     public void remove() {
         super.remove();
         this.packets.clear();
+        this.packetCount.set(0);
+        this.chunkSendQueue.clear();
         if (getOpenInventory() != null)
             getOpenInventory().removeViewer(this);
         // Clear all viewable entities
@@ -582,6 +593,10 @@ public class Player extends LivingEntity implements CommandSender {
                 sendDimension(instanceDimensionType);
         }
 
+        this.chunkSendQueue.clear();
+        this.chunkSendQueue.setCenter(ChunkUtils.getChunkCoordinate((int) Math.floor(position.getX())),
+                ChunkUtils.getChunkCoordinate((int) Math.floor(position.getZ())), getChunkRange());
+
         final long[] visibleChunks = ChunkUtils.getChunksInRange(position, getChunkRange());
         final int length = visibleChunks.length;
 
@@ -592,9 +607,13 @@ public class Player extends LivingEntity implements CommandSender {
 
             Consumer<Chunk> callback = (chunk) -> {
                 if (chunk != null) {
-                    chunk.addViewer(this);
-                    if (chunk.getChunkX() == Math.floorDiv((int) getPosition().getX(), 16) && chunk.getChunkZ() == Math.floorDiv((int) getPosition().getZ(), 16))
+                    if (chunk.getChunkX() == Math.floorDiv((int) getPosition().getX(), 16) && chunk.getChunkZ() == Math.floorDiv((int) getPosition().getZ(), 16)) {
+                        // Sent immediately so the player does not fall
+                        chunk.addViewer(this);
                         updateViewPosition(chunk);
+                    } else {
+                        this.chunkSendQueue.add(chunk);
+                    }
                 }
                 final boolean isLast = counter.get() == length - 1;
                 if (isLast) {
@@ -1240,6 +1259,9 @@ public class Player extends LivingEntity implements CommandSender {
 
         updateViewPosition(newChunk);
 
+        // Drop the chunks not visible anymore and send the nearest first
+        this.chunkSendQueue.setCenter(newChunk.getChunkX(), newChunk.getChunkZ(), getChunkRange());
+
         // Load new chunks
         for (int index : newChunks) {
             final long chunkIndex = updatedVisibleChunks[index];
@@ -1251,7 +1273,7 @@ public class Player extends LivingEntity implements CommandSender {
                     // Cannot load chunk (auto load is not enabled)
                     return;
                 }
-                chunk.addViewer(this);
+                this.chunkSendQueue.add(chunk);
             });
         }
     }
@@ -1770,6 +1792,15 @@ public class Player extends LivingEntity implements CommandSender {
         return vehicleInformation;
     }
 
+    /**
+     * Get the queue of the loaded chunks waiting to be sent to the player
+     *
+     * @return the player chunk send queue
+     */
+    public ChunkSendQueue getChunkSendQueue() {
+        return chunkSendQueue;
+    }
+
     protected void refreshAbilities() {
         PlayerAbilitiesPacket playerAbilitiesPacket = new PlayerAbilitiesPacket();
         playerAbilitiesPacket.invulnerable = invulnerable;
@@ -1788,9 +1819,12 @@ public class Player extends LivingEntity implements CommandSender {
      * Could be used to "simulate" a received packet, but to use at your own risk
      *
      * @param packet the packet to add in the queue
+     * @return false if the queue contains at least {@link MinecraftServer#getPacketQueueSize()} packets
+     * and the connection should stop being read, true otherwise
      */
-    public void addPacketToQueue(ClientPlayPacket packet) {
+    public boolean addPacketToQueue(ClientPlayPacket packet) {
         this.packets.add(packet);
+        return packetCount.incrementAndGet() < MinecraftServer.getPacketQueueSize();
     }
 
     /**
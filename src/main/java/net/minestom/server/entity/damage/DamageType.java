@@ -16,6 +16,7 @@ public class DamageType implements DataContainer {
 
     public static final DamageType VOID = new DamageType("attack.outOfWorld");
     public static final DamageType GRAVITY = new DamageType("attack.fall");
+    public static final DamageType EXPLOSION = new DamageType("attack.explosion");
     public static final DamageType ON_FIRE = new DamageType("attack.onFire") {
         @Override
         protected Sound getPlayerSound(Player player) {
@@ -4,14 +4,20 @@ import com.extollit.gaming.ai.path.model.ColumnarOcclusionFieldList;
 import com.extollit.gaming.ai.path.model.IBlockDescription;
 import com.extollit.gaming.ai.path.model.IColumnarSpace;
 import com.extollit.gaming.ai.path.model.IInstanceSpace;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import net.minestom.server.instance.Chunk;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class PFColumnarSpace implements IColumnarSpace {
 
     private final ColumnarOcclusionFieldList occlusionFieldList = new ColumnarOcclusionFieldList(this);
     private PFInstanceSpace instanceSpace;
     private Chunk chunk;
 
+    // Block changes (x, y, z, block state id) not yet visible to the path finders
+    private final IntArrayList pendingChanges = new IntArrayList();
+    private final AtomicBoolean changed = new AtomicBoolean();
 
     public PFColumnarSpace(PFInstanceSpace instanceSpace, Chunk chunk) {
         this.instanceSpace = instanceSpace;
@@ -38,4 +44,49 @@ public class PFColumnarSpace implements IColumnarSpace {
     public IInstanceSpace instance() {
         return instanceSpace;
     }
+
+    public Chunk getChunk() {
+        return chunk;
+    }
+
+    /**
+     * Called when a block of the chunk changes
+     * <p>
+     * The occlusion fields are only updated by the {@link PFPathingService} between two path computations,
+     * so they do not change while a path is being computed.
+     *
+     * @param x            the block X
+     * @param y            the block Y
+     * @param z            the block Z
+     * @param blockStateId the new block state id
+     */
+    public void onBlockChanged(int x, int y, int z, short blockStateId) {
+        synchronized (pendingChanges) {
+            this.pendingChanges.add(x);
+            this.pendingChanges.add(y);
+            this.pendingChanges.add(z);
+            this.pendingChanges.add(blockStateId);
+        }
+        if (changed.compareAndSet(false, true)) {
+            this.instanceSpace.onColumnarSpaceChanged(this);
+        }
+    }
+
+    /**
+     * Apply the block changes to the occlusion fields
+     * <p>
+     * Only called by the {@link PFPathingService} when no path is being computed
+     */
+    void applyBlockChanges() {
+        final int[] changes;
+        synchronized (pendingChanges) {
+            this.changed.set(false);
+            changes = pendingChanges.toIntArray();
+            this.pendingChanges.clear();
+        }
+        for (int i = 0; i < changes.length; i += 4) {
+            final PFBlockDescription blockDescription = PFBlockDescription.getBlockDescription((short) changes[i + 3]);
+            this.occlusionFieldList.onBlockChanged(changes[i], changes[i + 1], changes[i + 2], blockDescription, 0);
+        }
+    }
 }
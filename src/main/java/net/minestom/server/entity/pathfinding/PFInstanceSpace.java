@@ -5,14 +5,23 @@ import com.extollit.gaming.ai.path.model.IColumnarSpace;
 import com.extollit.gaming.ai.path.model.IInstanceSpace;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
+import net.minestom.server.utils.chunk.ChunkUtils;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class PFInstanceSpace implements IInstanceSpace {
 
     private Instance instance;
-    private Map<Chunk, PFColumnarSpace> chunkSpaceMap = new ConcurrentHashMap<>();
+    // Columnar spaces of the loaded chunks, by chunk index
+    private Map<Long, PFColumnarSpace> chunkSpaceMap = new ConcurrentHashMap<>();
+
+    // Columnar spaces with block changes waiting to be applied
+    private final Queue<PFColumnarSpace> changedSpaces = new ConcurrentLinkedQueue<>();
+    // Incremented each time block changes are applied, only accessed by the pathing service
+    private int blockVersion;
 
     public PFInstanceSpace(Instance instance) {
         this.instance = instance;
@@ -27,18 +36,60 @@ public class PFInstanceSpace implements IInstanceSpace {
     @Override
     public IColumnarSpace columnarSpaceAt(int cx, int cz) {
         final Chunk chunk = instance.getChunk(cx, cz);
-        if (chunk == null) {
+        if (!ChunkUtils.isLoaded(chunk)) {
             return null;
         }
 
-        return chunkSpaceMap.computeIfAbsent(chunk, c -> {
-            final PFColumnarSpace cs = new PFColumnarSpace(this, c);
-            c.setColumnarSpace(cs);
+        final long index = ChunkUtils.getChunkIndex(cx, cz);
+        return chunkSpaceMap.compute(index, (i, columnarSpace) -> {
+            if (columnarSpace != null && columnarSpace.getChunk() == chunk)
+                return columnarSpace;
+            // Checked again in case the chunk got unloaded in the meantime, #removeChunk would not see this space
+            if (!chunk.isLoaded())
+                return null;
+            final PFColumnarSpace cs = new PFColumnarSpace(this, chunk);
+            chunk.setColumnarSpace(cs);
             return cs;
         });
     }
 
+    /**
+     * Remove the columnar space of an unloaded chunk
+     *
+     * @param chunk the unloaded chunk
+     */
+    public void removeChunk(Chunk chunk) {
+        final long index = ChunkUtils.getChunkIndex(chunk.getChunkX(), chunk.getChunkZ());
+        this.chunkSpaceMap.computeIfPresent(index, (i, columnarSpace) ->
+                columnarSpace.getChunk() == chunk ? null : columnarSpace);
+        chunk.setColumnarSpace(null);
+    }
+
     public Instance getInstance() {
         return instance;
     }
+
+    void onColumnarSpaceChanged(PFColumnarSpace columnarSpace) {
+        this.changedSpaces.add(columnarSpace);
+    }
+
+    /**
+     * Apply the block changes of all the columnar spaces
+     * <p>
+     * Only called by the {@link PFPathingService} when no path is being computed
+     */
+    void applyBlockChanges() {
+        PFColumnarSpace columnarSpace;
+        boolean changed = false;
+        while ((columnarSpace = changedSpaces.poll()) != null) {
+            columnarSpace.applyBlockChanges();
+            changed = true;
+        }
+        if (changed)
+            this.blockVersion++;
+    }
+
+    int getBlockVersion() {
+        return blockVersion;
+    }
 }
@@ -1,19 +1,40 @@
 package net.minestom.server.entity.pathfinding;
 
+import com.extollit.gaming.ai.path.HydrazinePathFinder;
 import com.extollit.gaming.ai.path.model.Gravitation;
 import com.extollit.gaming.ai.path.model.IPathingEntity;
 import com.extollit.gaming.ai.path.model.Passibility;
 import com.extollit.linalg.immutable.Vec3d;
 import net.minestom.server.attribute.Attribute;
 import net.minestom.server.entity.EntityCreature;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.utils.Position;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public class PFPathingEntity implements IPathingEntity {
 
+    // Path states
+    private static final int IDLE = 0;
+    private static final int PENDING = 1;
+    private static final int FOLLOWING = 2;
+
+    // Request used to reset the path finder
+    private static final Position NO_PATH = new Position();
+
     private EntityCreature entity;
 
     private float searchRange;
-    private Position targetPosition;
+    private volatile Position targetPosition;
+    private volatile boolean jumpRequested;
+
+    // Only used by the pathing service
+    private volatile HydrazinePathFinder pathFinder;
+    final AtomicBoolean queued = new AtomicBoolean();
+
+    // Guarded by this object, a new request always wins over the result of the previous one
+    private Position pathRequest;
+    private volatile int pathState = IDLE;
 
     // Capacities
     private boolean fireResistant;
@@ -29,10 +50,115 @@ public class PFPathingEntity implements IPathingEntity {
         this.searchRange = entity.getAttributeValue(Attribute.FOLLOW_RANGE);
     }
 
+    public EntityCreature getEntity() {
+        return entity;
+    }
+
+    /**
+     * Get the next position of the path to move to
+     *
+     * @return the next position of the path, null if not computed yet
+     */
     public Position getTargetPosition() {
         return targetPosition;
     }
 
+    /**
+     * Get if the entity should jump to reach the next position of its path, reset the value
+     *
+     * @return true if the entity should jump
+     */
+    public boolean pollJump() {
+        if (!jumpRequested)
+            return false;
+        this.jumpRequested = false;
+        return true;
+    }
+
+    /**
+     * Get if the entity is following a path or waiting for one to be computed
+     *
+     * @return false if the entity has no path, because none has been requested, found, or it has been completed
+     */
+    public boolean hasPath() {
+        return pathState != IDLE;
+    }
+
+    /**
+     * Change the path finder used to compute the paths, called when the entity changes instance
+     *
+     * @param pathFinder the new path finder
+     */
+    public void setPathFinder(HydrazinePathFinder pathFinder) {
+        synchronized (this) {
+            this.pathFinder = pathFinder;
+            this.pathRequest = null;
+            this.pathState = IDLE;
+            this.targetPosition = null;
+        }
+    }
+
+    /**
+     * Ask the {@link PFPathingService} of the entity instance to compute a path to a position
+     *
+     * @param position the position to go to, null to stop following the current path
+     */
+    public void requestPath(Position position) {
+        synchronized (this) {
+            this.pathRequest = position != null ? position : NO_PATH;
+            this.pathState = position != null ? PENDING : IDLE;
+            this.targetPosition = null;
+        }
+        scheduleRequest();
+    }
+
+    /**
+     * Schedule the pending request in the pathing service of the entity instance, if any
+     */
+    void scheduleRequest() {
+        final Instance instance = entity.getInstance();
+        if (instance != null && hasPathRequest()) {
+            instance.getPathingService().schedule(this);
+        }
+    }
+
+    HydrazinePathFinder getPathFinder() {
+        return pathFinder;
+    }
+
+    /**
+     * Get the position requested since the last call
+     *
+     * @return the requested position, null if none, the path finder should be reset if {@link #isPathReset(Position)}
+     */
+    synchronized Position pollPathRequest() {
+        final Position request = pathRequest;
+        this.pathRequest = null;
+        return request;
+    }
+
+    synchronized boolean hasPathRequest() {
+        return pathRequest != null;
+    }
+
+    static boolean isPathReset(Position request) {
+        return request == NO_PATH;
+    }
+
+    /**
+     * Set the result of a computation, ignored if a new path has been requested in the meantime
+     *
+     * @param following true if the entity is following a path, false if it has none
+     */
+    synchronized void setFollowing(boolean following) {
+        if (pathRequest == null)
+            this.pathState = following ? FOLLOWING : IDLE;
+    }
+
+    boolean isFollowing() {
+        return pathState == FOLLOWING;
+    }
+
     @Override
     public int age() {
         return (int) entity.getAliveTicks();
@@ -170,9 +296,10 @@ public class PFPathingEntity implements IPathingEntity {
         final float z = (float) position.z;
         this.targetPosition = new Position(x, y, z);
 
+        // Called by the pathing service, the entity jumps during its next update
         final float entityY = entity.getPosition().getY();
         if (entityY < y) {
-            entity.jump(1);
+            this.jumpRequested = true;
         }
     }
 
@@ -0,0 +1,238 @@
+package net.minestom.server.entity.pathfinding;
+
+import com.extollit.gaming.ai.path.HydrazinePathFinder;
+import com.extollit.gaming.ai.path.model.IPath;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.EntityCreature;
+import net.minestom.server.utils.Position;
+import net.minestom.server.utils.thread.MinestomThread;
+import net.minestom.server.utils.validate.Check;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compute the paths of the creatures of an instance outside of the tick threads
+ * <p>
+ * Path requests and path updates are processed in batches, at most one per tick, the creatures then
+ * use the result during their next update. The block changes are only applied to the path finding data
+ * between two batches, so the world seen during a path computation does not change.
+ * <p>
+ * A batch stops once the tick budget is spent, the remaining creatures are processed first by the next one.
+ */
+public class PFPathingService {
+
+    private static final ExecutorService PATHFINDING_POOL =
+            new MinestomThread(MinecraftServer.THREAD_COUNT_PATHFINDING, MinecraftServer.THREAD_NAME_PATHFINDING);
+
+    private static final long DEFAULT_TICK_BUDGET = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // Unreachable targets are remembered for this long, or until a block changes
+    private static final long UNREACHABLE_CACHE_DURATION = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_CACHE_SIZE = 4096;
+    // Creatures in the same 4x4x4 cell share the unreachable targets
+    private static final int START_CELL_SHIFT = 2;
+
+    private final PFInstanceSpace instanceSpace;
+
+    private final Queue<PFPathingEntity> pathingEntities = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile long tickBudget = DEFAULT_TICK_BUDGET;
+
+    // Only accessed by the batch being processed
+    private final List<PFPathingEntity> processedEntities = new ArrayList<>();
+    private final Map<PathKey, Long> unreachableCache = new HashMap<>();
+    private int cacheBlockVersion;
+
+    public PFPathingService(PFInstanceSpace instanceSpace) {
+        this.instanceSpace = instanceSpace;
+    }
+
+    /**
+     * Get the maximum time spent computing paths each tick
+     *
+     * @param unit the unit of the returned budget
+     * @return the tick budget
+     */
+    public long getTickBudget(TimeUnit unit) {
+        return unit.convert(tickBudget, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Change the maximum time spent computing paths each tick
+     * <p>
+     * The computations are not interrupted, a batch can exceed its budget by the duration of one computation.
+     *
+     * @param budget the new tick budget
+     * @param unit   the unit of {@code budget}
+     */
+    public void setTickBudget(long budget, TimeUnit unit) {
+        Check.argCondition(budget <= 0, "The tick budget must be positive");
+        this.tickBudget = unit.toNanos(budget);
+    }
+
+    /**
+     * Add an entity to the next batch if it is not already waiting
+     *
+     * @param pathingEntity the entity having a new path request
+     */
+    public void schedule(PFPathingEntity pathingEntity) {
+        if (pathingEntity.queued.compareAndSet(false, true)) {
+            this.pathingEntities.add(pathingEntity);
+        }
+    }
+
+    /**
+     * Start a new batch if there is work to do and none is running
+     * <p>
+     * Called every tick by the instance
+     */
+    public void tick() {
+        if (pathingEntities.isEmpty())
+            return;
+        if (running.compareAndSet(false, true)) {
+            PATHFINDING_POOL.execute(() -> {
+                try {
+                    processBatch();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    this.running.set(false);
+                }
+            });
+        }
+    }
+
+    private void processBatch() {
+        this.instanceSpace.applyBlockChanges();
+
+        final long start = System.nanoTime();
+        final long deadline = start + tickBudget;
+        final int count = pathingEntities.size();
+        PFPathingEntity pathingEntity;
+        for (int i = 0; i < count && System.nanoTime() < deadline && (pathingEntity = pathingEntities.poll()) != null; i++) {
+            boolean keep = false;
+            try {
+                keep = process(pathingEntity, start);
+            } catch (Exception e) {
+                e.printStackTrace();
+                pathingEntity.setFollowing(false);
+            }
+
+            if (keep) {
+                this.processedEntities.add(pathingEntity);
+            } else {
+                pathingEntity.queued.set(false);
+                // A request could have been made after the entity left the queue
+                pathingEntity.scheduleRequest();
+            }
+        }
+
+        // Put the followed paths at the end, after the entities which did not fit in this batch
+        this.pathingEntities.addAll(processedEntities);
+        this.processedEntities.clear();
+    }
+
+    /**
+     * Compute the path of an entity or move it along its path
+     *
+     * @param pathingEntity the entity to process
+     * @param time          the batch start time
+     * @return true if the entity is following a path and needs to be processed again
+     */
+    private boolean process(PFPathingEntity pathingEntity, long time) {
+        final EntityCreature entity = pathingEntity.getEntity();
+        final HydrazinePathFinder pathFinder = pathingEntity.getPathFinder();
+        if (pathFinder == null || entity.isRemoved() || entity.getInstance() != instanceSpace.getInstance()) {
+            // Not in this instance anymore, a new request is scheduled in the new one
+            return false;
+        }
+
+        final Position request = pathingEntity.pollPathRequest();
+        if (request != null) {
+            pathFinder.reset();
+            if (PFPathingEntity.isPathReset(request)) {
+                pathingEntity.setFollowing(false);
+                return false;
+            }
+
+            final PathKey key = new PathKey(entity.getPosition(), request);
+            if (isUnreachable(key, time)) {
+                pathingEntity.setFollowing(false);
+                return false;
+            }
+
+            final IPath path = pathFinder.initiatePathTo(request.getX(), request.getY(), request.getZ());
+            if (path == null) {
+                addUnreachable(key, time);
+                pathingEntity.setFollowing(false);
+                return false;
+            }
+            pathingEntity.setFollowing(true);
+            return true;
+        }
+
+        if (!pathingEntity.isFollowing())
+            return false;
+
+        final IPath path = pathFinder.updatePathFor(pathingEntity);
+        if (path == null) {
+            // Path completed or not reachable anymore
+            pathFinder.reset();
+            pathingEntity.setFollowing(false);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean isUnreachable(PathKey key, long time) {
+        if (cacheBlockVersion != instanceSpace.getBlockVersion()) {
+            // The blocks changed, the targets could be reachable now
+            this.unreachableCache.clear();
+            this.cacheBlockVersion = instanceSpace.getBlockVersion();
+            return false;
+        }
+        final Long failTime = unreachableCache.get(key);
+        return failTime != null && time - failTime < UNREACHABLE_CACHE_DURATION;
+    }
+
+    private void addUnreachable(PathKey key, long time) {
+        if (unreachableCache.size() >= MAX_CACHE_SIZE) {
+            this.unreachableCache.values().removeIf(failTime -> time - failTime >= UNREACHABLE_CACHE_DURATION);
+            if (unreachableCache.size() >= MAX_CACHE_SIZE)
+                this.unreachableCache.clear();
+        }
+        this.unreachableCache.put(key, time);
+    }
+
+    private static final class PathKey {
+        private final int startX, startY, startZ;
+        private final int targetX, targetY, targetZ;
+
+        private PathKey(Position start, Position target) {
+            this.startX = (int) Math.floor(start.getX()) >> START_CELL_SHIFT;
+            this.startY = (int) Math.floor(start.getY()) >> START_CELL_SHIFT;
+            this.startZ = (int) Math.floor(start.getZ()) >> START_CELL_SHIFT;
+            this.targetX = (int) Math.floor(target.getX());
+            this.targetY = (int) Math.floor(target.getY());
+            this.targetZ = (int) Math.floor(target.getZ());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            PathKey pathKey = (PathKey) o;
+            return startX == pathKey.startX && startY == pathKey.startY && startZ == pathKey.startZ &&
+                    targetX == pathKey.targetX && targetY == pathKey.targetY && targetZ == pathKey.targetZ;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(startX, startY, startZ, targetX, targetY, targetZ);
+        }
+    }
+}
@@ -51,5 +51,6 @@ public class EntityBat extends EntityCreature implements Animal {
      */
     public void setHanging(boolean hanging) {
         this.hanging = hanging;
+        sendMetadataIndex(15);
     }
 }
@@ -32,4 +32,11 @@ public class EntityBlaze extends EntityCreature implements Monster {
             packet.writeByte((byte) (isOnFire() ? 1 : 0));
         }
     }
+
+    @Override
+    public void setOnFire(boolean fire) {
+        super.setOnFire(fire);
+        // Also encoded in the blaze metadata
+        sendMetadataIndex(15);
+    }
 }
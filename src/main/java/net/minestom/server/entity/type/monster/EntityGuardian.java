@@ -48,6 +48,7 @@ public class EntityGuardian extends EntityCreature implements Monster {
 
     public void setRetractingSpikes(boolean retractingSpikes) {
         this.retractingSpikes = retractingSpikes;
+        sendMetadataIndex(15);
     }
 
     public Entity getTarget() {
@@ -56,5 +57,6 @@ public class EntityGuardian extends EntityCreature implements Monster {
 
     public void setTarget(Entity target) {
         this.target = target;
+        sendMetadataIndex(16);
     }
 }
@@ -114,5 +114,6 @@ public class EntityAreaEffectCloud extends ObjectEntity {
      */
     public void setParticleDataConsumer(Consumer<BinaryWriter> particleDataConsumer) {
         this.particleDataConsumer = particleDataConsumer;
+        sendMetadataIndex(10);
     }
 }
@@ -5,48 +5,72 @@ import io.netty.channel.ChannelHandlerContext;
 
 import javax.crypto.Cipher;
 import javax.crypto.ShortBufferException;
+import java.nio.ByteBuffer;
 
+/**
+ * Run a stream {@link Cipher} (AES/CFB8) directly on the {@link ByteBuffer} views of the buffers,
+ * without copying them into intermediate arrays
+ * <p>
+ * The input buffers are never modified when encrypting, so shared packet buffers can be written as-is
+ */
 public class CipherBase {
    private final Cipher cipher;
-   private byte[] inTempArray = new byte[0];
-   private byte[] outTempArray = new byte[0];
 
    protected CipherBase(Cipher cipher) {
       this.cipher = cipher;
    }
 
-   private byte[] bufToByte(ByteBuf buffer) {
-      int remainingBytes = buffer.readableBytes();
-
-      // Need to resize temp array
-      if (inTempArray.length < remainingBytes) {
-         inTempArray = new byte[remainingBytes];
-      }
-
-      buffer.readBytes(inTempArray, 0, remainingBytes);
-      return inTempArray;
-   }
-
+   /**
+    * Decrypt the readable bytes of {@code byteBufIn} in place
+    * <p>
+    * Falls back to a new buffer if {@code byteBufIn} is not a single memory region
+    *
+    * @param channelHandlerContext the context used to allocate the fallback buffer
+    * @param byteBufIn             the received bytes, owned by the decoder
+    * @return the decrypted buffer, retained
+    * @throws ShortBufferException if the cipher output is larger than its input
+    */
    protected ByteBuf decrypt(ChannelHandlerContext channelHandlerContext, ByteBuf byteBufIn) throws ShortBufferException {
-      int remainingBytes = byteBufIn.readableBytes();
-      byte[] bytes = bufToByte(byteBufIn);
+      final int readerIndex = byteBufIn.readerIndex();
+      final int remainingBytes = byteBufIn.readableBytes();
 
-      ByteBuf outputBuffer = channelHandlerContext.alloc().heapBuffer(cipher.getOutputSize(remainingBytes));
-      outputBuffer.writerIndex(cipher.update(bytes, 0, remainingBytes, outputBuffer.array(), outputBuffer.arrayOffset()));
+      if (byteBufIn.nioBufferCount() == 1) {
+         // Same memory for the input and the output, the stream cipher output has the size of its input
+         final ByteBuffer input = byteBufIn.nioBuffer(readerIndex, remainingBytes);
+         final ByteBuffer output = byteBufIn.nioBuffer(readerIndex, remainingBytes);
+         cipher.update(input, output);
+         return byteBufIn.retain();
+      }
 
+      ByteBuf outputBuffer = channelHandlerContext.alloc().ioBuffer(cipher.getOutputSize(remainingBytes));
+      try {
+         encrypt(byteBufIn, outputBuffer);
+      } catch (ShortBufferException e) {
+         outputBuffer.release();
+         throw e;
+      }
       return outputBuffer;
    }
 
+   /**
+    * Run the cipher on the readable bytes of {@code byteBufIn} and write the result in {@code byteBufOut}
+    *
+    * @param byteBufIn  the bytes to encrypt, read but not modified
+    * @param byteBufOut the buffer receiving the encrypted bytes
+    * @throws ShortBufferException if {@code byteBufOut} cannot hold the output
+    */
    protected void encrypt(ByteBuf byteBufIn, ByteBuf byteBufOut) throws ShortBufferException {
-      int remainingBytes = byteBufIn.readableBytes();
-      byte[] bytes = bufToByte(byteBufIn);
-      int newSize = cipher.getOutputSize(remainingBytes);
+      final int remainingBytes = byteBufIn.readableBytes();
+      byteBufOut.ensureWritable(cipher.getOutputSize(remainingBytes));
 
-      // Need to resize temp array
-      if (outTempArray.length < newSize) {
-         outTempArray = new byte[newSize];
+      final int writerIndex = byteBufOut.writerIndex();
+      final ByteBuffer output = byteBufOut.nioBuffer(writerIndex, byteBufOut.writableBytes());
+      // Composite buffers (eg a shared packet prefixed by its length) have one view per component
+      for (ByteBuffer input : byteBufIn.nioBuffers()) {
+         cipher.update(input, output);
       }
 
-      byteBufOut.writeBytes(outTempArray, 0, cipher.update(bytes, 0, remainingBytes, outTempArray));
+      byteBufIn.skipBytes(remainingBytes);
+      byteBufOut.writerIndex(writerIndex + output.position());
    }
 }
@@ -13,6 +13,12 @@ public class Encrypter extends MessageToByteEncoder<ByteBuf> {
       this.cipher = new CipherBase(cipher);
    }
 
+   @Override
+   protected ByteBuf allocateBuffer(ChannelHandlerContext channelHandlerContext, ByteBuf byteBufIn, boolean preferDirect) {
+      // The stream cipher output has the size of its input
+      return channelHandlerContext.alloc().ioBuffer(byteBufIn.readableBytes());
+   }
+
    protected void encode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBufIn, ByteBuf byteBufOut) throws Exception {
       this.cipher.encrypt(byteBufIn, byteBufOut);
    }
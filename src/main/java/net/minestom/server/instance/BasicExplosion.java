@@ -0,0 +1,284 @@
+package net.minestom.server.instance;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.LivingEntity;
+import net.minestom.server.entity.damage.DamageType;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.block.BlockAlternative;
+import net.minestom.server.utils.BlockPosition;
+import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Explosion breaking blocks, damaging and pushing entities like the vanilla one
+ * <p>
+ * The rays are cast over a copy of the chunk sections, taken once per section, so the chunks
+ * are not locked for each visited block. The entities are found using the {@link EntityIndex} of the instance.
+ * <p>
+ * Can be used as the instance explosion algorithm with
+ * {@code instance.setExplosionSupplier((x, y, z, strength, data) -> new BasicExplosion(x, y, z, strength))}
+ */
+public class BasicExplosion extends Explosion {
+
+    // Rays are cast from the center towards each block of the surface of a cube
+    private static final int RAY_GRID_SIZE = 16;
+    private static final float RAY_STEP = 0.3f;
+    private static final float RAY_ATTENUATION = 0.22500001f;
+    // Number of points checked along each axis of an entity bounding box to compute its exposure
+    private static final int EXPOSURE_SAMPLES = 3;
+
+    private static final float[] BLAST_RESISTANCES;
+    private static final boolean[] SOLID_STATES;
+
+    static {
+        int stateCount = 0;
+        for (Block block : Block.values()) {
+            for (BlockAlternative alternative : block.getAlternatives()) {
+                stateCount = Math.max(stateCount, alternative.getId() + 1);
+            }
+        }
+
+        BLAST_RESISTANCES = new float[stateCount];
+        SOLID_STATES = new boolean[stateCount];
+        for (Block block : Block.values()) {
+            for (BlockAlternative alternative : block.getAlternatives()) {
+                final short id = alternative.getId();
+                BLAST_RESISTANCES[id] = (float) block.getResistance();
+                SOLID_STATES[id] = block.isSolid();
+            }
+        }
+    }
+
+    public BasicExplosion(float centerX, float centerY, float centerZ, float strength) {
+        super(centerX, centerY, centerZ, strength);
+    }
+
+    @Override
+    protected List<BlockPosition> prepare(Instance instance) {
+        final SectionSnapshot snapshot = new SectionSnapshot(instance);
+        final List<BlockPosition> blocks = castRays(snapshot);
+        affectEntities(instance, snapshot);
+        return blocks;
+    }
+
+    /**
+     * Get the resistance of a block state to explosions
+     *
+     * @param blockStateId the block state id
+     * @return the blast resistance of the block state
+     */
+    protected float getBlastResistance(short blockStateId) {
+        return blockStateId >= 0 && blockStateId < BLAST_RESISTANCES.length ? BLAST_RESISTANCES[blockStateId] : 0;
+    }
+
+    private List<BlockPosition> castRays(SectionSnapshot snapshot) {
+        final Random random = ThreadLocalRandom.current();
+        final float centerX = getCenterX();
+        final float centerY = getCenterY();
+        final float centerZ = getCenterZ();
+        final float strength = getStrength();
+
+        final LongSet visitedBlocks = new LongOpenHashSet();
+        List<BlockPosition> blocks = new ArrayList<>();
+        final int max = RAY_GRID_SIZE - 1;
+        for (int i = 0; i < RAY_GRID_SIZE; i++) {
+            for (int j = 0; j < RAY_GRID_SIZE; j++) {
+                for (int k = 0; k < RAY_GRID_SIZE; k++) {
+                    if (i != 0 && i != max && j != 0 && j != max && k != 0 && k != max)
+                        continue;
+
+                    float directionX = i / (float) max * 2 - 1;
+                    float directionY = j / (float) max * 2 - 1;
+                    float directionZ = k / (float) max * 2 - 1;
+                    final float scale = RAY_STEP / (float) Math.sqrt(directionX * directionX +
+                            directionY * directionY + directionZ * directionZ);
+                    directionX *= scale;
+                    directionY *= scale;
+                    directionZ *= scale;
+
+                    float intensity = strength * (0.7f + random.nextFloat() * 0.6f);
+                    float x = centerX, y = centerY, z = centerZ;
+                    while (intensity > 0) {
+                        final int blockX = (int) Math.floor(x);
+                        final int blockY = (int) Math.floor(y);
+                        final int blockZ = (int) Math.floor(z);
+                        final short blockStateId = snapshot.getBlockStateId(blockX, blockY, blockZ);
+                        if (blockStateId != 0) {
+                            intensity -= (getBlastResistance(blockStateId) + RAY_STEP) * RAY_STEP;
+                            if (intensity > 0 && visitedBlocks.add(getBlockKey(blockX, blockY, blockZ))) {
+                                blocks.add(new BlockPosition(blockX, blockY, blockZ));
+                            }
+                        }
+                        x += directionX;
+                        y += directionY;
+                        z += directionZ;
+                        intensity -= RAY_ATTENUATION;
+                    }
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private static long getBlockKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) y & 0xFFF;
+    }
+
+    private void affectEntities(Instance instance, SectionSnapshot snapshot) {
+        final float centerX = getCenterX();
+        final float centerY = getCenterY();
+        final float centerZ = getCenterZ();
+        final float radius = getStrength() * 2;
+        final Position center = new Position(centerX, centerY, centerZ);
+
+        instance.getEntityIndex().forEachNearbyEntity(center, radius, entity -> {
+            final Position position = entity.getPosition();
+            final float distance = position.getDistance(center) / radius;
+            if (distance > 1)
+                return;
+
+            // Pushed away from the center of the explosion, starting from the eyes
+            float directionX = position.getX() - centerX;
+            float directionY = position.getY() + entity.getEyeHeight() - centerY;
+            float directionZ = position.getZ() - centerZ;
+            final float length = (float) Math.sqrt(directionX * directionX +
+                    directionY * directionY + directionZ * directionZ);
+            if (length == 0)
+                return;
+
+            final float impact = (1 - distance) * getExposure(snapshot, entity);
+            if (impact <= 0)
+                return;
+
+            if (entity instanceof LivingEntity) {
+                final float damage = (impact * impact + impact) / 2 * 7 * radius + 1;
+                ((LivingEntity) entity).damage(DamageType.EXPLOSION, damage);
+            }
+
+            // The velocity is in blocks per second
+            final float knockback = impact / length * MinecraftServer.TICK_PER_SECOND;
+            directionX *= knockback;
+            directionY *= knockback;
+            directionZ *= knockback;
+            entity.setVelocity(entity.getVelocity().clone().add(directionX, directionY, directionZ));
+        });
+    }
+
+    /**
+     * Get the part of an entity exposed to the explosion
+     *
+     * @param snapshot the section snapshot
+     * @param entity   the entity
+     * @return the fraction of the sampled points of the entity bounding box with no solid block
+     * between them and the explosion center
+     */
+    private float getExposure(SectionSnapshot snapshot, Entity entity) {
+        final BoundingBox boundingBox = entity.getBoundingBox();
+        final float minX = boundingBox.getMinX(), minY = boundingBox.getMinY(), minZ = boundingBox.getMinZ();
+        final float stepX = (boundingBox.getMaxX() - minX) / (EXPOSURE_SAMPLES - 1);
+        final float stepY = (boundingBox.getMaxY() - minY) / (EXPOSURE_SAMPLES - 1);
+        final float stepZ = (boundingBox.getMaxZ() - minZ) / (EXPOSURE_SAMPLES - 1);
+
+        int exposed = 0;
+        for (int i = 0; i < EXPOSURE_SAMPLES; i++) {
+            for (int j = 0; j < EXPOSURE_SAMPLES; j++) {
+                for (int k = 0; k < EXPOSURE_SAMPLES; k++) {
+                    if (!isObstructed(snapshot, minX + stepX * i, minY + stepY * j, minZ + stepZ * k))
+                        exposed++;
+                }
+            }
+        }
+        return exposed / (float) (EXPOSURE_SAMPLES * EXPOSURE_SAMPLES * EXPOSURE_SAMPLES);
+    }
+
+    private boolean isObstructed(SectionSnapshot snapshot, float x, float y, float z) {
+        final float deltaX = getCenterX() - x;
+        final float deltaY = getCenterY() - y;
+        final float deltaZ = getCenterZ() - z;
+        final float length = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ);
+        final int steps = (int) (length / RAY_STEP);
+        if (steps == 0)
+            return false;
+        final float stepX = deltaX / steps, stepY = deltaY / steps, stepZ = deltaZ / steps;
+        for (int i = 0; i < steps; i++) {
+            final short blockStateId = snapshot.getBlockStateId((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z));
+            if (blockStateId > 0 && blockStateId < SOLID_STATES.length && SOLID_STATES[blockStateId])
+                return true;
+            x += stepX;
+            y += stepY;
+            z += stepZ;
+        }
+        return false;
+    }
+
+    /**
+     * Copy of the block states of the chunk sections visited by an explosion, each section is copied once
+     */
+    private static final class SectionSnapshot {
+
+        // Sections of unloaded chunks, read as air
+        private static final short[] UNLOADED_SECTION = new short[0];
+
+        private final Instance instance;
+        private final Long2ObjectMap<short[]> sections = new Long2ObjectOpenHashMap<>();
+
+        // Most lookups are in the same section as the previous one
+        private long lastIndex;
+        private short[] lastSection;
+
+        private SectionSnapshot(Instance instance) {
+            this.instance = instance;
+        }
+
+        private short getBlockStateId(int x, int y, int z) {
+            if (y < 0 || y >= Chunk.CHUNK_SIZE_Y)
+                return 0;
+            final int chunkX = x >> 4;
+            final int chunkZ = z >> 4;
+            final int section = y >> 4;
+            final long index = ChunkUtils.getChunkIndexWithSection(chunkX, chunkZ, section);
+            short[] blocks = lastSection;
+            if (blocks == null || index != lastIndex) {
+                blocks = sections.get(index);
+                if (blocks == null) {
+                    blocks = copySection(chunkX, chunkZ, section);
+                    this.sections.put(index, blocks);
+                }
+                this.lastIndex = index;
+                this.lastSection = blocks;
+            }
+            if (blocks == UNLOADED_SECTION)
+                return 0;
+            return blocks[(y & 0xF) << 8 | (z & 0xF) << 4 | (x & 0xF)];
+        }
+
+        private short[] copySection(int chunkX, int chunkZ, int section) {
+            final Chunk chunk = instance.getChunk(chunkX, chunkZ);
+            if (!ChunkUtils.isLoaded(chunk))
+                return UNLOADED_SECTION;
+            final short[] blocks = new short[Chunk.CHUNK_SIZE_X * Chunk.CHUNK_SECTION_SIZE * Chunk.CHUNK_SIZE_Z];
+            final int minY = section * Chunk.CHUNK_SECTION_SIZE;
+            synchronized (chunk) {
+                for (int y = 0; y < Chunk.CHUNK_SECTION_SIZE; y++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+                            blocks[y << 8 | z << 4 | x] = chunk.getBlockStateId(x, minY + y, z);
+                        }
+                    }
+                }
+            }
+            return blocks;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package net.minestom.server.instance;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.shorts.Short2ShortMap;
+import it.unimi.dsi.fastutil.shorts.Short2ShortOpenHashMap;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.Viewable;
 import net.minestom.server.data.Data;
@@ -13,24 +16,34 @@ import net.minestom.server.instance.block.Block;
 import net.minestom.server.instance.block.BlockManager;
 import net.minestom.server.instance.block.CustomBlock;
 import net.minestom.server.instance.block.UpdateConsumer;
+import net.minestom.server.instance.light.ChunkLight;
+import net.minestom.server.instance.light.LightEngine;
+import net.minestom.server.instance.palette.Section;
 import net.minestom.server.network.PacketWriterUtils;
+import net.minestom.server.network.netty.codec.PacketCompressor;
+import net.minestom.server.network.netty.packet.SharedPacket;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.network.packet.server.play.BlockChangePacket;
 import net.minestom.server.network.packet.server.play.ChunkDataPacket;
-import net.minestom.server.network.packet.server.play.UpdateLightPacket;
+import net.minestom.server.network.packet.server.play.MultiBlockChangePacket;
 import net.minestom.server.network.player.PlayerConnection;
 import net.minestom.server.utils.BlockPosition;
 import net.minestom.server.utils.MathUtils;
+import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.Utils;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.utils.player.PlayerUtils;
 import net.minestom.server.utils.time.CooldownUtils;
 import net.minestom.server.utils.time.UpdateOption;
 import net.minestom.server.utils.validate.Check;
 import net.minestom.server.world.biomes.Biome;
+import org.jglrxavpok.hephaistos.nbt.NBTCompound;
 
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
-// TODO light data & API
 public abstract class Chunk implements Viewable {
 
     protected static final BlockManager BLOCK_MANAGER = MinecraftServer.getBlockManager();
@@ -44,6 +57,14 @@ public abstract class Chunk implements Viewable {
 
     public static final int BIOME_COUNT = 1024; // 4x4x4 blocks
 
+    // Size of a block state id in the global palette
+    protected static final int BLOCK_STATE_BITS_PER_ENTRY = 15;
+    // Custom block ids can use the whole short range
+    protected static final int CUSTOM_BLOCK_BITS_PER_ENTRY = 16;
+    private static final int ALL_SECTIONS_MASK = (1 << CHUNK_SECTION_COUNT) - 1;
+    // Number of block changes in a section from which the whole section is sent instead
+    private static final int SECTION_UPDATE_THRESHOLD = 64;
+
     protected Biome[] biomes;
     protected int chunkX, chunkZ;
 
@@ -58,16 +79,43 @@ public abstract class Chunk implements Viewable {
 
     protected volatile boolean packetUpdated;
 
+    // Sections encoded in the chunk packet format, null if the section is empty
+    private final ByteBuf[] sectionBuffers = new ByteBuf[CHUNK_SECTION_COUNT];
+    // Bitmask of the sections which need to be encoded again
+    private final AtomicInteger dirtySections = new AtomicInteger(ALL_SECTIONS_MASK);
+
+    // Block changes waiting to be sent to the viewers, see #sendBlockChanges()
+    // Section -> (index in the section -> block state id)
+    private final Short2ShortMap[] pendingBlockChanges = new Short2ShortMap[CHUNK_SECTION_COUNT];
+    // Bitmask of the sections with too many changes, sent entirely
+    private int pendingSectionUpdates;
+
     // Block entities
     protected Set<Integer> blockEntities = new CopyOnWriteArraySet<>();
 
     // Path finding
-    protected PFColumnarSpace columnarSpace;
+    protected volatile PFColumnarSpace columnarSpace;
+
+    // Heightmaps, updated on each block change
+    private final Heightmap motionBlockingHeightmap = new Heightmap(Heightmap.Type.MOTION_BLOCKING);
+    private final Heightmap worldSurfaceHeightmap = new Heightmap(Heightmap.Type.WORLD_SURFACE);
+    private NBTCompound heightmapsNBT;
+    private long[] heightmapsNBTMotionBlocking, heightmapsNBTWorldSurface;
+
+    // Lighting, the engine is set once the chunk is loaded in its instance
+    protected volatile LightEngine lightEngine;
+    private final ChunkLight light = new ChunkLight();
+    private ByteBuf lightPacket;
+    private int lightPacketVersion;
 
     // Cache
     protected volatile boolean loaded = true;
     protected Set<Player> viewers = new CopyOnWriteArraySet<>();
+    // Encoded full data packet, the chunk holds a reference until it is replaced or the chunk unloaded
     protected ByteBuf fullDataPacket;
+    // Compressed version of a full data packet, shared by all the compressed connections
+    private ByteBuf compressedDataPacket;
+    private ByteBuf compressedDataSource;
 
     public Chunk(Biome[] biomes, int chunkX, int chunkZ) {
         this.biomes = biomes;
@@ -77,6 +125,7 @@ public abstract class Chunk implements Viewable {
 
     public void UNSAFE_setBlock(int x, int y, int z, short blockStateId, Data data) {
         setBlock(x, y, z, blockStateId, (short) 0, data, null);
+        onBlockChange(x, y, z);
     }
 
     public void UNSAFE_setCustomBlock(int x, int y, int z, short blockStateId, short customBlockId, Data data) {
@@ -89,12 +138,55 @@ public abstract class Chunk implements Viewable {
     protected void UNSAFE_setCustomBlock(int x, int y, int z, short blockStateId, CustomBlock customBlock, Data data) {
         final UpdateConsumer updateConsumer = customBlock.hasUpdate() ? customBlock::update : null;
         setBlock(x, y, z, blockStateId, customBlock.getCustomBlockId(), data, updateConsumer);
+        onBlockChange(x, y, z);
     }
 
     public abstract void UNSAFE_removeCustomBlock(int x, int y, int z);
 
     protected abstract void setBlock(int x, int y, int z, short blockStateId, short customId, Data data, UpdateConsumer updateConsumer);
 
+    /**
+     * Place all the blocks of a loaded chunk at once, see {@link ChunkFormat}
+     * <p>
+     * The default implementation places the blocks one by one without going through the heightmaps,
+     * which are computed once at the end. Implementations storing their blocks in {@link Section sections}
+     * can use them directly.
+     * <p>
+     * WARNING: the chunk needs to be empty and not yet visible, the sections cannot be used afterward
+     *
+     * @param blockSections       the block state sections, null for a section containing only air
+     * @param customBlockSections the custom block sections, null for a section without custom block
+     * @param blocksData          the data of the blocks by block index
+     */
+    public void UNSAFE_loadSections(Section[] blockSections, Section[] customBlockSections, Int2ObjectMap<Data> blocksData) {
+        for (int sectionY = 0; sectionY < CHUNK_SECTION_COUNT; sectionY++) {
+            final Section blockSection = blockSections[sectionY];
+            final Section customBlockSection = customBlockSections[sectionY];
+            if (blockSection == null && customBlockSection == null)
+                continue;
+
+            for (int i = 0; i < Section.SECTION_BLOCK_COUNT; i++) {
+                final short blockStateId = blockSection != null ? blockSection.get(i) : 0;
+                final short customBlockId = customBlockSection != null ? customBlockSection.get(i) : 0;
+                if (blockStateId == 0 && customBlockId == 0)
+                    continue;
+
+                final int x = i & 0xF;
+                final int y = sectionY * CHUNK_SECTION_SIZE + (i >> 8);
+                final int z = i >> 4 & 0xF;
+                final Data data = blocksData.get(getBlockIndex(x, y, z));
+                final CustomBlock customBlock = customBlockId != 0 ? BLOCK_MANAGER.getCustomBlock(customBlockId) : null;
+                if (customBlock != null) {
+                    final UpdateConsumer updateConsumer = customBlock.hasUpdate() ? customBlock::update : null;
+                    setBlock(x, y, z, blockStateId, customBlockId, data, updateConsumer);
+                } else {
+                    setBlock(x, y, z, blockStateId, (short) 0, data, null);
+                }
+            }
+        }
+        refreshHeightmaps();
+    }
+
     public void setBlockData(int x, int y, int z, Data data) {
         final int index = getBlockIndex(x, y, z);
         if (data != null) {
@@ -127,6 +219,90 @@ public abstract class Chunk implements Viewable {
         refreshBlockValue(x, y, z, blockStateId, customBlockId);
     }
 
+    /**
+     * Update the heightmaps and notify the light engine after a block change
+     *
+     * @param x the block X, chunk or world coordinate
+     * @param y the block Y
+     * @param z the block Z, chunk or world coordinate
+     */
+    protected void onBlockChange(int x, int y, int z) {
+        if (!MathUtils.isBetween(y, 0, CHUNK_SIZE_Y - 1))
+            return;
+
+        this.motionBlockingHeightmap.update(this, x, y, z);
+        this.worldSurfaceHeightmap.update(this, x, y, z);
+
+        final LightEngine lightEngine = this.lightEngine;
+        if (lightEngine != null) {
+            lightEngine.updateBlock(CHUNK_SIZE_X * chunkX + (x & 0xF), y, CHUNK_SIZE_Z * chunkZ + (z & 0xF));
+        }
+    }
+
+    /**
+     * Mark a section as modified, it will be encoded again the next time a chunk packet is created
+     * <p>
+     * Should be called by implementations each time a block state changes
+     *
+     * @param section the modified section
+     */
+    protected void invalidateSection(int section) {
+        this.dirtySections.accumulateAndGet(1 << section, (mask, bit) -> mask | bit);
+        this.packetUpdated = false;
+    }
+
+    /**
+     * Write a section in the format used by {@link ChunkDataPacket}
+     * <p>
+     * The default implementation goes through {@link #getBlockStateId(int, int, int)} for each block,
+     * it can be overridden by implementations able to write their storage directly
+     *
+     * @param section the section to write
+     * @param buffer  the buffer to write to
+     * @return true if the section has been written, false if it does not contain any block
+     */
+    protected boolean writeSection(int section, ByteBuf buffer) {
+        short[] blocks = new short[CHUNK_SIZE_X * CHUNK_SECTION_SIZE * CHUNK_SIZE_Z];
+        boolean empty = true;
+        for (byte y = 0; y < CHUNK_SECTION_SIZE; y++) {
+            for (byte x = 0; x < CHUNK_SIZE_X; x++) {
+                for (byte z = 0; z < CHUNK_SIZE_Z; z++) {
+                    final int yPos = y + CHUNK_SECTION_SIZE * section;
+                    final short blockStateId = getBlockStateId(x, yPos, z);
+                    if (blockStateId != 0)
+                        empty = false;
+
+                    final int packetIndex = (((y * 16) + x) * 16) + z;
+                    blocks[packetIndex] = blockStateId;
+                }
+            }
+        }
+        if (empty)
+            return false;
+
+        Utils.writeBlocks(buffer, blocks, BLOCK_STATE_BITS_PER_ENTRY);
+        return true;
+    }
+
+    /**
+     * Get the encoded sections of this chunk, only the sections modified since the last call are encoded again
+     *
+     * @return an array containing the encoded sections, null for empty sections
+     */
+    protected synchronized ByteBuf[] getSectionBuffers() {
+        // Clear the mask before encoding, a section modified during the encoding will be marked dirty again
+        final int dirty = dirtySections.getAndSet(0);
+        if (dirty != 0) {
+            for (int i = 0; i < CHUNK_SECTION_COUNT; i++) {
+                if ((dirty & (1 << i)) == 0)
+                    continue;
+                ByteBuf buffer = Unpooled.buffer();
+                this.sectionBuffers[i] = writeSection(i, buffer) ? buffer : null;
+            }
+        }
+        return sectionBuffers.clone();
+    }
+
     public Data getData(int x, int y, int z) {
         final int index = getBlockIndex(x, y, z);
         return getData(index);
@@ -177,6 +353,8 @@ public abstract class Chunk implements Viewable {
      * Get the cached data packet
      * <p>
      * Use {@link #retrieveDataBuffer(Consumer)} to be sure to get the updated version
+     * <p>
+     * WARNING: the buffer is released by the chunk once replaced
      *
      * @return the last cached data packet, can be null or outdated
      */
@@ -184,11 +362,79 @@ public abstract class Chunk implements Viewable {
         return fullDataPacket;
     }
 
-    public void setFullDataPacket(ByteBuf fullDataPacket) {
-        this.fullDataPacket = fullDataPacket;
+    /**
+     * Change the cached data packet, the previous one is released
+     *
+     * @param fullDataPacket the new data packet, now owned by the chunk
+     */
+    public synchronized void setFullDataPacket(ByteBuf fullDataPacket) {
+        replaceFullDataPacket(fullDataPacket);
         this.packetUpdated = true;
     }
 
+    /**
+     * Get one of the heightmaps of this chunk
+     *
+     * @param type the heightmap type
+     * @return the heightmap of this chunk
+     */
+    public Heightmap getHeightmap(Heightmap.Type type) {
+        return type == Heightmap.Type.MOTION_BLOCKING ? motionBlockingHeightmap : worldSurfaceHeightmap;
+    }
+
+    /**
+     * Compute the heightmaps again from the blocks of the chunk
+     * <p>
+     * Only needed by implementations whose blocks are not set with {@link #UNSAFE_setBlock(int, int, int, short, Data)}
+     */
+    protected void refreshHeightmaps() {
+        this.motionBlockingHeightmap.refresh(this);
+        this.worldSurfaceHeightmap.refresh(this);
+    }
+
+    /**
+     * Get the heightmaps in the format of {@link ChunkDataPacket}, created again only if they changed
+     *
+     * @return the heightmaps compound
+     */
+    protected synchronized NBTCompound getHeightmapsNBT() {
+        final long[] motionBlocking = motionBlockingHeightmap.getEncodedHeights();
+        final long[] worldSurface = worldSurfaceHeightmap.getEncodedHeights();
+        if (heightmapsNBT == null ||
+                heightmapsNBTMotionBlocking != motionBlocking || heightmapsNBTWorldSurface != worldSurface) {
+            this.heightmapsNBT = new NBTCompound()
+                    .setLongArray("MOTION_BLOCKING", motionBlocking)
+                    .setLongArray("WORLD_SURFACE", worldSurface);
+            this.heightmapsNBTMotionBlocking = motionBlocking;
+            this.heightmapsNBTWorldSurface = worldSurface;
+        }
+        return heightmapsNBT;
+    }
+
+    /**
+     * Get the light of this chunk
+     *
+     * @return the chunk light
+     */
+    public ChunkLight getLight() {
+        return light;
+    }
+
+    /**
+     * Get the encoded light packet of this chunk, encoded again only if the light changed
+     *
+     * @return the encoded light packet, shared between all the viewers
+     */
+    public synchronized ByteBuf getLightPacket() {
+        final int version = light.getVersion();
+        if (lightPacket == null || lightPacketVersion != version) {
+            this.lightPacket = PacketUtils.writeUnpooledPacket(
+                    light.createLightPacket(chunkX, chunkZ, ChunkLight.ALL_SECTIONS_MASK));
+            this.lightPacketVersion = version;
+        }
+        return lightPacket;
+    }
+
     /**
      * Get if a block state id represents a block entity
      *
@@ -220,23 +466,46 @@ public abstract class Chunk implements Viewable {
 
     /**
      * Retrieve (and save if needed) the updated data packet
+     * <p>
+     * The consumer is called in the current thread. The buffer is only valid during the call,
+     * it has to be retained to be used afterward.
+     * <p>
+     * Prefer {@link #sendChunkUpdate(Player)} to send it, the packet is then encoded outside of the current thread
      *
      * @param consumer the consumer called once the packet is sure to be up-to-date
      */
     public void retrieveDataBuffer(Consumer<ByteBuf> consumer) {
-        final ByteBuf data = getFullDataPacket();
-        if (data == null || !packetUpdated) {
-            // Packet has never been wrote or is outdated, write it
-            PacketWriterUtils.writeCallbackPacket(getFreshFullDataPacket(), packet -> {
-                setFullDataPacket(packet);
-                consumer.accept(packet);
-            });
-        } else {
-            // Packet is up-to-date
+        final ByteBuf data = retainFullDataPacket();
+        try {
             consumer.accept(data);
+        } finally {
+            data.release();
         }
     }
 
+    /**
+     * Get the updated data packet, encoding it if outdated
+     * <p>
+     * Only the modified sections are encoded again (see {@link #getSectionBuffers()})
+     *
+     * @return the full data packet, retained, to release once sent
+     */
+    private synchronized ByteBuf retainFullDataPacket() {
+        if (fullDataPacket == null || !packetUpdated) {
+            // Marked before the encoding, a block modified during it marks the packet outdated again
+            this.packetUpdated = true;
+            replaceFullDataPacket(PacketUtils.writeUnpooledPacket(getFreshFullDataPacket()));
+        }
+        return fullDataPacket.retain();
+    }
+
+    private synchronized void replaceFullDataPacket(ByteBuf fullDataPacket) {
+        if (this.fullDataPacket != null && this.fullDataPacket != fullDataPacket)
+            this.fullDataPacket.release();
+        this.fullDataPacket = fullDataPacket;
+        releaseCompressedDataPacket();
+    }
+
     /**
      * Serialize the chunk
      *
@@ -267,9 +536,35 @@ public abstract class Chunk implements Viewable {
     }
 
     /**
+     * Get a {@link ChunkDataPacket} containing a snapshot of this chunk
+     * <p>
+     * Sections are retrieved from {@link #getSectionBuffers()} so only the modified ones are encoded
+     *
      * @return a {@link ChunkDataPacket} containing a copy this chunk data
      */
-    protected abstract ChunkDataPacket getFreshPacket();
+    protected ChunkDataPacket getFreshPacket() {
+        ChunkDataPacket fullDataPacket = new ChunkDataPacket();
+        fullDataPacket.biomes = biomes.clone();
+        fullDataPacket.chunkX = chunkX;
+        fullDataPacket.chunkZ = chunkZ;
+        fullDataPacket.sectionBuffers = getSectionBuffers();
+        fullDataPacket.heightmaps = getHeightmapsNBT();
+        fullDataPacket.blockEntities = new CopyOnWriteArraySet<>(blockEntities);
+        fullDataPacket.customBlocksId = getBlockEntitiesCustomBlockId();
+        fullDataPacket.blocksData = new Int2ObjectOpenHashMap<>(blocksData);
+        return fullDataPacket;
+    }
+
+    private Int2ShortMap getBlockEntitiesCustomBlockId() {
+        Int2ShortMap customBlocksId = new Int2ShortOpenHashMap(blockEntities.size());
+        for (int index : blockEntities) {
+            final int x = ChunkUtils.blockIndexToChunkPositionX(index);
+            final int y = ChunkUtils.blockIndexToChunkPositionY(index);
+            final int z = ChunkUtils.blockIndexToChunkPositionZ(index);
+            customBlocksId.put(index, getCustomBlockId(x, y, z));
+        }
+        return customBlocksId;
+    }
 
     /**
      * Used to verify if the chunk should still be kept in memory
@@ -345,31 +640,11 @@ public abstract class Chunk implements Viewable {
 
         final PlayerConnection playerConnection = player.getPlayerConnection();
 
-        // Retrieve & send the buffer to the connection
-        retrieveDataBuffer(buf -> playerConnection.sendPacket(buf, true));
+        // Encoded by the connection event loop, in order with the other packets
+        playerConnection.sendSharedPacket(new SharedDataPacket(1));
 
-        // TODO do not hardcode
         if (MinecraftServer.isFixLighting()) {
-            UpdateLightPacket updateLightPacket = new UpdateLightPacket();
-            updateLightPacket.chunkX = getChunkX();
-            updateLightPacket.chunkZ = getChunkZ();
-            updateLightPacket.skyLightMask = 0x3FFF0;
-            updateLightPacket.blockLightMask = 0x3F;
-            updateLightPacket.emptySkyLightMask = 0x0F;
-            updateLightPacket.emptyBlockLightMask = 0x3FFC0;
-            byte[] bytes = new byte[2048];
-            Arrays.fill(bytes, (byte) 0xFF);
-            List<byte[]> temp = new ArrayList<>(14);
-            List<byte[]> temp2 = new ArrayList<>(6);
-            for (int i = 0; i < 14; ++i) {
-                temp.add(bytes);
-            }
-            for (int i = 0; i < 6; ++i) {
-                temp2.add(bytes);
-            }
-            updateLightPacket.skyLight = temp;
-            updateLightPacket.blockLight = temp2;
-            PacketWriterUtils.writeAndSend(player, updateLightPacket);
+            playerConnection.sendPacket(getLightPacket(), true);
         }
     }
 
@@ -379,26 +654,159 @@ public abstract class Chunk implements Viewable {
      * @param player the player to update the chunk to
      */
     public void sendChunkUpdate(Player player) {
-        retrieveDataBuffer(buf -> {
-            final PlayerConnection playerConnection = player.getPlayerConnection();
-            playerConnection.sendPacket(buf, true);
-        });
+        final PlayerConnection playerConnection = player.getPlayerConnection();
+        playerConnection.sendSharedPacket(new SharedDataPacket(1));
     }
 
     /**
      * Send a full {@link ChunkDataPacket} to all chunk viewers
      */
     public void sendChunkUpdate() {
-        final Set<Player> chunkViewers = getViewers();
-        if (!chunkViewers.isEmpty()) {
-            retrieveDataBuffer(buf -> chunkViewers.forEach(player -> {
-                final PlayerConnection playerConnection = player.getPlayerConnection();
-                if (!PlayerUtils.isNettyClient(playerConnection))
-                    return;
+        final List<PlayerConnection> connections = new ArrayList<>();
+        for (Player player : getViewers()) {
+            final PlayerConnection playerConnection = player.getPlayerConnection();
+            if (PlayerUtils.isNettyClient(playerConnection))
+                connections.add(playerConnection);
+        }
+        if (connections.isEmpty())
+            return;
 
-                playerConnection.sendPacket(buf, true);
-            }));
+        // Encoded and compressed once for all the viewers
+        final SharedDataPacket sharedPacket = new SharedDataPacket(connections.size());
+        for (PlayerConnection playerConnection : connections) {
+            playerConnection.sendSharedPacket(sharedPacket);
+        }
+    }
 
+    /**
+     * Get the compressed version of a full data packet, compressing it if not already done
+     * <p>
+     * Only the version of the current data packet is cached
+     *
+     * @param dataPacket the full data packet
+     * @return the compressed packet, retained, to release once sent
+     */
+    private synchronized ByteBuf getCompressedDataPacket(ByteBuf dataPacket) {
+        if (dataPacket != fullDataPacket) {
+            // Outdated since it has been encoded
+            return PacketCompressor.compress(dataPacket,
+                    MinecraftServer.COMPRESSION_THRESHOLD, MinecraftServer.getCompressionLevel());
+        }
+        if (compressedDataSource != dataPacket) {
+            releaseCompressedDataPacket();
+            this.compressedDataPacket = PacketCompressor.compress(dataPacket,
+                    MinecraftServer.COMPRESSION_THRESHOLD, MinecraftServer.getCompressionLevel());
+            this.compressedDataSource = dataPacket;
+        }
+        return compressedDataPacket.retain();
+    }
+
+    /**
+     * Release the cached compressed data packet, the connections still sending it hold their own reference
+     */
+    private synchronized void releaseCompressedDataPacket() {
+        if (compressedDataPacket != null) {
+            this.compressedDataPacket.release();
+            this.compressedDataPacket = null;
+            this.compressedDataSource = null;
+        }
+    }
+
+    /**
+     * Register a block change to send to the viewers once {@link #sendBlockChanges()} is called
+     * <p>
+     * Multiple changes of the same block are merged, and a section with too many changes is sent entirely
+     *
+     * @param x            the block X, chunk or world coordinate
+     * @param y            the block Y
+     * @param z            the block Z, chunk or world coordinate
+     * @param blockStateId the new block state id
+     */
+    public void addBlockChange(int x, int y, int z, short blockStateId) {
+        if (!MathUtils.isBetween(y, 0, CHUNK_SIZE_Y - 1))
+            return;
+        final int section = ChunkUtils.getSectionAt(y);
+        final int sectionBit = 1 << section;
+        synchronized (pendingBlockChanges) {
+            // The whole section will already be sent
+            if ((pendingSectionUpdates & sectionBit) != 0)
+                return;
+
+            Short2ShortMap changes = pendingBlockChanges[section];
+            if (changes == null) {
+                changes = new Short2ShortOpenHashMap();
+                this.pendingBlockChanges[section] = changes;
+            }
+            changes.put((short) Section.getIndex(x, y, z), blockStateId);
+
+            if (changes.size() > SECTION_UPDATE_THRESHOLD) {
+                // Cheaper to send the section than every single change
+                this.pendingSectionUpdates |= sectionBit;
+                this.pendingBlockChanges[section] = null;
+            }
+        }
+    }
+
+    /**
+     * Send the block changes registered with {@link #addBlockChange(int, int, int, short)} to the chunk viewers
+     * <p>
+     * Each modified section results in a single packet: a {@link BlockChangePacket} for one change,
+     * a {@link MultiBlockChangePacket} for a few of them and a section {@link ChunkDataPacket} above
+     * {@link #SECTION_UPDATE_THRESHOLD} changes
+     */
+    public void sendBlockChanges() {
+        final Short2ShortMap[] changes = new Short2ShortMap[CHUNK_SECTION_COUNT];
+        final int sectionUpdates;
+        synchronized (pendingBlockChanges) {
+            System.arraycopy(pendingBlockChanges, 0, changes, 0, CHUNK_SECTION_COUNT);
+            Arrays.fill(pendingBlockChanges, null);
+            sectionUpdates = pendingSectionUpdates;
+            this.pendingSectionUpdates = 0;
+        }
+
+        if (viewers.isEmpty())
+            return;
+
+        for (int section = 0; section < CHUNK_SECTION_COUNT; section++) {
+            if ((sectionUpdates & (1 << section)) != 0) {
+                sendPacketToViewers(getChunkSectionUpdatePacket(section));
+                continue;
+            }
+
+            final Short2ShortMap sectionChanges = changes[section];
+            if (sectionChanges == null || sectionChanges.isEmpty())
+                continue;
+
+            if (sectionChanges.size() == 1) {
+                final Short2ShortMap.Entry entry = sectionChanges.short2ShortEntrySet().iterator().next();
+                final int index = entry.getShortKey();
+                BlockChangePacket blockChangePacket = new BlockChangePacket();
+                blockChangePacket.blockPosition = new BlockPosition(
+                        CHUNK_SIZE_X * chunkX + (index & 0xF),
+                        CHUNK_SECTION_SIZE * section + (index >> 8 & 0xF),
+                        CHUNK_SIZE_Z * chunkZ + (index >> 4 & 0xF));
+                blockChangePacket.blockStateId = entry.getShortValue();
+                sendPacketToViewers(blockChangePacket);
+                continue;
+            }
+
+            MultiBlockChangePacket multiBlockChangePacket = new MultiBlockChangePacket();
+            multiBlockChangePacket.chunkX = chunkX;
+            multiBlockChangePacket.chunkZ = chunkZ;
+            multiBlockChangePacket.section = section;
+            MultiBlockChangePacket.BlockChange[] blockChanges = new MultiBlockChangePacket.BlockChange[sectionChanges.size()];
+            int i = 0;
+            for (Short2ShortMap.Entry entry : sectionChanges.short2ShortEntrySet()) {
+                final int index = entry.getShortKey();
+                MultiBlockChangePacket.BlockChange blockChange = new MultiBlockChangePacket.BlockChange();
+                blockChange.positionX = index & 0xF;
+                blockChange.positionY = index >> 8 & 0xF;
+                blockChange.positionZ = index >> 4 & 0xF;
+                blockChange.newBlockId = entry.getShortValue();
+                blockChanges[i++] = blockChange;
+            }
+            multiBlockChangePacket.blockChanges = blockChanges;
+            sendPacketToViewers(multiBlockChangePacket);
         }
     }
 
@@ -435,11 +843,59 @@ public abstract class Chunk implements Viewable {
     /**
      * Set the chunk as "unloaded"
      */
-    protected void unload() {
+    protected synchronized void unload() {
         this.loaded = false;
+        // The connections still sending the packets hold their own reference
+        if (fullDataPacket != null) {
+            this.fullDataPacket.release();
+            this.fullDataPacket = null;
+        }
+        releaseCompressedDataPacket();
     }
 
     protected int getBlockIndex(int x, int y, int z) {
         return ChunkUtils.getBlockIndex(x, y, z);
     }
-}
\ No newline at end of file
+
+    /**
+     * The full data packet of this chunk, encoded and compressed once by the first connection event loop needing it
+     * <p>
+     * The encoded buffer is the one cached by the chunk, so connections sending the chunk at different times
+     * share it as long as the chunk is not modified
+     */
+    private final class SharedDataPacket extends SharedPacket {
+
+        private ByteBuf compressedBuffer;
+
+        private SharedDataPacket(int recipients) {
+            super(null, recipients);
+        }
+
+        @Override
+        public ServerPacket getPacket() {
+            return getFreshFullDataPacket();
+        }
+
+        @Override
+        public synchronized ByteBuf getCompressedBuffer() {
+            if (compressedBuffer == null) {
+                this.compressedBuffer = getCompressedDataPacket(getBuffer());
+            }
+            return compressedBuffer;
+        }
+
+        @Override
+        protected ByteBuf encode() {
+            return retainFullDataPacket();
+        }
+
+        @Override
+        protected void deallocate() {
+            super.deallocate();
+            if (compressedBuffer != null) {
+                this.compressedBuffer.release();
+                this.compressedBuffer = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package net.minestom.server.instance;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ShortMap;
+import it.unimi.dsi.fastutil.objects.Object2ShortOpenHashMap;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.data.Data;
+import net.minestom.server.data.SerializableData;
+import net.minestom.server.instance.palette.Section;
+import net.minestom.server.reader.ChunkReader;
+import net.minestom.server.reader.DataReader;
+import net.minestom.server.utils.binary.BinaryReader;
+import net.minestom.server.utils.binary.BinaryWriter;
+import net.minestom.server.utils.validate.Check;
+import net.minestom.server.world.biomes.Biome;
+import net.minestom.server.world.biomes.BiomeManager;
+
+import java.util.zip.CRC32;
+
+/**
+ * The format used to save chunks, written by {@link Chunk#getSerializedData()} and read by {@link ChunkReader}
+ * <p>
+ * A header (magic number, version, flags, length of the body and optionally a CRC32 of the body)
+ * followed by parts, each one prefixed by its type and its length so unknown parts can be skipped:
+ * <ul>
+ *     <li>{@link #PART_BIOMES}: the id of each biome</li>
+ *     <li>{@link #PART_BLOCKS}: the mask of the saved sections, then the block state and custom block
+ *     {@link Section} of each of them, stored as their palette and packed longs</li>
+ *     <li>{@link #PART_BLOCK_DATA}: the data index header followed by the {@link SerializableData} of the blocks</li>
+ *     <li>{@link #PART_ENTITIES}: reserved for the chunk entities, not written for now</li>
+ * </ul>
+ * Chunks saved in the previous format (a list of blocks) are detected with {@link #isLegacy(byte[])}
+ * and can be converted with {@link #convertLegacy(byte[])}.
+ */
+public final class ChunkFormat {
+
+    /**
+     * "MCNK", the first byte of the legacy format is a boolean which cannot be confused with it
+     */
+    public static final int MAGIC = 0x4D434E4B;
+    public static final byte VERSION = 1;
+
+    public static final byte PART_BIOMES = 1;
+    public static final byte PART_BLOCKS = 2;
+    public static final byte PART_BLOCK_DATA = 3;
+    public static final byte PART_ENTITIES = 4;
+
+    private static final byte FLAG_CHECKSUM = 0x1;
+
+    private static final BiomeManager BIOME_MANAGER = MinecraftServer.getBiomeManager();
+
+    // Written in place of the missing half of a saved section, never modified
+    private static final Section EMPTY_SECTION = new Section(Chunk.BLOCK_STATE_BITS_PER_ENTRY);
+
+    private static volatile boolean checksumEnabled = true;
+
+    private ChunkFormat() {
+    }
+
+    /**
+     * Get if a CRC32 of the chunk is written when serializing it
+     *
+     * @return true if the chunks are written with a checksum
+     */
+    public static boolean isChecksumEnabled() {
+        return checksumEnabled;
+    }
+
+    /**
+     * Change if a CRC32 of the chunk is written when serializing it, it is verified when present
+     * no matter this setting
+     *
+     * @param checksumEnabled true to write a checksum
+     */
+    public static void setChecksumEnabled(boolean checksumEnabled) {
+        ChunkFormat.checksumEnabled = checksumEnabled;
+    }
+
+    /**
+     * Get if a serialized chunk uses the format preceding this one
+     *
+     * @param bytes the serialized chunk
+     * @return true if the chunk needs to be converted by {@link #convertLegacy(byte[])}
+     */
+    public static boolean isLegacy(byte[] bytes) {
+        if (bytes.length < Integer.BYTES)
+            return true;
+        final int magic = (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF);
+        return magic != MAGIC;
+    }
+
+    /**
+     * Serialize a chunk
+     *
+     * @param biomes              the biomes of the chunk
+     * @param blockSections       the block state sections, null for a section containing only air
+     * @param customBlockSections the custom block sections, null for a section without custom block
+     * @param blocksData          the data of the blocks by block index, only {@link SerializableData} are written
+     * @return the serialized chunk
+     */
+    public static byte[] write(Biome[] biomes, Section[] blockSections, Section[] customBlockSections,
+                               Int2ObjectMap<Data> blocksData) {
+        BinaryWriter writer = new BinaryWriter();
+        final ByteBuf buffer = writer.getBuffer();
+
+        final boolean checksum = checksumEnabled;
+        buffer.writeInt(MAGIC);
+        buffer.writeByte(VERSION);
+        buffer.writeByte(checksum ? FLAG_CHECKSUM : 0);
+        final int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0); // Body length, set once written
+        if (checksum)
+            buffer.writeInt(0); // CRC32 of the body, set once written
+        final int bodyIndex = buffer.writerIndex();
+
+        // Biomes
+        int partIndex = startPart(buffer, PART_BIOMES);
+        for (Biome biome : biomes) {
+            writer.writeVarInt(biome.getId());
+        }
+        endPart(buffer, partIndex);
+
+        // Blocks, as they are stored in the sections
+        partIndex = startPart(buffer, PART_BLOCKS);
+        int sectionMask = 0;
+        for (int i = 0; i < Chunk.CHUNK_SECTION_COUNT; i++) {
+            if (!isEmpty(blockSections[i]) || !isEmpty(customBlockSections[i]))
+                sectionMask |= 1 << i;
+        }
+        buffer.writeShort(sectionMask);
+        for (int i = 0; i < Chunk.CHUNK_SECTION_COUNT; i++) {
+            if ((sectionMask & (1 << i)) == 0)
+                continue;
+            final Section blockSection = blockSections[i];
+            final Section customBlockSection = customBlockSections[i];
+            (blockSection != null ? blockSection : EMPTY_SECTION).writeStorage(writer);
+            (customBlockSection != null ? customBlockSection : EMPTY_SECTION).writeStorage(writer);
+        }
+        endPart(buffer, partIndex);
+
+        // Blocks data
+        Object2ShortMap<String> typeToIndexMap = new Object2ShortOpenHashMap<>();
+        BinaryWriter dataWriter = new BinaryWriter();
+        int dataCount = 0;
+        for (Int2ObjectMap.Entry<Data> entry : blocksData.int2ObjectEntrySet()) {
+            final Data data = entry.getValue();
+            if (!(data instanceof SerializableData))
+                continue;
+            dataWriter.writeShort((short) entry.getIntKey());
+            dataWriter.writeBytes(((SerializableData) data).getSerializedData(typeToIndexMap, false));
+            dataCount++;
+        }
+        if (dataCount != 0) {
+            partIndex = startPart(buffer, PART_BLOCK_DATA);
+            SerializableData.writeDataIndexHeader(writer, typeToIndexMap);
+            writer.writeVarInt(dataCount);
+            buffer.writeBytes(dataWriter.getBuffer());
+            endPart(buffer, partIndex);
+        }
+
+        final int bodyLength = buffer.writerIndex() - bodyIndex;
+        buffer.setInt(lengthIndex, bodyLength);
+        if (checksum)
+            buffer.setInt(lengthIndex + Integer.BYTES, computeChecksum(buffer, bodyIndex, bodyLength));
+
+        return writer.toByteArray();
+    }
+
+    /**
+     * Read a chunk written by {@link #write(Biome[], Section[], Section[], Int2ObjectMap)},
+     * legacy chunks are also accepted
+     *
+     * @param bytes the serialized chunk
+     * @return the content of the chunk
+     * @throws IllegalArgumentException if the chunk is corrupted or uses an unknown version
+     */
+    public static Content read(byte[] bytes) {
+        BinaryReader reader = new BinaryReader(bytes);
+        if (isLegacy(bytes))
+            return readLegacy(reader);
+
+        final ByteBuf buffer = reader.getBuffer();
+        Check.argCondition(buffer.readableBytes() < Integer.BYTES + 2 * Byte.BYTES + Integer.BYTES,
+                "The chunk header is incomplete");
+        buffer.skipBytes(Integer.BYTES); // Magic
+        final byte version = buffer.readByte();
+        Check.argCondition(version != VERSION, "Unsupported chunk format version " + version);
+        final byte flags = buffer.readByte();
+        final int bodyLength = buffer.readInt();
+        final boolean hasChecksum = (flags & FLAG_CHECKSUM) != 0;
+        final int checksum = hasChecksum ? buffer.readInt() : 0;
+        Check.argCondition(bodyLength != buffer.readableBytes(), "The chunk length does not match its header");
+        if (hasChecksum) {
+            Check.argCondition(checksum != computeChecksum(buffer, buffer.readerIndex(), bodyLength),
+                    "The chunk checksum does not match its content");
+        }
+
+        Content content = new Content();
+        while (buffer.isReadable()) {
+            final byte type = buffer.readByte();
+            final int length = buffer.readInt();
+            Check.argCondition(length < 0 || length > buffer.readableBytes(), "Invalid length for the part " + type);
+            final int endIndex = buffer.readerIndex() + length;
+            switch (type) {
+                case PART_BIOMES:
+                    readBiomes(content, reader);
+                    break;
+                case PART_BLOCKS:
+                    final int sectionMask = buffer.readUnsignedShort();
+                    for (int i = 0; i < Chunk.CHUNK_SECTION_COUNT; i++) {
+                        if ((sectionMask & (1 << i)) == 0)
+                            continue;
+                        content.blockSections[i] = nullIfEmpty(Section.readStorage(reader, Chunk.BLOCK_STATE_BITS_PER_ENTRY));
+                        content.customBlockSections[i] = nullIfEmpty(Section.readStorage(reader, Chunk.CUSTOM_BLOCK_BITS_PER_ENTRY));
+                    }
+                    break;
+                case PART_BLOCK_DATA:
+                    final Object2ShortMap<String> typeToIndexMap = DataReader.readDataIndexes(reader);
+                    final int dataCount = reader.readVarInt();
+                    for (int i = 0; i < dataCount; i++) {
+                        final int index = reader.readShort() & 0xFFFF;
+                        content.blocksData.put(index, DataReader.readData(typeToIndexMap, reader));
+                    }
+                    break;
+                default:
+                    // Unknown or not yet supported part (entities)
+                    break;
+            }
+            Check.argCondition(buffer.readerIndex() > endIndex, "The part " + type + " is longer than its length");
+            buffer.readerIndex(endIndex);
+        }
+        Check.argCondition(content.biomes[0] == null, "The chunk does not contain its biomes");
+        return content;
+    }
+
+    /**
+     * Convert a chunk saved in the legacy format (a list of blocks) to the current format
+     *
+     * @param bytes the legacy serialized chunk
+     * @return the chunk serialized in the current format
+     */
+    public static byte[] convertLegacy(byte[] bytes) {
+        final Content content = readLegacy(new BinaryReader(bytes));
+        return write(content.biomes, content.blockSections, content.customBlockSections, content.blocksData);
+    }
+
+    private static Content readLegacy(BinaryReader reader) {
+        Content content = new Content();
+
+        // Used for blocks data
+        Object2ShortMap<String> typeToIndexMap = null;
+        final boolean hasIndex = reader.readBoolean();
+        if (hasIndex) {
+            typeToIndexMap = DataReader.readDataIndexes(reader);
+        }
+
+        for (int i = 0; i < Chunk.BIOME_COUNT; i++) {
+            content.biomes[i] = BIOME_MANAGER.getById(reader.readByte());
+        }
+
+        while (reader.available() > 0) {
+            final int index = reader.readShort() & 0xFFFF;
+            final short blockStateId = reader.readShort();
+            final short customBlockId = reader.readShort();
+            final boolean hasData = reader.readBoolean();
+            if (hasData) {
+                content.blocksData.put(index, DataReader.readData(typeToIndexMap, reader));
+            }
+
+            final int x = index & 0xF;
+            final int y = index >> 4 & 0xFF;
+            final int z = index >> 12 & 0xF;
+            setValue(content.blockSections, Chunk.BLOCK_STATE_BITS_PER_ENTRY, x, y, z, blockStateId);
+            setValue(content.customBlockSections, Chunk.CUSTOM_BLOCK_BITS_PER_ENTRY, x, y, z, customBlockId);
+        }
+        return content;
+    }
+
+    private static void readBiomes(Content content, BinaryReader reader) {
+        for (int i = 0; i < Chunk.BIOME_COUNT; i++) {
+            content.biomes[i] = BIOME_MANAGER.getById(reader.readVarInt());
+        }
+    }
+
+    private static int startPart(ByteBuf buffer, byte type) {
+        buffer.writeByte(type);
+        final int lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0); // Part length, set by #endPart
+        return lengthIndex;
+    }
+
+    private static void endPart(ByteBuf buffer, int lengthIndex) {
+        buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - Integer.BYTES);
+    }
+
+    private static int computeChecksum(ByteBuf buffer, int index, int length) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(buffer.nioBuffer(index, length));
+        return (int) crc32.getValue();
+    }
+
+    private static boolean isEmpty(Section section) {
+        return section == null || section.isEmpty();
+    }
+
+    private static Section nullIfEmpty(Section section) {
+        return section.isEmpty() ? null : section;
+    }
+
+    private static void setValue(Section[] sections, int directBitsPerEntry, int x, int y, int z, short value) {
+        if (value == 0)
+            return;
+        final int sectionY = y / Chunk.CHUNK_SECTION_SIZE;
+        Section section = sections[sectionY];
+        if (section == null) {
+            section = new Section(directBitsPerEntry);
+            sections[sectionY] = section;
+        }
+        section.set(Section.getIndex(x, y, z), value);
+    }
+
+    /**
+     * The content of a serialized chunk
+     */
+    public static class Content {
+
+        private final Biome[] biomes = new Biome[Chunk.BIOME_COUNT];
+        private final Section[] blockSections = new Section[Chunk.CHUNK_SECTION_COUNT];
+        private final Section[] customBlockSections = new Section[Chunk.CHUNK_SECTION_COUNT];
+        private final Int2ObjectMap<Data> blocksData = new Int2ObjectOpenHashMap<>();
+
+        private Content() {
+        }
+
+        public Biome[] getBiomes() {
+            return biomes;
+        }
+
+        /**
+         * Get the block state sections
+         *
+         * @return the block state sections, null for a section containing only air
+         */
+        public Section[] getBlockSections() {
+            return blockSections;
+        }
+
+        /**
+         * Get the custom block sections
+         *
+         * @return the custom block sections, null for a section without custom block
+         */
+        public Section[] getCustomBlockSections() {
+            return customBlockSections;
+        }
+
+        /**
+         * Get the data of the blocks
+         *
+         * @return the data of the blocks by block index
+         */
+        public Int2ObjectMap<Data> getBlocksData() {
+            return blocksData;
+        }
+    }
+
+}
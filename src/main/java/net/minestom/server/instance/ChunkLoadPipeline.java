@@ -0,0 +1,270 @@
+package net.minestom.server.instance;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.utils.thread.MinestomThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load the chunks of an {@link InstanceContainer} outside of the tick threads
+ * <p>
+ * A chunk is first read by the {@link IChunkLoader} in the I/O pool, then generated in the generation pool
+ * if it has not been found. Requests are processed by distance to the closest player of the instance
+ * and requests for a chunk already being loaded share the same future.
+ * <p>
+ * A chunk which cannot be read or generated completes its future exceptionally, the next request tries again.
+ * A chunk found by the loader is never generated instead, it would replace the saved one.
+ * <p>
+ * Chunks are only added to the instance once complete, by the thread which completed them,
+ * the futures are then completed on that same thread. It does not depend on the instance being ticked,
+ * which is only the case once it contains a chunk.
+ */
+public class ChunkLoadPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkLoadPipeline.class);
+
+    private static final ExecutorService IO_POOL =
+            new MinestomThread(MinecraftServer.THREAD_COUNT_CHUNK_IO, MinecraftServer.THREAD_NAME_CHUNK_IO);
+    private static final ExecutorService GENERATION_POOL =
+            new MinestomThread(MinecraftServer.THREAD_COUNT_CHUNK_GENERATION, MinecraftServer.THREAD_NAME_CHUNK_GENERATION);
+
+    private static final Comparator<Request> PRIORITY_COMPARATOR =
+            Comparator.<Request>comparingInt(request -> request.priority).thenComparingLong(request -> request.sequence);
+
+    private final InstanceContainer instance;
+
+    private final Map<Long, Request> inFlightRequests = new ConcurrentHashMap<>();
+    // The pools execute a task per request which picks the closest one when it starts
+    private final Queue<Request> loadQueue = new PriorityBlockingQueue<>(11, PRIORITY_COMPARATOR);
+    private final Queue<Request> generationQueue = new PriorityBlockingQueue<>(11, PRIORITY_COMPARATOR);
+    private final AtomicLong sequence = new AtomicLong();
+
+    // Used when the chunk loader does not support parallel loading
+    private final Object loaderLock = new Object();
+
+    // Metrics
+    private final LongAdder publishedCount = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    ChunkLoadPipeline(InstanceContainer instance) {
+        this.instance = instance;
+    }
+
+    /**
+     * Load a chunk, or get the request already loading it
+     *
+     * @param chunkX the chunk X
+     * @param chunkZ the chunk Z
+     * @return a future completed once the chunk has been added to the instance
+     */
+    public CompletableFuture<Chunk> load(int chunkX, int chunkZ) {
+        final long index = ChunkUtils.getChunkIndex(chunkX, chunkZ);
+        final Request[] created = new Request[1];
+        final Request request = inFlightRequests.computeIfAbsent(index, i -> {
+            // The chunk may have been published since the caller checked
+            if (instance.getChunk(chunkX, chunkZ) != null)
+                return null;
+            created[0] = new Request(chunkX, chunkZ, getPriority(chunkX, chunkZ), sequence.getAndIncrement());
+            return created[0];
+        });
+
+        if (request == null)
+            return CompletableFuture.completedFuture(instance.getChunk(chunkX, chunkZ));
+        if (created[0] != null) {
+            this.loadQueue.add(request);
+            IO_POOL.execute(this::processLoad);
+        }
+        return request.future;
+    }
+
+    /**
+     * Get the number of chunks waiting to be read by the chunk loader
+     *
+     * @return the load queue depth
+     */
+    public int getLoadQueueSize() {
+        return loadQueue.size();
+    }
+
+    /**
+     * Get the number of chunks not found by the chunk loader waiting to be generated
+     *
+     * @return the generation queue depth
+     */
+    public int getGenerationQueueSize() {
+        return generationQueue.size();
+    }
+
+    /**
+     * Get the number of chunks requested and not yet added to the instance
+     *
+     * @return the number of requests in progress
+     */
+    public int getInFlightCount() {
+        return inFlightRequests.size();
+    }
+
+    /**
+     * Get the number of chunks added to the instance since the last {@link #resetMetrics()}
+     *
+     * @return the number of published chunks
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * Get the average time between a request and the chunk being added to the instance
+     *
+     * @param unit the unit of the returned latency
+     * @return the average latency since the last {@link #resetMetrics()}, 0 if no chunk has been published
+     */
+    public long getAverageLatency(TimeUnit unit) {
+        final long count = publishedCount.sum();
+        return count == 0 ? 0 : unit.convert(totalLatency.sum() / count, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time between a request and the chunk being added to the instance
+     *
+     * @param unit the unit of the returned latency
+     * @return the maximum latency since the last {@link #resetMetrics()}
+     */
+    public long getMaxLatency(TimeUnit unit) {
+        return unit.convert(maxLatency.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reset the published count and the latencies
+     */
+    public void resetMetrics() {
+        this.publishedCount.reset();
+        this.totalLatency.reset();
+        this.maxLatency.set(0);
+    }
+
+    private void processLoad() {
+        final Request request = loadQueue.poll();
+        if (request == null)
+            return;
+
+        final boolean found;
+        try {
+            final IChunkLoader chunkLoader = instance.getChunkLoader();
+            if (chunkLoader.supportsParallelLoading()) {
+                found = loadChunk(chunkLoader, request);
+            } else {
+                synchronized (loaderLock) {
+                    found = loadChunk(chunkLoader, request);
+                }
+            }
+        } catch (Exception e) {
+            // Not generated, the chunk may exist but be unreadable
+            fail(request, e);
+            return;
+        }
+
+        if (!found) {
+            this.generationQueue.add(request);
+            GENERATION_POOL.execute(this::processGeneration);
+        }
+    }
+
+    private void processGeneration() {
+        final Request request = generationQueue.poll();
+        if (request == null)
+            return;
+        try {
+            instance.createChunk(request.chunkX, request.chunkZ, chunk -> complete(request, chunk));
+        } catch (Exception e) {
+            fail(request, e);
+        }
+    }
+
+    private boolean loadChunk(IChunkLoader chunkLoader, Request request) {
+        return chunkLoader.loadChunk(instance, request.chunkX, request.chunkZ,
+                chunk -> complete(request, chunk), throwable -> fail(request, throwable));
+    }
+
+    /**
+     * Add a loaded or generated chunk to the instance and complete its future
+     *
+     * @param request the request of the chunk
+     * @param chunk   the complete chunk
+     */
+    private void complete(Request request, Chunk chunk) {
+        // Cached before leaving the in-flight requests so that a concurrent load cannot request it again
+        try {
+            instance.publishChunk(chunk);
+        } catch (Exception e) {
+            fail(request, e);
+            return;
+        }
+        this.inFlightRequests.remove(ChunkUtils.getChunkIndex(request.chunkX, request.chunkZ));
+
+        final long latency = System.nanoTime() - request.creationTime;
+        this.publishedCount.increment();
+        this.totalLatency.add(latency);
+        this.maxLatency.accumulateAndGet(latency, Math::max);
+
+        request.future.complete(chunk);
+    }
+
+    /**
+     * Complete the future of a request exceptionally, a new request can then be made for the chunk
+     *
+     * @param request   the request of the chunk
+     * @param throwable the cause of the failure
+     */
+    private void fail(Request request, Throwable throwable) {
+        LOGGER.error("Failed to load the chunk " + request.chunkX + " " + request.chunkZ, throwable);
+        this.inFlightRequests.remove(ChunkUtils.getChunkIndex(request.chunkX, request.chunkZ), request);
+        request.future.completeExceptionally(throwable);
+    }
+
+    /**
+     * Get the priority of a chunk, lower is loaded first
+     *
+     * @param chunkX the chunk X
+     * @param chunkZ the chunk Z
+     * @return the squared distance in chunks to the closest player
+     */
+    private int getPriority(int chunkX, int chunkZ) {
+        int priority = Integer.MAX_VALUE;
+        for (Player player : instance.getPlayers()) {
+            final Position position = player.getPosition();
+            final int deltaX = ChunkUtils.getChunkCoordinate((int) Math.floor(position.getX())) - chunkX;
+            final int deltaZ = ChunkUtils.getChunkCoordinate((int) Math.floor(position.getZ())) - chunkZ;
+            priority = Math.min(priority, deltaX * deltaX + deltaZ * deltaZ);
+        }
+        return priority;
+    }
+
+    private static final class Request {
+
+        private final int chunkX, chunkZ;
+        private final int priority;
+        private final long sequence;
+        private final long creationTime = System.nanoTime();
+        private final CompletableFuture<Chunk> future = new CompletableFuture<>();
+
+        private Request(int chunkX, int chunkZ, int priority, long sequence) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package net.minestom.server.instance;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongHeapPriorityQueue;
+import it.unimi.dsi.fastutil.longs.LongPriorityQueue;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.player.PlayerConnection;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.utils.validate.Check;
+
+/**
+ * The loaded chunks waiting to be sent to a player, nearest to the player chunk first
+ * <p>
+ * Chunks are sent by {@link #send(Player)} during the player update, at most {@link #getChunksPerTick()}
+ * per tick and only while the connection is writable, so that joining or teleporting does not write
+ * every chunk in range at once. The chunks out of range when the player changes chunk are dropped.
+ */
+public class ChunkSendQueue {
+
+    public static final int DEFAULT_CHUNKS_PER_TICK = 16;
+
+    private final Long2ObjectMap<Chunk> pendingChunks = new Long2ObjectOpenHashMap<>();
+    private LongPriorityQueue queue = createQueue();
+
+    // Chunk of the player and view distance in chunks
+    private int centerX, centerZ;
+    private int range;
+
+    private volatile int chunksPerTick = DEFAULT_CHUNKS_PER_TICK;
+
+    /**
+     * Get the maximum number of chunks sent each tick
+     *
+     * @return the chunks per tick budget
+     */
+    public int getChunksPerTick() {
+        return chunksPerTick;
+    }
+
+    /**
+     * Change the maximum number of chunks sent each tick
+     *
+     * @param chunksPerTick the new chunks per tick budget
+     */
+    public void setChunksPerTick(int chunksPerTick) {
+        Check.argCondition(chunksPerTick <= 0, "The chunks per tick budget must be positive");
+        this.chunksPerTick = chunksPerTick;
+    }
+
+    /**
+     * Change the chunk around which the chunks are sent, dropping the ones out of range
+     *
+     * @param chunkX the chunk X of the player
+     * @param chunkZ the chunk Z of the player
+     * @param range  the view distance in chunks
+     */
+    public synchronized void setCenter(int chunkX, int chunkZ, int range) {
+        this.centerX = chunkX;
+        this.centerZ = chunkZ;
+        this.range = range;
+
+        // The order depends on the center, sort again
+        this.queue = createQueue();
+        final ObjectIterator<Long2ObjectMap.Entry<Chunk>> iterator = pendingChunks.long2ObjectEntrySet().iterator();
+        while (iterator.hasNext()) {
+            final long index = iterator.next().getLongKey();
+            if (isInRange(index)) {
+                this.queue.enqueue(index);
+            } else {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Add a chunk to send, does nothing if already waiting or out of range
+     *
+     * @param chunk the loaded chunk
+     */
+    public synchronized void add(Chunk chunk) {
+        final long index = ChunkUtils.getChunkIndex(chunk.getChunkX(), chunk.getChunkZ());
+        if (isInRange(index) && pendingChunks.putIfAbsent(index, chunk) == null) {
+            this.queue.enqueue(index);
+        }
+    }
+
+    /**
+     * Remove all the waiting chunks
+     */
+    public synchronized void clear() {
+        this.pendingChunks.clear();
+        this.queue.clear();
+    }
+
+    /**
+     * Get the number of chunks waiting to be sent
+     *
+     * @return the number of waiting chunks
+     */
+    public synchronized int size() {
+        return pendingChunks.size();
+    }
+
+    /**
+     * Send the nearest chunks to {@code player} by adding it as a viewer, within the tick budget
+     * <p>
+     * Stops as soon as the player connection is not writable anymore
+     *
+     * @param player the player of this queue
+     */
+    public void send(Player player) {
+        final PlayerConnection playerConnection = player.getPlayerConnection();
+
+        int sent = 0;
+        while (sent < chunksPerTick && playerConnection.isWritable()) {
+            final Chunk chunk;
+            synchronized (this) {
+                if (queue.isEmpty())
+                    return;
+                chunk = pendingChunks.remove(queue.dequeueLong());
+            }
+
+            // Unloaded since, or already sent
+            if (!chunk.isLoaded() || chunk.getViewers().contains(player))
+                continue;
+            chunk.addViewer(player);
+            sent++;
+        }
+    }
+
+    private boolean isInRange(long index) {
+        return Math.abs(ChunkUtils.getChunkCoordX(index) - centerX) <= range &&
+                Math.abs(ChunkUtils.getChunkCoordZ(index) - centerZ) <= range;
+    }
+
+    private int getDistance(long index) {
+        final int deltaX = ChunkUtils.getChunkCoordX(index) - centerX;
+        final int deltaZ = ChunkUtils.getChunkCoordZ(index) - centerZ;
+        return deltaX * deltaX + deltaZ * deltaZ;
+    }
+
+    private LongPriorityQueue createQueue() {
+        return new LongHeapPriorityQueue((long index1, long index2) ->
+                Integer.compare(getDistance(index1), getDistance(index2)));
+    }
+
+}
@@ -1,21 +1,15 @@
 package net.minestom.server.instance;
 
-import com.extollit.gaming.ai.path.model.ColumnarOcclusionFieldList;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.objects.Object2ShortMap;
-import it.unimi.dsi.fastutil.objects.Object2ShortOpenHashMap;
 import net.minestom.server.data.Data;
-import net.minestom.server.data.SerializableData;
-import net.minestom.server.entity.pathfinding.PFBlockDescription;
+import net.minestom.server.entity.pathfinding.PFColumnarSpace;
 import net.minestom.server.instance.block.CustomBlock;
 import net.minestom.server.instance.block.UpdateConsumer;
-import net.minestom.server.network.packet.server.play.ChunkDataPacket;
+import net.minestom.server.instance.palette.Section;
 import net.minestom.server.reader.ChunkReader;
 import net.minestom.server.utils.MathUtils;
-import net.minestom.server.utils.binary.BinaryWriter;
+import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.world.biomes.Biome;
 
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.function.Consumer;
 
 public class DynamicChunk extends Chunk {
@@ -47,10 +41,9 @@ public class DynamicChunk extends Chunk {
 
         {
             // Update pathfinder
-            if (columnarSpace != null) {
-                final ColumnarOcclusionFieldList columnarOcclusionFieldList = columnarSpace.occlusionFields();
-                final PFBlockDescription blockDescription = PFBlockDescription.getBlockDescription(blockStateId);
-                columnarOcclusionFieldList.onBlockChanged(x, y, z, blockDescription, 0);
+            final PFColumnarSpace pathSpace = columnarSpace;
+            if (pathSpace != null) {
+                pathSpace.onBlockChanged(x, y, z, blockStateId);
             }
         }
 
@@ -73,7 +66,7 @@ public class DynamicChunk extends Chunk {
 
             this.blockEntities.remove(index);
 
-            this.packetUpdated = false;
+            invalidateSection(ChunkUtils.getSectionAt(y));
             return;
         }
 
@@ -100,7 +93,7 @@ public class DynamicChunk extends Chunk {
             this.blockEntities.remove(index);
         }
 
-        this.packetUpdated = false;
+        invalidateSection(ChunkUtils.getSectionAt(y));
     }
 
     @Override
@@ -140,6 +133,7 @@ public class DynamicChunk extends Chunk {
 
         this.blocksStateId[blockIndex] = blockStateId;
         this.customBlocksId[blockIndex] = customId;
+        invalidateSection(ChunkUtils.getSectionAt(y));
     }
 
     @Override
@@ -150,87 +144,44 @@ public class DynamicChunk extends Chunk {
         }
 
         this.blocksStateId[blockIndex] = blockStateId;
+        invalidateSection(ChunkUtils.getSectionAt(y));
     }
 
     /**
      * Serialize this {@link Chunk} based on {@link ChunkReader#readChunk(byte[], Instance, int, int, Consumer)}
      * <p>
-     * It is also used by the default {@link IChunkLoader} which is {@link MinestomBasicChunkLoader}
+     * It is also used by the default {@link IChunkLoader} which is {@link MinestomBasicChunkLoader}.
+     * The blocks are converted to {@link Section sections}, see {@link ChunkFormat}.
      *
      * @return the serialized chunk data
      */
     @Override
-    public byte[] getSerializedData() {
-
-        // Used for blocks data
-        Object2ShortMap<String> typeToIndexMap = new Object2ShortOpenHashMap<>();
-
-        BinaryWriter binaryWriter = new BinaryWriter();
-
-        // Write the biomes id
-        for (int i = 0; i < BIOME_COUNT; i++) {
-            final byte id = (byte) biomes[i].getId();
-            binaryWriter.writeByte(id);
-        }
-
-        for (byte x = 0; x < CHUNK_SIZE_X; x++) {
-            for (short y = 0; y < CHUNK_SIZE_Y; y++) {
-                for (byte z = 0; z < CHUNK_SIZE_Z; z++) {
+    public synchronized byte[] getSerializedData() {
+        Section[] blockSections = new Section[CHUNK_SECTION_COUNT];
+        Section[] customBlockSections = new Section[CHUNK_SECTION_COUNT];
+        for (int y = 0; y < CHUNK_SIZE_Y; y++) {
+            for (int z = 0; z < CHUNK_SIZE_Z; z++) {
+                for (int x = 0; x < CHUNK_SIZE_X; x++) {
                     final int index = getBlockIndex(x, y, z);
-
-                    final short blockStateId = blocksStateId[index];
-                    final short customBlockId = customBlocksId[index];
-
-                    // No block at the position
-                    if (blockStateId == 0 && customBlockId == 0)
-                        continue;
-
-                    // Chunk coordinates
-                    binaryWriter.writeShort((short) index);
-
-                    // Block ids
-                    binaryWriter.writeShort(blockStateId);
-                    binaryWriter.writeShort(customBlockId);
-
-                    // Data
-                    final Data data = blocksData.get(index);
-                    final boolean hasData = data instanceof SerializableData;
-                    binaryWriter.writeBoolean(hasData);
-                    if (hasData) {
-                        // Get the un-indexed data
-                        final byte[] serializedData = ((SerializableData) data).getSerializedData(typeToIndexMap, false);
-                        binaryWriter.writeBytes(serializedData);
-                    }
+                    setValue(blockSections, BLOCK_STATE_BITS_PER_ENTRY, x, y, z, blocksStateId[index]);
+                    setValue(customBlockSections, CUSTOM_BLOCK_BITS_PER_ENTRY, x, y, z, customBlocksId[index]);
                 }
             }
         }
-
-        // If the chunk data contains SerializableData type, it needs to be added in the header
-        BinaryWriter indexWriter = new BinaryWriter();
-        final boolean hasIndex = !typeToIndexMap.isEmpty();
-        indexWriter.writeBoolean(hasIndex);
-        if (hasIndex) {
-            // Get the index buffer (prefixed by true to say that the chunk contains data indexes)
-            SerializableData.writeDataIndexHeader(indexWriter, typeToIndexMap);
-        }
-
-        // Add the hasIndex field & the index header if it has it
-        binaryWriter.writeAtStart(indexWriter);
-
-        return binaryWriter.toByteArray();
+        return ChunkFormat.write(biomes, blockSections, customBlockSections, blocksData);
     }
 
-    @Override
-    protected ChunkDataPacket getFreshPacket() {
-        ChunkDataPacket fullDataPacket = new ChunkDataPacket();
-        fullDataPacket.biomes = biomes.clone();
-        fullDataPacket.chunkX = chunkX;
-        fullDataPacket.chunkZ = chunkZ;
-        fullDataPacket.blocksStateId = blocksStateId.clone();
-        fullDataPacket.customBlocksId = customBlocksId.clone();
-        fullDataPacket.blockEntities = new CopyOnWriteArraySet<>(blockEntities);
-        fullDataPacket.blocksData = new Int2ObjectOpenHashMap<>(blocksData);
-        return fullDataPacket;
+    private static void setValue(Section[] sections, int directBitsPerEntry, int x, int y, int z, short value) {
+        // Sections containing only air are not written
+        if (value == 0)
+            return;
+        final int sectionY = y / CHUNK_SECTION_SIZE;
+        Section section = sections[sectionY];
+        if (section == null) {
+            section = new Section(directBitsPerEntry);
+            sections[sectionY] = section;
+        }
+        section.set(Section.getIndex(x, y, z), value);
     }
 
 }
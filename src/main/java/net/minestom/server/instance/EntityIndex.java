@@ -0,0 +1,288 @@
+package net.minestom.server.instance;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkUtils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Index of the entities of an {@link Instance} by 16x16x16 cells, used to find the entities around a position
+ * without going through every chunk entity
+ * <p>
+ * Kept up to date by {@link Entity#refreshPosition(float, float, float)}, the lock is only taken
+ * when an entity changes cell. The queries collect the matching entities in a reused buffer
+ * before calling the consumer, which is then free to add, move or remove entities.
+ */
+public class EntityIndex {
+
+    private static final int CELL_SHIFT = 4;
+
+    // Buffers used to collect the query results, a stack in case of nested queries
+    private static final ThreadLocal<ArrayDeque<List<Entity>>> BUFFERS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final Long2ObjectMap<List<Entity>> cells = new Long2ObjectOpenHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Largest bounding box of the indexed entities, used to find the entities overlapping a cell
+    private volatile float maxWidth, maxHeight;
+
+    /**
+     * Add an entity at its current position
+     *
+     * @param entity the entity to add
+     */
+    public void add(Entity entity) {
+        final Position position = entity.getPosition();
+        final long cell = getCell(position.getX(), position.getY(), position.getZ());
+        final BoundingBox boundingBox = entity.getBoundingBox();
+        lock.writeLock().lock();
+        try {
+            final List<Entity> entities = cells.computeIfAbsent(cell, c -> new ArrayList<>());
+            if (!entities.contains(entity))
+                entities.add(entity);
+            this.maxWidth = Math.max(maxWidth, Math.max(boundingBox.getWidth(), boundingBox.getDepth()));
+            this.maxHeight = Math.max(maxHeight, boundingBox.getHeight());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an entity
+     *
+     * @param entity the entity to remove
+     */
+    public void remove(Entity entity) {
+        final Position position = entity.getPosition();
+        final long cell = getCell(position.getX(), position.getY(), position.getZ());
+        lock.writeLock().lock();
+        try {
+            if (!removeFromCell(cell, entity)) {
+                // The position has been modified without refreshing it, look everywhere
+                for (long otherCell : cells.keySet().toLongArray()) {
+                    if (removeFromCell(otherCell, entity))
+                        break;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move an entity to the cell of its new position, does nothing if it is not indexed
+     *
+     * @param entity the entity which moved
+     * @param lastX  the previous X
+     * @param lastY  the previous Y
+     * @param lastZ  the previous Z
+     * @param x      the new X
+     * @param y      the new Y
+     * @param z      the new Z
+     */
+    public void move(Entity entity, float lastX, float lastY, float lastZ, float x, float y, float z) {
+        final long lastCell = getCell(lastX, lastY, lastZ);
+        final long cell = getCell(x, y, z);
+        if (lastCell == cell)
+            return;
+        lock.writeLock().lock();
+        try {
+            if (removeFromCell(lastCell, entity)) {
+                this.cells.computeIfAbsent(cell, c -> new ArrayList<>()).add(entity);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Call {@code consumer} for each entity whose position is in the box
+     *
+     * @param minX     the box min X
+     * @param minY     the box min Y
+     * @param minZ     the box min Z
+     * @param maxX     the box max X
+     * @param maxY     the box max Y
+     * @param maxZ     the box max Z
+     * @param consumer the consumer called for each entity
+     */
+    public void forEachEntityInBox(float minX, float minY, float minZ,
+                                   float maxX, float maxY, float maxZ, Consumer<Entity> consumer) {
+        final List<Entity> buffer = acquireBuffer();
+        try {
+            lock.readLock().lock();
+            try {
+                forEachCell(minX, minY, minZ, maxX, maxY, maxZ, entities -> {
+                    for (Entity entity : entities) {
+                        final Position position = entity.getPosition();
+                        final float x = position.getX(), y = position.getY(), z = position.getZ();
+                        if (x >= minX && x <= maxX && y >= minY && y <= maxY && z >= minZ && z <= maxZ)
+                            buffer.add(entity);
+                    }
+                });
+            } finally {
+                lock.readLock().unlock();
+            }
+            buffer.forEach(consumer);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Call {@code consumer} for each entity whose bounding box intersects {@code boundingBox}
+     *
+     * @param boundingBox the bounding box
+     * @param consumer    the consumer called for each entity
+     */
+    public void forEachEntityIntersecting(BoundingBox boundingBox, Consumer<Entity> consumer) {
+        // An entity can overlap a cell without having its position in it
+        final float horizontalMargin = maxWidth / 2;
+        final float verticalMargin = maxHeight;
+        final List<Entity> buffer = acquireBuffer();
+        try {
+            lock.readLock().lock();
+            try {
+                forEachCell(boundingBox.getMinX() - horizontalMargin, boundingBox.getMinY() - verticalMargin,
+                        boundingBox.getMinZ() - horizontalMargin, boundingBox.getMaxX() + horizontalMargin,
+                        boundingBox.getMaxY(), boundingBox.getMaxZ() + horizontalMargin, entities -> {
+                            for (Entity entity : entities) {
+                                if (boundingBox.intersect(entity.getBoundingBox()))
+                                    buffer.add(entity);
+                            }
+                        });
+            } finally {
+                lock.readLock().unlock();
+            }
+            buffer.forEach(consumer);
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    /**
+     * Call {@code consumer} for each entity at {@code range} or less from {@code position}
+     *
+     * @param position the center position
+     * @param range    the maximum distance
+     * @param consumer the consumer called for each entity
+     */
+    public void forEachNearbyEntity(Position position, float range, Consumer<Entity> consumer) {
+        final float x = position.getX(), y = position.getY(), z = position.getZ();
+        final float rangeSquared = range * range;
+        forEachEntityInBox(x - range, y - range, z - range, x + range, y + range, z + range, entity -> {
+            if (getDistanceSquared(entity.getPosition(), x, y, z) <= rangeSquared)
+                consumer.accept(entity);
+        });
+    }
+
+    /**
+     * Get the entities at {@code range} or less from {@code position}
+     *
+     * @param position the center position
+     * @param range    the maximum distance
+     * @param filter   the filter of the entities to return, null to return all of them
+     * @return a new list containing the nearby entities
+     */
+    public List<Entity> getNearbyEntities(Position position, float range, Predicate<Entity> filter) {
+        List<Entity> result = new ArrayList<>();
+        forEachNearbyEntity(position, range, entity -> {
+            if (filter == null || filter.test(entity))
+                result.add(entity);
+        });
+        return result;
+    }
+
+    /**
+     * Get the closest entity at {@code range} or less from {@code position}
+     *
+     * @param position the center position
+     * @param range    the maximum distance
+     * @param filter   the filter of the entities to consider, null to consider all of them
+     * @return the closest entity matching {@code filter}, null if none
+     */
+    public Entity getClosestEntity(Position position, float range, Predicate<Entity> filter) {
+        final float x = position.getX(), y = position.getY(), z = position.getZ();
+        final float rangeSquared = range * range;
+        final List<Entity> buffer = acquireBuffer();
+        try {
+            lock.readLock().lock();
+            try {
+                forEachCell(x - range, y - range, z - range, x + range, y + range, z + range, buffer::addAll);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            Entity closest = null;
+            float closestDistance = Float.MAX_VALUE;
+            for (Entity entity : buffer) {
+                final float distance = getDistanceSquared(entity.getPosition(), x, y, z);
+                if (distance <= rangeSquared && distance < closestDistance && (filter == null || filter.test(entity))) {
+                    closest = entity;
+                    closestDistance = distance;
+                }
+            }
+            return closest;
+        } finally {
+            releaseBuffer(buffer);
+        }
+    }
+
+    private void forEachCell(float minX, float minY, float minZ,
+                             float maxX, float maxY, float maxZ, Consumer<List<Entity>> consumer) {
+        final int minCellX = (int) Math.floor(minX) >> CELL_SHIFT, maxCellX = (int) Math.floor(maxX) >> CELL_SHIFT;
+        final int minCellY = (int) Math.floor(minY) >> CELL_SHIFT, maxCellY = (int) Math.floor(maxY) >> CELL_SHIFT;
+        final int minCellZ = (int) Math.floor(minZ) >> CELL_SHIFT, maxCellZ = (int) Math.floor(maxZ) >> CELL_SHIFT;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+                    final List<Entity> entities = cells.get(ChunkUtils.getChunkIndexWithSection(cellX, cellZ, cellY));
+                    if (entities != null)
+                        consumer.accept(entities);
+                }
+            }
+        }
+    }
+
+    private boolean removeFromCell(long cell, Entity entity) {
+        final List<Entity> entities = cells.get(cell);
+        if (entities == null || !entities.remove(entity))
+            return false;
+        if (entities.isEmpty())
+            this.cells.remove(cell);
+        return true;
+    }
+
+    private static long getCell(float x, float y, float z) {
+        return ChunkUtils.getChunkIndexWithSection((int) Math.floor(x) >> CELL_SHIFT,
+                (int) Math.floor(z) >> CELL_SHIFT, (int) Math.floor(y) >> CELL_SHIFT);
+    }
+
+    private static float getDistanceSquared(Position position, float x, float y, float z) {
+        final float deltaX = position.getX() - x;
+        final float deltaY = position.getY() - y;
+        final float deltaZ = position.getZ() - z;
+        return deltaX * deltaX + deltaY * deltaY + deltaZ * deltaZ;
+    }
+
+    private static List<Entity> acquireBuffer() {
+        final List<Entity> buffer = BUFFERS.get().poll();
+        return buffer != null ? buffer : new ArrayList<>();
+    }
+
+    private static void releaseBuffer(List<Entity> buffer) {
+        buffer.clear();
+        BUFFERS.get().push(buffer);
+    }
+
+}
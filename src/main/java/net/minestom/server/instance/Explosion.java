@@ -1,10 +1,13 @@
 package net.minestom.server.instance;
 
-import net.minestom.server.instance.block.Block;
+import net.minestom.server.entity.Player;
 import net.minestom.server.network.PacketWriterUtils;
 import net.minestom.server.network.packet.server.play.ExplosionPacket;
 import net.minestom.server.utils.BlockPosition;
+import net.minestom.server.utils.Position;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,6 +16,11 @@ import java.util.List;
  */
 public abstract class Explosion {
 
+    /**
+     * Maximum distance between a player and the explosion center for the player to receive the explosion packet
+     */
+    public static final float PACKET_RANGE = 64;
+
     private final float centerX;
     private final float centerY;
     private final float centerZ;
@@ -51,6 +59,9 @@ public abstract class Explosion {
 
     /**
      * Performs the explosion and send the corresponding packet
+     * <p>
+     * The blocks are removed in one batch using {@link Instance#removeBlocks(Collection)}
+     * and the packet is only sent to the players at {@link #PACKET_RANGE} blocks or less
      *
      * @param instance instance to perform this explosion in
      */
@@ -68,7 +79,6 @@ public abstract class Explosion {
         packet.records = new byte[3 * blocks.size()];
         for (int i = 0; i < blocks.size(); i++) {
             final BlockPosition pos = blocks.get(i);
-            instance.setBlock(pos, Block.AIR);
             final byte x = (byte) (pos.getX() - Math.floor(getCenterX()));
             final byte y = (byte) (pos.getY() - Math.floor(getCenterY()));
             final byte z = (byte) (pos.getZ() - Math.floor(getCenterZ()));
@@ -76,11 +86,19 @@ public abstract class Explosion {
             packet.records[i * 3 + 1] = y;
             packet.records[i * 3 + 2] = z;
         }
+        instance.removeBlocks(blocks);
 
         postExplosion(instance, blocks, packet);
 
-        // TODO send only to close players
-        PacketWriterUtils.writeAndSend(instance.getPlayers(), packet);
+        // Farther players only receive the block changes
+        final Position center = new Position(getCenterX(), getCenterY(), getCenterZ());
+        List<Player> players = new ArrayList<>();
+        instance.getEntityIndex().forEachNearbyEntity(center, PACKET_RANGE, entity -> {
+            if (entity instanceof Player)
+                players.add((Player) entity);
+        });
+        if (!players.isEmpty())
+            PacketWriterUtils.writeAndSend(players, packet);
 
         postSend(instance, blocks);
     }
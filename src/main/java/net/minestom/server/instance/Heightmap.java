@@ -0,0 +1,151 @@
+package net.minestom.server.instance;
+
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.block.BlockAlternative;
+import net.minestom.server.utils.Utils;
+
+/**
+ * The height of the highest block of each column of a {@link Chunk} matching a {@link Type}
+ * <p>
+ * Updated incrementally on each block change, only removing the highest block of a column requires to look below it.
+ */
+public class Heightmap {
+
+    // Enough for a height between 0 and 256 included
+    private static final int BITS_PER_ENTRY = 9;
+
+    public enum Type {
+        /**
+         * Blocks which block the motion or contain a fluid
+         */
+        MOTION_BLOCKING,
+        /**
+         * All the blocks except air
+         */
+        WORLD_SURFACE;
+
+        private boolean[] matchingStates;
+
+        private boolean matches(short blockStateId) {
+            return blockStateId >= 0 && blockStateId < matchingStates.length && matchingStates[blockStateId];
+        }
+
+        static {
+            int stateCount = 0;
+            for (Block block : Block.values()) {
+                for (BlockAlternative alternative : block.getAlternatives()) {
+                    stateCount = Math.max(stateCount, alternative.getId() + 1);
+                }
+            }
+
+            final boolean[] motionBlocking = new boolean[stateCount];
+            final boolean[] worldSurface = new boolean[stateCount];
+            for (Block block : Block.values()) {
+                for (BlockAlternative alternative : block.getAlternatives()) {
+                    final short id = alternative.getId();
+                    worldSurface[id] = !block.isAir();
+                    motionBlocking[id] = block.isSolid() || block.isLiquid() ||
+                            "true".equals(block.getProperty(id, "waterlogged"));
+                }
+            }
+            MOTION_BLOCKING.matchingStates = motionBlocking;
+            WORLD_SURFACE.matchingStates = worldSurface;
+        }
+    }
+
+    private final Type type;
+    // Y of the highest matching block + 1, 0 if the column does not contain any, index is x + z * 16
+    private final short[] heights = new short[Chunk.CHUNK_SIZE_X * Chunk.CHUNK_SIZE_Z];
+
+    // Cached packed version, null if modified since
+    private long[] encodedHeights;
+
+    public Heightmap(Type type) {
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the height of a column
+     *
+     * @param x the column X, chunk or world coordinate
+     * @param z the column Z, chunk or world coordinate
+     * @return the Y coordinate above the highest matching block of the column, 0 if there is none
+     */
+    public int getHeight(int x, int z) {
+        return heights[getIndex(x, z)];
+    }
+
+    /**
+     * Update the height of a column after a block change
+     *
+     * @param chunk the chunk of this heightmap
+     * @param x     the block X, chunk or world coordinate
+     * @param y     the block Y
+     * @param z     the block Z, chunk or world coordinate
+     */
+    public synchronized void update(Chunk chunk, int x, int y, int z) {
+        final int index = getIndex(x, z);
+        final int height = heights[index];
+        if (type.matches(chunk.getBlockStateId(x & 0xF, y, z & 0xF))) {
+            if (y + 1 > height) {
+                setHeight(index, y + 1);
+            }
+        } else if (y + 1 == height) {
+            // The highest block has been removed, look for the next one below
+            setHeight(index, findHeight(chunk, x & 0xF, y - 1, z & 0xF));
+        }
+    }
+
+    /**
+     * Compute all the columns again
+     *
+     * @param chunk the chunk of this heightmap
+     */
+    public synchronized void refresh(Chunk chunk) {
+        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                setHeight(getIndex(x, z), findHeight(chunk, x, Chunk.CHUNK_SIZE_Y - 1, z));
+            }
+        }
+    }
+
+    /**
+     * Get the heights packed in the format of the chunk packet
+     *
+     * @return the packed heights, cached until the next modification
+     */
+    public synchronized long[] getEncodedHeights() {
+        if (encodedHeights == null) {
+            int[] values = new int[heights.length];
+            for (int i = 0; i < heights.length; i++) {
+                values[i] = heights[i];
+            }
+            this.encodedHeights = Utils.encodeBlocks(values, BITS_PER_ENTRY);
+        }
+        return encodedHeights;
+    }
+
+    private int findHeight(Chunk chunk, int x, int startY, int z) {
+        for (int y = startY; y >= 0; y--) {
+            if (type.matches(chunk.getBlockStateId(x, y, z)))
+                return y + 1;
+        }
+        return 0;
+    }
+
+    private void setHeight(int index, int height) {
+        if (heights[index] != height) {
+            this.heights[index] = (short) height;
+            this.encodedHeights = null;
+        }
+    }
+
+    private static int getIndex(int x, int z) {
+        return (x & 0xF) + (z & 0xF) * Chunk.CHUNK_SIZE_X;
+    }
+
+}
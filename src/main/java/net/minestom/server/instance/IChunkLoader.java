@@ -19,6 +19,23 @@ public interface IChunkLoader {
      */
     boolean loadChunk(Instance instance, int chunkX, int chunkZ, Consumer<Chunk> callback);
 
+    /**
+     * Load a specific chunk, reporting the failures happening once the chunk has been found
+     * <p>
+     * Calls {@link #loadChunk(Instance, int, int, Consumer)} by default, {@code failureCallback} is then never called
+     *
+     * @param instance        the instance where the chunk belong
+     * @param chunkX          the chunk X
+     * @param chunkZ          the chunk Z
+     * @param callback        the callback executed when the chunk is done loading
+     * @param failureCallback the callback executed if the chunk has been found but cannot be loaded
+     * @return true if the chunk has been found, false otherwise
+     */
+    default boolean loadChunk(Instance instance, int chunkX, int chunkZ,
+                              Consumer<Chunk> callback, Consumer<Throwable> failureCallback) {
+        return loadChunk(instance, chunkX, chunkZ, callback);
+    }
+
     /**
      * Save a specific chunk with a callback for when it is done
      *
@@ -38,6 +55,8 @@ public interface IChunkLoader {
 
     /**
      * Does this ChunkLoader allow for multi-threaded loading of chunks?
+     * <p>
+     * If not, the {@link ChunkLoadPipeline} loads the chunks of an instance one at a time
      *
      * @return true if the chunk loader supports parallel loading
      */
@@ -6,6 +6,7 @@ import net.minestom.server.data.Data;
 import net.minestom.server.data.DataContainer;
 import net.minestom.server.entity.*;
 import net.minestom.server.entity.pathfinding.PFInstanceSpace;
+import net.minestom.server.entity.pathfinding.PFPathingService;
 import net.minestom.server.event.Event;
 import net.minestom.server.event.EventCallback;
 import net.minestom.server.event.handler.EventHandler;
@@ -22,6 +23,7 @@ import net.minestom.server.network.packet.server.play.TimeUpdatePacket;
 import net.minestom.server.storage.StorageLocation;
 import net.minestom.server.utils.BlockPosition;
 import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkSupplier;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.utils.time.CooldownUtils;
 import net.minestom.server.utils.time.TimeUnit;
@@ -70,6 +72,8 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
     protected final Set<ExperienceOrb> experienceOrbs = new CopyOnWriteArraySet<>();
     // Entities per chunk
     protected final Map<Long, Set<Entity>> chunkEntities = new ConcurrentHashMap<>();
+    // Entities per 16x16x16 cell, used for the proximity queries
+    protected final EntityIndex entityIndex = new EntityIndex();
     protected UUID uniqueId;
 
     protected final List<Consumer<Instance>> nextTick = Collections.synchronizedList(new ArrayList<>());
@@ -79,6 +83,7 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
 
     // Pathfinder
     private final PFInstanceSpace instanceSpace = new PFInstanceSpace(this);
+    private final PFPathingService pathingService = new PFPathingService(instanceSpace);
 
     /**
      * Create a new instance
@@ -117,6 +122,16 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
      */
     public abstract boolean breakBlock(Player player, BlockPosition blockPosition);
 
+    /**
+     * Replace multiple blocks by air, the blocks are grouped by chunk and each chunk is only locked once
+     * <p>
+     * Custom blocks are destroyed and the placement rules are only executed for the neighbours which are not removed,
+     * the viewers receive the changes at the end of the tick
+     *
+     * @param blockPositions the positions of the blocks to remove
+     */
+    public abstract void removeBlocks(Collection<BlockPosition> blockPositions);
+
     /**
      * Force the generation of the chunk, even if no file and ChunkGenerator are defined
      *
@@ -205,6 +220,22 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
      */
     public abstract void setChunkGenerator(ChunkGenerator chunkGenerator);
 
+    /**
+     * Get the {@link ChunkSupplier} used to create the instance chunks
+     *
+     * @return the chunk supplier of the instance
+     */
+    public abstract ChunkSupplier getChunkSupplier();
+
+    /**
+     * Change the {@link ChunkSupplier} used to create the instance chunks
+     * <p>
+     * Only affects chunks created or loaded afterward
+     *
+     * @param chunkSupplier the new chunk supplier, cannot be null
+     */
+    public abstract void setChunkSupplier(ChunkSupplier chunkSupplier);
+
     /**
      * Get all the instance's chunks
      *
@@ -431,6 +462,26 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
         return Collections.unmodifiableSet(entities);
     }
 
+    /**
+     * Get the entities index of this instance, used to find entities by distance
+     *
+     * @return the entity index
+     */
+    public EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+
+    /**
+     * Get the entities at {@code range} blocks or less from a position
+     *
+     * @param position the center position
+     * @param range    the maximum distance
+     * @return a new list containing the nearby entities
+     */
+    public List<Entity> getNearbyEntities(Position position, float range) {
+        return entityIndex.getNearbyEntities(position, range, null);
+    }
+
     /**
      * Refresh the visual block id at the position
      * <p>
@@ -750,6 +801,7 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
             final Chunk chunk = getChunkAt(entityPosition);
             Check.notNull(chunk, "You tried to spawn an entity in an unloaded chunk, " + entityPosition);
             addEntityToChunk(entity, chunk);
+            this.entityIndex.add(entity);
         });
     }
 
@@ -773,6 +825,7 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
             // Remove the entity from cache
             final Chunk chunk = getChunkAt(entity.getPosition());
             removeEntityFromChunk(entity, chunk);
+            this.entityIndex.remove(entity);
         });
     }
 
@@ -880,6 +933,8 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
 
         }
         this.worldBorder.update();
+
+        this.pathingService.tick();
     }
 
     /**
@@ -943,4 +998,13 @@ public abstract class Instance implements BlockModifier, EventHandler, DataConta
     public PFInstanceSpace getInstanceSpace() {
         return instanceSpace;
     }
+
+    /**
+     * Get the pathing service, computing the paths of the instance creatures
+     *
+     * @return the pathing service
+     */
+    public PFPathingService getPathingService() {
+        return pathingService;
+    }
 }
\ No newline at end of file
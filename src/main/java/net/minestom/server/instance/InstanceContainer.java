@@ -2,6 +2,10 @@ package net.minestom.server.instance;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ShortMap;
+import it.unimi.dsi.fastutil.longs.Long2ShortOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import lombok.Setter;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.data.Data;
@@ -12,11 +16,10 @@ import net.minestom.server.event.instance.InstanceChunkUnloadEvent;
 import net.minestom.server.event.player.PlayerBlockBreakEvent;
 import net.minestom.server.instance.batch.BlockBatch;
 import net.minestom.server.instance.batch.ChunkBatch;
-import net.minestom.server.instance.block.Block;
 import net.minestom.server.instance.block.BlockProvider;
 import net.minestom.server.instance.block.CustomBlock;
 import net.minestom.server.instance.block.rule.BlockPlacementRule;
-import net.minestom.server.network.packet.server.play.BlockChangePacket;
+import net.minestom.server.instance.light.LightEngine;
 import net.minestom.server.network.packet.server.play.ParticlePacket;
 import net.minestom.server.network.packet.server.play.UnloadChunkPacket;
 import net.minestom.server.particle.Particle;
@@ -24,6 +27,7 @@ import net.minestom.server.particle.ParticleCreator;
 import net.minestom.server.storage.StorageLocation;
 import net.minestom.server.utils.BlockPosition;
 import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkSupplier;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.utils.thread.MinestomThread;
 import net.minestom.server.utils.time.TimeUnit;
@@ -32,11 +36,10 @@ import net.minestom.server.world.DimensionType;
 import net.minestom.server.world.biomes.Biome;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 
@@ -53,13 +56,24 @@ public class InstanceContainer extends Instance {
     private List<SharedInstance> sharedInstances = new CopyOnWriteArrayList<>();
 
     private ChunkGenerator chunkGenerator;
+    private ChunkSupplier chunkSupplier = DynamicChunk::new;
     // WARNING: need to be synchronized properly
     private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
     private final Set<Chunk> scheduledChunksToRemove = new HashSet<>();
-
-    private ReadWriteLock changingBlockLock = new ReentrantReadWriteLock();
-    private Map<BlockPosition, Block> currentlyChangingBlocks = new HashMap<>();
+    // Chunks with block changes to send at the end of the tick
+    private final Set<Chunk> blockChangeChunks = ConcurrentHashMap.newKeySet();
+
+    // Blocks being changed by the current thread, prevents onDestroy/onPlace from changing them again
+    // Cleared once the first setBlock call of the thread returns
+    private final ThreadLocal<Long2ShortMap> currentlyChangingBlocks = ThreadLocal.withInitial(() -> {
+        Long2ShortMap map = new Long2ShortOpenHashMap();
+        map.defaultReturnValue((short) -1);
+        return map;
+    });
     private IChunkLoader chunkLoader;
+    private final ChunkLoadPipeline chunkLoadPipeline = new ChunkLoadPipeline(this);
+
+    private final LightEngine lightEngine;
 
     private boolean autoChunkLoad;
 
@@ -77,6 +91,8 @@ public class InstanceContainer extends Instance {
     public InstanceContainer(UUID uniqueId, DimensionType dimensionType, StorageLocation storageLocation) {
         super(uniqueId, dimensionType);
 
+        this.lightEngine = new LightEngine(this);
+
         this.storageLocation = storageLocation;
         this.chunkLoader = new MinestomBasicChunkLoader(storageLocation);
 
@@ -107,23 +123,40 @@ public class InstanceContainer extends Instance {
         setBlock(x, y, z, blockStateId, customBlock, data);
     }
 
-    private synchronized void setBlock(int x, int y, int z, short blockStateId, CustomBlock customBlock, Data data) {
+    /**
+     * Change a block and execute all the related callbacks
+     * <p>
+     * There is no instance-wide lock, the chunk is only locked while its storage is modified
+     * so that threads changing blocks in different chunks do not wait on each other.
+     * The lock is never held while calling {@link CustomBlock} callbacks or placement rules
+     * as those can change blocks in other chunks (which would otherwise risk a deadlock).
+     */
+    private void setBlock(int x, int y, int z, short blockStateId, CustomBlock customBlock, Data data) {
         final Chunk chunk = getChunkAt(x, z);
-        synchronized (chunk) {
+        Check.notNull(chunk, "The chunk at " + x + ":" + z + " is not loaded");
 
-            final boolean isCustomBlock = customBlock != null;
+        final boolean isCustomBlock = customBlock != null;
 
-            final BlockPosition blockPosition = new BlockPosition(x, y, z);
+        final BlockPosition blockPosition = new BlockPosition(x, y, z);
 
-            if (isAlreadyChanged(blockPosition, blockStateId)) { // do NOT change the block again.
-                // Avoids StackOverflowExceptions when onDestroy tries to destroy the block itself
-                // This can happen with nether portals which break the entire frame when a portal block is broken
-                return;
-            }
-            setAlreadyChanged(blockPosition, blockStateId);
+        final Long2ShortMap changingBlocks = currentlyChangingBlocks.get();
+        final long positionKey = getBlockPositionKey(x, y, z);
+        if (changingBlocks.get(positionKey) == blockStateId) { // do NOT change the block again.
+            // Avoids StackOverflowExceptions when onDestroy tries to destroy the block itself
+            // This can happen with nether portals which break the entire frame when a portal block is broken
+            return;
+        }
+        // The first call of the chain is responsible for clearing the guard
+        final boolean firstChange = changingBlocks.isEmpty();
+        changingBlocks.put(positionKey, blockStateId);
+
+        try {
             final int index = ChunkUtils.getBlockIndex(x, y, z);
 
-            final CustomBlock previousBlock = chunk.getCustomBlock(index);
+            final CustomBlock previousBlock;
+            synchronized (chunk) {
+                previousBlock = chunk.getCustomBlock(index);
+            }
             if (previousBlock != null) {
                 // Previous block was a custom block
 
@@ -140,39 +173,40 @@ public class InstanceContainer extends Instance {
             // Set the block
             if (isCustomBlock) {
                 data = customBlock.createData(this, blockPosition, data);
-                chunk.UNSAFE_setCustomBlock(x, y, z, blockStateId, customBlock, data);
-            } else {
-                chunk.UNSAFE_setBlock(x, y, z, blockStateId, data);
+            }
+            synchronized (chunk) {
+                if (isCustomBlock) {
+                    chunk.UNSAFE_setCustomBlock(x, y, z, blockStateId, customBlock, data);
+                } else {
+                    chunk.UNSAFE_setBlock(x, y, z, blockStateId, data);
+                }
             }
 
             // Refresh neighbors since a new block has been placed
             executeNeighboursBlockPlacementRule(blockPosition);
 
             // Refresh player chunk block
-            sendBlockChange(chunk, blockPosition, blockStateId);
+            addBlockChange(chunk, x, y, z, blockStateId);
 
             // Call the place listener for custom block
             if (isCustomBlock)
                 callBlockPlace(chunk, index, blockPosition);
+        } finally {
+            if (firstChange)
+                changingBlocks.clear();
         }
     }
 
-    private void setAlreadyChanged(BlockPosition blockPosition, short blockStateId) {
-        currentlyChangingBlocks.put(blockPosition, Block.fromStateId(blockStateId));
-    }
-
     /**
-     * Has this block already changed since last update? Prevents StackOverflow with blocks trying to modify their position in onDestroy or onPlace
+     * Pack a block position in a long, used as key by the changing blocks guard
      *
-     * @param blockPosition the block position
-     * @param blockStateId  the block state id
-     * @return
+     * @param x the block X
+     * @param y the block Y
+     * @param z the block Z
+     * @return the packed position
      */
-    private boolean isAlreadyChanged(BlockPosition blockPosition, short blockStateId) {
-        final Block changedBlock = currentlyChangingBlocks.get(blockPosition);
-        if (changedBlock == null)
-            return false;
-        return changedBlock.getBlockId() == blockStateId;
+    private static long getBlockPositionKey(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) y & 0xFFF;
     }
 
     @Override
@@ -181,22 +215,32 @@ public class InstanceContainer extends Instance {
         synchronized (chunk) {
             chunk.refreshBlockStateId(blockPosition.getX(), blockPosition.getY(),
                     blockPosition.getZ(), blockStateId);
+            chunk.onBlockChange(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
 
-            sendBlockChange(chunk, blockPosition, blockStateId);
+            addBlockChange(chunk, blockPosition.getX(), blockPosition.getY(), blockPosition.getZ(), blockStateId);
         }
     }
 
     private void callBlockDestroy(Chunk chunk, int index, CustomBlock previousBlock, BlockPosition blockPosition) {
-        final Data previousData = chunk.getData(index);
+        final Data previousData;
+        synchronized (chunk) {
+            previousData = chunk.getData(index);
+        }
         previousBlock.onDestroy(this, blockPosition, previousData);
-        chunk.UNSAFE_removeCustomBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+        synchronized (chunk) {
+            chunk.UNSAFE_removeCustomBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+        }
     }
 
     private void callBlockPlace(Chunk chunk, int index, BlockPosition blockPosition) {
-        final CustomBlock actualBlock = chunk.getCustomBlock(index);
+        final CustomBlock actualBlock;
+        final Data previousData;
+        synchronized (chunk) {
+            actualBlock = chunk.getCustomBlock(index);
+            previousData = chunk.getData(index);
+        }
         if (actualBlock == null)
             return;
-        final Data previousData = chunk.getData(index);
         actualBlock.onPlace(this, blockPosition, previousData);
     }
 
@@ -214,38 +258,145 @@ public class InstanceContainer extends Instance {
                 for (int offsetZ = -1; offsetZ < 2; offsetZ++) {
                     if (offsetX == 0 && offsetY == 0 && offsetZ == 0)
                         continue;
-                    final int neighborX = blockPosition.getX() + offsetX;
-                    final int neighborY = blockPosition.getY() + offsetY;
-                    final int neighborZ = blockPosition.getZ() + offsetZ;
-                    final Chunk chunk = getChunkAt(neighborX, neighborZ);
+                    refreshNeighbour(blockPosition, offsetX, offsetY, offsetZ, true);
+                }
+            }
+        }
+    }
 
-                    // Do not try to get neighbour in an unloaded chunk
-                    if (chunk == null)
-                        continue;
+    /**
+     * Execute the placement rule of a neighbour and notify it if it is a custom block
+     *
+     * @param blockPosition the position of the changed block
+     * @param offsetX       the neighbour X offset
+     * @param offsetY       the neighbour Y offset
+     * @param offsetZ       the neighbour Z offset
+     * @param placementRule true to execute the neighbour placement rule
+     */
+    private void refreshNeighbour(BlockPosition blockPosition, int offsetX, int offsetY, int offsetZ, boolean placementRule) {
+        final int neighborX = blockPosition.getX() + offsetX;
+        final int neighborY = blockPosition.getY() + offsetY;
+        final int neighborZ = blockPosition.getZ() + offsetZ;
+        final Chunk chunk = getChunkAt(neighborX, neighborZ);
+
+        // Do not try to get neighbour in an unloaded chunk
+        if (chunk == null)
+            return;
 
-                    final short neighborStateId = chunk.getBlockStateId(neighborX, neighborY, neighborZ);
-                    final BlockPlacementRule neighborBlockPlacementRule = BLOCK_MANAGER.getBlockPlacementRule(neighborStateId);
-                    if (neighborBlockPlacementRule != null) {
-                        final short newNeighborId = neighborBlockPlacementRule.blockRefresh(this,
-                                new BlockPosition(neighborX, neighborY, neighborZ), neighborStateId);
-                        if (neighborStateId != newNeighborId) {
-                            refreshBlockStateId(neighborX, neighborY, neighborZ, neighborStateId);
+        if (placementRule) {
+            final short neighborStateId = chunk.getBlockStateId(neighborX, neighborY, neighborZ);
+            final BlockPlacementRule neighborBlockPlacementRule = BLOCK_MANAGER.getBlockPlacementRule(neighborStateId);
+            if (neighborBlockPlacementRule != null) {
+                final short newNeighborId = neighborBlockPlacementRule.blockRefresh(this,
+                        new BlockPosition(neighborX, neighborY, neighborZ), neighborStateId);
+                if (neighborStateId != newNeighborId) {
+                    refreshBlockStateId(neighborX, neighborY, neighborZ, neighborStateId);
+                }
+            }
+        }
+
+        // Update neighbors
+        final CustomBlock customBlock = getCustomBlock(neighborX, neighborY, neighborZ);
+        if (customBlock != null) {
+            boolean directNeighbor = false; // only if directly connected to neighbor (no diagonals)
+            if (offsetX != 0 ^ offsetZ != 0) {
+                directNeighbor = offsetY == 0;
+            } else if (offsetX == 0 && offsetZ == 0) {
+                directNeighbor = true;
+            }
+            customBlock.updateFromNeighbor(this, new BlockPosition(neighborX, neighborY, neighborZ), blockPosition, directNeighbor);
+        }
+    }
+
+    @Override
+    public void removeBlocks(Collection<BlockPosition> blockPositions) {
+        final Long2ShortMap changingBlocks = currentlyChangingBlocks.get();
+        final boolean firstChange = changingBlocks.isEmpty();
+
+        // Group the blocks by chunk
+        final Long2ObjectMap<List<BlockPosition>> chunkBlocks = new Long2ObjectOpenHashMap<>();
+        final LongSet removedBlocks = new LongOpenHashSet(blockPositions.size());
+        for (BlockPosition blockPosition : blockPositions) {
+            final int x = blockPosition.getX();
+            final int y = blockPosition.getY();
+            final int z = blockPosition.getZ();
+            if (y < 0 || y >= Chunk.CHUNK_SIZE_Y)
+                continue;
+            final long positionKey = getBlockPositionKey(x, y, z);
+            if (!removedBlocks.add(positionKey))
+                continue;
+            final long chunkIndex = ChunkUtils.getChunkIndex(ChunkUtils.getChunkCoordinate(x), ChunkUtils.getChunkCoordinate(z));
+            chunkBlocks.computeIfAbsent(chunkIndex, index -> new ArrayList<>()).add(blockPosition);
+        }
+
+        try {
+            // Prevent onDestroy from changing the removed blocks again
+            for (long positionKey : removedBlocks) {
+                changingBlocks.put(positionKey, (short) 0);
+            }
+
+            for (List<BlockPosition> blocks : chunkBlocks.values()) {
+                final BlockPosition firstBlock = blocks.get(0);
+                final Chunk chunk = getChunkAt(firstBlock.getX(), firstBlock.getZ());
+                if (!ChunkUtils.isLoaded(chunk))
+                    continue;
+
+                // Custom blocks callbacks are called without holding the chunk lock
+                List<BlockPosition> customBlocks = null;
+                synchronized (chunk) {
+                    for (BlockPosition blockPosition : blocks) {
+                        final int index = ChunkUtils.getBlockIndex(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+                        if (chunk.getCustomBlock(index) != null) {
+                            if (customBlocks == null)
+                                customBlocks = new ArrayList<>();
+                            customBlocks.add(blockPosition);
                         }
                     }
+                }
+                if (customBlocks != null) {
+                    for (BlockPosition blockPosition : customBlocks) {
+                        final int index = ChunkUtils.getBlockIndex(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ());
+                        final CustomBlock previousBlock;
+                        synchronized (chunk) {
+                            previousBlock = chunk.getCustomBlock(index);
+                        }
+                        if (previousBlock == null)
+                            continue;
+                        callBlockDestroy(chunk, index, previousBlock, blockPosition);
+                        previousBlock.removeDiggingInformation(this, blockPosition);
+                    }
+                }
+
+                synchronized (chunk) {
+                    for (BlockPosition blockPosition : blocks) {
+                        chunk.UNSAFE_setBlock(blockPosition.getX(), blockPosition.getY(), blockPosition.getZ(), (short) 0, null);
+                    }
+                }
+                for (BlockPosition blockPosition : blocks) {
+                    addBlockChange(chunk, blockPosition.getX(), blockPosition.getY(), blockPosition.getZ(), (short) 0);
+                }
+            }
 
-                    // Update neighbors
-                    final CustomBlock customBlock = getCustomBlock(neighborX, neighborY, neighborZ);
-                    if (customBlock != null) {
-                        boolean directNeighbor = false; // only if directly connected to neighbor (no diagonals)
-                        if (offsetX != 0 ^ offsetZ != 0) {
-                            directNeighbor = offsetY == 0;
-                        } else if (offsetX == 0 && offsetZ == 0) {
-                            directNeighbor = true;
+            // Only the blocks around the removed ones need to be refreshed, once each
+            final LongSet refreshedNeighbours = new LongOpenHashSet();
+            for (List<BlockPosition> blocks : chunkBlocks.values()) {
+                for (BlockPosition blockPosition : blocks) {
+                    for (int offsetX = -1; offsetX < 2; offsetX++) {
+                        for (int offsetY = -1; offsetY < 2; offsetY++) {
+                            for (int offsetZ = -1; offsetZ < 2; offsetZ++) {
+                                final long neighbourKey = getBlockPositionKey(blockPosition.getX() + offsetX,
+                                        blockPosition.getY() + offsetY, blockPosition.getZ() + offsetZ);
+                                if (removedBlocks.contains(neighbourKey))
+                                    continue;
+                                refreshNeighbour(blockPosition, offsetX, offsetY, offsetZ, refreshedNeighbours.add(neighbourKey));
+                            }
                         }
-                        customBlock.updateFromNeighbor(this, new BlockPosition(neighborX, neighborY, neighborZ), blockPosition, directNeighbor);
                     }
                 }
             }
+        } finally {
+            if (firstChange)
+                changingBlocks.clear();
         }
     }
 
@@ -431,20 +582,21 @@ public class InstanceContainer extends Instance {
 
     @Override
     protected void retrieveChunk(int chunkX, int chunkZ, Consumer<Chunk> callback) {
-        final boolean loaded = chunkLoader.loadChunk(this, chunkX, chunkZ, chunk -> {
-            cacheChunk(chunk);
-            callChunkLoadEvent(chunkX, chunkZ);
-            UPDATE_MANAGER.signalChunkLoad(this, chunkX, chunkZ);
-            if (callback != null)
-                callback.accept(chunk);
-        });
-
-        if (!loaded) {
-            // Not found, create a new chunk
-            createChunk(chunkX, chunkZ, callback);
-        }
+        final CompletableFuture<Chunk> future = chunkLoadPipeline.load(chunkX, chunkZ);
+        if (callback != null)
+            future.thenAccept(callback);
     }
 
+    /**
+     * Create and generate a chunk on the current thread, used by the {@link ChunkLoadPipeline}
+     * when the {@link IChunkLoader} did not find it
+     * <p>
+     * The chunk is not added to the instance
+     *
+     * @param chunkX   the chunk X
+     * @param chunkZ   the chunk Z
+     * @param callback the callback executed with the generated chunk
+     */
     @Override
     protected void createChunk(int chunkX, int chunkZ, Consumer<Chunk> callback) {
         Biome[] biomes = new Biome[Chunk.BIOME_COUNT];
@@ -460,25 +612,18 @@ public class InstanceContainer extends Instance {
             // Use static chunk
             chunk = new StaticChunk(biomes, chunkX, chunkZ, blockProvider);
         } else {
-            // Use dynamic chunk
-            chunk = new DynamicChunk(biomes, chunkX, chunkZ);
+            // Use the chunk supplier (DynamicChunk by default)
+            chunk = chunkSupplier.createChunk(biomes, chunkX, chunkZ);
         }
 
-        cacheChunk(chunk);
-
         if (chunkGenerator != null && blockProvider == null) {
             // Execute the chunk generator to populate the chunk
             final ChunkBatch chunkBatch = createChunkBatch(chunk);
-
-            chunkBatch.flushChunkGenerator(chunkGenerator, callback);
+            chunkBatch.runChunkGenerator(chunkGenerator, callback);
         } else {
             // No chunk generator, execute the callback with the empty chunk
-            if (callback != null)
-                callback.accept(chunk);
+            callback.accept(chunk);
         }
-
-        UPDATE_MANAGER.signalChunkLoad(this, chunkX, chunkZ);
-        callChunkLoadEvent(chunkX, chunkZ);
     }
 
     @Override
@@ -529,6 +674,41 @@ public class InstanceContainer extends Instance {
         }
     }
 
+    /**
+     * Add a loaded or generated chunk to the instance
+     * <p>
+     * Called by the {@link ChunkLoadPipeline} from the thread which loaded or generated the chunk
+     *
+     * @param chunk the complete chunk
+     */
+    void publishChunk(Chunk chunk) {
+        final int chunkX = chunk.getChunkX();
+        final int chunkZ = chunk.getChunkZ();
+        cacheChunk(chunk);
+        enableLighting(chunk);
+        callChunkLoadEvent(chunkX, chunkZ);
+        UPDATE_MANAGER.signalChunkLoad(this, chunkX, chunkZ);
+    }
+
+    /**
+     * Light a chunk and start tracking its block changes
+     *
+     * @param chunk the loaded chunk
+     */
+    private void enableLighting(Chunk chunk) {
+        chunk.lightEngine = lightEngine;
+        this.lightEngine.loadChunk(chunk);
+    }
+
+    /**
+     * Get the light engine of this instance
+     *
+     * @return the light engine
+     */
+    public LightEngine getLightEngine() {
+        return lightEngine;
+    }
+
     @Override
     public ChunkGenerator getChunkGenerator() {
         return chunkGenerator;
@@ -539,6 +719,17 @@ public class InstanceContainer extends Instance {
         this.chunkGenerator = chunkGenerator;
     }
 
+    @Override
+    public ChunkSupplier getChunkSupplier() {
+        return chunkSupplier;
+    }
+
+    @Override
+    public void setChunkSupplier(ChunkSupplier chunkSupplier) {
+        Check.notNull(chunkSupplier, "The chunk supplier cannot be null");
+        this.chunkSupplier = chunkSupplier;
+    }
+
     /**
      * Get all the instance chunks
      *
@@ -558,6 +749,15 @@ public class InstanceContainer extends Instance {
         this.storageLocation = storageLocation;
     }
 
+    /**
+     * Get the pipeline loading the chunks of this instance, which also exposes the loading metrics
+     *
+     * @return the chunk load pipeline
+     */
+    public ChunkLoadPipeline getChunkLoadPipeline() {
+        return chunkLoadPipeline;
+    }
+
     public IChunkLoader getChunkLoader() {
         return chunkLoader;
     }
@@ -566,11 +766,39 @@ public class InstanceContainer extends Instance {
         this.chunkLoader = chunkLoader;
     }
 
-    private void sendBlockChange(Chunk chunk, BlockPosition blockPosition, short blockStateId) {
-        BlockChangePacket blockChangePacket = new BlockChangePacket();
-        blockChangePacket.blockPosition = blockPosition;
-        blockChangePacket.blockStateId = blockStateId;
-        chunk.sendPacketToViewers(blockChangePacket);
+    /**
+     * Register a block change to send to the chunk viewers at the end of the tick
+     * <p>
+     * Does not change the block, used by {@link BlockBatch} and {@link ChunkBatch} to notify viewers
+     *
+     * @param chunk        the chunk of the block
+     * @param x            the block X, chunk or world coordinate
+     * @param y            the block Y
+     * @param z            the block Z, chunk or world coordinate
+     * @param blockStateId the new block state id
+     */
+    public void addBlockChange(Chunk chunk, int x, int y, int z, short blockStateId) {
+        // Viewers added afterward will receive the whole chunk
+        if (chunk.getViewers().isEmpty())
+            return;
+        chunk.addBlockChange(x, y, z, blockStateId);
+        this.blockChangeChunks.add(chunk);
+    }
+
+    /**
+     * Send the block changes which happened since the last call to the chunks viewers
+     * <p>
+     * Called at the end of each tick by the {@link net.minestom.server.UpdateManager}
+     */
+    public void sendBlockChanges() {
+        if (blockChangeChunks.isEmpty())
+            return;
+        final Iterator<Chunk> iterator = blockChangeChunks.iterator();
+        while (iterator.hasNext()) {
+            final Chunk chunk = iterator.next();
+            iterator.remove();
+            chunk.sendBlockChanges();
+        }
     }
 
     @Override
@@ -598,10 +826,8 @@ public class InstanceContainer extends Instance {
         UNSAFE_unloadChunks();
 
         super.tick(time);
-        Lock wrlock = changingBlockLock.writeLock();
-        wrlock.lock();
-        currentlyChangingBlocks.clear();
-        wrlock.unlock();
+
+        this.lightEngine.tick();
     }
 
     /**
@@ -639,6 +865,9 @@ public class InstanceContainer extends Instance {
                 this.chunkEntities.remove(index);
 
                 chunk.unload();
+                chunk.lightEngine = null;
+                this.lightEngine.unloadChunk(chunk);
+                getInstanceSpace().removeChunk(chunk);
 
                 UPDATE_MANAGER.signalChunkUnload(this, chunkX, chunkZ);
             }
@@ -1,5 +1,6 @@
 package net.minestom.server.instance;
 
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.storage.StorageLocation;
 import net.minestom.server.utils.validate.Check;
 import net.minestom.server.world.DimensionType;
@@ -101,6 +102,20 @@ public final class InstanceManager {
         return registerSharedInstance(sharedInstance);
     }
 
+    /**
+     * Unregister an {@link Instance}, it is not ticked anymore
+     *
+     * @param instance the {@link Instance} to unregister
+     * @throws IllegalStateException if the instance still contains players
+     */
+    public void unregisterInstance(Instance instance) {
+        Check.stateCondition(!instance.getPlayers().isEmpty(), "You cannot unregister an instance with players");
+
+        instance.setRegistered(false);
+        this.instances.remove(instance);
+        MinecraftServer.getUpdateManager().signalInstanceDelete(instance);
+    }
+
     /**
      * Get all the registered instances
      *
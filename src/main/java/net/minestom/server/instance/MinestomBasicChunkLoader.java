@@ -43,17 +43,35 @@ public class MinestomBasicChunkLoader implements IChunkLoader {
 
     @Override
     public boolean loadChunk(Instance instance, int chunkX, int chunkZ, Consumer<Chunk> callback) {
+        return loadChunk(instance, chunkX, chunkZ, callback,
+                throwable -> LOGGER.error("Failed to read the chunk " + chunkX + " " + chunkZ, throwable));
+    }
+
+    @Override
+    public boolean loadChunk(Instance instance, int chunkX, int chunkZ,
+                             Consumer<Chunk> callback, Consumer<Throwable> failureCallback) {
         final byte[] bytes = storageLocation == null ? null : storageLocation.get(getChunkKey(chunkX, chunkZ));
 
         if (bytes == null) {
             return false;
         } else {
             // Found, load from result bytes
-            ChunkReader.readChunk(bytes, instance, chunkX, chunkZ, callback);
+            try {
+                ChunkReader.readChunk(bytes, instance, chunkX, chunkZ, callback, failureCallback);
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                // Corrupted chunk, not generated again so that the saved one is not replaced
+                failureCallback.accept(e);
+            }
             return true;
         }
     }
 
+    @Override
+    public boolean supportsParallelLoading() {
+        // Storage locations can be read concurrently and the chunks are read independently
+        return true;
+    }
+
     /**
      * Get the chunk key used by the {@link StorageLocation}
      *
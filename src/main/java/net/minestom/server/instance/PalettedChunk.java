@@ -0,0 +1,264 @@
+package net.minestom.server.instance;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import net.minestom.server.data.Data;
+import net.minestom.server.entity.pathfinding.PFColumnarSpace;
+import net.minestom.server.instance.block.CustomBlock;
+import net.minestom.server.instance.block.UpdateConsumer;
+import net.minestom.server.instance.palette.Section;
+import net.minestom.server.reader.ChunkReader;
+import net.minestom.server.utils.MathUtils;
+import net.minestom.server.world.biomes.Biome;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Chunk} storing its blocks in 16 blocks high {@link Section sections} with an adaptive palette
+ * <p>
+ * Sections containing only air are not allocated at all, making it a lot lighter than {@link DynamicChunk}
+ * for common terrain. Can be used in an {@link InstanceContainer} with {@code instance.setChunkSupplier(PalettedChunk::new)}.
+ */
+public class PalettedChunk extends Chunk {
+
+    // Block sections, null if the section only contains air
+    // WARNING: those sections are NOT thread-safe
+    // and modifying them can cause issue with block data, update, block entity and the cached chunk packet
+    protected final Section[] blockSections = new Section[CHUNK_SECTION_COUNT];
+    protected final Section[] customBlockSections = new Section[CHUNK_SECTION_COUNT];
+
+    public PalettedChunk(Biome[] biomes, int chunkX, int chunkZ) {
+        super(biomes, chunkX, chunkZ);
+    }
+
+    @Override
+    public void UNSAFE_removeCustomBlock(int x, int y, int z) {
+        final int index = getBlockIndex(x, y, z);
+        setValue(customBlockSections, CUSTOM_BLOCK_BITS_PER_ENTRY, x, y, z, (short) 0); // Set to none
+        this.blocksData.remove(index);
+
+        this.updatableBlocks.remove(index);
+        this.updatableBlocksLastUpdate.remove(index);
+
+        this.blockEntities.remove(index);
+    }
+
+    @Override
+    protected void setBlock(int x, int y, int z, short blockStateId, short customId, Data data, UpdateConsumer updateConsumer) {
+        if (!isInBounds(y))
+            return;
+
+        {
+            // Update pathfinder
+            final PFColumnarSpace pathSpace = columnarSpace;
+            if (pathSpace != null) {
+                pathSpace.onBlockChanged(x, y, z, blockStateId);
+            }
+        }
+
+        final int index = getBlockIndex(x, y, z);
+
+        setValue(blockSections, BLOCK_STATE_BITS_PER_ENTRY, x, y, z, blockStateId);
+        setValue(customBlockSections, CUSTOM_BLOCK_BITS_PER_ENTRY, x, y, z, customId);
+
+        // True if the block is not complete air without any custom block capabilities
+        final boolean hasBlock = blockStateId != 0 || customId != 0;
+        if (!hasBlock) {
+            // Block has been deleted, clear cache and return
+            this.blocksData.remove(index);
+
+            this.updatableBlocks.remove(index);
+            this.updatableBlocksLastUpdate.remove(index);
+
+            this.blockEntities.remove(index);
+
+            invalidateSection(y / CHUNK_SECTION_SIZE);
+            return;
+        }
+
+        // Set the new data (or remove from the map if is null)
+        if (data != null) {
+            this.blocksData.put(index, data);
+        } else {
+            this.blocksData.remove(index);
+        }
+
+        // Set update consumer
+        if (updateConsumer != null) {
+            this.updatableBlocks.add(index);
+            this.updatableBlocksLastUpdate.put(index, System.currentTimeMillis());
+        } else {
+            this.updatableBlocks.remove(index);
+            this.updatableBlocksLastUpdate.remove(index);
+        }
+
+        // Set block entity
+        if (isBlockEntity(blockStateId)) {
+            this.blockEntities.add(index);
+        } else {
+            this.blockEntities.remove(index);
+        }
+
+        invalidateSection(y / CHUNK_SECTION_SIZE);
+    }
+
+    @Override
+    public short getBlockStateId(int x, int y, int z) {
+        if (!isInBounds(y)) {
+            return 0; // TODO: custom invalid block
+        }
+        return getValue(blockSections, x, y, z);
+    }
+
+    @Override
+    public short getCustomBlockId(int x, int y, int z) {
+        if (!isInBounds(y)) {
+            return 0; // TODO: custom invalid block
+        }
+        return getValue(customBlockSections, x, y, z);
+    }
+
+    @Override
+    public CustomBlock getCustomBlock(int x, int y, int z) {
+        if (!isInBounds(y)) {
+            return null; // TODO: custom invalid block
+        }
+        final short id = getValue(customBlockSections, x, y, z);
+        return id != 0 ? BLOCK_MANAGER.getCustomBlock(id) : null;
+    }
+
+    @Override
+    protected void refreshBlockValue(int x, int y, int z, short blockStateId, short customId) {
+        if (!isInBounds(y)) {
+            return;
+        }
+
+        setValue(blockSections, BLOCK_STATE_BITS_PER_ENTRY, x, y, z, blockStateId);
+        setValue(customBlockSections, CUSTOM_BLOCK_BITS_PER_ENTRY, x, y, z, customId);
+        invalidateSection(y / CHUNK_SECTION_SIZE);
+    }
+
+    @Override
+    protected void refreshBlockStateId(int x, int y, int z, short blockStateId) {
+        if (!isInBounds(y)) {
+            return;
+        }
+
+        setValue(blockSections, BLOCK_STATE_BITS_PER_ENTRY, x, y, z, blockStateId);
+        invalidateSection(y / CHUNK_SECTION_SIZE);
+    }
+
+    /**
+     * Serialize this {@link Chunk} based on {@link ChunkReader#readChunk(byte[], Instance, int, int, Consumer)}
+     * <p>
+     * The sections are written as they are stored, see {@link ChunkFormat}
+     *
+     * @return the serialized chunk data
+     */
+    @Override
+    public synchronized byte[] getSerializedData() {
+        return ChunkFormat.write(biomes, blockSections, customBlockSections, blocksData);
+    }
+
+    /**
+     * Use the loaded sections as the storage of this chunk, without copying them
+     *
+     * @param blockSections       the block state sections, null for a section containing only air
+     * @param customBlockSections the custom block sections, null for a section without custom block
+     * @param blocksData          the data of the blocks by block index
+     */
+    @Override
+    public void UNSAFE_loadSections(Section[] blockSections, Section[] customBlockSections, Int2ObjectMap<Data> blocksData) {
+        // Added at once, the set is copied on each modification
+        List<Integer> blockEntities = new ArrayList<>();
+        for (int sectionY = 0; sectionY < CHUNK_SECTION_COUNT; sectionY++) {
+            final Section blockSection = blockSections[sectionY];
+            final Section customBlockSection = customBlockSections[sectionY];
+            this.blockSections[sectionY] = blockSection;
+            this.customBlockSections[sectionY] = customBlockSection;
+            if (blockSection == null && customBlockSection == null)
+                continue;
+
+            for (int i = 0; i < Section.SECTION_BLOCK_COUNT; i++) {
+                final short blockStateId = blockSection != null ? blockSection.get(i) : 0;
+                final short customBlockId = customBlockSection != null ? customBlockSection.get(i) : 0;
+                if (blockStateId == 0 && customBlockId == 0)
+                    continue;
+
+                final int index = getBlockIndex(i & 0xF, sectionY * CHUNK_SECTION_SIZE + (i >> 8), i >> 4 & 0xF);
+                if (customBlockId != 0) {
+                    final CustomBlock customBlock = BLOCK_MANAGER.getCustomBlock(customBlockId);
+                    if (customBlock != null && customBlock.hasUpdate()) {
+                        this.updatableBlocks.add(index);
+                        this.updatableBlocksLastUpdate.put(index, System.currentTimeMillis());
+                    }
+                }
+                if (isBlockEntity(blockStateId)) {
+                    blockEntities.add(index);
+                }
+            }
+            invalidateSection(sectionY);
+        }
+        this.blockEntities.addAll(blockEntities);
+        this.blocksData.putAll(blocksData);
+        refreshHeightmaps();
+    }
+
+    @Override
+    protected boolean writeSection(int section, ByteBuf buffer) {
+        final Section blockSection = blockSections[section];
+        if (blockSection == null || blockSection.isEmpty())
+            return false;
+        // Sections are already in the packet format
+        blockSection.write(buffer);
+        return true;
+    }
+
+    /**
+     * Get an estimation of the memory used by the blocks storage of this chunk
+     *
+     * @return the approximate size in bytes of the sections arrays
+     */
+    public long getBlocksStorageSize() {
+        long size = 0;
+        for (int i = 0; i < CHUNK_SECTION_COUNT; i++) {
+            final Section blockSection = blockSections[i];
+            final Section customBlockSection = customBlockSections[i];
+            if (blockSection != null)
+                size += blockSection.getArraysSize();
+            if (customBlockSection != null)
+                size += customBlockSection.getArraysSize();
+        }
+        return size;
+    }
+
+    private static boolean isInBounds(int y) {
+        return MathUtils.isBetween(y, 0, CHUNK_SIZE_Y - 1);
+    }
+
+    private static short getValue(Section[] sections, int x, int y, int z) {
+        final Section section = sections[y / CHUNK_SECTION_SIZE];
+        return section != null ? section.get(Section.getIndex(x, y, z)) : 0;
+    }
+
+    private static void setValue(Section[] sections, int directBitsPerEntry, int x, int y, int z, short value) {
+        final int sectionY = y / CHUNK_SECTION_SIZE;
+        Section section = sections[sectionY];
+        if (section == null) {
+            // Setting air in an empty section does not change anything
+            if (value == 0)
+                return;
+            section = new Section(directBitsPerEntry);
+            sections[sectionY] = section;
+        }
+
+        section.set(Section.getIndex(x, y, z), value);
+
+        // Release the section once it only contains air
+        if (section.isEmpty())
+            sections[sectionY] = null;
+    }
+
+}
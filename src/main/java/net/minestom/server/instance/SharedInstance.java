@@ -7,6 +7,7 @@ import net.minestom.server.instance.batch.ChunkBatch;
 import net.minestom.server.storage.StorageLocation;
 import net.minestom.server.utils.BlockPosition;
 import net.minestom.server.utils.Position;
+import net.minestom.server.utils.chunk.ChunkSupplier;
 import net.minestom.server.utils.time.TimeUnit;
 
 import java.util.Collection;
@@ -36,6 +37,11 @@ public class SharedInstance extends Instance {
         return instanceContainer.breakBlock(player, blockPosition);
     }
 
+    @Override
+    public void removeBlocks(Collection<BlockPosition> blockPositions) {
+        instanceContainer.removeBlocks(blockPositions);
+    }
+
     @Override
     public void loadChunk(int chunkX, int chunkZ, Consumer<Chunk> callback) {
         instanceContainer.loadChunk(chunkX, chunkZ, callback);
@@ -86,6 +92,16 @@ public class SharedInstance extends Instance {
         return instanceContainer.getChunkGenerator();
     }
 
+    @Override
+    public ChunkSupplier getChunkSupplier() {
+        return instanceContainer.getChunkSupplier();
+    }
+
+    @Override
+    public void setChunkSupplier(ChunkSupplier chunkSupplier) {
+        instanceContainer.setChunkSupplier(chunkSupplier);
+    }
+
     @Override
     public Collection<Chunk> getChunks() {
         return instanceContainer.getChunks();
@@ -1,16 +1,11 @@
 package net.minestom.server.instance;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import net.minestom.server.data.Data;
 import net.minestom.server.instance.block.BlockProvider;
 import net.minestom.server.instance.block.CustomBlock;
 import net.minestom.server.instance.block.UpdateConsumer;
-import net.minestom.server.network.packet.server.play.ChunkDataPacket;
-import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.world.biomes.Biome;
 
-import java.util.concurrent.CopyOnWriteArraySet;
-
 public class StaticChunk extends Chunk {
 
     protected final BlockProvider blockProvider;
@@ -18,6 +13,7 @@ public class StaticChunk extends Chunk {
     public StaticChunk(Biome[] biomes, int chunkX, int chunkZ, BlockProvider blockProvider) {
         super(biomes, chunkX, chunkZ);
         this.blockProvider = blockProvider;
+        refreshHeightmaps();
     }
 
     @Override
@@ -62,24 +58,4 @@ public class StaticChunk extends Chunk {
         return null;
     }
 
-    @Override
-    protected ChunkDataPacket getFreshPacket() {
-        ChunkDataPacket fullDataPacket = new ChunkDataPacket();
-        fullDataPacket.biomes = biomes.clone();
-        fullDataPacket.chunkX = chunkX;
-        fullDataPacket.chunkZ = chunkZ;
-        short[] blocksStateId = new short[CHUNK_SIZE_X * CHUNK_SIZE_Y * CHUNK_SIZE_Z];
-        for (int i = 0; i < blocksStateId.length; i++) {
-            final int x = ChunkUtils.blockIndexToChunkPositionX(i);
-            final int y = ChunkUtils.blockIndexToChunkPositionY(i);
-            final int z = ChunkUtils.blockIndexToChunkPositionZ(i);
-            blocksStateId[i] = blockProvider.getBlockStateId(x, y, z);
-        }
-        fullDataPacket.blocksStateId = blocksStateId;
-        fullDataPacket.customBlocksId = new short[0];
-        fullDataPacket.blockEntities = new CopyOnWriteArraySet<>(blockEntities);
-        fullDataPacket.blocksData = new Int2ObjectOpenHashMap<>(blocksData);
-        return fullDataPacket;
-    }
-
 }
@@ -72,11 +72,10 @@ public class BlockBatch implements InstanceBatch {
 
                     for (BlockData data : dataList) {
                         data.apply(chunk);
+                        // Refresh the block for viewers at the end of the tick
+                        instance.addBlockChange(chunk, data.x, data.y, data.z, data.blockStateId);
                     }
 
-                    // Refresh chunk for viewers
-                    chunk.sendChunkUpdate();
-
                     if (isLast) {
                         if (callback != null)
                             callback.run();
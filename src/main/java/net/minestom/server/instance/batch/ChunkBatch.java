@@ -62,24 +62,32 @@ public class ChunkBatch implements InstanceBatch {
     }
 
     public void flushChunkGenerator(ChunkGenerator chunkGenerator, Consumer<Chunk> callback) {
-        batchesPool.execute(() -> {
-            final List<ChunkPopulator> populators = chunkGenerator.getPopulators();
-            final boolean hasPopulator = populators != null && !populators.isEmpty();
+        batchesPool.execute(() -> runChunkGenerator(chunkGenerator, callback));
+    }
 
-            chunkGenerator.generateChunkData(this, chunk.getChunkX(), chunk.getChunkZ());
-            singleThreadFlush(hasPopulator ? null : callback);
+    /**
+     * Generate the chunk and execute its populators on the current thread
+     *
+     * @param chunkGenerator the chunk generator
+     * @param callback       the callback executed once the chunk is generated, can be null
+     */
+    public void runChunkGenerator(ChunkGenerator chunkGenerator, Consumer<Chunk> callback) {
+        final List<ChunkPopulator> populators = chunkGenerator.getPopulators();
+        final boolean hasPopulator = populators != null && !populators.isEmpty();
 
-            clearData(); // So the populators won't place those blocks again
+        chunkGenerator.generateChunkData(this, chunk.getChunkX(), chunk.getChunkZ());
+        singleThreadFlush(hasPopulator ? null : callback);
 
-            if (hasPopulator) {
-                for (ChunkPopulator chunkPopulator : populators) {
-                    chunkPopulator.populateChunk(this, chunk);
-                }
-                singleThreadFlush(callback);
+        clearData(); // So the populators won't place those blocks again
 
-                clearData(); // Clear populators blocks
+        if (hasPopulator) {
+            for (ChunkPopulator chunkPopulator : populators) {
+                chunkPopulator.populateChunk(this, chunk);
             }
-        });
+            singleThreadFlush(callback);
+
+            clearData(); // Clear populators blocks
+        }
     }
 
     public void flush(Consumer<Chunk> callback) {
@@ -97,13 +105,15 @@ public class ChunkBatch implements InstanceBatch {
             if (!chunk.isLoaded())
                 return;
 
+            // Chunks being generated or loaded do not have any viewer yet
+            final boolean hasViewers = !chunk.getViewers().isEmpty();
             for (BlockData data : dataList) {
                 data.apply(chunk);
+                // Refresh the block for viewers at the end of the tick
+                if (hasViewers)
+                    instance.addBlockChange(chunk, data.x, data.y, data.z, data.blockStateId);
             }
 
-            // Refresh chunk for viewers
-            chunk.sendChunkUpdate();
-
             if (callback != null)
                 callback.accept(chunk);
         }
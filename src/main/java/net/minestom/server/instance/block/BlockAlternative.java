@@ -6,9 +6,18 @@ import java.util.Map;
 
 public class BlockAlternative {
 
+    private static final byte AIR_FLAG = 0x1;
+    private static final byte SOLID_FLAG = 0x2;
+    private static final byte LIQUID_FLAG = 0x4;
+    private static final byte BLOCK_ENTITY_FLAG = 0x8;
+
     private final short id;
     private final String[] properties;
 
+    // Set when registered in its block
+    private Block block;
+    private byte flags;
+
     public BlockAlternative(short id, String... properties) {
         this.id = id;
         this.properties = properties;
@@ -22,7 +31,38 @@ public class BlockAlternative {
         return properties;
     }
 
+    /**
+     * Get the block of this alternative
+     *
+     * @return the block of this alternative, null if not registered
+     */
+    public Block getBlock() {
+        return block;
+    }
+
+    public boolean isAir() {
+        return (flags & AIR_FLAG) != 0;
+    }
+
+    public boolean isSolid() {
+        return (flags & SOLID_FLAG) != 0;
+    }
+
+    public boolean isLiquid() {
+        return (flags & LIQUID_FLAG) != 0;
+    }
+
+    public boolean hasBlockEntity() {
+        return (flags & BLOCK_ENTITY_FLAG) != 0;
+    }
+
     public Map<String, String> createPropertiesMap() {
+        if (block != null) {
+            final Map<String, String> map = block.getBlockProperties().createPropertiesMap(id);
+            if (map != null)
+                return map;
+        }
+
         Map<String, String> map = new HashMap<>();
         for (String p : properties) {
             String[] parts = p.split("=");
@@ -31,6 +71,21 @@ public class BlockAlternative {
         return map;
     }
 
+    protected void setBlock(Block block) {
+        this.block = block;
+
+        byte flags = 0;
+        if (block.isAir())
+            flags |= AIR_FLAG;
+        if (block.isSolid())
+            flags |= SOLID_FLAG;
+        if (block.isLiquid())
+            flags |= LIQUID_FLAG;
+        if (block.hasBlockEntity())
+            flags |= BLOCK_ENTITY_FLAG;
+        this.flags = flags;
+    }
+
     @Override
     public String toString() {
         return "BlockAlternative{" +
@@ -0,0 +1,224 @@
+package net.minestom.server.instance.block;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+import java.util.*;
+
+/**
+ * The layout of the properties of a {@link Block} in its state ids
+ * <p>
+ * The vanilla state ids of a block are contiguous, each property being a digit of a mixed radix number:
+ * {@code id = minStateId + sum(valueIndex[i] * stride[i])}, the last property having a stride of 1.
+ * Changing a property is then a simple arithmetic operation on the id.
+ * <p>
+ * Blocks which do not follow this layout fall back to a linear search in their alternatives.
+ */
+final class BlockProperties {
+
+    private static final int NOT_FOUND = -1;
+
+    private final List<BlockAlternative> alternatives;
+    private final boolean valid;
+
+    private final short minStateId;
+    private final String[] names;
+    private final String[][] values;
+    private final int[] strides;
+
+    // "name=value" -> property index << 16 | value index
+    private final Object2IntMap<String> propertyMap = new Object2IntOpenHashMap<>();
+    // name -> property index
+    private final Object2IntMap<String> nameMap = new Object2IntOpenHashMap<>();
+
+    BlockProperties(List<BlockAlternative> alternatives) {
+        this.alternatives = alternatives;
+        this.propertyMap.defaultReturnValue(NOT_FOUND);
+        this.nameMap.defaultReturnValue(NOT_FOUND);
+
+        List<BlockAlternative> sortedAlternatives = new ArrayList<>(alternatives);
+        sortedAlternatives.sort(Comparator.comparingInt(BlockAlternative::getId));
+
+        final String[] firstProperties = sortedAlternatives.isEmpty() ?
+                new String[0] : sortedAlternatives.get(0).getProperties();
+        final int propertyCount = firstProperties.length;
+
+        this.minStateId = sortedAlternatives.isEmpty() ? 0 : sortedAlternatives.get(0).getId();
+        this.names = new String[propertyCount];
+        for (int i = 0; i < propertyCount; i++) {
+            this.names[i] = getName(firstProperties[i]);
+            this.nameMap.put(names[i], i);
+        }
+
+        // Values in the order of their first appearance, which is their index
+        List<List<String>> valuesList = new ArrayList<>(propertyCount);
+        for (int i = 0; i < propertyCount; i++) {
+            valuesList.add(new ArrayList<>());
+        }
+        boolean sameNames = true;
+        for (BlockAlternative alternative : sortedAlternatives) {
+            final String[] properties = alternative.getProperties();
+            if (properties.length != propertyCount) {
+                sameNames = false;
+                break;
+            }
+            for (int i = 0; i < propertyCount; i++) {
+                if (!names[i].equals(getName(properties[i]))) {
+                    sameNames = false;
+                    break;
+                }
+                final List<String> propertyValues = valuesList.get(i);
+                final String value = getValue(properties[i]);
+                if (!propertyValues.contains(value))
+                    propertyValues.add(value);
+            }
+        }
+
+        this.values = new String[propertyCount][];
+        this.strides = new int[propertyCount];
+        int stride = 1;
+        for (int i = propertyCount - 1; i >= 0; i--) {
+            this.values[i] = valuesList.get(i).toArray(new String[0]);
+            this.strides[i] = stride;
+            stride *= values[i].length;
+            for (int j = 0; j < values[i].length; j++) {
+                this.propertyMap.put(names[i] + "=" + values[i][j], i << 16 | j);
+            }
+        }
+
+        this.valid = sameNames && stride == sortedAlternatives.size() && checkLayout(sortedAlternatives);
+    }
+
+    /**
+     * Get the state id with the given properties
+     *
+     * @param defaultId  the id returned if no state has exactly those properties
+     * @param properties all the properties of the state, formatted as "name=value"
+     * @return the state id with {@code properties}, {@code defaultId} if not found
+     */
+    short withProperties(short defaultId, String... properties) {
+        if (!valid) {
+            for (BlockAlternative alternative : alternatives) {
+                if (Arrays.equals(alternative.getProperties(), properties)) {
+                    return alternative.getId();
+                }
+            }
+            return defaultId;
+        }
+
+        if (properties.length != names.length)
+            return defaultId;
+
+        int id = minStateId;
+        int seenProperties = 0;
+        for (String property : properties) {
+            final int packed = propertyMap.getInt(property);
+            if (packed == NOT_FOUND)
+                return defaultId;
+            final int propertyIndex = packed >>> 16;
+            final int valueIndex = packed & 0xFFFF;
+            seenProperties |= 1 << propertyIndex;
+            id += valueIndex * strides[propertyIndex];
+        }
+        // Every property needs to be present exactly once
+        return seenProperties == (1 << names.length) - 1 ? (short) id : defaultId;
+    }
+
+    /**
+     * Change a single property of a state
+     *
+     * @param blockStateId a state id of this block
+     * @param name         the property name
+     * @param value        the new property value
+     * @return the state id with the property changed, {@code blockStateId} if the property or value does not exist
+     */
+    short withProperty(short blockStateId, String name, String value) {
+        if (!valid) {
+            final BlockAlternative alternative = BlockStates.getAlternative(blockStateId);
+            if (alternative == null)
+                return blockStateId;
+            String[] properties = alternative.getProperties().clone();
+            for (int i = 0; i < properties.length; i++) {
+                if (getName(properties[i]).equals(name))
+                    properties[i] = name + "=" + value;
+            }
+            return withProperties(blockStateId, properties);
+        }
+
+        final int packed = propertyMap.getInt(name + "=" + value);
+        if (packed == NOT_FOUND)
+            return blockStateId;
+        final int propertyIndex = packed >>> 16;
+        final int valueIndex = packed & 0xFFFF;
+        final int currentIndex = getValueIndex(blockStateId, propertyIndex);
+        return (short) (blockStateId + (valueIndex - currentIndex) * strides[propertyIndex]);
+    }
+
+    /**
+     * Get the value of a property of a state
+     *
+     * @param blockStateId a state id of this block
+     * @param name         the property name
+     * @return the property value, null if the property does not exist
+     */
+    String getProperty(short blockStateId, String name) {
+        if (!valid) {
+            final BlockAlternative alternative = BlockStates.getAlternative(blockStateId);
+            if (alternative == null)
+                return null;
+            for (String property : alternative.getProperties()) {
+                if (getName(property).equals(name))
+                    return getValue(property);
+            }
+            return null;
+        }
+
+        final int propertyIndex = nameMap.getInt(name);
+        if (propertyIndex == NOT_FOUND)
+            return null;
+        return values[propertyIndex][getValueIndex(blockStateId, propertyIndex)];
+    }
+
+    /**
+     * Create a map containing the properties of a state
+     *
+     * @param blockStateId a state id of this block
+     * @return a new map containing the properties name and value, null if the layout is not valid
+     */
+    Map<String, String> createPropertiesMap(short blockStateId) {
+        if (!valid)
+            return null;
+        Map<String, String> map = new HashMap<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], values[i][getValueIndex(blockStateId, i)]);
+        }
+        return map;
+    }
+
+    private int getValueIndex(short blockStateId, int propertyIndex) {
+        return (blockStateId - minStateId) / strides[propertyIndex] % values[propertyIndex].length;
+    }
+
+    private boolean checkLayout(List<BlockAlternative> sortedAlternatives) {
+        for (BlockAlternative alternative : sortedAlternatives) {
+            final String[] properties = alternative.getProperties();
+            int id = minStateId;
+            for (String property : properties) {
+                final int packed = propertyMap.getInt(property);
+                id += (packed & 0xFFFF) * strides[packed >>> 16];
+            }
+            if (id != alternative.getId())
+                return false;
+        }
+        return true;
+    }
+
+    private static String getName(String property) {
+        return property.substring(0, property.indexOf('='));
+    }
+
+    private static String getValue(String property) {
+        return property.substring(property.indexOf('=') + 1);
+    }
+
+}
@@ -0,0 +1,42 @@
+package net.minestom.server.instance.block;
+
+import java.util.Arrays;
+
+/**
+ * Dense tables indexed by block state id, filled while the {@link Block} alternatives are registered
+ * <p>
+ * Only modified during the {@link Block} class initialization, read-only afterwards.
+ */
+final class BlockStates {
+
+    // Big enough for all the vanilla states, grown otherwise
+    private static final int INITIAL_CAPACITY = 1 << 15;
+
+    private static Block[] blocks = new Block[INITIAL_CAPACITY];
+    private static BlockAlternative[] alternatives = new BlockAlternative[INITIAL_CAPACITY];
+
+    private BlockStates() {
+
+    }
+
+    static void register(Block block, BlockAlternative alternative) {
+        final int id = alternative.getId();
+        if (id >= blocks.length) {
+            final int newLength = Math.max(blocks.length * 2, id + 1);
+            blocks = Arrays.copyOf(blocks, newLength);
+            alternatives = Arrays.copyOf(alternatives, newLength);
+        }
+        alternative.setBlock(block);
+        blocks[id] = block;
+        alternatives[id] = alternative;
+    }
+
+    static Block getBlock(short blockStateId) {
+        return blockStateId >= 0 && blockStateId < blocks.length ? blocks[blockStateId] : null;
+    }
+
+    static BlockAlternative getAlternative(short blockStateId) {
+        return blockStateId >= 0 && blockStateId < alternatives.length ? alternatives[blockStateId] : null;
+    }
+
+}
@@ -0,0 +1,203 @@
+package net.minestom.server.instance.light;
+
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.network.packet.server.play.UpdateLightPacket;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The sky and block light of a {@link Chunk}, stored as a nibble array per section
+ * <p>
+ * Only modified by the {@link LightEngine} of the chunk instance, a null section is completely dark
+ * and fully lit sky sections share the same array until modified.
+ */
+public class ChunkLight {
+
+    public static final int SECTION_LIGHT_SIZE = 2048;
+    public static final int ALL_SECTIONS_MASK = (1 << Chunk.CHUNK_SECTION_COUNT) - 1;
+
+    // Sections -1 and 16 are also part of the light packets, bit 0 is section -1
+    private static final int PACKET_SECTION_OFFSET = 1;
+    private static final int TOP_SECTION_BIT = 1 << (Chunk.CHUNK_SECTION_COUNT + PACKET_SECTION_OFFSET);
+
+    private static final byte[] FULL_SECTION = new byte[SECTION_LIGHT_SIZE];
+
+    static {
+        Arrays.fill(FULL_SECTION, (byte) 0xFF);
+    }
+
+    private final byte[][] skyLight = new byte[Chunk.CHUNK_SECTION_COUNT][];
+    private final byte[][] blockLight = new byte[Chunk.CHUNK_SECTION_COUNT][];
+
+    // False for dimensions without sky
+    private volatile boolean skyLightEnabled = true;
+
+    // Sections modified since the last call to #clearChanges()
+    private int skyChanges;
+    private int blockChanges;
+
+    // Incremented each time the light is modified, used to invalidate the cached packet
+    private volatile int version;
+
+    public int getSkyLight(int x, int y, int z) {
+        return get(skyLight, x, y, z);
+    }
+
+    public int getBlockLight(int x, int y, int z) {
+        return get(blockLight, x, y, z);
+    }
+
+    /**
+     * Get the version of the light, incremented each time the light engine modifies it
+     *
+     * @return the light version
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    /**
+     * Create a packet containing the light of the given sections
+     *
+     * @param chunkX       the chunk X
+     * @param chunkZ       the chunk Z
+     * @param sectionsMask the mask of the sections to include, bit 0 being the section 0
+     * @return a new packet containing the sections light
+     */
+    public UpdateLightPacket createLightPacket(int chunkX, int chunkZ, int sectionsMask) {
+        final boolean withSky = skyLightEnabled;
+        List<byte[]> skySections = new ArrayList<>();
+        List<byte[]> blockSections = new ArrayList<>();
+
+        UpdateLightPacket updateLightPacket = new UpdateLightPacket();
+        updateLightPacket.chunkX = chunkX;
+        updateLightPacket.chunkZ = chunkZ;
+        for (int section = 0; section < Chunk.CHUNK_SECTION_COUNT; section++) {
+            if ((sectionsMask & (1 << section)) == 0)
+                continue;
+            final int bit = 1 << (section + PACKET_SECTION_OFFSET);
+
+            if (withSky) {
+                final byte[] sky = this.skyLight[section];
+                if (sky == null) {
+                    updateLightPacket.emptySkyLightMask |= bit;
+                } else {
+                    updateLightPacket.skyLightMask |= bit;
+                    skySections.add(sky == FULL_SECTION ? sky : sky.clone());
+                }
+            }
+
+            final byte[] block = this.blockLight[section];
+            if (block == null) {
+                updateLightPacket.emptyBlockLightMask |= bit;
+            } else {
+                updateLightPacket.blockLightMask |= bit;
+                blockSections.add(block.clone());
+            }
+        }
+
+        if (sectionsMask == ALL_SECTIONS_MASK) {
+            // Nothing below the world, sky above it
+            updateLightPacket.emptyBlockLightMask |= 1 | TOP_SECTION_BIT;
+            if (withSky) {
+                updateLightPacket.emptySkyLightMask |= 1;
+                updateLightPacket.skyLightMask |= TOP_SECTION_BIT;
+                skySections.add(FULL_SECTION);
+            }
+        }
+
+        updateLightPacket.skyLight = skySections;
+        updateLightPacket.blockLight = blockSections;
+        return updateLightPacket;
+    }
+
+    void setSkyLightEnabled(boolean skyLightEnabled) {
+        this.skyLightEnabled = skyLightEnabled;
+    }
+
+    void setSkyLight(int x, int y, int z, int level) {
+        if (set(skyLight, x, y, z, level))
+            this.skyChanges |= 1 << (y >> 4);
+    }
+
+    void setBlockLight(int x, int y, int z, int level) {
+        if (set(blockLight, x, y, z, level))
+            this.blockChanges |= 1 << (y >> 4);
+    }
+
+    /**
+     * Fill a sky section with the maximum light level, without allocating it
+     *
+     * @param section the section to fill
+     */
+    void fillSkySection(int section) {
+        if (skyLight[section] != FULL_SECTION) {
+            this.skyLight[section] = FULL_SECTION;
+            this.skyChanges |= 1 << section;
+        }
+    }
+
+    /**
+     * Remove all the light, used before computing the whole chunk again
+     */
+    void clear() {
+        for (int section = 0; section < Chunk.CHUNK_SECTION_COUNT; section++) {
+            if (skyLight[section] != null || blockLight[section] != null) {
+                this.skyLight[section] = null;
+                this.blockLight[section] = null;
+                this.skyChanges |= 1 << section;
+                this.blockChanges |= 1 << section;
+            }
+        }
+    }
+
+    /**
+     * Get the sections modified since the last call and increment the version if any
+     *
+     * @return the mask of the modified sections
+     */
+    int clearChanges() {
+        final int changes = skyChanges | blockChanges;
+        this.skyChanges = 0;
+        this.blockChanges = 0;
+        if (changes != 0)
+            this.version++;
+        return changes;
+    }
+
+    private static int get(byte[][] sections, int x, int y, int z) {
+        final byte[] section = sections[y >> 4];
+        if (section == null)
+            return 0;
+        final int index = getIndex(x, y, z);
+        return (section[index >> 1] >> ((index & 1) << 2)) & 0xF;
+    }
+
+    private static boolean set(byte[][] sections, int x, int y, int z, int level) {
+        final int sectionIndex = y >> 4;
+        byte[] section = sections[sectionIndex];
+        final int index = getIndex(x, y, z);
+        final int shift = (index & 1) << 2;
+        if (section == null || section == FULL_SECTION) {
+            final int current = section == null ? 0 : 15;
+            if (current == level)
+                return false;
+            // Copy on write
+            section = section == null ? new byte[SECTION_LIGHT_SIZE] : FULL_SECTION.clone();
+            sections[sectionIndex] = section;
+        }
+        final int byteIndex = index >> 1;
+        final int current = (section[byteIndex] >> shift) & 0xF;
+        if (current == level)
+            return false;
+        section[byteIndex] = (byte) ((section[byteIndex] & ~(0xF << shift)) | (level << shift));
+        return true;
+    }
+
+    private static int getIndex(int x, int y, int z) {
+        return (y & 0xF) << 8 | (z & 0xF) << 4 | (x & 0xF);
+    }
+
+}
@@ -0,0 +1,476 @@
+package net.minestom.server.instance.light;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.utils.thread.MinestomThread;
+
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compute the sky and block light of the chunks of an instance
+ * <p>
+ * Loaded chunks are lit entirely, block changes are then propagated incrementally
+ * using breadth-first searches (one removing the light which came from a changed block and one spreading the light).
+ * The work is done in batches outside of the tick threads, once a batch is done the modified sections
+ * are sent to the chunks viewers.
+ */
+public class LightEngine {
+
+    private static final ExecutorService LIGHT_POOL =
+            new MinestomThread(MinecraftServer.THREAD_COUNT_LIGHTING, MinecraftServer.THREAD_NAME_LIGHTING);
+
+    // Maximum work done in a single batch, the rest waits for the next one
+    private static final int MAX_CHUNKS_PER_BATCH = 16;
+    private static final int MAX_BLOCKS_PER_BATCH = 4096;
+
+    // Neighbour offsets, the index 1 is the block below
+    private static final int[][] DIRECTIONS = {
+            {0, 1, 0}, {0, -1, 0}, {1, 0, 0}, {-1, 0, 0}, {0, 0, 1}, {0, 0, -1}
+    };
+    private static final int DOWN = 1;
+
+    private final boolean skyLight;
+
+    // Modifications waiting for the next batch
+    private final Queue<Chunk> loadedChunks = new ConcurrentLinkedQueue<>();
+    private final Queue<Chunk> unloadedChunks = new ConcurrentLinkedQueue<>();
+    private final LongSet changedBlocks = new LongLinkedOpenHashSet();
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Only accessed by the batch being processed
+    private final Long2ObjectMap<Chunk> chunks = new Long2ObjectOpenHashMap<>();
+    private final Set<Chunk> modifiedChunks = new HashSet<>();
+    private final LongArrayFIFOQueue increaseQueue = new LongArrayFIFOQueue();
+    private final LongArrayFIFOQueue decreaseQueue = new LongArrayFIFOQueue();
+    private Chunk lastChunk;
+
+    public LightEngine(Instance instance) {
+        this.skyLight = instance.getDimensionType().isSkylightEnabled();
+    }
+
+    /**
+     * Schedule the lighting of a chunk, all its light is computed again
+     *
+     * @param chunk the loaded chunk
+     */
+    public void loadChunk(Chunk chunk) {
+        chunk.getLight().setSkyLightEnabled(skyLight);
+        this.loadedChunks.add(chunk);
+    }
+
+    /**
+     * Remove a chunk from the light engine, its light does not spread anymore
+     *
+     * @param chunk the unloaded chunk
+     */
+    public void unloadChunk(Chunk chunk) {
+        this.unloadedChunks.add(chunk);
+    }
+
+    /**
+     * Schedule the update of the light around a block which changed
+     *
+     * @param x the block X
+     * @param y the block Y
+     * @param z the block Z
+     */
+    public void updateBlock(int x, int y, int z) {
+        if (y < 0 || y >= Chunk.CHUNK_SIZE_Y)
+            return;
+        synchronized (changedBlocks) {
+            this.changedBlocks.add(pack(x, y, z, 0));
+        }
+    }
+
+    /**
+     * Start a new batch if there is work to do and none is running
+     * <p>
+     * Called every tick by the instance
+     */
+    public void tick() {
+        if (!hasPendingWork())
+            return;
+        if (running.compareAndSet(false, true)) {
+            LIGHT_POOL.execute(() -> {
+                try {
+                    processBatch();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                } finally {
+                    this.running.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Process all the pending work on the current thread, after the running batch if any
+     * <p>
+     * Can be used when the light needs to be up-to-date immediately, for example before saving a chunk
+     */
+    public void flush() {
+        while (!running.compareAndSet(false, true)) {
+            Thread.onSpinWait();
+        }
+        try {
+            while (hasPendingWork()) {
+                processBatch();
+            }
+        } finally {
+            this.running.set(false);
+        }
+    }
+
+    private boolean hasPendingWork() {
+        if (!loadedChunks.isEmpty() || !unloadedChunks.isEmpty())
+            return true;
+        synchronized (changedBlocks) {
+            return !changedBlocks.isEmpty();
+        }
+    }
+
+    private void processBatch() {
+        Chunk chunk;
+        while ((chunk = unloadedChunks.poll()) != null) {
+            this.chunks.remove(getChunkIndex(chunk));
+            this.modifiedChunks.remove(chunk);
+        }
+        this.lastChunk = null;
+
+        for (int i = 0; i < MAX_CHUNKS_PER_BATCH && (chunk = loadedChunks.poll()) != null; i++) {
+            if (!chunk.isLoaded())
+                continue;
+            this.chunks.put(getChunkIndex(chunk), chunk);
+            lightChunk(chunk);
+        }
+
+        final long[] blocks;
+        synchronized (changedBlocks) {
+            final int count = Math.min(changedBlocks.size(), MAX_BLOCKS_PER_BATCH);
+            blocks = new long[count];
+            final LongIterator iterator = changedBlocks.iterator();
+            for (int i = 0; i < count; i++) {
+                blocks[i] = iterator.nextLong();
+                iterator.remove();
+            }
+        }
+        if (blocks.length != 0) {
+            updateBlocks(blocks, false);
+            if (skyLight)
+                updateBlocks(blocks, true);
+        }
+
+        // Send the modified sections
+        for (Chunk modifiedChunk : modifiedChunks) {
+            final ChunkLight light = modifiedChunk.getLight();
+            final int changedSections = light.clearChanges();
+            if (changedSections != 0 && !modifiedChunk.getViewers().isEmpty()) {
+                modifiedChunk.sendPacketToViewers(light.createLightPacket(
+                        modifiedChunk.getChunkX(), modifiedChunk.getChunkZ(), changedSections));
+            }
+        }
+        this.modifiedChunks.clear();
+    }
+
+    /**
+     * Compute the whole light of a chunk and spread it to its neighbours
+     *
+     * @param chunk the chunk to light
+     */
+    private void lightChunk(Chunk chunk) {
+        final ChunkLight light = chunk.getLight();
+        light.clear();
+        this.modifiedChunks.add(chunk);
+
+        final int baseX = chunk.getChunkX() * Chunk.CHUNK_SIZE_X;
+        final int baseZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE_Z;
+
+        // Block light sources
+        for (int y = 0; y < Chunk.CHUNK_SIZE_Y; y++) {
+            for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+                for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                    final int emission = LightProperties.getEmission(getBlockStateId(chunk, x, y, z));
+                    if (emission > 0) {
+                        light.setBlockLight(x, y, z, emission);
+                        this.increaseQueue.enqueue(pack(baseX + x, y, baseZ + z, emission));
+                    }
+                }
+            }
+        }
+        enqueueBorders(chunk, false);
+        propagateIncrease(false);
+
+        if (!skyLight)
+            return;
+
+        // Lowest Y of each column receiving the sky directly
+        final int[] heights = new int[Chunk.CHUNK_SIZE_X * Chunk.CHUNK_SIZE_Z];
+        int maxHeight = 0;
+        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                int y = Chunk.CHUNK_SIZE_Y - 1;
+                while (y >= 0 && LightProperties.getOpacity(getBlockStateId(chunk, x, y, z)) == 0) {
+                    y--;
+                }
+                heights[x << 4 | z] = y + 1;
+                maxHeight = Math.max(maxHeight, y + 1);
+            }
+        }
+
+        // Sections above every block are fully lit
+        final int firstFullSection = (maxHeight + Chunk.CHUNK_SECTION_SIZE - 1) / Chunk.CHUNK_SECTION_SIZE;
+        for (int section = firstFullSection; section < Chunk.CHUNK_SECTION_COUNT; section++) {
+            light.fillSkySection(section);
+        }
+
+        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                final int height = heights[x << 4 | z];
+                for (int y = height; y < firstFullSection * Chunk.CHUNK_SECTION_SIZE; y++) {
+                    light.setSkyLight(x, y, z, LightProperties.MAX_LEVEL);
+                }
+
+                // Only spread from the blocks next to a darker column, the others do not change anything
+                int spreadHeight = height;
+                for (int i = 2; i < DIRECTIONS.length; i++) {
+                    final int neighbourX = x + DIRECTIONS[i][0];
+                    final int neighbourZ = z + DIRECTIONS[i][2];
+                    final boolean inChunk = neighbourX >= 0 && neighbourX < Chunk.CHUNK_SIZE_X &&
+                            neighbourZ >= 0 && neighbourZ < Chunk.CHUNK_SIZE_Z;
+                    spreadHeight = Math.max(spreadHeight, inChunk ? heights[neighbourX << 4 | neighbourZ] : maxHeight);
+                }
+                for (int y = height; y <= spreadHeight && y < Chunk.CHUNK_SIZE_Y; y++) {
+                    this.increaseQueue.enqueue(pack(baseX + x, y, baseZ + z, LightProperties.MAX_LEVEL));
+                }
+            }
+        }
+        enqueueBorders(chunk, true);
+        propagateIncrease(true);
+    }
+
+    /**
+     * Enqueue the blocks of the loaded neighbours touching a chunk so their light spreads into it
+     *
+     * @param chunk the chunk
+     * @param sky   true for the sky light, false for the block light
+     */
+    private void enqueueBorders(Chunk chunk, boolean sky) {
+        final int baseX = chunk.getChunkX() * Chunk.CHUNK_SIZE_X;
+        final int baseZ = chunk.getChunkZ() * Chunk.CHUNK_SIZE_Z;
+        for (int i = 0; i < Chunk.CHUNK_SIZE_X; i++) {
+            for (int y = 0; y < Chunk.CHUNK_SIZE_Y; y++) {
+                enqueueCurrent(baseX - 1, y, baseZ + i, sky);
+                enqueueCurrent(baseX + Chunk.CHUNK_SIZE_X, y, baseZ + i, sky);
+                enqueueCurrent(baseX + i, y, baseZ - 1, sky);
+                enqueueCurrent(baseX + i, y, baseZ + Chunk.CHUNK_SIZE_Z, sky);
+            }
+        }
+    }
+
+    /**
+     * Update the light around the changed blocks
+     *
+     * @param blocks the packed position of the changed blocks
+     * @param sky    true for the sky light, false for the block light
+     */
+    private void updateBlocks(long[] blocks, boolean sky) {
+        // Remove the light which may come from the changed blocks
+        for (long block : blocks) {
+            final int x = unpackX(block), y = unpackY(block), z = unpackZ(block);
+            final Chunk chunk = getChunk(x, z);
+            if (chunk == null)
+                continue;
+            final int level = getLevel(chunk, x, y, z, sky);
+            if (level != 0) {
+                setLevel(chunk, x, y, z, 0, sky);
+                this.decreaseQueue.enqueue(pack(x, y, z, level));
+            }
+        }
+        propagateDecrease(sky);
+
+        // Spread again from the new sources and the neighbours
+        for (long block : blocks) {
+            final int x = unpackX(block), y = unpackY(block), z = unpackZ(block);
+            final Chunk chunk = getChunk(x, z);
+            if (chunk == null)
+                continue;
+            final short blockStateId = getBlockStateId(chunk, x, y, z);
+            int level = 0;
+            if (!sky) {
+                level = LightProperties.getEmission(blockStateId);
+            } else if (y == Chunk.CHUNK_SIZE_Y - 1) {
+                // Sky above the world
+                level = LightProperties.MAX_LEVEL - LightProperties.getOpacity(blockStateId);
+            }
+            if (level > getLevel(chunk, x, y, z, sky)) {
+                setLevel(chunk, x, y, z, level, sky);
+                this.increaseQueue.enqueue(pack(x, y, z, level));
+            }
+
+            for (int[] direction : DIRECTIONS) {
+                enqueueCurrent(x + direction[0], y + direction[1], z + direction[2], sky);
+            }
+        }
+        propagateIncrease(sky);
+    }
+
+    private void propagateIncrease(boolean sky) {
+        while (!increaseQueue.isEmpty()) {
+            final long entry = increaseQueue.dequeueLong();
+            final int x = unpackX(entry), y = unpackY(entry), z = unpackZ(entry);
+            final int level = unpackLevel(entry);
+
+            final Chunk chunk = getChunk(x, z);
+            if (chunk == null || getLevel(chunk, x, y, z, sky) != level)
+                continue; // Outdated
+
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                final int neighbourX = x + DIRECTIONS[i][0];
+                final int neighbourY = y + DIRECTIONS[i][1];
+                final int neighbourZ = z + DIRECTIONS[i][2];
+                if (neighbourY < 0 || neighbourY >= Chunk.CHUNK_SIZE_Y)
+                    continue;
+                final Chunk neighbourChunk = getChunk(neighbourX, neighbourZ);
+                if (neighbourChunk == null)
+                    continue;
+
+                final int opacity = LightProperties.getOpacity(getBlockStateId(neighbourChunk, neighbourX, neighbourY, neighbourZ));
+                final int neighbourLevel;
+                if (sky && i == DOWN && level == LightProperties.MAX_LEVEL && opacity == 0) {
+                    // Direct sky light does not decrease
+                    neighbourLevel = LightProperties.MAX_LEVEL;
+                } else {
+                    neighbourLevel = level - Math.max(1, opacity);
+                }
+
+                if (neighbourLevel > getLevel(neighbourChunk, neighbourX, neighbourY, neighbourZ, sky)) {
+                    setLevel(neighbourChunk, neighbourX, neighbourY, neighbourZ, neighbourLevel, sky);
+                    this.increaseQueue.enqueue(pack(neighbourX, neighbourY, neighbourZ, neighbourLevel));
+                }
+            }
+        }
+    }
+
+    private void propagateDecrease(boolean sky) {
+        while (!decreaseQueue.isEmpty()) {
+            final long entry = decreaseQueue.dequeueLong();
+            final int x = unpackX(entry), y = unpackY(entry), z = unpackZ(entry);
+            final int level = unpackLevel(entry);
+
+            for (int i = 0; i < DIRECTIONS.length; i++) {
+                final int neighbourX = x + DIRECTIONS[i][0];
+                final int neighbourY = y + DIRECTIONS[i][1];
+                final int neighbourZ = z + DIRECTIONS[i][2];
+                if (neighbourY < 0 || neighbourY >= Chunk.CHUNK_SIZE_Y)
+                    continue;
+                final Chunk neighbourChunk = getChunk(neighbourX, neighbourZ);
+                if (neighbourChunk == null)
+                    continue;
+
+                final int neighbourLevel = getLevel(neighbourChunk, neighbourX, neighbourY, neighbourZ, sky);
+                if (neighbourLevel == 0)
+                    continue;
+
+                final boolean directSky = sky && i == DOWN && level == LightProperties.MAX_LEVEL &&
+                        neighbourLevel == LightProperties.MAX_LEVEL;
+                if (neighbourLevel < level || directSky) {
+                    // The neighbour light may come from the removed one
+                    setLevel(neighbourChunk, neighbourX, neighbourY, neighbourZ, 0, sky);
+                    this.decreaseQueue.enqueue(pack(neighbourX, neighbourY, neighbourZ, neighbourLevel));
+                    if (!sky) {
+                        final int emission = LightProperties.getEmission(
+                                getBlockStateId(neighbourChunk, neighbourX, neighbourY, neighbourZ));
+                        if (emission > 0) {
+                            setLevel(neighbourChunk, neighbourX, neighbourY, neighbourZ, emission, false);
+                            this.increaseQueue.enqueue(pack(neighbourX, neighbourY, neighbourZ, emission));
+                        }
+                    }
+                } else {
+                    // Lit by another source, spread it again where the light has been removed
+                    this.increaseQueue.enqueue(pack(neighbourX, neighbourY, neighbourZ, neighbourLevel));
+                }
+            }
+        }
+    }
+
+    private void enqueueCurrent(int x, int y, int z, boolean sky) {
+        if (y < 0 || y >= Chunk.CHUNK_SIZE_Y)
+            return;
+        final Chunk chunk = getChunk(x, z);
+        if (chunk == null)
+            return;
+        final int level = getLevel(chunk, x, y, z, sky);
+        if (level > 1)
+            this.increaseQueue.enqueue(pack(x, y, z, level));
+    }
+
+    private static short getBlockStateId(Chunk chunk, int x, int y, int z) {
+        // Chunk implementations may not accept instance coordinates
+        return chunk.getBlockStateId(x & 0xF, y, z & 0xF);
+    }
+
+    private int getLevel(Chunk chunk, int x, int y, int z, boolean sky) {
+        final ChunkLight light = chunk.getLight();
+        return sky ? light.getSkyLight(x, y, z) : light.getBlockLight(x, y, z);
+    }
+
+    private void setLevel(Chunk chunk, int x, int y, int z, int level, boolean sky) {
+        final ChunkLight light = chunk.getLight();
+        if (sky) {
+            light.setSkyLight(x, y, z, level);
+        } else {
+            light.setBlockLight(x, y, z, level);
+        }
+        this.modifiedChunks.add(chunk);
+    }
+
+    private Chunk getChunk(int x, int z) {
+        final int chunkX = x >> 4;
+        final int chunkZ = z >> 4;
+        final Chunk lastChunk = this.lastChunk;
+        if (lastChunk != null && lastChunk.getChunkX() == chunkX && lastChunk.getChunkZ() == chunkZ)
+            return lastChunk;
+        final Chunk chunk = chunks.get(ChunkUtils.getChunkIndex(chunkX, chunkZ));
+        if (chunk != null)
+            this.lastChunk = chunk;
+        return chunk;
+    }
+
+    private static long getChunkIndex(Chunk chunk) {
+        return ChunkUtils.getChunkIndex(chunk.getChunkX(), chunk.getChunkZ());
+    }
+
+    /**
+     * Pack a block position and a light level in a long
+     * <p>
+     * 26 bits for X and Z, 8 bits for Y and 4 bits for the level
+     */
+    private static long pack(int x, int y, int z, int level) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) (y & 0xFF) << 4 | level;
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    private static int unpackY(long packed) {
+        return (int) (packed >>> 4 & 0xFF);
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    private static int unpackLevel(long packed) {
+        return (int) (packed & 0xF);
+    }
+
+}
@@ -0,0 +1,147 @@
+package net.minestom.server.instance.light;
+
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.block.BlockAlternative;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Light emission and opacity of each block state, indexed by state id
+ * <p>
+ * The block registry does not contain any light data, the values are those of the vanilla light sources
+ * and the opacity is approximated from {@link Block#isSolid()} and the block shape.
+ */
+public final class LightProperties {
+
+    public static final int MAX_LEVEL = 15;
+
+    private static final byte[] EMISSION;
+    private static final byte[] OPACITY;
+
+    // Blocks emitting light in all their states
+    private static final Map<Block, Integer> LIGHT_SOURCES = new EnumMap<>(Block.class);
+    // Blocks emitting light when "lit=true"
+    private static final Map<Block, Integer> LIT_LIGHT_SOURCES = new EnumMap<>(Block.class);
+
+    // Solid blocks letting the light through because they are not full
+    private static final String[] NOT_OCCLUDING = {
+            "glass", "slab", "stairs", "fence", "wall", "pane", "door", "bars", "sign", "banner", "pressure_plate",
+            "button", "_bed", "chest", "cake", "anvil", "lantern", "campfire", "bell", "hopper", "cauldron",
+            "enchanting_table", "brewing_stand", "piston_head", "lectern", "grindstone", "stonecutter",
+            "daylight_detector", "farmland", "grass_path", "head", "skull", "pot", "ladder", "scaffolding", "chain",
+            "lily_pad", "end_rod", "conduit", "beacon", "shulker_box", "carpet", "pickle", "egg", "portal_frame",
+            "spawner", "composter", "cactus"
+    };
+
+    static {
+        LIGHT_SOURCES.put(Block.GLOWSTONE, 15);
+        LIGHT_SOURCES.put(Block.SEA_LANTERN, 15);
+        LIGHT_SOURCES.put(Block.JACK_O_LANTERN, 15);
+        LIGHT_SOURCES.put(Block.LAVA, 15);
+        LIGHT_SOURCES.put(Block.FIRE, 15);
+        LIGHT_SOURCES.put(Block.BEACON, 15);
+        LIGHT_SOURCES.put(Block.CONDUIT, 15);
+        LIGHT_SOURCES.put(Block.LANTERN, 15);
+        LIGHT_SOURCES.put(Block.SHROOMLIGHT, 15);
+        LIGHT_SOURCES.put(Block.END_GATEWAY, 15);
+        LIGHT_SOURCES.put(Block.END_PORTAL, 15);
+        LIGHT_SOURCES.put(Block.END_ROD, 14);
+        LIGHT_SOURCES.put(Block.TORCH, 14);
+        LIGHT_SOURCES.put(Block.WALL_TORCH, 14);
+        LIGHT_SOURCES.put(Block.NETHER_PORTAL, 11);
+        LIGHT_SOURCES.put(Block.SOUL_FIRE, 10);
+        LIGHT_SOURCES.put(Block.SOUL_TORCH, 10);
+        LIGHT_SOURCES.put(Block.SOUL_WALL_TORCH, 10);
+        LIGHT_SOURCES.put(Block.SOUL_LANTERN, 10);
+        LIGHT_SOURCES.put(Block.CRYING_OBSIDIAN, 10);
+        LIGHT_SOURCES.put(Block.MAGMA_BLOCK, 3);
+        LIGHT_SOURCES.put(Block.BREWING_STAND, 1);
+        LIGHT_SOURCES.put(Block.BROWN_MUSHROOM, 1);
+        LIGHT_SOURCES.put(Block.DRAGON_EGG, 1);
+        LIGHT_SOURCES.put(Block.END_PORTAL_FRAME, 1);
+
+        LIT_LIGHT_SOURCES.put(Block.REDSTONE_LAMP, 15);
+        LIT_LIGHT_SOURCES.put(Block.CAMPFIRE, 15);
+        LIT_LIGHT_SOURCES.put(Block.FURNACE, 13);
+        LIT_LIGHT_SOURCES.put(Block.BLAST_FURNACE, 13);
+        LIT_LIGHT_SOURCES.put(Block.SMOKER, 13);
+        LIT_LIGHT_SOURCES.put(Block.SOUL_CAMPFIRE, 10);
+        LIT_LIGHT_SOURCES.put(Block.REDSTONE_ORE, 9);
+        LIT_LIGHT_SOURCES.put(Block.REDSTONE_TORCH, 7);
+        LIT_LIGHT_SOURCES.put(Block.REDSTONE_WALL_TORCH, 7);
+
+        int stateCount = 0;
+        for (Block block : Block.values()) {
+            for (BlockAlternative alternative : block.getAlternatives()) {
+                stateCount = Math.max(stateCount, alternative.getId() + 1);
+            }
+        }
+
+        EMISSION = new byte[stateCount];
+        OPACITY = new byte[stateCount];
+        for (Block block : Block.values()) {
+            final int blockOpacity = computeOpacity(block);
+            final Integer emission = LIGHT_SOURCES.get(block);
+            final Integer litEmission = LIT_LIGHT_SOURCES.get(block);
+            for (BlockAlternative alternative : block.getAlternatives()) {
+                final short id = alternative.getId();
+
+                if (emission != null) {
+                    EMISSION[id] = emission.byteValue();
+                } else if (litEmission != null && "true".equals(block.getProperty(id, "lit"))) {
+                    EMISSION[id] = litEmission.byteValue();
+                }
+
+                int opacity = blockOpacity;
+                if (opacity == 0 && "true".equals(block.getProperty(id, "waterlogged")))
+                    opacity = 1;
+                OPACITY[id] = (byte) opacity;
+            }
+        }
+    }
+
+    private LightProperties() {
+
+    }
+
+    /**
+     * Get the light level emitted by a block state
+     *
+     * @param blockStateId the block state id
+     * @return the emitted light level, 0 if none
+     */
+    public static int getEmission(short blockStateId) {
+        return blockStateId >= 0 && blockStateId < EMISSION.length ? EMISSION[blockStateId] : 0;
+    }
+
+    /**
+     * Get the light levels absorbed by a block state, in addition to the level lost for each block
+     *
+     * @param blockStateId the block state id
+     * @return the opacity of the block state, {@link #MAX_LEVEL} if the light cannot go through
+     */
+    public static int getOpacity(short blockStateId) {
+        return blockStateId >= 0 && blockStateId < OPACITY.length ? OPACITY[blockStateId] : 0;
+    }
+
+    private static int computeOpacity(Block block) {
+        if (block.isAir())
+            return 0;
+        if (block == Block.WATER || block == Block.BUBBLE_COLUMN || block == Block.COBWEB)
+            return 1;
+
+        final String name = block.getName().substring(block.getName().indexOf(':') + 1);
+        if (name.endsWith("leaves") || name.endsWith("ice") ||
+                block == Block.SLIME_BLOCK || block == Block.HONEY_BLOCK)
+            return 1;
+        if (!block.isSolid() || block == Block.SNOW)
+            return 0;
+        for (String notOccluding : NOT_OCCLUDING) {
+            if (name.contains(notOccluding))
+                return 0;
+        }
+        return MAX_LEVEL;
+    }
+
+}
@@ -0,0 +1,441 @@
+package net.minestom.server.instance.palette;
+
+import io.netty.buffer.ByteBuf;
+import it.unimi.dsi.fastutil.shorts.Short2IntMap;
+import it.unimi.dsi.fastutil.shorts.Short2IntOpenHashMap;
+import net.minestom.server.utils.MathUtils;
+import net.minestom.server.utils.Utils;
+import net.minestom.server.utils.binary.BinaryReader;
+import net.minestom.server.utils.binary.BinaryWriter;
+import net.minestom.server.utils.validate.Check;
+
+import java.util.Arrays;
+
+/**
+ * A 16x16x16 section storing a short value per block using an adaptive palette
+ * <p>
+ * A section starts by holding a single value (no array at all), then switches to an indirect palette
+ * (each entry is an index in a local palette) and finally to direct storage (each entry is the raw value)
+ * once the palette becomes too big.
+ * <p>
+ * Entries are packed in longs without spanning two of them, which is the format expected by the client,
+ * meaning that a section can be written in a chunk packet without being re-encoded.
+ * <p>
+ * The bits per entry, data and palette are published together in a {@link Storage} so a reader running
+ * concurrently with a resize never mixes the data of a storage with the palette of another.
+ * <p>
+ * WARNING: not thread-safe, only one thread can modify the section at a time
+ */
+public class Section {
+
+    public static final int SECTION_SIZE = 16;
+    public static final int SECTION_BLOCK_COUNT = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+
+    /**
+     * The smallest bits per entry of an indirect palette, also the minimum accepted by the client
+     */
+    public static final int MIN_BITS_PER_ENTRY = 4;
+    /**
+     * The biggest bits per entry of an indirect palette, direct storage is used above it
+     */
+    public static final int MAX_INDIRECT_BITS_PER_ENTRY = 8;
+
+    private final int directBitsPerEntry;
+
+    private volatile Storage storage;
+
+    // Used entries of the indirect palette, only accessed by the writing thread except to encode the section
+    private int paletteSize;
+    private Short2IntMap valueToPaletteMap;
+
+    // Number of entries which are not 0
+    private int nonZeroCount;
+
+    /**
+     * Create a section filled with {@code value}
+     *
+     * @param directBitsPerEntry the bits per entry used once the indirect palette is too big,
+     *                           needs to be able to represent every value stored in the section
+     * @param value              the initial value of every entry
+     */
+    public Section(int directBitsPerEntry, short value) {
+        this.directBitsPerEntry = directBitsPerEntry;
+        this.storage = new Storage(0, value, null, null);
+        this.nonZeroCount = value != 0 ? SECTION_BLOCK_COUNT : 0;
+    }
+
+    /**
+     * Create an empty section (filled with 0)
+     *
+     * @param directBitsPerEntry the bits per entry used once the indirect palette is too big
+     */
+    public Section(int directBitsPerEntry) {
+        this(directBitsPerEntry, (short) 0);
+    }
+
+    private Section(Section section) {
+        final Storage storage = section.storage;
+        this.directBitsPerEntry = section.directBitsPerEntry;
+        this.storage = new Storage(storage.bitsPerEntry, storage.singleValue,
+                storage.data != null ? storage.data.clone() : null,
+                storage.palette != null ? storage.palette.clone() : null);
+        this.paletteSize = section.paletteSize;
+        this.valueToPaletteMap = section.valueToPaletteMap != null ?
+                new Short2IntOpenHashMap(section.valueToPaletteMap) : null;
+        if (valueToPaletteMap != null)
+            this.valueToPaletteMap.defaultReturnValue(-1);
+        this.nonZeroCount = section.nonZeroCount;
+    }
+
+    /**
+     * Get the index of a position inside a section
+     * <p>
+     * Coordinates can be chunk or world coordinates, only the 4 lowest bits are used
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     * @param z the Z coordinate
+     * @return the index of the position in the section
+     */
+    public static int getIndex(int x, int y, int z) {
+        return (y & 0xF) << 8 | (z & 0xF) << 4 | (x & 0xF);
+    }
+
+    /**
+     * Get the value of an entry
+     *
+     * @param index the entry index, see {@link #getIndex(int, int, int)}
+     * @return the value of the entry
+     */
+    public short get(int index) {
+        return storage.get(index);
+    }
+
+    /**
+     * Change the value of an entry, growing the palette if required
+     *
+     * @param index the entry index, see {@link #getIndex(int, int, int)}
+     * @param value the new value of the entry
+     * @return the previous value of the entry
+     */
+    public short set(int index, short value) {
+        final short previous = get(index);
+        if (previous == value)
+            return previous;
+
+        if (previous == 0) {
+            this.nonZeroCount++;
+        } else if (value == 0) {
+            this.nonZeroCount--;
+        }
+
+        if (this.storage.bitsPerEntry == 0) {
+            // First different value, switch to an indirect palette
+            inflate();
+        }
+
+        final int entry = this.storage.palette != null ? getPaletteIndex(value) : value;
+        // Read after the palette lookup which can resize the storage
+        final Storage storage = this.storage;
+        writeEntry(storage.data, storage.bitsPerEntry, index, entry);
+        return previous;
+    }
+
+    /**
+     * Get if all the entries are 0
+     *
+     * @return true if the section only contains 0
+     */
+    public boolean isEmpty() {
+        return nonZeroCount == 0;
+    }
+
+    /**
+     * Get the number of entries which are not 0
+     *
+     * @return the number of non-zero entries
+     */
+    public int getNonZeroCount() {
+        return nonZeroCount;
+    }
+
+    /**
+     * Get the current bits per entry
+     *
+     * @return the bits per entry, 0 if the section contains a single value
+     */
+    public int getBitsPerEntry() {
+        return storage.bitsPerEntry;
+    }
+
+    /**
+     * Get an estimation of the memory used by the section arrays
+     *
+     * @return the approximate size in bytes of the section arrays
+     */
+    public int getArraysSize() {
+        final Storage storage = this.storage;
+        final long[] data = storage.data;
+        final short[] palette = storage.palette;
+        int size = 0;
+        if (data != null)
+            size += data.length * Long.BYTES;
+        if (palette != null)
+            size += palette.length * Short.BYTES;
+        return size;
+    }
+
+    /**
+     * Write the section in the format used by the chunk data packet
+     *
+     * @param buffer the buffer to write to
+     */
+    public void write(ByteBuf buffer) {
+        final Storage storage = this.storage;
+        final int bitsPerEntry = storage.bitsPerEntry;
+        final long[] data = storage.data;
+        final short[] palette = storage.palette;
+
+        buffer.writeShort(nonZeroCount);
+        if (bitsPerEntry == 0) {
+            // The client does not support single value sections, send a palette with a single entry
+            final int dataLength = getDataLength(MIN_BITS_PER_ENTRY);
+            buffer.writeByte(MIN_BITS_PER_ENTRY);
+            Utils.writeVarIntBuf(buffer, 1);
+            Utils.writeVarIntBuf(buffer, storage.singleValue);
+            Utils.writeVarIntBuf(buffer, dataLength);
+            buffer.writeZero(dataLength * Long.BYTES);
+            return;
+        }
+
+        buffer.writeByte(bitsPerEntry);
+        if (palette != null) {
+            final int paletteSize = getPaletteSize(palette);
+            Utils.writeVarIntBuf(buffer, paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                Utils.writeVarIntBuf(buffer, palette[i]);
+            }
+        }
+        Utils.writeVarIntBuf(buffer, data.length);
+        for (long value : data) {
+            buffer.writeLong(value);
+        }
+    }
+
+    /**
+     * Write the storage of the section as it is in memory, used to save it
+     * <p>
+     * Contrary to {@link #write(ByteBuf)}, a single value section stays a single value.
+     * Read back with {@link #readStorage(BinaryReader, int)}.
+     *
+     * @param writer the writer to write to
+     */
+    public void writeStorage(BinaryWriter writer) {
+        final Storage storage = this.storage;
+        final int bitsPerEntry = storage.bitsPerEntry;
+        final long[] data = storage.data;
+        final short[] palette = storage.palette;
+
+        writer.writeByte((byte) bitsPerEntry);
+        writer.writeShort((short) nonZeroCount);
+        if (bitsPerEntry == 0) {
+            writer.writeShort(storage.singleValue);
+            return;
+        }
+
+        if (palette != null) {
+            final int paletteSize = getPaletteSize(palette);
+            writer.writeVarInt(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                writer.writeShort(palette[i]);
+            }
+        }
+        writer.writeVarInt(data.length);
+        for (long value : data) {
+            writer.writeLong(value);
+        }
+    }
+
+    /**
+     * Read a section written by {@link #writeStorage(BinaryWriter)}, the packed entries are copied as they are
+     *
+     * @param reader             the reader to read from
+     * @param directBitsPerEntry the bits per entry used once the indirect palette is too big,
+     *                           needs to be the same as the one of the written section
+     * @return the read section
+     * @throws IllegalArgumentException if the storage is not valid
+     */
+    public static Section readStorage(BinaryReader reader, int directBitsPerEntry) {
+        final int bitsPerEntry = reader.readByte();
+        final int nonZeroCount = reader.readShort();
+        Check.argCondition(!MathUtils.isBetween(nonZeroCount, 0, SECTION_BLOCK_COUNT),
+                "Invalid non-zero count " + nonZeroCount);
+
+        if (bitsPerEntry == 0) {
+            Section section = new Section(directBitsPerEntry, reader.readShort());
+            section.nonZeroCount = nonZeroCount;
+            return section;
+        }
+
+        final boolean indirect = MathUtils.isBetween(bitsPerEntry, MIN_BITS_PER_ENTRY, MAX_INDIRECT_BITS_PER_ENTRY);
+        Check.argCondition(!indirect && bitsPerEntry != directBitsPerEntry,
+                "Invalid bits per entry " + bitsPerEntry);
+
+        Section section = new Section(directBitsPerEntry);
+        section.nonZeroCount = nonZeroCount;
+
+        short[] palette = null;
+        if (indirect) {
+            final int paletteSize = reader.readVarInt();
+            Check.argCondition(!MathUtils.isBetween(paletteSize, 1, 1 << bitsPerEntry),
+                    "Invalid palette size " + paletteSize);
+            palette = new short[1 << bitsPerEntry];
+            section.valueToPaletteMap = new Short2IntOpenHashMap(paletteSize);
+            section.valueToPaletteMap.defaultReturnValue(-1);
+            for (int i = 0; i < paletteSize; i++) {
+                final short value = reader.readShort();
+                palette[i] = value;
+                section.valueToPaletteMap.put(value, i);
+            }
+            section.paletteSize = paletteSize;
+        }
+
+        final int dataLength = reader.readVarInt();
+        Check.argCondition(dataLength != getDataLength(bitsPerEntry), "Invalid data length " + dataLength);
+        long[] data = new long[dataLength];
+        for (int i = 0; i < dataLength; i++) {
+            data[i] = reader.readLong();
+        }
+        section.storage = new Storage(bitsPerEntry, (short) 0, data, palette);
+        return section;
+    }
+
+    /**
+     * Create a deep copy of this section
+     *
+     * @return a copy of this section
+     */
+    public Section copy() {
+        return new Section(this);
+    }
+
+    private void inflate() {
+        final short singleValue = storage.singleValue;
+        // Every entry is 0, which points to the old single value
+        short[] palette = new short[1 << MIN_BITS_PER_ENTRY];
+        palette[0] = singleValue;
+        this.valueToPaletteMap = new Short2IntOpenHashMap();
+        this.valueToPaletteMap.defaultReturnValue(-1);
+        this.valueToPaletteMap.put(singleValue, 0);
+        this.paletteSize = 1;
+        this.storage = new Storage(MIN_BITS_PER_ENTRY, (short) 0,
+                new long[getDataLength(MIN_BITS_PER_ENTRY)], palette);
+    }
+
+    private int getPaletteIndex(short value) {
+        final int paletteIndex = valueToPaletteMap.get(value);
+        if (paletteIndex != -1)
+            return paletteIndex;
+
+        if (paletteSize == storage.palette.length) {
+            // Palette is full, increase the bits per entry
+            final int newBitsPerEntry = storage.bitsPerEntry + 1;
+            resize(newBitsPerEntry > MAX_INDIRECT_BITS_PER_ENTRY ? directBitsPerEntry : newBitsPerEntry);
+            if (storage.palette == null) {
+                // Switched to direct storage
+                return value;
+            }
+        }
+
+        return addPaletteEntry(value);
+    }
+
+    private int addPaletteEntry(short value) {
+        final int paletteIndex = paletteSize;
+        // Written before the size is incremented so the entry is set when the section is encoded
+        this.storage.palette[paletteIndex] = value;
+        this.valueToPaletteMap.put(value, paletteIndex);
+        this.paletteSize = paletteIndex + 1;
+        return paletteIndex;
+    }
+
+    private void resize(int newBitsPerEntry) {
+        final Storage storage = this.storage;
+        long[] newData = new long[getDataLength(newBitsPerEntry)];
+        final short[] newPalette;
+        if (newBitsPerEntry > MAX_INDIRECT_BITS_PER_ENTRY) {
+            // Direct storage, replace palette indexes by their values
+            for (int i = 0; i < SECTION_BLOCK_COUNT; i++) {
+                writeEntry(newData, newBitsPerEntry, i, storage.get(i));
+            }
+            newPalette = null;
+        } else {
+            // Palette indexes do not change, only their size
+            for (int i = 0; i < SECTION_BLOCK_COUNT; i++) {
+                writeEntry(newData, newBitsPerEntry, i, readEntry(storage.data, storage.bitsPerEntry, i));
+            }
+            newPalette = Arrays.copyOf(storage.palette, 1 << newBitsPerEntry);
+        }
+        // Published at once, the new data and palette are complete before being visible
+        this.storage = new Storage(newBitsPerEntry, (short) 0, newData, newPalette);
+        if (newPalette == null) {
+            this.paletteSize = 0;
+            this.valueToPaletteMap = null;
+        }
+    }
+
+    private int getPaletteSize(short[] palette) {
+        // The palette size can be ahead of a storage replaced since it has been read
+        return Math.min(paletteSize, palette.length);
+    }
+
+    /**
+     * The bits per entry, data and palette of a section
+     * <p>
+     * Replaced by a new instance when the bits per entry change, only the entries of the arrays are modified.
+     */
+    private static final class Storage {
+
+        // 0 when the section contains a single value
+        private final int bitsPerEntry;
+        private final short singleValue;
+        private final long[] data;
+        // Indirect palette, null for single value and direct storage
+        private final short[] palette;
+
+        private Storage(int bitsPerEntry, short singleValue, long[] data, short[] palette) {
+            this.bitsPerEntry = bitsPerEntry;
+            this.singleValue = singleValue;
+            this.data = data;
+            this.palette = palette;
+        }
+
+        private short get(int index) {
+            if (bitsPerEntry == 0)
+                return singleValue;
+            final int entry = readEntry(data, bitsPerEntry, index);
+            return palette != null ? palette[entry] : (short) entry;
+        }
+    }
+
+    private static int getDataLength(int bitsPerEntry) {
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        return (SECTION_BLOCK_COUNT + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    private static int readEntry(long[] data, int bitsPerEntry, int index) {
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final int longIndex = index / valuesPerLong;
+        final int bitIndex = (index - longIndex * valuesPerLong) * bitsPerEntry;
+        return (int) (data[longIndex] >>> bitIndex & ((1L << bitsPerEntry) - 1));
+    }
+
+    private static void writeEntry(long[] data, int bitsPerEntry, int index, int entry) {
+        final long maxEntryValue = (1L << bitsPerEntry) - 1;
+        final int valuesPerLong = Long.SIZE / bitsPerEntry;
+        final int longIndex = index / valuesPerLong;
+        final int bitIndex = (index - longIndex * valuesPerLong) * bitsPerEntry;
+        data[longIndex] = data[longIndex] & ~(maxEntryValue << bitIndex) | (entry & maxEntryValue) << bitIndex;
+    }
+
+}
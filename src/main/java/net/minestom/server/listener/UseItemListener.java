@@ -92,7 +92,6 @@ public class UseItemListener {
             PlayerItemAnimationEvent playerItemAnimationEvent = new PlayerItemAnimationEvent(player, itemAnimationType);
             player.callCancellableEvent(PlayerItemAnimationEvent.class, playerItemAnimationEvent, () -> {
                 player.refreshActiveHand(true, offhand, riptideSpinAttack);
-                player.sendPacketToViewers(player.getMetadataPacket());
             });
         }
     }
@@ -2,7 +2,8 @@ package net.minestom.server.network;
 
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.socket.SocketChannel;
-import net.minestom.server.MinecraftServer;
+import io.netty.util.Attribute;
+import io.netty.util.AttributeKey;
 import net.minestom.server.entity.Player;
 import net.minestom.server.network.netty.packet.InboundPacket;
 import net.minestom.server.network.packet.client.ClientPlayPacket;
@@ -17,12 +18,11 @@ import net.minestom.server.utils.binary.BinaryReader;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 public class PacketProcessor {
 
-    private final Map<ChannelHandlerContext, PlayerConnection> connectionPlayerConnectionMap = new ConcurrentHashMap<>();
+    // The connection of a channel, only accessed by the channel event loop
+    private static final AttributeKey<PlayerConnection> PLAYER_CONNECTION_KEY = AttributeKey.valueOf("player_connection");
 
     // Protocols
     private final ClientStatusPacketsHandler statusPacketsHandler;
@@ -39,15 +39,22 @@ public class PacketProcessor {
     private List<Integer> printBlackList = Arrays.asList(17, 18, 19);
 
     public void process(ChannelHandlerContext channel, InboundPacket packet) {
-        PlayerConnection playerConnection = connectionPlayerConnectionMap.computeIfAbsent(
-                channel, c -> new NettyPlayerConnection((SocketChannel) channel.channel())
-        );
-
-        if (MinecraftServer.getRateLimit() > 0)
-            playerConnection.getPacketCounter().incrementAndGet();
+        final Attribute<PlayerConnection> attribute = channel.channel().attr(PLAYER_CONNECTION_KEY);
+        PlayerConnection playerConnection = attribute.get();
+        if (playerConnection == null) {
+            // First packet of the channel
+            playerConnection = new NettyPlayerConnection((SocketChannel) channel.channel());
+            attribute.set(playerConnection);
+        }
 
         final ConnectionState connectionState = playerConnection.getConnectionState();
 
+        if (!playerConnection.countPacket(packet.packetId, connectionState == ConnectionState.PLAY)) {
+            // Above the rate limit of its type, the client is disconnected at the end of the second
+            packet.body.skipBytes(packet.body.readableBytes());
+            return;
+        }
+
         //if (!printBlackList.contains(id)) {
         //System.out.println("RECEIVED ID: 0x" + Integer.toHexString(id) + " State: " + connectionState);
         //}
@@ -69,7 +76,10 @@ public class PacketProcessor {
                 final Player player = playerConnection.getPlayer();
                 ClientPlayPacket playPacket = (ClientPlayPacket) playPacketsHandler.getPacketInstance(packet.packetId);
                 playPacket.read(binaryReader);
-                player.addPacketToQueue(playPacket);
+                if (!player.addPacketToQueue(playPacket)) {
+                    // Too many packets waiting to be processed, read again after the next player update
+                    ((NettyPlayerConnection) playerConnection).pauseReading();
+                }
                 break;
             case LOGIN:
                 final ClientPreplayPacket loginPacket = (ClientPreplayPacket) loginPacketsHandler.getPacketInstance(packet.packetId);
@@ -85,10 +95,10 @@ public class PacketProcessor {
     }
 
     public PlayerConnection getPlayerConnection(ChannelHandlerContext channel) {
-        return connectionPlayerConnectionMap.get(channel);
+        return channel.channel().attr(PLAYER_CONNECTION_KEY).get();
     }
 
     public void removePlayerConnection(ChannelHandlerContext channel) {
-        connectionPlayerConnectionMap.remove(channel);
+        channel.channel().attr(PLAYER_CONNECTION_KEY).set(null);
     }
 }
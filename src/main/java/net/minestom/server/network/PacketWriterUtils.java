@@ -3,18 +3,23 @@ package net.minestom.server.network;
 import io.netty.buffer.ByteBuf;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
+import net.minestom.server.network.netty.packet.SharedPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.player.PlayerConnection;
 import net.minestom.server.utils.PacketUtils;
-import net.minestom.server.utils.player.PlayerUtils;
 import net.minestom.server.utils.thread.MinestomThread;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
 /**
- * Utils class used to write packets in the appropriate thread pool
+ * Utils class used to write packets outside of the current thread
+ * <p>
+ * Packets sent to players are encoded and written by the event loop of their connection
+ * (see {@link PlayerConnection#sendSharedPacket(SharedPacket)}) and keep their order with the other sent packets.
  */
 public final class PacketWriterUtils {
 
@@ -23,6 +28,8 @@ public final class PacketWriterUtils {
     /**
      * Write the packet in the writer thread pool
      * <p>
+     * The buffer is not pooled and can be cached
+     * <p>
      * WARNING: should not be used if the packet receive order is important
      *
      * @param serverPacket the packet to write
@@ -30,58 +37,72 @@ public final class PacketWriterUtils {
      */
     public static void writeCallbackPacket(ServerPacket serverPacket, Consumer<ByteBuf> consumer) {
         PACKET_WRITER_POOL.execute(() -> {
-            final ByteBuf buffer = PacketUtils.writePacket(serverPacket);
+            final ByteBuf buffer = PacketUtils.writeUnpooledPacket(serverPacket);
             consumer.accept(buffer);
         });
     }
 
     /**
-     * Write a packet in the writer thread pool and send it to every players in {@code players}
+     * Send a packet to every players in {@code players}
      * <p>
-     * WARNING: should not be used if the packet receive order is important
+     * The packet is encoded once, outside of the current thread, and received by each player
+     * in order with the other packets sent to its connection
      *
      * @param players      the players list to send the packet to
      * @param serverPacket the packet to write and send
      */
     public static void writeAndSend(Collection<Player> players, ServerPacket serverPacket) {
-        PACKET_WRITER_POOL.execute(() -> {
-            if (players.isEmpty())
-                return;
+        if (players.isEmpty())
+            return;
+
+        // The collection could be modified while iterating
+        final List<Player> recipients = new ArrayList<>(players);
+        final SharedPacket sharedPacket = new SharedPacket(serverPacket, recipients.size());
+        for (Player player : recipients) {
+            player.getPlayerConnection().sendSharedPacket(sharedPacket);
+        }
+    }
+
+    /**
+     * Send packets to every players in {@code players}
+     * <p>
+     * The packets are received in order, see {@link #writeAndSend(Collection, ServerPacket)}
+     *
+     * @param players       the players list to send the packets to
+     * @param serverPackets the packets to write and send
+     */
+    public static void writeAndSend(Collection<Player> players, ServerPacket... serverPackets) {
+        if (players.isEmpty())
+            return;
 
-            final ByteBuf buffer = PacketUtils.writePacket(serverPacket);
-            for (Player player : players) {
-                final PlayerConnection playerConnection = player.getPlayerConnection();
-                if (PlayerUtils.isNettyClient(player)) {
-                    playerConnection.writePacket(buffer, true);
-                } else {
-                    playerConnection.sendPacket(serverPacket);
-                }
+        final List<Player> recipients = new ArrayList<>(players);
+        for (ServerPacket serverPacket : serverPackets) {
+            final SharedPacket sharedPacket = new SharedPacket(serverPacket, recipients.size());
+            for (Player player : recipients) {
+                player.getPlayerConnection().sendSharedPacket(sharedPacket);
             }
-            buffer.release();
-        });
+        }
     }
 
     /**
-     * Write a packet and send it to a player connection
+     * Send a packet to a player connection
      * <p>
-     * WARNING: should not be used if the packet receive order is important
+     * The packet is encoded outside of the current thread and received in order
+     * with the other packets sent to the connection
      *
      * @param playerConnection the connection to send the packet to
      * @param serverPacket     the packet to write and send
      */
     public static void writeAndSend(PlayerConnection playerConnection, ServerPacket serverPacket) {
-        PACKET_WRITER_POOL.execute(() -> {
-            playerConnection.sendPacket(serverPacket);
-        });
+        playerConnection.sendSharedPacket(new SharedPacket(serverPacket, 1));
     }
 
     /**
-     * Write a packet and send it to a player
-     * <p>
-     * WARNING: should not be used if the packet receive order is important
+     * Send a packet to a player
      *
      * @param player       the player to send the packet to
      * @param serverPacket the packet to write and send
+     * @see #writeAndSend(PlayerConnection, ServerPacket)
      */
     public static void writeAndSend(Player player, ServerPacket serverPacket) {
         final PlayerConnection playerConnection = player.getPlayerConnection();
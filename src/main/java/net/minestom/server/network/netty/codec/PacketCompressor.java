@@ -19,83 +19,178 @@ package net.minestom.server.network.netty.codec;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageCodec;
 import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.MessageToMessageCodec;
+import net.minestom.server.network.netty.packet.CompressedPacket;
 import net.minestom.server.utils.Utils;
 
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
-// TODO Optimize
-public class PacketCompressor extends ByteToMessageCodec<ByteBuf> {
+/**
+ * Compress the outgoing packets above the threshold and decompress the incoming ones
+ * <p>
+ * The {@link Deflater} and {@link Inflater} are kept for the whole connection
+ * and work directly on the buffers memory (no intermediate byte array).
+ */
+public class PacketCompressor extends MessageToMessageCodec<ByteBuf, Object> {
+
+    private static final int MAX_PACKET_SIZE = 2097152;
+    // Minimum writable bytes given to the deflater for each call
+    private static final int DEFLATE_CHUNK_SIZE = 8192;
 
-    private final byte[] buffer = new byte[8192];
+    // Used to compress packets shared between multiple connections
+    private static final ThreadLocal<Deflater> SHARED_DEFLATER = ThreadLocal.withInitial(Deflater::new);
 
     private final int threshold;
 
     private final Inflater inflater;
     private final Deflater deflater;
 
-    public PacketCompressor(int threshold) {
+    public PacketCompressor(int threshold, int level) {
         this.inflater = new Inflater();
-        this.deflater = new Deflater();
+        this.deflater = new Deflater(level);
 
         this.threshold = threshold;
     }
 
-    @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf from, ByteBuf to) {
-        int i = from.readableBytes();
-
-        if (i < this.threshold) {
+    /**
+     * Compress a packet once, it can then be sent to every connection using the same threshold
+     * with a {@link CompressedPacket}
+     *
+     * @param packet    the packet (id + data) to compress, its reader index is not modified
+     * @param threshold the compression threshold of the connections
+     * @param level     the compression level
+     * @return a new unpooled buffer containing the compressed packet
+     */
+    public static ByteBuf compress(ByteBuf packet, int threshold, int level) {
+        final Deflater deflater = SHARED_DEFLATER.get();
+        deflater.setLevel(level);
+
+        final ByteBuf from = packet.duplicate();
+        ByteBuf to = Unpooled.directBuffer(from.readableBytes() / 2 + 5);
+        if (from.readableBytes() < threshold) {
             Utils.writeVarIntBuf(to, 0);
             to.writeBytes(from);
         } else {
-            byte[] abyte = new byte[i];
-            from.readBytes(abyte);
+            Utils.writeVarIntBuf(to, from.readableBytes());
+            deflate(deflater, from, to);
+        }
+        return to;
+    }
 
-            Utils.writeVarIntBuf(to, abyte.length);
-            this.deflater.setInput(abyte, 0, i);
-            this.deflater.finish();
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof ByteBuf || msg instanceof CompressedPacket;
+    }
 
-            while (!this.deflater.finished()) {
-                int j = this.deflater.deflate(this.buffer);
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) {
+        if (msg instanceof CompressedPacket) {
+            // Already compressed, the holder is released after the encoding
+            out.add(((CompressedPacket) msg).content().retain());
+            return;
+        }
 
-                to.writeBytes(this.buffer, 0, j);
-            }
+        final ByteBuf from = (ByteBuf) msg;
+        final int packetSize = from.readableBytes();
 
-            this.deflater.reset();
+        if (packetSize < threshold) {
+            // Not compressed, only prefix the packet content without copying it
+            ByteBuf header = ctx.alloc().buffer(1);
+            Utils.writeVarIntBuf(header, 0);
+            out.add(ctx.alloc().compositeBuffer(2).addComponents(true, header, from.retain()));
+        } else {
+            ByteBuf to = ctx.alloc().directBuffer(packetSize / 2 + 5);
+            Utils.writeVarIntBuf(to, packetSize);
+            deflate(deflater, from, to);
+            out.add(to);
         }
     }
 
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) throws Exception {
-        if (buf.readableBytes() != 0) {
-            final int i = Utils.readVarInt(buf);
-
-            if (i == 0) {
-                out.add(buf.readRetainedSlice(buf.readableBytes()));
-            } else {
-                if (i < this.threshold) {
-                    throw new DecoderException("Badly compressed packet - size of " + i + " is below server threshold of " + this.threshold);
-                }
+        if (buf.readableBytes() == 0)
+            return;
 
-                if (i > 2097152) {
-                    throw new DecoderException("Badly compressed packet - size of " + i + " is larger than protocol maximum of 2097152");
-                }
+        final int dataLength = Utils.readVarInt(buf);
 
-                byte[] abyte = new byte[buf.readableBytes()];
-                buf.readBytes(abyte);
+        if (dataLength == 0) {
+            out.add(buf.readRetainedSlice(buf.readableBytes()));
+            return;
+        }
+
+        if (dataLength < this.threshold) {
+            throw new DecoderException("Badly compressed packet - size of " + dataLength + " is below server threshold of " + this.threshold);
+        }
 
-                this.inflater.setInput(abyte);
-                byte[] abyte1 = new byte[i];
+        if (dataLength > MAX_PACKET_SIZE) {
+            throw new DecoderException("Badly compressed packet - size of " + dataLength + " is larger than protocol maximum of " + MAX_PACKET_SIZE);
+        }
 
-                this.inflater.inflate(abyte1);
-                out.add(Unpooled.wrappedBuffer(abyte1));
+        ByteBuf to = ctx.alloc().directBuffer(dataLength);
+        try {
+            inflater.setInput(buf.nioBuffer());
+            final ByteBuffer output = to.nioBuffer(0, dataLength);
+            while (output.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(output) == 0) {
+                    // No progress, would loop forever on a dictionary request or a truncated stream
+                    if (inflater.needsDictionary())
+                        throw new DecoderException("Badly compressed packet - preset dictionaries are not supported");
+                    break;
+                }
+            }
+            if (output.hasRemaining()) {
+                throw new DecoderException("Badly compressed packet - expected " + dataLength + " bytes but got " + output.position());
+            }
+            if (!inflater.finished()) {
+                // The output is full, the only thing left in the stream must be its end
+                if (inflater.inflate(ByteBuffer.allocate(1)) != 0 || !inflater.finished())
+                    throw new DecoderException("Badly compressed packet - size is larger than the declared " + dataLength + " bytes");
+            }
+            to.writerIndex(dataLength);
+            buf.skipBytes(buf.readableBytes());
+            out.add(to);
+        } catch (DataFormatException | DecoderException e) {
+            to.release();
+            throw e instanceof DecoderException ? (DecoderException) e : new DecoderException(e);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) throws Exception {
+        super.handlerRemoved(ctx);
+        // Free the native memory
+        this.inflater.end();
+        this.deflater.end();
+    }
 
-                this.inflater.reset();
+    /**
+     * Deflate all the readable bytes of {@code from} into {@code to}
+     *
+     * @param deflater the deflater to use, reset once done
+     * @param from     the buffer to compress
+     * @param to       the buffer receiving the compressed data
+     */
+    private static void deflate(Deflater deflater, ByteBuf from, ByteBuf to) {
+        try {
+            deflater.setInput(from.nioBuffer());
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                to.ensureWritable(DEFLATE_CHUNK_SIZE);
+                final ByteBuffer output = to.nioBuffer(to.writerIndex(), to.writableBytes());
+                final int written = deflater.deflate(output);
+                to.writerIndex(to.writerIndex() + written);
             }
+            from.skipBytes(from.readableBytes());
+        } finally {
+            deflater.reset();
         }
     }
 }
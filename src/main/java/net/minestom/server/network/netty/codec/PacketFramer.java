@@ -2,56 +2,73 @@ package net.minestom.server.network.netty.codec;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageCodec;
+import io.netty.channel.CombinedChannelDuplexHandler;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import net.minestom.server.utils.Utils;
 
 import java.util.List;
 
-public class PacketFramer extends ByteToMessageCodec<ByteBuf> {
+public class PacketFramer extends CombinedChannelDuplexHandler<PacketFramer.Decoder, PacketFramer.Encoder> {
 
-    @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf from, ByteBuf to) {
-        final int packetSize = from.readableBytes();
-        final int headerSize = Utils.getVarIntSize(packetSize);
-
-        if (headerSize > 3) {
-            throw new IllegalStateException("Unable to fit " + headerSize + " into 3");
-        }
-
-        to.ensureWritable(packetSize + headerSize);
-
-        Utils.writeVarIntBuf(to, packetSize);
-        to.writeBytes(from, from.readerIndex(), packetSize);
+    public PacketFramer() {
+        super(new Decoder(), new Encoder());
     }
 
-    @Override
-    protected void decode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) {
-        buf.markReaderIndex();
+    /**
+     * Prefix the packets with their length, the packet content is not copied
+     * (it can be shared by multiple connections)
+     */
+    protected static class Encoder extends MessageToMessageEncoder<ByteBuf> {
+
+        @Override
+        protected void encode(ChannelHandlerContext ctx, ByteBuf from, List<Object> out) {
+            final int packetSize = from.readableBytes();
+            final int headerSize = Utils.getVarIntSize(packetSize);
 
-        for (int i = 0; i < 3; ++i) {
-            if (!buf.isReadable()) {
-                buf.resetReaderIndex();
-                return;
+            if (headerSize > 3) {
+                throw new IllegalStateException("Unable to fit " + headerSize + " into 3");
             }
 
-            final byte b = buf.readByte();
+            final ByteBuf header = ctx.alloc().buffer(headerSize);
+            Utils.writeVarIntBuf(header, packetSize);
 
-            if (b >= 0) {
-                buf.resetReaderIndex();
+            // The encoder releases the message, retain it for the composite buffer
+            out.add(ctx.alloc().compositeBuffer(2).addComponents(true, header, from.retain()));
+        }
+    }
 
-                final int j = Utils.readVarInt(buf);
+    protected static class Decoder extends ByteToMessageDecoder {
 
-                if (buf.readableBytes() < j) {
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf buf, List<Object> out) {
+            buf.markReaderIndex();
+
+            for (int i = 0; i < 3; ++i) {
+                if (!buf.isReadable()) {
                     buf.resetReaderIndex();
                     return;
                 }
 
-                out.add(buf.readRetainedSlice(j));
-                return;
+                final byte b = buf.readByte();
+
+                if (b >= 0) {
+                    buf.resetReaderIndex();
+
+                    final int j = Utils.readVarInt(buf);
+
+                    if (buf.readableBytes() < j) {
+                        buf.resetReaderIndex();
+                        return;
+                    }
+
+                    out.add(buf.readRetainedSlice(j));
+                    return;
+                }
             }
-        }
 
-        throw new CorruptedFrameException("length wider than 21-bit");
+            throw new CorruptedFrameException("length wider than 21-bit");
+        }
     }
 }
@@ -0,0 +1,19 @@
+package net.minestom.server.network.netty.packet;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+import net.minestom.server.network.netty.codec.PacketCompressor;
+
+/**
+ * A packet already compressed with {@link PacketCompressor#compress(ByteBuf, int, int)},
+ * written as-is by the compressor of the connection
+ * <p>
+ * Used to compress a packet once and send it to multiple connections
+ */
+public class CompressedPacket extends DefaultByteBufHolder {
+
+    public CompressedPacket(ByteBuf body) {
+        super(body);
+    }
+
+}
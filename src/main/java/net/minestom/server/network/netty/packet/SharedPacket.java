@@ -0,0 +1,97 @@
+package net.minestom.server.network.netty.packet;
+
+import io.netty.buffer.ByteBuf;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.network.netty.codec.PacketCompressor;
+import net.minestom.server.network.packet.server.ServerPacket;
+import net.minestom.server.utils.PacketUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ServerPacket} sent to multiple connections, encoded once by the first connection needing its buffer
+ * <p>
+ * Each recipient needs to call {@link #release()} once, the buffer is released after the last call
+ */
+public class SharedPacket {
+
+    private final ServerPacket packet;
+    private final AtomicInteger remainingRecipients;
+
+    private ByteBuf buffer;
+
+    /**
+     * @param packet     the packet to send
+     * @param recipients the number of connections the packet is sent to
+     */
+    public SharedPacket(ServerPacket packet, int recipients) {
+        this.packet = packet;
+        this.remainingRecipients = new AtomicInteger(recipients);
+    }
+
+    /**
+     * Get the packet
+     *
+     * @return the shared packet
+     */
+    public ServerPacket getPacket() {
+        return packet;
+    }
+
+    /**
+     * Get the encoded packet, encoding it on the first call
+     * <p>
+     * WARNING: the buffer is shared, it should neither be modified nor released
+     *
+     * @return the buffer containing the packet id and data
+     */
+    public synchronized ByteBuf getBuffer() {
+        if (buffer == null) {
+            this.buffer = encode();
+        }
+        return buffer;
+    }
+
+    /**
+     * Get the packet compressed with {@link PacketCompressor#compress(ByteBuf, int, int)}
+     * using {@link MinecraftServer#COMPRESSION_THRESHOLD}, for the connections using this threshold
+     * <p>
+     * WARNING: the buffer is shared, it should neither be modified nor released
+     *
+     * @return the compressed packet, null if each connection should compress the packet itself
+     */
+    public ByteBuf getCompressedBuffer() {
+        return null;
+    }
+
+    /**
+     * Signal that a recipient does not need the packet anymore
+     */
+    public void release() {
+        if (remainingRecipients.decrementAndGet() != 0)
+            return;
+        synchronized (this) {
+            deallocate();
+        }
+    }
+
+    /**
+     * Encode the packet, called once by the first connection needing it
+     *
+     * @return a buffer containing the packet id and data, released by {@link #deallocate()}
+     */
+    protected ByteBuf encode() {
+        return PacketUtils.writePacket(packet);
+    }
+
+    /**
+     * Release the buffers once every recipient has called {@link #release()}
+     */
+    protected void deallocate() {
+        if (buffer != null) {
+            this.buffer.release();
+            this.buffer = null;
+        }
+    }
+
+}
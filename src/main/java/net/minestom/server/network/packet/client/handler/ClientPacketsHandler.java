@@ -7,7 +7,7 @@ import java.util.function.Supplier;
 public class ClientPacketsHandler {
 
     // Max packet id
-    private static final int SIZE = 0x30;
+    public static final int SIZE = 0x30;
 
     private final Supplier<? extends ClientPacket>[] supplierAccesses = new Supplier[SIZE];
 
@@ -16,7 +16,7 @@ public class ClientPacketsHandler {
     }
 
     public ClientPacket getPacketInstance(int id) {
-        if (id > SIZE)
+        if (id < 0 || id >= SIZE)
             throw new IllegalStateException("Packet ID 0x" + Integer.toHexString(id) + " has been tried to be parsed, debug needed");
 
         Supplier<? extends ClientPacket> supplier = supplierAccesses[id];
@@ -3,15 +3,15 @@ package net.minestom.server.network.packet.server.play;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ShortMap;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.data.Data;
-import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.block.BlockManager;
 import net.minestom.server.instance.block.CustomBlock;
+import net.minestom.server.instance.palette.Section;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.ServerPacketIdentifier;
 import net.minestom.server.utils.BlockPosition;
-import net.minestom.server.utils.Utils;
 import net.minestom.server.utils.binary.BinaryWriter;
 import net.minestom.server.utils.chunk.ChunkUtils;
 import net.minestom.server.world.biomes.Biome;
@@ -27,18 +27,30 @@ public class ChunkDataPacket implements ServerPacket {
     public Biome[] biomes;
     public int chunkX, chunkZ;
 
-    public short[] blocksStateId;
-    public short[] customBlocksId;
+    // Sections encoded by the chunk, null if the section is empty
+    public ByteBuf[] sectionBuffers;
 
     public Set<Integer> blockEntities;
+    // Custom block id of the block entities (0 if not a custom block)
+    public Int2ShortMap customBlocksId;
     public Int2ObjectMap<Data> blocksData;
-    //public Chunk chunk;
 
     public int[] sections;
 
+    // MOTION_BLOCKING and WORLD_SURFACE heightmaps, shared between packets
+    public NBTCompound heightmaps;
+
     private static final byte CHUNK_SECTION_COUNT = 16;
-    private static final int BITS_PER_ENTRY = 15;
-    private static final int MAX_BUFFER_SIZE = (Short.BYTES + Byte.BYTES + 5 * Byte.BYTES + (4096 * BITS_PER_ENTRY / Long.SIZE * Long.BYTES)) * CHUNK_SECTION_COUNT + 256 * Integer.BYTES;
+
+    private static final int GLOBAL_PALETTE_BITS_PER_ENTRY = 15;
+    // Sent in place of an updated section which does not contain any block anymore, so the client clears it
+    private static final ByteBuf EMPTY_SECTION;
+
+    static {
+        ByteBuf emptySection = Unpooled.buffer();
+        new Section(GLOBAL_PALETTE_BITS_PER_ENTRY).write(emptySection);
+        EMPTY_SECTION = Unpooled.unreleasableBuffer(emptySection.asReadOnly());
+    }
 
     @Override
     public void write(BinaryWriter writer) {
@@ -46,41 +58,29 @@ public class ChunkDataPacket implements ServerPacket {
         writer.writeInt(chunkZ);
         writer.writeBoolean(fullChunk);
 
+        final ByteBuf[] sectionBuffers = this.sectionBuffers.clone();
         int mask = 0;
-        ByteBuf blocks = Unpooled.buffer(MAX_BUFFER_SIZE);
+        int dataLength = 0;
         for (byte i = 0; i < CHUNK_SECTION_COUNT; i++) {
-            if (fullChunk || (sections.length == CHUNK_SECTION_COUNT && sections[i] != 0)) {
-                short[] section = getSection(i);
+            if (fullChunk) {
+                final ByteBuf section = sectionBuffers[i];
                 if (section != null) { // section contains at least one block
                     mask |= 1 << i;
-                    Utils.writeBlocks(blocks, section, BITS_PER_ENTRY);
-                } else {
-                    mask |= 0;
+                    dataLength += section.readableBytes();
                 }
-            } else {
-                mask |= 0;
+            } else if (sections.length == CHUNK_SECTION_COUNT && sections[i] != 0) {
+                // The requested sections are always sent, an empty one needs to be cleared by the client
+                if (sectionBuffers[i] == null)
+                    sectionBuffers[i] = EMPTY_SECTION;
+                mask |= 1 << i;
+                dataLength += sectionBuffers[i].readableBytes();
             }
         }
 
         writer.writeVarInt(mask);
 
         // Heightmap
-        int[] motionBlocking = new int[16 * 16];
-        int[] worldSurface = new int[16 * 16];
-        for (int x = 0; x < 16; x++) {
-            for (int z = 0; z < 16; z++) {
-                motionBlocking[x + z * 16] = 4;
-                worldSurface[x + z * 16] = 5;
-            }
-        }
-
-        {
-            writer.writeNBT("",
-                    new NBTCompound()
-                            .setLongArray("MOTION_BLOCKING", Utils.encodeBlocks(motionBlocking, 9))
-                            .setLongArray("WORLD_SURFACE", Utils.encodeBlocks(worldSurface, 9))
-            );
-        }
+        writer.writeNBT("", heightmaps);
 
         // Biome data
         if (fullChunk) {
@@ -91,8 +91,14 @@ public class ChunkDataPacket implements ServerPacket {
         }
 
         // Data
-        writer.writeVarInt(blocks.writerIndex());
-        writer.getBuffer().writeBytes(blocks);
+        writer.writeVarInt(dataLength);
+        for (byte i = 0; i < CHUNK_SECTION_COUNT; i++) {
+            if ((mask & (1 << i)) == 0)
+                continue;
+            // Section buffers are shared between packets, do not modify their reader index
+            final ByteBuf section = sectionBuffers[i];
+            writer.getBuffer().writeBytes(section, section.readerIndex(), section.readableBytes());
+        }
 
         // Block entities
         writer.writeVarInt(blockEntities.size());
@@ -105,7 +111,7 @@ public class ChunkDataPacket implements ServerPacket {
                     .setDouble("y", blockPosition.getY())
                     .setDouble("z", blockPosition.getZ());
 
-            final short customBlockId = customBlocksId[index];
+            final short customBlockId = customBlocksId.get(index);
             final CustomBlock customBlock = BLOCK_MANAGER.getCustomBlock(customBlockId);
             if (customBlock != null) {
                 Data data = blocksData.get(index);
@@ -115,26 +121,6 @@ public class ChunkDataPacket implements ServerPacket {
         }
     }
 
-    private short[] getSection(byte section) {
-        short[] blocks = new short[Chunk.CHUNK_SIZE_X * Chunk.CHUNK_SECTION_SIZE * Chunk.CHUNK_SIZE_Z];
-        boolean empty = true;
-        for (byte y = 0; y < Chunk.CHUNK_SECTION_SIZE; y++) {
-            for (byte x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
-                for (byte z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
-                    final int yPos = (y + Chunk.CHUNK_SECTION_SIZE * section);
-                    final int index = ChunkUtils.getBlockIndex(x, yPos, z);
-                    final short blockStateId = blocksStateId[index];
-                    if (blockStateId != 0)
-                        empty = false;
-
-                    final int packetIndex = (((y * 16) + x) * 16) + z;
-                    blocks[packetIndex] = blockStateId;
-                }
-            }
-        }
-        return empty ? null : blocks;
-    }
-
     @Override
     public int getId() {
         return ServerPacketIdentifier.CHUNK_DATA;
@@ -24,7 +24,7 @@ public class MultiBlockChangePacket implements ServerPacket {
             writer.writeVarInt(length);
             for (int i = 0; i < length; i++) {
                 final BlockChange blockChange = blockChanges[i];
-                writer.writeVarLong(blockChange.newBlockId << 12 | getLocalBlockPosAsShort(blockChange.positionX, blockChange.positionY, blockChange.positionZ));
+                writer.writeVarLong((long) blockChange.newBlockId << 12 | getLocalBlockPosAsShort(blockChange.positionX, blockChange.positionY, blockChange.positionZ));
             }
         } else {
             writer.writeVarInt(0);
@@ -32,9 +32,10 @@ public class MultiBlockChangePacket implements ServerPacket {
     }
 
     public static short getLocalBlockPosAsShort(int x, int y, int z) {
-        x = x % Chunk.CHUNK_SIZE_X;
-        y = y % 16;
-        z = z % Chunk.CHUNK_SIZE_Z;
+        // Mask instead of modulo so negative world coordinates are supported
+        x = x & (Chunk.CHUNK_SIZE_X - 1);
+        y = y & (Chunk.CHUNK_SECTION_SIZE - 1);
+        z = z & (Chunk.CHUNK_SIZE_Z - 1);
         return (short) (x << 8 | z << 4 | y);
     }
 
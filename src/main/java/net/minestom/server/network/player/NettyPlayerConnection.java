@@ -4,15 +4,25 @@ import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.socket.SocketChannel;
 import lombok.Getter;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.extras.mojangAuth.Decrypter;
 import net.minestom.server.extras.mojangAuth.Encrypter;
 import net.minestom.server.extras.mojangAuth.MojangCrypt;
+import net.minestom.server.network.ConnectionState;
 import net.minestom.server.network.netty.codec.PacketCompressor;
+import net.minestom.server.network.netty.packet.CompressedPacket;
+import net.minestom.server.network.netty.packet.SharedPacket;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.login.SetCompressionPacket;
+import net.minestom.server.utils.PacketUtils;
+import net.minestom.server.utils.validate.Check;
 
 import javax.crypto.SecretKey;
 import java.net.SocketAddress;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represent a networking connection with Netty
@@ -24,7 +34,22 @@ public class NettyPlayerConnection extends PlayerConnection {
     @Getter
     private boolean encrypted = false;
     @Getter
-    private boolean compressed = false;
+    private volatile boolean compressed = false;
+    private volatile int compressionThreshold;
+
+    // Packets written since the last flush
+    private final AtomicInteger pendingPackets = new AtomicInteger();
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    // Flush stats
+    private volatile int lastFlushPacketCount;
+    private volatile long lastFlushBytes;
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedPacketCount = new AtomicLong();
+    private final AtomicLong flushedBytes = new AtomicLong();
+
+    // True while the channel is not read because the player has too many packets to process
+    private final AtomicBoolean readingPaused = new AtomicBoolean();
 
     public NettyPlayerConnection(SocketChannel channel) {
         super();
@@ -39,43 +64,265 @@ public class NettyPlayerConnection extends PlayerConnection {
 
     @Override
     public void enableCompression(int threshold) {
-        this.compressed = true;
-        sendPacket(new SetCompressionPacket(threshold));
-        channel.pipeline().addAfter("framer", "compressor", new PacketCompressor(threshold));
+        final PacketCompressor packetCompressor = new PacketCompressor(threshold, MinecraftServer.getCompressionLevel());
+        // Done in the event loop so that the packet is sent uncompressed but all the next ones compressed
+        final Runnable enableRunnable = () -> {
+            channel.writeAndFlush(new SetCompressionPacket(threshold));
+            channel.pipeline().addAfter("framer", "compressor", packetCompressor);
+            this.compressionThreshold = threshold;
+            this.compressed = true;
+        };
+        if (channel.eventLoop().inEventLoop()) {
+            // Run immediately so the packets sent afterward by the caller (eg login success) are compressed
+            enableRunnable.run();
+        } else {
+            channel.eventLoop().execute(enableRunnable);
+        }
+    }
+
+    /**
+     * Send a packet compressed with {@link PacketCompressor#compress(ByteBuf, int, int)}
+     * using the threshold of this connection
+     * <p>
+     * The buffer is shared, it is neither modified nor released
+     *
+     * @param buffer the compressed packet
+     * @throws IllegalStateException if the connection is not compressed
+     */
+    public void sendCompressedPacket(ByteBuf buffer) {
+        Check.stateCondition(!compressed, "The connection is not compressed");
+        final CompressedPacket compressedPacket = new CompressedPacket(buffer.retainedDuplicate());
+        final int size = buffer.readableBytes();
+        if (isBuffered()) {
+            getChannel().write(compressedPacket);
+            pendingPackets.incrementAndGet();
+            pendingBytes.addAndGet(size);
+        } else {
+            getChannel().writeAndFlush(compressedPacket);
+            resetPendingWrites();
+        }
+    }
+
+    /**
+     * Get the compression threshold of this connection
+     *
+     * @return the compression threshold, 0 if the connection is not compressed
+     */
+    public int getCompressionThreshold() {
+        return compressionThreshold;
     }
 
     @Override
     public void sendPacket(ByteBuf buffer, boolean copy) {
-        if ((encrypted || compressed) && copy) {
-            buffer = buffer.copy();
-            buffer.retain();
-            channel.writeAndFlush(buffer);
-            buffer.release();
-        } else {
-            getChannel().writeAndFlush(buffer);
+        if (isBuffered()) {
+            // Flushed at the end of the tick
+            writePacket(buffer, copy);
+            return;
         }
+
+        if (copy) {
+            // Share the content, the written buffer is released by Netty
+            buffer = buffer.retainedDuplicate();
+        }
+        getChannel().writeAndFlush(buffer);
+        resetPendingWrites();
     }
 
     @Override
     public void writePacket(ByteBuf buffer, boolean copy) {
-        if ((encrypted || compressed) && copy) {
-            buffer = buffer.copy();
-            buffer.retain();
-            channel.write(buffer);
-            buffer.release();
-        } else {
-            getChannel().write(buffer);
+        final int size = buffer.readableBytes();
+        if (copy) {
+            // Share the content, the written buffer is released by Netty
+            buffer = buffer.retainedDuplicate();
         }
+        getChannel().write(buffer);
+        // Needs to be done after the write, so a concurrent flush cannot miss it
+        pendingPackets.incrementAndGet();
+        pendingBytes.addAndGet(size);
     }
 
     @Override
     public void sendPacket(ServerPacket serverPacket) {
+        if (isBuffered()) {
+            // Encode directly to know the packet size
+            writePacket(PacketUtils.writePacket(serverPacket), false);
+            return;
+        }
+
         channel.writeAndFlush(serverPacket);
+        resetPendingWrites();
     }
 
+    /**
+     * Write the packet in the channel event loop, encoding it there if no other connection did
+     * <p>
+     * The writes from other threads are also executed by the event loop, in submission order,
+     * so the packet is received after the packets sent before this call and before the ones sent after
+     *
+     * @param sharedPacket the packet to send
+     */
+    @Override
+    public void sendSharedPacket(SharedPacket sharedPacket) {
+        final boolean buffered = isBuffered();
+        if (buffered) {
+            // Counted before being written so a flush following this call is not skipped,
+            // its size is counted by the flush which runs after the write in the event loop
+            pendingPackets.incrementAndGet();
+        }
+        try {
+            channel.eventLoop().execute(() -> {
+                try {
+                    writeSharedPacket(sharedPacket, buffered);
+                } finally {
+                    sharedPacket.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The event loop is shut down, the packet will never be sent
+            sharedPacket.release();
+        }
+    }
+
+    private void writeSharedPacket(SharedPacket sharedPacket, boolean buffered) {
+        final ByteBuf buffer = sharedPacket.getBuffer();
+        final int size = buffer.readableBytes();
+
+        Object message = null;
+        if (compressed && compressionThreshold == MinecraftServer.COMPRESSION_THRESHOLD) {
+            // Compressed once for all the connections
+            final ByteBuf compressedBuffer = sharedPacket.getCompressedBuffer();
+            if (compressedBuffer != null)
+                message = new CompressedPacket(compressedBuffer.retainedDuplicate());
+        }
+        if (message == null)
+            message = buffer.retainedDuplicate();
+
+        if (buffered) {
+            getChannel().write(message);
+            pendingBytes.addAndGet(size);
+        } else {
+            getChannel().writeAndFlush(message);
+        }
+    }
+
+    /**
+     * Stop reading the channel until {@link #resumeReading()} is called
+     * <p>
+     * Used when the client sends packets faster than they are processed,
+     * the packets then stay in the socket buffer and the client is slowed down by TCP
+     */
+    public void pauseReading() {
+        if (readingPaused.compareAndSet(false, true)) {
+            getChannel().config().setAutoRead(false);
+        }
+    }
+
+    /**
+     * Read the channel again after {@link #pauseReading()}, does nothing if it is not paused
+     */
+    public void resumeReading() {
+        if (readingPaused.compareAndSet(true, false)) {
+            getChannel().config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public boolean isWritable() {
+        return getChannel().isWritable();
+    }
+
+    /**
+     * Flush the written packets, does nothing if none has been written since the last flush
+     */
     @Override
     public void flush() {
-        getChannel().flush();
+        final int packets = pendingPackets.getAndSet(0);
+        if (packets == 0)
+            return;
+
+        // Run after the writes already submitted to the event loop, so the size of the shared packets is known
+        final Runnable flushRunnable = () -> {
+            final long bytes = pendingBytes.getAndSet(0);
+
+            getChannel().flush();
+
+            this.lastFlushPacketCount = packets;
+            this.lastFlushBytes = bytes;
+            this.flushCount.incrementAndGet();
+            this.flushedPacketCount.addAndGet(packets);
+            this.flushedBytes.addAndGet(bytes);
+        };
+        if (channel.eventLoop().inEventLoop()) {
+            flushRunnable.run();
+        } else {
+            try {
+                channel.eventLoop().execute(flushRunnable);
+            } catch (RejectedExecutionException e) {
+                // The event loop is shut down, nothing can be sent anymore
+            }
+        }
+    }
+
+    /**
+     * Get the number of packets sent by the last {@link #flush()}
+     *
+     * @return the number of packets of the last flush
+     */
+    public int getLastFlushPacketCount() {
+        return lastFlushPacketCount;
+    }
+
+    /**
+     * Get the number of bytes sent by the last {@link #flush()}, without the framing and compression
+     *
+     * @return the number of bytes of the last flush
+     */
+    public long getLastFlushBytes() {
+        return lastFlushBytes;
+    }
+
+    /**
+     * Get the number of {@link #flush()} calls which sent at least one packet
+     *
+     * @return the number of flushes since the connection creation
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Get the number of packets sent by {@link #flush()}
+     *
+     * @return the number of flushed packets since the connection creation
+     */
+    public long getFlushedPacketCount() {
+        return flushedPacketCount.get();
+    }
+
+    /**
+     * Get the number of bytes sent by {@link #flush()}, without the framing and compression
+     *
+     * @return the number of flushed bytes since the connection creation
+     */
+    public long getFlushedBytes() {
+        return flushedBytes.get();
+    }
+
+    /**
+     * Get if the packets should only be written and wait for the next flush
+     * <p>
+     * Only applies to the play state, the connection is not flushed every tick before
+     *
+     * @return true if the packets should not be flushed immediately
+     */
+    private boolean isBuffered() {
+        return MinecraftServer.hasBufferedWrites() && getConnectionState() == ConnectionState.PLAY;
+    }
+
+    private void resetPendingWrites() {
+        // Everything written before has been flushed with the packet
+        pendingPackets.set(0);
+        pendingBytes.set(0);
     }
 
     @Override
@@ -85,6 +332,8 @@ public class NettyPlayerConnection extends PlayerConnection {
 
     @Override
     public void disconnect() {
+        // Send the buffered packets (eg the disconnect message) before closing
+        flush();
         getChannel().close();
     }
 
@@ -8,12 +8,15 @@ import net.minestom.server.chat.ChatColor;
 import net.minestom.server.chat.ColoredText;
 import net.minestom.server.entity.Player;
 import net.minestom.server.network.ConnectionState;
+import net.minestom.server.network.netty.packet.SharedPacket;
+import net.minestom.server.network.packet.client.handler.ClientPacketsHandler;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.network.packet.server.login.LoginDisconnect;
 import net.minestom.server.network.packet.server.play.DisconnectPacket;
 
 import java.net.SocketAddress;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 /**
  * A PlayerConnection is an object needed for all created player
@@ -37,9 +40,12 @@ public abstract class PlayerConnection {
     private static final ColoredText rateLimitKickMessage = ColoredText.of(ChatColor.RED + "Too Many Packets");
 
     //Connection Stats
-    @Getter
     private final AtomicInteger packetCounter = new AtomicInteger(0);
     private final AtomicInteger lastPacketCounter = new AtomicInteger(0);
+    // Play packets received over the current second by id
+    private final AtomicIntegerArray packetTypeCounters = new AtomicIntegerArray(ClientPacketsHandler.SIZE);
+    private final AtomicIntegerArray lastPacketTypeCounters = new AtomicIntegerArray(ClientPacketsHandler.SIZE);
+    private volatile boolean packetRateLimitExceeded;
     private short tickCounter = 0;
 
     public PlayerConnection() {
@@ -47,31 +53,59 @@ public abstract class PlayerConnection {
         this.connectionState = ConnectionState.UNKNOWN;
     }
 
+    /**
+     * Count a received packet
+     * <p>
+     * Called by the thread reading the connection
+     *
+     * @param packetId the id of the packet
+     * @param play     true if the packet is a play packet, counted by type
+     * @return false if the packet exceeds its type rate limit (see {@link MinecraftServer#getPacketRateLimit(int)})
+     * and should be ignored, true otherwise
+     */
+    public boolean countPacket(int packetId, boolean play) {
+        this.packetCounter.incrementAndGet();
+        if (!play || packetId < 0 || packetId >= ClientPacketsHandler.SIZE)
+            return true;
+
+        final int count = packetTypeCounters.incrementAndGet(packetId);
+        final int rateLimit = MinecraftServer.getPacketRateLimit(packetId);
+        if (rateLimit > 0 && count > rateLimit) {
+            this.packetRateLimitExceeded = true;
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Update values related to the network connection
      */
     public void updateStats() {
-        // Check rate limit
-        if (MinecraftServer.getRateLimit() > 0) {
-            tickCounter++;
-            if (tickCounter % MinecraftServer.TICK_PER_SECOND == 0 && tickCounter > 0) {
-                tickCounter = 0;
-                // Retrieve the packet count
-                final int count = packetCounter.get();
-                this.lastPacketCounter.set(count);
-                this.packetCounter.set(0);
-                if (count > MinecraftServer.getRateLimit()) {
-                    // Sent too many packets
-                    if (connectionState == ConnectionState.LOGIN) {
-                        sendPacket(new LoginDisconnect("Too Many Packets"));
-                    } else {
-                        DisconnectPacket disconnectPacket = new DisconnectPacket();
-                        disconnectPacket.message = rateLimitKickMessage;
-                        sendPacket(disconnectPacket);
-                    }
-                    disconnect();
-                    refreshOnline(false);
+        tickCounter++;
+        if (tickCounter % MinecraftServer.TICK_PER_SECOND == 0 && tickCounter > 0) {
+            tickCounter = 0;
+            // Retrieve the packet counts
+            final int count = packetCounter.getAndSet(0);
+            this.lastPacketCounter.set(count);
+            for (int i = 0; i < ClientPacketsHandler.SIZE; i++) {
+                this.lastPacketTypeCounters.set(i, packetTypeCounters.getAndSet(i, 0));
+            }
+
+            // Check rate limits
+            final int rateLimit = MinecraftServer.getRateLimit();
+            final boolean typeRateLimitExceeded = packetRateLimitExceeded;
+            this.packetRateLimitExceeded = false;
+            if ((rateLimit > 0 && count > rateLimit) || typeRateLimitExceeded) {
+                // Sent too many packets
+                if (connectionState == ConnectionState.LOGIN) {
+                    sendPacket(new LoginDisconnect("Too Many Packets"));
+                } else {
+                    DisconnectPacket disconnectPacket = new DisconnectPacket();
+                    disconnectPacket.message = rateLimitKickMessage;
+                    sendPacket(disconnectPacket);
                 }
+                disconnect();
+                refreshOnline(false);
             }
         }
     }
@@ -82,7 +116,9 @@ public abstract class PlayerConnection {
      * Send a raw {@link ByteBuf} to the client
      *
      * @param buffer The buffer to send.
-     * @param copy   Should be true unless your only using the ByteBuf once.
+     * @param copy   true to keep the ownership of the buffer (it is then shared and not modified),
+     *               false to give it to the connection which will release it.
+     *               Should be true unless your only using the ByteBuf once.
      */
     public abstract void sendPacket(ByteBuf buffer, boolean copy);
 
@@ -90,7 +126,9 @@ public abstract class PlayerConnection {
      * Write a raw {@link ByteBuf} to the client
      *
      * @param buffer The buffer to send.
-     * @param copy   Should be true unless your only using the ByteBuf once.
+     * @param copy   true to keep the ownership of the buffer (it is then shared and not modified),
+     *               false to give it to the connection which will release it.
+     *               Should be true unless your only using the ByteBuf once.
      */
     public abstract void writePacket(ByteBuf buffer, boolean copy);
 
@@ -101,6 +139,22 @@ public abstract class PlayerConnection {
      */
     public abstract void sendPacket(ServerPacket serverPacket);
 
+    /**
+     * Send a packet shared with other connections
+     * <p>
+     * The packet is received in order with the other packets sent by this connection,
+     * {@link SharedPacket#release()} is called once it has been sent
+     *
+     * @param sharedPacket the packet to send
+     */
+    public void sendSharedPacket(SharedPacket sharedPacket) {
+        try {
+            sendPacket(sharedPacket.getPacket());
+        } finally {
+            sharedPacket.release();
+        }
+    }
+
     /**
      * Flush all waiting packets
      */
@@ -147,6 +201,17 @@ public abstract class PlayerConnection {
         return online;
     }
 
+    /**
+     * Get if packets can be written without being queued in memory
+     * <p>
+     * Used to delay the non-urgent packets (eg chunks) when the client does not read fast enough
+     *
+     * @return true if the connection can accept more packets, false otherwise
+     */
+    public boolean isWritable() {
+        return true;
+    }
+
     public void refreshOnline(boolean online) {
         this.online = online;
     }
@@ -172,4 +237,14 @@ public abstract class PlayerConnection {
     public int getLastPacketCounter() {
         return lastPacketCounter.get();
     }
+
+    /**
+     * Get the number of play packets of a type the client sent over the last second
+     *
+     * @param packetId the id of the play packet
+     * @return the number of packets of this type sent over the last second
+     */
+    public int getLastPacketCounter(int packetId) {
+        return lastPacketTypeCounters.get(packetId);
+    }
 }
@@ -109,7 +109,7 @@ public class Team {
         this.teamsCreationPacket.entities = this.entities;
 
         // Directly write packet since it will not change
-        this.teamsDestroyPacket = PacketUtils.writePacket(this.createTeamDestructionPacket());
+        this.teamsDestroyPacket = PacketUtils.writeUnpooledPacket(this.createTeamDestructionPacket());
     }
 
     /**
@@ -446,5 +446,6 @@ public class Team {
         for (Player onlinePlayer : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
             onlinePlayer.getPlayerConnection().sendPacket(buffer, true);
         }
+        buffer.release();
     }
 }
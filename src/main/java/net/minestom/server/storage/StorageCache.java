@@ -0,0 +1,281 @@
+package net.minestom.server.storage;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.utils.thread.MinestomThread;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of the values of a {@link StorageLocation}, written to its {@link StorageSystem} in the background
+ * <p>
+ * Modified values are marked dirty and written by the storage writer pool with {@link StorageSystem#set(Map)},
+ * the values modified while a batch is being written are part of the next one.
+ * Written values stay cached until they are not accessed for the expiration time or the cache
+ * becomes too big, least recently accessed first. Dirty values are never evicted.
+ * <p>
+ * A batch which fails to be written stays dirty and is part of the next one.
+ */
+class StorageCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StorageCache.class);
+
+    private static final ExecutorService WRITER_POOL =
+            new MinestomThread(MinecraftServer.THREAD_COUNT_STORAGE_WRITER, MinecraftServer.THREAD_NAME_STORAGE_WRITER);
+
+    private static final long MAINTENANCE_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final StorageSystem storageSystem;
+    private final long maxSize;
+    private final long expiration;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> dirtyKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong size = new AtomicLong();
+    // Incremented on each eviction, a value read from the storage is only cached if nothing has been evicted meanwhile
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final AtomicBoolean maintenanceScheduled = new AtomicBoolean();
+    private volatile long lastMaintenance = System.nanoTime();
+    private volatile boolean closed;
+
+    StorageCache(StorageSystem storageSystem, StorageOptions storageOptions) {
+        this.storageSystem = storageSystem;
+        this.maxSize = storageOptions.getCacheSize();
+        this.expiration = storageOptions.getCacheExpiration(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get a value, from the cache if present
+     * <p>
+     * WARNING: the returned array is shared and should not be modified
+     *
+     * @param key the key of the value
+     * @return the value, null if there is none
+     */
+    byte[] get(String key) {
+        final long time = System.nanoTime();
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.lastAccess = time;
+            return entry.value;
+        }
+
+        final long evictions = evictionCount.get();
+        final byte[] value = storageSystem.get(key);
+        if (maxSize > 0) {
+            this.entries.computeIfAbsent(key, k -> {
+                // The value could have been written and evicted after being read
+                if (evictionCount.get() != evictions)
+                    return null;
+                this.size.addAndGet(getSize(k, value));
+                return new Entry(value, time);
+            });
+        }
+        scheduleMaintenance(time);
+        return value;
+    }
+
+    /**
+     * Set a value, written in the background
+     *
+     * @param key   the key of the value
+     * @param value the new value, null to delete the key
+     */
+    void set(String key, byte[] value) {
+        final long time = System.nanoTime();
+        this.entries.compute(key, (k, entry) -> {
+            if (entry == null) {
+                entry = new Entry(null, time);
+            } else {
+                this.size.addAndGet(-getSize(k, entry.value));
+            }
+            entry.value = value;
+            entry.version++;
+            entry.lastAccess = time;
+            this.size.addAndGet(getSize(k, value));
+            return entry;
+        });
+        // Added after the modification so the writer cannot miss it
+        this.dirtyKeys.add(key);
+
+        if (writeScheduled.compareAndSet(false, true)) {
+            WRITER_POOL.execute(() -> {
+                this.writeScheduled.set(false);
+                flush();
+            });
+        }
+        scheduleMaintenance(time);
+    }
+
+    /**
+     * Write all the dirty values on the current thread
+     */
+    void flush() {
+        writeLock.lock();
+        try {
+            if (closed)
+                return;
+            if (!dirtyKeys.isEmpty())
+                writeDirtyValues();
+        } finally {
+            writeLock.unlock();
+        }
+        evict();
+    }
+
+    private void writeDirtyValues() {
+        Map<String, byte[]> batch = new HashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        final Iterator<String> iterator = dirtyKeys.iterator();
+        while (iterator.hasNext()) {
+            final String key = iterator.next();
+            iterator.remove();
+            this.entries.computeIfPresent(key, (k, entry) -> {
+                batch.put(k, entry.value);
+                versions.put(k, entry.version);
+                return entry;
+            });
+        }
+
+        try {
+            this.storageSystem.set(batch);
+        } catch (RuntimeException e) {
+            // Kept dirty, so neither lost nor evicted until a flush succeeds
+            this.dirtyKeys.addAll(batch.keySet());
+            LOGGER.error("Unable to write " + batch.size() + " storage values, they will be part of the next batch", e);
+            return;
+        }
+
+        for (Map.Entry<String, Long> written : versions.entrySet()) {
+            final long version = written.getValue();
+            this.entries.computeIfPresent(written.getKey(), (k, entry) -> {
+                entry.writtenVersion = version;
+                return entry;
+            });
+        }
+    }
+
+    /**
+     * Write all the dirty values and stop writing the future ones
+     */
+    void close() {
+        flush();
+        writeLock.lock();
+        try {
+            this.closed = true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Get the number of values waiting to be written
+     *
+     * @return the number of dirty values
+     */
+    int getDirtyCount() {
+        return dirtyKeys.size();
+    }
+
+    /**
+     * Get the approximate memory used by the cached values
+     *
+     * @return the size of the keys and values in bytes
+     */
+    long getSize() {
+        return size.get();
+    }
+
+    private void scheduleMaintenance(long time) {
+        if (time - lastMaintenance < MAINTENANCE_INTERVAL && size.get() <= maxSize)
+            return;
+        if (maintenanceScheduled.compareAndSet(false, true)) {
+            WRITER_POOL.execute(() -> {
+                evict();
+                this.maintenanceScheduled.set(false);
+            });
+        }
+    }
+
+    private void evict() {
+        final long time = System.nanoTime();
+        this.lastMaintenance = time;
+
+        // Expired values
+        List<String> evictable = new ArrayList<>();
+        for (Map.Entry<String, Entry> mapEntry : entries.entrySet()) {
+            final Entry entry = mapEntry.getValue();
+            if (entry.isClean()) {
+                if (time - entry.lastAccess >= expiration) {
+                    remove(mapEntry.getKey(), time);
+                } else {
+                    evictable.add(mapEntry.getKey());
+                }
+            }
+        }
+
+        // Least recently accessed values until the cache is small enough
+        if (size.get() > maxSize) {
+            evictable.sort(Comparator.comparingLong(key -> {
+                final Entry entry = entries.get(key);
+                return entry != null ? entry.lastAccess : Long.MIN_VALUE;
+            }));
+            for (String key : evictable) {
+                if (size.get() <= maxSize)
+                    break;
+                remove(key, Long.MIN_VALUE);
+            }
+        }
+    }
+
+    /**
+     * Remove a value if it is clean and has not been accessed since {@code time}
+     *
+     * @param key  the key of the value
+     * @param time the eviction time, {@link Long#MIN_VALUE} to ignore the last access
+     */
+    private void remove(String key, long time) {
+        this.entries.computeIfPresent(key, (k, entry) -> {
+            if (!entry.isClean() || (time != Long.MIN_VALUE && time - entry.lastAccess < expiration))
+                return entry;
+            this.evictionCount.incrementAndGet();
+            this.size.addAndGet(-getSize(k, entry.value));
+            return null;
+        });
+    }
+
+    private static long getSize(String key, byte[] value) {
+        return key.length() * Character.BYTES + (value != null ? value.length : 0);
+    }
+
+    private static final class Entry {
+
+        // Null if the key does not exist
+        private volatile byte[] value;
+        private volatile long lastAccess;
+
+        // Only modified in the map compute functions
+        private volatile long version;
+        private volatile long writtenVersion;
+
+        private Entry(byte[] value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+
+        private boolean isClean() {
+            return version == writtenVersion;
+        }
+    }
+
+}
@@ -11,11 +11,14 @@ import net.minestom.server.utils.binary.BinaryReader;
 import net.minestom.server.utils.binary.BinaryWriter;
 import net.minestom.server.utils.validate.Check;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Represent an area which contain data
+ * <p>
+ * Values are cached and written to the {@link StorageSystem} in the background, see {@link StorageOptions}
+ * for the cache settings. {@link #flush()} waits for the pending writes.
  */
 public class StorageLocation {
 
@@ -24,55 +27,89 @@ public class StorageLocation {
     private final StorageSystem storageSystem;
     private final String folderPath;
 
+    private final StorageCache storageCache;
+
     private final Map<String, SerializableData> cachedData;
 
     protected StorageLocation(StorageSystem storageSystem, String folderPath, StorageOptions storageOptions) {
         this.storageSystem = storageSystem;
         this.folderPath = folderPath;
 
-        this.cachedData = new HashMap<>();
+        this.storageCache = new StorageCache(storageSystem, storageOptions);
+        this.cachedData = new ConcurrentHashMap<>();
 
         this.storageSystem.open(folderPath, storageOptions);
     }
 
     /**
      * Get the data associated with a key
+     * <p>
+     * WARNING: the returned array can be cached and should not be modified
      *
      * @param key the key
      * @return the data associated to {@code key}
      * @see StorageSystem#get(String)
      */
     public byte[] get(String key) {
-        return storageSystem.get(key);
+        return storageCache.get(key);
     }
 
     /**
-     * Set a data associated to a key
+     * Set a data associated to a key, written in the background
+     * <p>
+     * WARNING: the array should not be modified afterward
      *
      * @param key  the key of the data
      * @param data the data
      * @see StorageSystem#set(String, byte[])
      */
     public void set(String key, byte[] data) {
-        this.storageSystem.set(key, data);
+        Check.notNull(data, "The data cannot be null, use #delete(String) to delete a key");
+        this.storageCache.set(key, data);
     }
 
     /**
-     * Delete a key
+     * Delete a key, written in the background
      *
      * @param key the key
      * @see StorageSystem#delete(String)
      */
     public void delete(String key) {
-        this.storageSystem.delete(key);
+        this.storageCache.set(key, null);
+    }
+
+    /**
+     * Write all the pending modifications to the {@link StorageSystem}, on the current thread
+     */
+    public void flush() {
+        this.storageCache.flush();
+    }
+
+    /**
+     * Get the number of modifications not yet written to the {@link StorageSystem}
+     *
+     * @return the number of pending writes
+     */
+    public int getPendingWriteCount() {
+        return storageCache.getDirtyCount();
     }
 
     /**
-     * Close the {@link StorageLocation}
+     * Get the approximate memory used by the cached values
+     *
+     * @return the size of the cache in bytes
+     */
+    public long getCacheSize() {
+        return storageCache.getSize();
+    }
+
+    /**
+     * Write the pending modifications and close the {@link StorageLocation}
      *
      * @see StorageSystem#close()
      */
     public void close() {
+        this.storageCache.close();
         this.storageSystem.close();
     }
 
@@ -137,13 +174,11 @@ public class StorageLocation {
      * @param dataContainer the {@link DataContainer} which will contain the new data
      */
     public void getAndCloneData(String key, DataContainer dataContainer) {
-        synchronized (cachedData) {
-            // Copy data from the cachedMap
-            if (cachedData.containsKey(key)) {
-                SerializableData data = cachedData.get(key);
-                dataContainer.setData(data.clone());
-                return;
-            }
+        // Copy data from the cachedMap
+        final SerializableData cached = cachedData.get(key);
+        if (cached != null) {
+            dataContainer.setData(cached.clone());
+            return;
         }
 
         // Load it from the storage system
@@ -170,70 +205,52 @@ public class StorageLocation {
      * @param dataContainer the {@link DataContainer} which will contain the new data
      */
     public void getAndCacheData(String key, DataContainer dataContainer) {
-        synchronized (cachedData) {
-            // Give the cached SerializableData if already loaded
-            if (cachedData.containsKey(key)) {
-                dataContainer.setData(cachedData.get(key));
-                return;
-            }
-
-            // Load it from the storage system and cache it
-            final byte[] bytes = get(key);
-            SerializableData data;
-
-            if (bytes != null) {
-                data = DataReader.readIndexedData(new BinaryReader(bytes));
-            } else {
-                data = new SerializableDataImpl();
-            }
-
-            dataContainer.setData(data);
-
-            this.cachedData.put(key, data);
-
-        }
+        // Give the cached SerializableData if already loaded, otherwise load it and cache it
+        // Only requests for the same key wait on each other
+        final SerializableData data = cachedData.computeIfAbsent(key, k -> {
+            final byte[] bytes = get(k);
+            return bytes != null ? DataReader.readIndexedData(new BinaryReader(bytes)) : new SerializableDataImpl();
+        });
+        dataContainer.setData(data);
     }
 
     /**
      * Save a specified cached data and remove it from memory
+     * <p>
+     * The data is serialized on the current thread and written in the background
      *
      * @param key the specified cached data key
      */
     public void saveAndRemoveCachedData(String key) {
-        synchronized (cachedData) {
-            final SerializableData serializableData = cachedData.get(key);
-            if (serializableData == null)
-                return;
-
-            // Save the data
-            set(key, serializableData.getIndexedSerializedData());
+        final SerializableData serializableData = cachedData.get(key);
+        if (serializableData == null)
+            return;
 
-            // Remove from map
-            this.cachedData.remove(key);
-        }
+        // Saved before being removed, a concurrent getAndCacheData would otherwise read the previous bytes
+        set(key, serializableData.getIndexedSerializedData());
+        this.cachedData.remove(key, serializableData);
     }
 
     /**
      * Save the whole cached data
+     * <p>
+     * The data is serialized on the current thread and written in the background
      */
     public void saveCachedData() {
-        synchronized (cachedData) {
-            cachedData.forEach((key, data) -> {
-                set(key, data.getIndexedSerializedData());
-            });
-        }
+        cachedData.forEach((key, data) -> set(key, data.getIndexedSerializedData()));
     }
 
     /**
      * Save an unique cached data
+     * <p>
+     * The data is serialized on the current thread and written in the background
      *
      * @param key the data key
      */
     public void saveCachedData(String key) {
-        synchronized (cachedData) {
-            final SerializableData data = cachedData.get(key);
+        final SerializableData data = cachedData.get(key);
+        if (data != null)
             set(key, data.getIndexedSerializedData());
-        }
     }
 
     public String getFolderPath() {
@@ -18,6 +18,11 @@ public class StorageManager {
     // Location -> storage location object
     private Map<String, StorageLocation> locationMap = new HashMap<>();
 
+    public StorageManager() {
+        // Write the pending modifications even if the server is not stopped cleanly
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushLocations, "Ms-StorageFlush"));
+    }
+
     /**
      * Used to get an access to the specified location
      * WARNING: a {@link StorageLocation} needs to be created with an unique {@link StorageSystem} linked
@@ -93,6 +98,15 @@ public class StorageManager {
         return Collections.unmodifiableCollection(locationMap.values());
     }
 
+    /**
+     * Write the pending modifications of all the loaded locations, see {@link StorageLocation#flush()}
+     */
+    public void flushLocations() {
+        for (StorageLocation storageLocation : getLoadedLocations()) {
+            storageLocation.flush();
+        }
+    }
+
     /**
      * Define the default {@link StorageSystem} used for {@link StorageLocation}
      *
@@ -1,8 +1,17 @@
 package net.minestom.server.storage;
 
+import net.minestom.server.utils.validate.Check;
+
+import java.util.concurrent.TimeUnit;
+
 public class StorageOptions {
 
+    private static final long DEFAULT_CACHE_SIZE = 32 * 1024 * 1024;
+    private static final long DEFAULT_CACHE_EXPIRATION = TimeUnit.MINUTES.toNanos(1);
+
     private boolean compression;
+    private long cacheSize = DEFAULT_CACHE_SIZE;
+    private long cacheExpiration = DEFAULT_CACHE_EXPIRATION;
 
     /**
      * Get if compression should be enabled
@@ -23,4 +32,51 @@ public class StorageOptions {
         this.compression = compression;
         return this;
     }
+
+    /**
+     * Get the maximum size of the values kept in memory once written
+     *
+     * @return the maximum cache size in bytes
+     */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Define the maximum size of the values kept in memory once written,
+     * the least recently accessed ones are removed first
+     * <p>
+     * Values waiting to be written are kept no matter this size
+     *
+     * @param cacheSize the maximum cache size in bytes, 0 to only keep the values waiting to be written
+     * @return the reference to the current options
+     */
+    public StorageOptions setCacheSize(long cacheSize) {
+        Check.argCondition(cacheSize < 0, "The cache size cannot be negative");
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /**
+     * Get the time after which a written value not accessed is removed from memory
+     *
+     * @param unit the unit of the returned time
+     * @return the cache expiration time
+     */
+    public long getCacheExpiration(TimeUnit unit) {
+        return unit.convert(cacheExpiration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Define the time after which a written value not accessed is removed from memory
+     *
+     * @param expiration the expiration time
+     * @param unit       the unit of {@code expiration}
+     * @return the reference to the current options
+     */
+    public StorageOptions setCacheExpiration(long expiration, TimeUnit unit) {
+        Check.argCondition(expiration < 0, "The cache expiration cannot be negative");
+        this.cacheExpiration = unit.toNanos(expiration);
+        return this;
+    }
 }
@@ -1,5 +1,7 @@
 package net.minestom.server.storage;
 
+import java.util.Map;
+
 /**
  * Represent a way of storing data
  * It works by using keys and values assigned to each one
@@ -38,6 +40,26 @@ public interface StorageSystem {
      */
     void set(String key, byte[] data);
 
+    /**
+     * Set multiple keys at once, used to write the values cached by a {@link StorageLocation}
+     * <p>
+     * The default implementation calls {@link #set(String, byte[])} and {@link #delete(String)} for each key,
+     * implementations should write them in a single operation when possible
+     * <p>
+     * A failed write has to throw an unchecked exception, the keys are then written again later
+     *
+     * @param data the data of each key, null to delete the key
+     */
+    default void set(Map<String, byte[]> data) {
+        data.forEach((key, value) -> {
+            if (value != null) {
+                set(key, value);
+            } else {
+                delete(key);
+            }
+        });
+    }
+
     /**
      * Delete the specified key from the database
      *
@@ -6,6 +6,7 @@ import org.rocksdb.*;
 
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Map;
 
 /**
  * A storage system which is local using OS files system
@@ -59,6 +60,24 @@ public class FileStorageSystem implements StorageSystem {
         }
     }
 
+    @Override
+    public void set(Map<String, byte[]> data) {
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions writeOptions = new WriteOptions()) {
+            for (Map.Entry<String, byte[]> entry : data.entrySet()) {
+                final byte[] value = entry.getValue();
+                if (value != null) {
+                    writeBatch.put(getKey(entry.getKey()), value);
+                } else {
+                    writeBatch.delete(getKey(entry.getKey()));
+                }
+            }
+            this.rocksDB.write(writeOptions, writeBatch);
+        } catch (RocksDBException e) {
+            // Thrown so that the values are kept to be written again
+            throw new IllegalStateException("Failed to write " + data.size() + " keys", e);
+        }
+    }
+
     @Override
     public void delete(String key) {
         try {
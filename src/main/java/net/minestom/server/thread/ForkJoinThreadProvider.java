@@ -0,0 +1,304 @@
+package net.minestom.server.thread;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.utils.chunk.ChunkUtils;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Separate chunks into group of linked chunks like {@link PerGroupChunkProvider},
+ * but execute them in a {@link ForkJoinPool} where idle threads steal work from the busy ones
+ * <p>
+ * The tick cost of every chunk is measured, groups costing more than {@link #getSplitThreshold()}
+ * are split into their connected parts (a group is not split when one of its chunks is unloaded),
+ * which are ticked independently.
+ * <p>
+ * With {@link #setRegionSplit(boolean)}, connected parts still too expensive are also split into regions
+ * of {@link #REGION_SIZE}x{@link #REGION_SIZE} chunks. Disabled by default.
+ * WARNING: neighbour chunks of different regions can then be ticked at the same time by different threads
+ * <p>
+ * Chunk groups are only executed once their instance tick is done, without blocking any thread.
+ */
+public class ForkJoinThreadProvider extends PerGroupChunkProvider {
+
+    private static final int REGION_SHIFT = 2;
+    /**
+     * The width of the regions in chunks, used when splitting an oversized group
+     */
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+
+    private static final long DEFAULT_SPLIT_THRESHOLD = 10_000_000L; // 10ms
+
+    /**
+     * Instance -> chunk index -> average tick cost in nanoseconds
+     * <p>
+     * Only accessed in {@link #update(long)} and {@link #onChunkUnload(Instance, int, int)},
+     * both synchronized by the {@link net.minestom.server.UpdateManager}
+     */
+    private final Map<Instance, Long2LongMap> instanceChunkCostMap = new HashMap<>();
+
+    // Tasks of the previous tick, their measures are collected at the start of the next one
+    private List<RegionTask> lastTasks = new ArrayList<>();
+
+    private volatile long splitThreshold = DEFAULT_SPLIT_THRESHOLD;
+    private volatile boolean regionSplit;
+
+    @Override
+    public void onChunkUnload(Instance instance, int chunkX, int chunkZ) {
+        super.onChunkUnload(instance, chunkX, chunkZ);
+        final Long2LongMap chunkCostMap = instanceChunkCostMap.get(instance);
+        if (chunkCostMap != null) {
+            chunkCostMap.remove(ChunkUtils.getChunkIndex(chunkX, chunkZ));
+        }
+    }
+
+    @Override
+    public List<Future<?>> update(long time) {
+        collectCosts();
+
+        final ForkJoinPool forkJoinPool = (ForkJoinPool) pool;
+
+        List<Future<?>> futures = new ArrayList<>();
+        List<RegionTask> tasks = new ArrayList<>();
+
+        instanceInstanceMap.forEach((instance, instanceMap) -> {
+            final Long2LongMap chunkCostMap = getChunkCostMap(instance);
+
+            List<RegionTask> instanceTasks = new ArrayList<>(instanceMap.size());
+            for (LongSet group : instanceMap.keySet()) {
+                final long groupCost = getCost(chunkCostMap, group);
+                if (groupCost > splitThreshold && group.size() > 1) {
+                    splitGroup(instance, group, chunkCostMap, time, instanceTasks);
+                } else {
+                    instanceTasks.add(new RegionTask(instance, group.toLongArray(), groupCost, time));
+                }
+            }
+
+            // Most expensive tasks first, they are the first to be stolen by idle threads
+            instanceTasks.sort((task1, task2) -> Long.compare(task2.estimatedCost, task1.estimatedCost));
+
+            tasks.addAll(instanceTasks);
+            futures.add(forkJoinPool.submit(new InstanceTask(instance, instanceTasks, time)));
+        });
+
+        this.lastTasks = tasks;
+        return futures;
+    }
+
+    /**
+     * Get the tick cost above which a chunk group is split into its connected parts,
+     * and into regions if {@link #isRegionSplit()}
+     *
+     * @return the split threshold in nanoseconds
+     */
+    public long getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    /**
+     * Change the tick cost above which a chunk group is split into its connected parts,
+     * and into regions if {@link #isRegionSplit()}
+     *
+     * @param splitThreshold the new split threshold in nanoseconds
+     */
+    public void setSplitThreshold(long splitThreshold) {
+        this.splitThreshold = splitThreshold;
+    }
+
+    /**
+     * Get if the expensive groups are split into regions, even if their chunks are neighbours
+     *
+     * @return true if the region split is enabled
+     */
+    public boolean isRegionSplit() {
+        return regionSplit;
+    }
+
+    /**
+     * Change if the expensive groups are split into regions, even if their chunks are neighbours
+     * <p>
+     * WARNING: neighbour chunks, and the entities moving between them, can then be ticked concurrently
+     *
+     * @param regionSplit true to split the expensive groups into regions
+     */
+    public void setRegionSplit(boolean regionSplit) {
+        this.regionSplit = regionSplit;
+    }
+
+    @Override
+    protected void refreshPool() {
+        this.pool = new ForkJoinPool(getThreadCount(), forkJoinPool -> {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(thread.getName().replace("ForkJoinPool", MinecraftServer.THREAD_NAME_TICK));
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Update the chunks cost with the measures of the previous tick
+     */
+    private void collectCosts() {
+        for (RegionTask task : lastTasks) {
+            final Long2LongMap chunkCostMap = instanceChunkCostMap.get(task.instance);
+            if (chunkCostMap == null)
+                continue;
+            for (int i = 0; i < task.chunkIndexes.length; i++) {
+                final long chunkIndex = task.chunkIndexes[i];
+                final long cost = task.costs[i];
+                if (!chunkCostMap.containsKey(chunkIndex)) {
+                    chunkCostMap.put(chunkIndex, cost);
+                } else {
+                    // Moving average, prevents a single slow tick from splitting a group
+                    chunkCostMap.put(chunkIndex, (chunkCostMap.get(chunkIndex) * 3 + cost) / 4);
+                }
+            }
+        }
+        this.lastTasks = Collections.emptyList();
+    }
+
+    private void splitGroup(Instance instance, LongSet group, Long2LongMap chunkCostMap, long time, List<RegionTask> tasks) {
+        final boolean regionSplit = this.regionSplit;
+        LongSet visited = new LongOpenHashSet(group.size());
+        for (long chunkIndex : group) {
+            if (visited.contains(chunkIndex))
+                continue;
+            final LongList connectedChunks = getConnectedChunks(group, chunkIndex, visited);
+            final long cost = getCost(chunkCostMap, connectedChunks);
+            if (regionSplit && cost > splitThreshold && connectedChunks.size() > 1) {
+                splitRegions(instance, connectedChunks, chunkCostMap, time, tasks);
+            } else {
+                tasks.add(new RegionTask(instance, connectedChunks.toLongArray(), cost, time));
+            }
+        }
+    }
+
+    /**
+     * Get the chunks of a group connected to a chunk, with the same neighbours as {@link PerGroupChunkProvider}
+     *
+     * @param group      the chunk group
+     * @param chunkIndex the chunk to start from
+     * @param visited    the chunks already part of a connected part, updated with the returned chunks
+     * @return the chunks of {@code group} connected to {@code chunkIndex}
+     */
+    private static LongList getConnectedChunks(LongSet group, long chunkIndex, LongSet visited) {
+        LongList connectedChunks = new LongArrayList();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        visited.add(chunkIndex);
+        queue.enqueue(chunkIndex);
+        while (!queue.isEmpty()) {
+            final long index = queue.dequeueLong();
+            connectedChunks.add(index);
+            final int chunkX = ChunkUtils.getChunkCoordX(index);
+            final int chunkZ = ChunkUtils.getChunkCoordZ(index);
+            enqueueNeighbour(group, visited, queue, ChunkUtils.getChunkIndex(chunkX + 1, chunkZ));
+            enqueueNeighbour(group, visited, queue, ChunkUtils.getChunkIndex(chunkX - 1, chunkZ));
+            enqueueNeighbour(group, visited, queue, ChunkUtils.getChunkIndex(chunkX, chunkZ + 1));
+            enqueueNeighbour(group, visited, queue, ChunkUtils.getChunkIndex(chunkX, chunkZ - 1));
+        }
+        return connectedChunks;
+    }
+
+    private static void enqueueNeighbour(LongSet group, LongSet visited, LongArrayFIFOQueue queue, long chunkIndex) {
+        if (group.contains(chunkIndex) && visited.add(chunkIndex))
+            queue.enqueue(chunkIndex);
+    }
+
+    private void splitRegions(Instance instance, LongList chunks, Long2LongMap chunkCostMap, long time, List<RegionTask> tasks) {
+        Long2ObjectMap<LongList> regions = new Long2ObjectOpenHashMap<>();
+        for (long chunkIndex : chunks) {
+            final int regionX = ChunkUtils.getChunkCoordX(chunkIndex) >> REGION_SHIFT;
+            final int regionZ = ChunkUtils.getChunkCoordZ(chunkIndex) >> REGION_SHIFT;
+            final long regionIndex = ChunkUtils.getChunkIndex(regionX, regionZ);
+
+            LongList region = regions.get(regionIndex);
+            if (region == null) {
+                region = new LongArrayList();
+                regions.put(regionIndex, region);
+            }
+            region.add(chunkIndex);
+        }
+
+        for (LongList region : regions.values()) {
+            tasks.add(new RegionTask(instance, region.toLongArray(), getCost(chunkCostMap, region), time));
+        }
+    }
+
+    private Long2LongMap getChunkCostMap(Instance instance) {
+        return instanceChunkCostMap.computeIfAbsent(instance, inst -> new Long2LongOpenHashMap());
+    }
+
+    private static long getCost(Long2LongMap chunkCostMap, LongCollection chunkIndexes) {
+        long cost = 0;
+        for (long chunkIndex : chunkIndexes) {
+            cost += chunkCostMap.get(chunkIndex);
+        }
+        return cost;
+    }
+
+    /**
+     * Tick an instance then fork the tasks of its chunks
+     */
+    private class InstanceTask extends RecursiveAction {
+
+        private final Instance instance;
+        private final List<RegionTask> regionTasks;
+        private final long time;
+
+        private InstanceTask(Instance instance, List<RegionTask> regionTasks, long time) {
+            this.instance = instance;
+            this.regionTasks = regionTasks;
+            this.time = time;
+        }
+
+        @Override
+        protected void compute() {
+            // Needs to be done before the chunks tick, it is used to unload waiting chunks
+            updateInstance(instance, time);
+
+            for (RegionTask regionTask : regionTasks) {
+                regionTask.fork();
+            }
+            // Joining helps executing the forked tasks instead of blocking
+            for (RegionTask regionTask : regionTasks) {
+                try {
+                    regionTask.join();
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Tick a set of chunks and measure the time spent for each one
+     */
+    private class RegionTask extends RecursiveAction {
+
+        private final Instance instance;
+        private final long[] chunkIndexes;
+        private final long[] costs;
+        private final long estimatedCost;
+        private final long time;
+
+        private RegionTask(Instance instance, long[] chunkIndexes, long estimatedCost, long time) {
+            this.instance = instance;
+            this.chunkIndexes = chunkIndexes;
+            this.costs = new long[chunkIndexes.length];
+            this.estimatedCost = estimatedCost;
+            this.time = time;
+        }
+
+        @Override
+        protected void compute() {
+            for (int i = 0; i < chunkIndexes.length; i++) {
+                final long start = System.nanoTime();
+                processChunkTick(instance, chunkIndexes[i], time);
+                this.costs[i] = System.nanoTime() - start;
+            }
+        }
+    }
+
+}
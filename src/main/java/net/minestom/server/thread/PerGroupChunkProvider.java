@@ -27,7 +27,7 @@ public class PerGroupChunkProvider extends ThreadProvider {
     /**
      * Used to know to which instance is linked a Set of chunks
      */
-    private final Map<Instance, Map<LongSet, Instance>> instanceInstanceMap = new ConcurrentHashMap<>();
+    protected final Map<Instance, Map<LongSet, Instance>> instanceInstanceMap = new ConcurrentHashMap<>();
 
     @Override
     public void onChunkLoad(Instance instance, int chunkX, int chunkZ) {
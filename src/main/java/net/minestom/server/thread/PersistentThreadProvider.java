@@ -0,0 +1,542 @@
+package net.minestom.server.thread;
+
+import it.unimi.dsi.fastutil.longs.*;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.utils.chunk.ChunkUtils;
+
+import java.util.*;
+import java.util.concurrent.Future;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Tick chunks in long-lived threads, each one owning a stable set of chunks
+ * <p>
+ * A loaded chunk goes to the thread owning one of its neighbours, or to the thread with the fewest chunks.
+ * A chunk connecting groups owned by different threads moves them all to the same one.
+ * Every {@link #REBALANCE_INTERVAL} ticks, groups of connected chunks are moved from the slowest thread
+ * to the fastest one, neighbour chunks are never moved apart.
+ * <p>
+ * Threads are released every tick with a {@link Phaser}, nothing is submitted nor allocated per tick.
+ * The tick time of each thread is available with {@link #getTickThreads()}.
+ */
+public class PersistentThreadProvider extends ThreadProvider {
+
+    /**
+     * The number of ticks between two rebalancing of the chunks
+     */
+    public static final int REBALANCE_INTERVAL = 100;
+
+    // Minimum difference between the slowest and the fastest thread to move chunks
+    private static final long REBALANCE_THRESHOLD = 2_000_000L; // 2ms
+
+    // Everything below is only accessed by the update thread (synchronized by the UpdateManager)
+    // the tick threads only read their own state once released by the phaser
+
+    private final Map<Instance, Long2ObjectMap<TickThread>> chunkOwnerMap = new HashMap<>();
+    private final List<ChunkChange> pendingChanges = new ArrayList<>();
+    private final List<Instance> pendingDeletions = new ArrayList<>();
+
+    private TickThread[] threads;
+    private Phaser startPhaser;
+    private Phaser instancePhaser;
+    private Phaser endPhaser;
+
+    private final TickFuture tickFuture = new TickFuture();
+    private final List<Future<?>> futures = Collections.singletonList(tickFuture);
+
+    private volatile long time;
+    private int tickCount;
+
+    @Override
+    public void onChunkLoad(Instance instance, int chunkX, int chunkZ) {
+        // Tick threads can still be running, chunks are assigned in the next update
+        this.pendingChanges.add(new ChunkChange(instance, ChunkUtils.getChunkIndex(chunkX, chunkZ), true));
+    }
+
+    @Override
+    public void onChunkUnload(Instance instance, int chunkX, int chunkZ) {
+        this.pendingChanges.add(new ChunkChange(instance, ChunkUtils.getChunkIndex(chunkX, chunkZ), false));
+    }
+
+    @Override
+    public void onInstanceDelete(Instance instance) {
+        this.pendingDeletions.add(instance);
+    }
+
+    @Override
+    public List<Future<?>> update(long time) {
+        refreshThreads();
+        applyChunkChanges();
+        applyInstanceDeletions();
+
+        if (++tickCount % REBALANCE_INTERVAL == 0) {
+            rebalance();
+        }
+
+        this.time = time;
+        this.tickFuture.phase = endPhaser.getPhase();
+        // Release the tick threads
+        this.startPhaser.arrive();
+        return futures;
+    }
+
+    /**
+     * Get the tick threads and their statistics
+     *
+     * @return an unmodifiable list containing the tick threads
+     */
+    public List<TickThread> getTickThreads() {
+        final TickThread[] threads = this.threads;
+        return threads != null ? Collections.unmodifiableList(Arrays.asList(threads)) : Collections.emptyList();
+    }
+
+    @Override
+    protected void refreshPool() {
+        // Tick threads are (re)created in the next update
+    }
+
+    /**
+     * Create the tick threads if the thread count changed, and move all the chunks to them
+     */
+    private void refreshThreads() {
+        final int threadCount = getThreadCount();
+        if (threads != null && threads.length == threadCount)
+            return;
+
+        if (startPhaser != null) {
+            // Stop the previous threads
+            this.startPhaser.forceTermination();
+        }
+
+        this.startPhaser = new Phaser(1);
+        this.instancePhaser = new Phaser(threadCount);
+        this.endPhaser = new Phaser(threadCount);
+
+        this.threads = new TickThread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            TickThread thread = new TickThread(i, startPhaser, instancePhaser, endPhaser);
+            this.threads[i] = thread;
+            thread.start();
+        }
+
+        // Assign the already loaded chunks to the new threads, connected chunks together
+        chunkOwnerMap.forEach((instance, owners) -> {
+            LongSet visited = new LongOpenHashSet();
+            for (long chunkIndex : owners.keySet().toLongArray()) {
+                if (visited.contains(chunkIndex))
+                    continue;
+                final TickThread thread = getLeastLoadedThread();
+                for (long index : getConnectedChunks(owners, chunkIndex, visited)) {
+                    owners.put(index, thread);
+                    thread.addChunk(instance, index);
+                }
+            }
+            getLeastLoadedThread().instances.add(instance);
+        });
+    }
+
+    private void applyChunkChanges() {
+        for (ChunkChange change : pendingChanges) {
+            final Instance instance = change.instance;
+            final long chunkIndex = change.chunkIndex;
+
+            Long2ObjectMap<TickThread> owners = chunkOwnerMap.get(instance);
+            if (owners == null) {
+                if (!change.load)
+                    continue;
+                // First chunk of the instance, choose the thread responsible for the instance tick
+                owners = new Long2ObjectOpenHashMap<>();
+                chunkOwnerMap.put(instance, owners);
+                getLeastLoadedThread().instances.add(instance);
+            }
+
+            if (change.load) {
+                if (owners.containsKey(chunkIndex))
+                    continue;
+                final TickThread thread = findThread(owners, chunkIndex);
+                owners.put(chunkIndex, thread);
+                thread.addChunk(instance, chunkIndex);
+                if (hasOtherNeighbourOwner(owners, chunkIndex, thread)) {
+                    // The chunk connects groups of different threads, they would tick neighbour chunks concurrently
+                    mergeGroup(instance, owners, chunkIndex);
+                }
+            } else {
+                final TickThread thread = owners.remove(chunkIndex);
+                if (thread != null)
+                    thread.removeChunk(instance, chunkIndex);
+            }
+        }
+        this.pendingChanges.clear();
+    }
+
+    private void applyInstanceDeletions() {
+        for (Instance instance : pendingDeletions) {
+            this.chunkOwnerMap.remove(instance);
+            for (TickThread thread : threads) {
+                thread.removeInstance(instance);
+            }
+        }
+        this.pendingDeletions.clear();
+    }
+
+    /**
+     * Move the chunks connected to a chunk to the thread already owning most of them
+     *
+     * @param instance   the instance of the chunk
+     * @param owners     the chunk owners of the instance
+     * @param chunkIndex the chunk connecting the groups
+     */
+    private void mergeGroup(Instance instance, Long2ObjectMap<TickThread> owners, long chunkIndex) {
+        final LongList group = getConnectedChunks(owners, chunkIndex, new LongOpenHashSet());
+        Map<TickThread, Integer> chunkCounts = new HashMap<>();
+        TickThread target = null;
+        int targetCount = 0;
+        for (long index : group) {
+            final TickThread owner = owners.get(index);
+            final int count = chunkCounts.merge(owner, 1, Integer::sum);
+            if (count > targetCount) {
+                target = owner;
+                targetCount = count;
+            }
+        }
+        moveChunks(instance, owners, group, target);
+    }
+
+    /**
+     * Move groups of connected chunks from the slowest thread to the fastest one to even their tick time
+     * <p>
+     * Neighbour chunks can share entities so they stay on the same thread,
+     * a group bigger than the number of chunks to move is kept where it is.
+     */
+    private void rebalance() {
+        TickThread slowest = threads[0];
+        TickThread fastest = threads[0];
+        for (TickThread thread : threads) {
+            if (thread.averageTickTime > slowest.averageTickTime)
+                slowest = thread;
+            if (thread.averageTickTime < fastest.averageTickTime)
+                fastest = thread;
+        }
+
+        final long difference = slowest.averageTickTime - fastest.averageTickTime;
+        if (difference < REBALANCE_THRESHOLD || slowest.chunkCount <= 1)
+            return;
+
+        // Move enough chunks to cut the difference in half, assuming they all cost the same
+        final long chunkCost = Math.max(1, slowest.averageTickTime / slowest.chunkCount);
+        int toMove = (int) Math.min(slowest.chunkCount / 2, difference / 2 / chunkCost);
+
+        for (InstanceChunks instanceChunks : new ArrayList<>(slowest.instanceChunks)) {
+            final Instance instance = instanceChunks.instance;
+            final LongArrayList chunks = instanceChunks.chunks;
+            final Long2ObjectMap<TickThread> owners = chunkOwnerMap.get(instance);
+
+            // Groups are computed before moving anything, moving a group modifies the chunks list
+            List<LongList> groups = new ArrayList<>();
+            LongSet visited = new LongOpenHashSet();
+            for (int i = 0; i < chunks.size(); i++) {
+                final long chunkIndex = chunks.getLong(i);
+                if (!visited.contains(chunkIndex))
+                    groups.add(getConnectedChunks(owners, chunkIndex, visited));
+            }
+
+            for (LongList group : groups) {
+                if (group.size() > toMove)
+                    continue;
+                moveChunks(instance, owners, group, fastest);
+                toMove -= group.size();
+            }
+            if (toMove == 0)
+                break;
+        }
+    }
+
+    /**
+     * Move chunks to a thread
+     *
+     * @param instance the instance of the chunks
+     * @param owners   the chunk owners of the instance
+     * @param chunks   the chunks to move
+     * @param thread   the new owner of the chunks
+     */
+    private static void moveChunks(Instance instance, Long2ObjectMap<TickThread> owners, LongList chunks, TickThread thread) {
+        for (long chunkIndex : chunks) {
+            final TickThread owner = owners.put(chunkIndex, thread);
+            if (owner != thread) {
+                owner.removeChunk(instance, chunkIndex);
+                thread.addChunk(instance, chunkIndex);
+            }
+        }
+    }
+
+    /**
+     * Get the loaded chunks connected to a chunk, including diagonal neighbours like {@link #findThread(Long2ObjectMap, long)}
+     *
+     * @param owners     the chunk owners of the instance
+     * @param chunkIndex the chunk to start from
+     * @param visited    the chunks already part of a group, updated with the returned chunks
+     * @return the group containing {@code chunkIndex}
+     */
+    private static LongList getConnectedChunks(Long2ObjectMap<TickThread> owners, long chunkIndex, LongSet visited) {
+        LongList group = new LongArrayList();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+        visited.add(chunkIndex);
+        queue.enqueue(chunkIndex);
+        while (!queue.isEmpty()) {
+            final long index = queue.dequeueLong();
+            group.add(index);
+            final int chunkX = ChunkUtils.getChunkCoordX(index);
+            final int chunkZ = ChunkUtils.getChunkCoordZ(index);
+            for (int x = -1; x <= 1; x++) {
+                for (int z = -1; z <= 1; z++) {
+                    final long neighbourIndex = ChunkUtils.getChunkIndex(chunkX + x, chunkZ + z);
+                    if (owners.containsKey(neighbourIndex) && visited.add(neighbourIndex))
+                        queue.enqueue(neighbourIndex);
+                }
+            }
+        }
+        return group;
+    }
+
+    /**
+     * Find the thread which should own a chunk, prioritizing the owners of its neighbours
+     *
+     * @param owners     the chunk owners of the instance
+     * @param chunkIndex the chunk index
+     * @return the thread to use for the chunk
+     */
+    private TickThread findThread(Long2ObjectMap<TickThread> owners, long chunkIndex) {
+        final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
+        final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                if (x == 0 && z == 0)
+                    continue;
+                final TickThread neighbourThread = owners.get(ChunkUtils.getChunkIndex(chunkX + x, chunkZ + z));
+                // Ignore threads from a previous thread count
+                if (neighbourThread != null && neighbourThread.startPhaser == startPhaser)
+                    return neighbourThread;
+            }
+        }
+        return getLeastLoadedThread();
+    }
+
+    private static boolean hasOtherNeighbourOwner(Long2ObjectMap<TickThread> owners, long chunkIndex, TickThread thread) {
+        final int chunkX = ChunkUtils.getChunkCoordX(chunkIndex);
+        final int chunkZ = ChunkUtils.getChunkCoordZ(chunkIndex);
+        for (int x = -1; x <= 1; x++) {
+            for (int z = -1; z <= 1; z++) {
+                final TickThread neighbourThread = owners.get(ChunkUtils.getChunkIndex(chunkX + x, chunkZ + z));
+                if (neighbourThread != null && neighbourThread != thread)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    private TickThread getLeastLoadedThread() {
+        TickThread result = threads[0];
+        for (TickThread thread : threads) {
+            if (thread.chunkCount < result.chunkCount)
+                result = thread;
+        }
+        return result;
+    }
+
+    /**
+     * A thread ticking its own instances and chunks every time it is released
+     */
+    public final class TickThread extends Thread {
+
+        private final Phaser startPhaser;
+        private final Phaser instancePhaser;
+        private final Phaser endPhaser;
+
+        // Instances ticked by this thread
+        private final List<Instance> instances = new ArrayList<>();
+        // Chunks ticked by this thread
+        private final List<InstanceChunks> instanceChunks = new ArrayList<>();
+        private volatile int chunkCount;
+
+        private volatile long lastTickTime;
+        private volatile long averageTickTime;
+
+        private TickThread(int id, Phaser startPhaser, Phaser instancePhaser, Phaser endPhaser) {
+            super(MinecraftServer.THREAD_NAME_TICK + "-" + id);
+            this.startPhaser = startPhaser;
+            this.instancePhaser = instancePhaser;
+            this.endPhaser = endPhaser;
+            setDaemon(true);
+        }
+
+        /**
+         * Get the time taken by this thread to execute its last tick
+         *
+         * @return the last tick time in nanoseconds
+         */
+        public long getLastTickTime() {
+            return lastTickTime;
+        }
+
+        /**
+         * Get the moving average of the tick time of this thread
+         *
+         * @return the average tick time in nanoseconds
+         */
+        public long getAverageTickTime() {
+            return averageTickTime;
+        }
+
+        /**
+         * Get the number of chunks owned by this thread
+         *
+         * @return the number of chunks ticked by this thread
+         */
+        public int getChunkCount() {
+            return chunkCount;
+        }
+
+        @Override
+        public void run() {
+            int phase = 0;
+            while (true) {
+                // Wait for the next tick
+                phase = startPhaser.awaitAdvance(phase);
+                if (phase < 0) {
+                    // Terminated, the thread count changed
+                    return;
+                }
+
+                final long start = System.nanoTime();
+                tick(time);
+                final long tickTime = System.nanoTime() - start;
+
+                this.lastTickTime = tickTime;
+                this.averageTickTime = (averageTickTime * 3 + tickTime) / 4;
+
+                endPhaser.arrive();
+            }
+        }
+
+        private void tick(long time) {
+            for (int i = 0; i < instances.size(); i++) {
+                try {
+                    updateInstance(instances.get(i), time);
+                } catch (Throwable e) {
+                    e.printStackTrace();
+                }
+            }
+
+            // Wait for all the instances to be updated
+            // Needed because the instance tick is used to unload waiting chunks
+            instancePhaser.arriveAndAwaitAdvance();
+
+            for (int i = 0; i < instanceChunks.size(); i++) {
+                final InstanceChunks entry = instanceChunks.get(i);
+                final Instance instance = entry.instance;
+                final LongArrayList chunks = entry.chunks;
+                for (int j = 0; j < chunks.size(); j++) {
+                    try {
+                        processChunkTick(instance, chunks.getLong(j), time);
+                    } catch (Throwable e) {
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        private void addChunk(Instance instance, long chunkIndex) {
+            getInstanceChunks(instance).chunks.add(chunkIndex);
+            this.chunkCount++;
+        }
+
+        private void removeChunk(Instance instance, long chunkIndex) {
+            final InstanceChunks entry = getInstanceChunks(instance);
+            if (entry.chunks.rem(chunkIndex))
+                this.chunkCount--;
+            if (entry.chunks.isEmpty())
+                this.instanceChunks.remove(entry);
+        }
+
+        private void removeInstance(Instance instance) {
+            this.instances.remove(instance);
+            for (Iterator<InstanceChunks> iterator = instanceChunks.iterator(); iterator.hasNext(); ) {
+                final InstanceChunks entry = iterator.next();
+                if (entry.instance == instance) {
+                    this.chunkCount -= entry.chunks.size();
+                    iterator.remove();
+                }
+            }
+        }
+
+        private InstanceChunks getInstanceChunks(Instance instance) {
+            for (InstanceChunks entry : instanceChunks) {
+                if (entry.instance == instance)
+                    return entry;
+            }
+            InstanceChunks entry = new InstanceChunks(instance);
+            this.instanceChunks.add(entry);
+            return entry;
+        }
+    }
+
+    /**
+     * Future completed once all the tick threads finished the tick, reused every tick
+     */
+    private final class TickFuture implements Future<Void> {
+
+        private int phase;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return endPhaser.getPhase() != phase;
+        }
+
+        @Override
+        public Void get() throws InterruptedException {
+            endPhaser.awaitAdvanceInterruptibly(phase);
+            return null;
+        }
+
+        @Override
+        public Void get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException {
+            endPhaser.awaitAdvanceInterruptibly(phase, timeout, unit);
+            return null;
+        }
+    }
+
+    private static final class InstanceChunks {
+        private final Instance instance;
+        private final LongArrayList chunks = new LongArrayList();
+
+        private InstanceChunks(Instance instance) {
+            this.instance = instance;
+        }
+    }
+
+    private static final class ChunkChange {
+        private final Instance instance;
+        private final long chunkIndex;
+        private final boolean load;
+
+        private ChunkChange(Instance instance, long chunkIndex, boolean load) {
+            this.instance = instance;
+            this.chunkIndex = chunkIndex;
+            this.load = load;
+        }
+    }
+
+}
@@ -54,6 +54,16 @@ public abstract class ThreadProvider {
      */
     public abstract void onChunkUnload(Instance instance, int chunkX, int chunkZ);
 
+    /**
+     * Called when an instance is unregistered, it should not be ticked anymore
+     * <p>
+     * Does nothing by default, providers keeping a state per instance should drop it
+     *
+     * @param instance the unregistered instance
+     */
+    public void onInstanceDelete(Instance instance) {
+    }
+
     /**
      * Perform a server tick for all chunks based on their linked thread
      *
@@ -81,7 +91,12 @@ public abstract class ThreadProvider {
         refreshPool();
     }
 
-    private void refreshPool() {
+    /**
+     * Create the thread pool, called every time the thread count changes
+     * <p>
+     * Can be overridden to use a different {@link ExecutorService} implementation
+     */
+    protected void refreshPool() {
         this.pool = new MinestomThread(threadCount, MinecraftServer.THREAD_NAME_TICK);
     }
 
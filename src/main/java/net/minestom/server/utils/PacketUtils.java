@@ -1,6 +1,7 @@
 package net.minestom.server.utils;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
 import net.minestom.server.network.packet.server.ServerPacket;
 import net.minestom.server.utils.binary.BinaryWriter;
@@ -16,58 +17,44 @@ public final class PacketUtils {
 
     /**
      * Write a {@link ServerPacket} into a {@link ByteBuf}
+     * <p>
+     * The packet id and data are directly written into {@code buf}, without any intermediate buffer
      *
      * @param buf    the recipient of {@code packet}
      * @param packet the packet to write into {@code buf}
      */
     public static void writePacket(ByteBuf buf, ServerPacket packet) {
-
-        final ByteBuf packetBuffer = getPacketBuffer(packet);
-
-        writePacket(buf, packetBuffer, packet.getId());
+        Utils.writeVarIntBuf(buf, packet.getId());
+        packet.write(new BinaryWriter(buf));
     }
 
     /**
-     * Write a {@link ServerPacket} into a newly created {@link ByteBuf}
+     * Write a {@link ServerPacket} into a newly created pooled {@link ByteBuf}
+     * <p>
+     * WARNING: the buffer needs to be released once not used anymore,
+     * use {@link #writeUnpooledPacket(ServerPacket)} for a buffer which is kept for a long time
      *
      * @param packet the packet to write
      * @return a {@link ByteBuf} containing {@code packet}
      */
     public static ByteBuf writePacket(ServerPacket packet) {
-        final ByteBuf packetBuffer = getPacketBuffer(packet);
-
-        // Add 5 for the packet id and for the packet size
-        final int size = packetBuffer.writerIndex() + 5 + 5;
-        ByteBuf buffer = Unpooled.buffer(size);
-
-        writePacket(buffer, packetBuffer, packet.getId());
-
+        ByteBuf buffer = PooledByteBufAllocator.DEFAULT.buffer();
+        writePacket(buffer, packet);
         return buffer;
     }
 
     /**
-     * Write a packet buffer into {@code buf}
-     *
-     * @param buf          the buffer which will receive the packet id/data
-     * @param packetBuffer the buffer containing the raw packet data
-     * @param packetId     the packet id
-     */
-    private static void writePacket(ByteBuf buf, ByteBuf packetBuffer, int packetId) {
-        Utils.writeVarIntBuf(buf, packetId);
-        buf.writeBytes(packetBuffer);
-    }
-
-    /**
-     * Get the buffer representing the raw packet data
+     * Write a {@link ServerPacket} into a newly created unpooled {@link ByteBuf}
+     * <p>
+     * Used for packets cached for a long time, the buffer is then simply garbage collected
      *
      * @param packet the packet to write
-     * @return the {@link ByteBuf} containing the raw packet data
+     * @return a {@link ByteBuf} containing {@code packet}
      */
-    private static ByteBuf getPacketBuffer(ServerPacket packet) {
-        BinaryWriter writer = new BinaryWriter();
-        packet.write(writer);
-
-        return writer.getBuffer();
+    public static ByteBuf writeUnpooledPacket(ServerPacket packet) {
+        ByteBuf buffer = Unpooled.buffer();
+        writePacket(buffer, packet);
+        return buffer;
     }
 
 }
@@ -22,7 +22,8 @@ import java.util.UUID;
 public class BinaryReader extends InputStream {
 
     private final ByteBuf buffer;
-    private final NBTReader nbtReader = new NBTReader(this, false);
+    // Only created when a tag is read
+    private NBTReader nbtReader;
 
     public BinaryReader(ByteBuf buffer) {
         this.buffer = buffer;
@@ -126,6 +127,9 @@ public class BinaryReader extends InputStream {
     }
 
     public NBT readTag() throws IOException, NBTException {
+        if (nbtReader == null) {
+            this.nbtReader = new NBTReader(this, false);
+        }
         return nbtReader.read();
     }
 }
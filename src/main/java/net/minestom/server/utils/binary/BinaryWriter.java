@@ -41,6 +41,15 @@ public class BinaryWriter extends OutputStream {
         this.buffer = Unpooled.buffer();
     }
 
+    /**
+     * Create a {@link BinaryWriter} writing directly into {@code buffer}
+     *
+     * @param buffer the buffer to write to
+     */
+    public BinaryWriter(ByteBuf buffer) {
+        this.buffer = buffer;
+    }
+
     /**
      * Write a single boolean to the buffer
      *
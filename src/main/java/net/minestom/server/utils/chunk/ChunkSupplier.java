@@ -0,0 +1,24 @@
+package net.minestom.server.utils.chunk;
+
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.DynamicChunk;
+import net.minestom.server.instance.PalettedChunk;
+import net.minestom.server.world.biomes.Biome;
+
+/**
+ * Used to customize which type of {@link Chunk} an implementation should use
+ * (eg {@link DynamicChunk} or {@link PalettedChunk})
+ */
+@FunctionalInterface
+public interface ChunkSupplier {
+
+    /**
+     * Create a {@link Chunk} object
+     *
+     * @param biomes the chunk biomes
+     * @param chunkX the chunk X
+     * @param chunkZ the chunk Z
+     * @return a newly created {@link Chunk} object, cannot be null
+     */
+    Chunk createChunk(Biome[] biomes, int chunkX, int chunkZ);
+}
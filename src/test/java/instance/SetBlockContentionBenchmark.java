@@ -0,0 +1,73 @@
+package instance;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.InstanceContainer;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.world.DimensionType;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measure the {@link InstanceContainer#setBlock(int, int, int, Block)} throughput
+ * with a growing number of threads, each changing blocks in its own chunk
+ * <p>
+ * Writes to different chunks should not contend, the throughput is expected to scale with the thread count
+ */
+public class SetBlockContentionBenchmark {
+
+    private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int CHANGES_PER_THREAD = 500_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        MinecraftServer.init();
+
+        InstanceContainer instance = new InstanceContainer(UUID.randomUUID(), DimensionType.OVERWORLD, null);
+        CountDownLatch loadLatch = new CountDownLatch(MAX_THREADS);
+        for (int i = 0; i < MAX_THREADS; i++) {
+            instance.loadChunk(i, 0, chunk -> loadLatch.countDown());
+        }
+        loadLatch.await();
+
+        // Warm up
+        run(instance, MAX_THREADS);
+
+        for (int threadCount = 1; threadCount <= MAX_THREADS; threadCount *= 2) {
+            final long time = run(instance, threadCount);
+            final long changes = (long) threadCount * CHANGES_PER_THREAD;
+            System.out.println(threadCount + " thread(s): " + changes * 1000L / Math.max(time, 1) + " changes/s");
+        }
+
+        System.exit(0);
+    }
+
+    private static long run(InstanceContainer instance, int threadCount) throws InterruptedException {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch endLatch = new CountDownLatch(threadCount);
+        for (int i = 0; i < threadCount; i++) {
+            final int chunkX = i;
+            new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                final int offsetX = chunkX * Chunk.CHUNK_SIZE_X;
+                for (int j = 0; j < CHANGES_PER_THREAD; j++) {
+                    final int x = offsetX + (j & 0xF);
+                    final int z = j >> 4 & 0xF;
+                    final int y = j >> 8 & 0x7F;
+                    instance.setBlock(x, y, z, (j & 1) == 0 ? Block.STONE : Block.DIRT);
+                }
+                endLatch.countDown();
+            }).start();
+        }
+
+        final long start = System.currentTimeMillis();
+        startLatch.countDown();
+        endLatch.await();
+        return System.currentTimeMillis() - start;
+    }
+
+}
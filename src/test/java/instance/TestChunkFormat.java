@@ -0,0 +1,95 @@
+package instance;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ShortMap;
+import it.unimi.dsi.fastutil.objects.Object2ShortOpenHashMap;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.data.Data;
+import net.minestom.server.data.SerializableData;
+import net.minestom.server.data.SerializableDataImpl;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.ChunkFormat;
+import net.minestom.server.instance.palette.Section;
+import net.minestom.server.utils.binary.BinaryWriter;
+import net.minestom.server.utils.chunk.ChunkUtils;
+import net.minestom.server.world.biomes.Biome;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestChunkFormat {
+
+    @BeforeAll
+    public static void init() {
+        MinecraftServer.init();
+    }
+
+    @Test
+    public void blockDataRoundTrip() {
+        Biome[] biomes = new Biome[Chunk.BIOME_COUNT];
+        Arrays.fill(biomes, Biome.PLAINS);
+        Section[] blockSections = new Section[Chunk.CHUNK_SECTION_COUNT];
+        Section[] customBlockSections = new Section[Chunk.CHUNK_SECTION_COUNT];
+        blockSections[4] = new Section(Chunk.BLOCK_STATE_BITS_PER_ENTRY);
+        blockSections[4].set(Section.getIndex(2, 70, 12), (short) 1);
+
+        // z >= 8 gives an index which does not fit in a signed short
+        final int lowIndex = ChunkUtils.getBlockIndex(2, 70, 3);
+        final int highIndex = ChunkUtils.getBlockIndex(2, 70, 12);
+        assertTrue(highIndex > Short.MAX_VALUE);
+
+        Int2ObjectMap<Data> blocksData = new Int2ObjectOpenHashMap<>();
+        blocksData.put(lowIndex, createData(1));
+        blocksData.put(highIndex, createData(2));
+
+        final ChunkFormat.Content content = ChunkFormat.read(ChunkFormat.write(biomes, blockSections, customBlockSections, blocksData));
+        assertEquals(Biome.PLAINS, content.getBiomes()[0]);
+        assertEquals(1, content.getBlockSections()[4].get(Section.getIndex(2, 70, 12)));
+        assertNull(content.getBlockSections()[0]);
+        assertEquals(2, content.getBlocksData().size());
+        assertEquals(1, (int) content.getBlocksData().get(lowIndex).<Integer>get("value"));
+        assertEquals(2, (int) content.getBlocksData().get(highIndex).<Integer>get("value"));
+    }
+
+    @Test
+    public void legacyConversion() {
+        final int index = ChunkUtils.getBlockIndex(5, 20, 9);
+        final SerializableData data = createData(3);
+
+        Object2ShortMap<String> typeToIndexMap = new Object2ShortOpenHashMap<>();
+        final byte[] serializedData = data.getSerializedData(typeToIndexMap, false);
+
+        BinaryWriter writer = new BinaryWriter();
+        writer.writeBoolean(true);
+        SerializableData.writeDataIndexHeader(writer, typeToIndexMap);
+        for (int i = 0; i < Chunk.BIOME_COUNT; i++) {
+            writer.writeByte((byte) Biome.PLAINS.getId());
+        }
+        writer.writeShort((short) index);
+        writer.writeShort((short) 1); // Block state
+        writer.writeShort((short) 0); // Custom block
+        writer.writeBoolean(true);
+        writer.writeBytes(serializedData);
+        final byte[] legacy = writer.toByteArray();
+
+        assertTrue(ChunkFormat.isLegacy(legacy));
+        final byte[] converted = ChunkFormat.convertLegacy(legacy);
+        assertFalse(ChunkFormat.isLegacy(converted));
+
+        final ChunkFormat.Content content = ChunkFormat.read(converted);
+        assertEquals(1, content.getBlockSections()[1].get(Section.getIndex(5, 20, 9)));
+        assertNull(content.getCustomBlockSections()[1]);
+        assertEquals(3, (int) content.getBlocksData().get(index).<Integer>get("value"));
+    }
+
+    private static SerializableData createData(int value) {
+        SerializableData data = new SerializableDataImpl();
+        data.set("value", value, Integer.class);
+        return data;
+    }
+
+}
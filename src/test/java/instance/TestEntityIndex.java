@@ -0,0 +1,188 @@
+package instance;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.collision.BoundingBox;
+import net.minestom.server.entity.Entity;
+import net.minestom.server.entity.EntityType;
+import net.minestom.server.instance.EntityIndex;
+import net.minestom.server.utils.Position;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEntityIndex {
+
+    private EntityIndex entityIndex;
+
+    @BeforeAll
+    public static void init() {
+        MinecraftServer.init();
+    }
+
+    @BeforeEach
+    public void createIndex() {
+        this.entityIndex = new EntityIndex();
+    }
+
+    @Test
+    public void nearbyEntities() {
+        Entity center = addEntity(0.5f, 64, 0.5f);
+        // In other cells, including negative coordinates
+        Entity east = addEntity(17.5f, 64, 0.5f);
+        Entity west = addEntity(-3.5f, 64, 0.5f);
+        Entity below = addEntity(0.5f, 58, -1.5f);
+        Entity far = addEntity(40.5f, 64, 0.5f);
+
+        final Position position = new Position(0.5f, 64, 0.5f);
+        List<Entity> entities = entityIndex.getNearbyEntities(position, 17, null);
+        assertEquals(4, entities.size());
+        assertTrue(entities.contains(center));
+        assertTrue(entities.contains(east));
+        assertTrue(entities.contains(west));
+        assertTrue(entities.contains(below));
+        assertFalse(entities.contains(far));
+
+        // The box around the position is not enough, the distance is checked
+        entities = entityIndex.getNearbyEntities(position, 5, null);
+        assertEquals(2, entities.size());
+        assertTrue(entities.contains(center));
+        assertTrue(entities.contains(west));
+
+        entities = entityIndex.getNearbyEntities(position, 17, entity -> entity != center);
+        assertEquals(3, entities.size());
+        assertFalse(entities.contains(center));
+    }
+
+    @Test
+    public void entitiesInBox() {
+        Entity inside = addEntity(-16, 0, 31.9f);
+        Entity border = addEntity(10, 5, 10);
+        addEntity(10.1f, 5, 10);
+        addEntity(-16.1f, 0, 20);
+
+        List<Entity> entities = new ArrayList<>();
+        entityIndex.forEachEntityInBox(-16, 0, 0, 10, 5, 32, entities::add);
+        assertEquals(2, entities.size());
+        assertTrue(entities.contains(inside));
+        assertTrue(entities.contains(border));
+    }
+
+    @Test
+    public void moveEntity() {
+        Entity entity = addEntity(0.5f, 64, 0.5f);
+        final Position origin = new Position(0.5f, 64, 0.5f);
+
+        moveEntity(entity, 50.5f, 64, -30.5f);
+        assertTrue(entityIndex.getNearbyEntities(origin, 10, null).isEmpty());
+        assertSame(entity, entityIndex.getClosestEntity(new Position(50, 64, -30), 2, null));
+
+        // Same cell
+        moveEntity(entity, 49.5f, 65, -31.5f);
+        assertSame(entity, entityIndex.getClosestEntity(new Position(50, 64, -30), 3, null));
+
+        moveEntity(entity, 0.5f, 64, 0.5f);
+        assertEquals(1, entityIndex.getNearbyEntities(origin, 10, null).size());
+        assertNull(entityIndex.getClosestEntity(new Position(50, 64, -30), 10, null));
+    }
+
+    @Test
+    public void removeEntity() {
+        Entity entity = addEntity(0.5f, 64, 0.5f);
+        Entity other = addEntity(1.5f, 64, 0.5f);
+        final Position origin = new Position(0.5f, 64, 0.5f);
+
+        entityIndex.remove(entity);
+        assertEquals(List.of(other), entityIndex.getNearbyEntities(origin, 10, null));
+
+        // Position modified without moving the entity in the index
+        other.getPosition().setX(100);
+        entityIndex.remove(other);
+        assertTrue(entityIndex.getNearbyEntities(origin, 10, null).isEmpty());
+        assertNull(entityIndex.getClosestEntity(other.getPosition(), 10, null));
+
+        // Not indexed anymore, moving does not add it back
+        moveEntity(other, 0.5f, 64, 0.5f);
+        assertTrue(entityIndex.getNearbyEntities(origin, 10, null).isEmpty());
+    }
+
+    @Test
+    public void closestEntity() {
+        Entity close = addEntity(2, 64, 0);
+        Entity closer = addEntity(0, 64, -1);
+        addEntity(0, 70, 0);
+
+        final Position position = new Position(0, 64, 0);
+        assertSame(closer, entityIndex.getClosestEntity(position, 5, null));
+        assertSame(close, entityIndex.getClosestEntity(position, 5, entity -> entity != closer));
+        assertNull(entityIndex.getClosestEntity(position, 0.5f, null));
+    }
+
+    @Test
+    public void intersectingEntities() {
+        // Its position is in another cell than the query box, but its bounding box overlaps it
+        Entity large = addEntity(0.5f, 64, 15.5f);
+        large.setBoundingBox(4, 2, 4);
+        entityIndex.add(large);
+        Entity small = addEntity(0.5f, 64, 14.5f);
+        small.setBoundingBox(1, 1, 1);
+        entityIndex.add(small);
+
+        Entity probe = createEntity(0.5f, 64.5f, 17.5f);
+        probe.setBoundingBox(1, 1, 1);
+        final BoundingBox boundingBox = probe.getBoundingBox();
+
+        List<Entity> entities = new ArrayList<>();
+        entityIndex.forEachEntityIntersecting(boundingBox, entities::add);
+        assertEquals(List.of(large), entities);
+    }
+
+    @Test
+    public void modifyDuringQuery() {
+        for (int i = 0; i < 10; i++) {
+            addEntity(i, 64, 0);
+        }
+        final Position position = new Position(0, 64, 0);
+
+        List<Entity> removed = new ArrayList<>();
+        entityIndex.forEachNearbyEntity(position, 20, entity -> {
+            entityIndex.remove(entity);
+            removed.add(entity);
+            // Nested query
+            entityIndex.forEachNearbyEntity(position, 20, nearby -> assertNotSame(entity, nearby));
+        });
+        assertEquals(10, removed.size());
+        assertTrue(entityIndex.getNearbyEntities(position, 20, null).isEmpty());
+    }
+
+    private Entity addEntity(float x, float y, float z) {
+        Entity entity = createEntity(x, y, z);
+        entityIndex.add(entity);
+        return entity;
+    }
+
+    private void moveEntity(Entity entity, float x, float y, float z) {
+        final Position position = entity.getPosition();
+        final float lastX = position.getX(), lastY = position.getY(), lastZ = position.getZ();
+        // Not in an instance, the index has to be updated manually
+        entity.refreshPosition(x, y, z);
+        entityIndex.move(entity, lastX, lastY, lastZ, x, y, z);
+    }
+
+    private static Entity createEntity(float x, float y, float z) {
+        return new Entity(EntityType.ARMOR_STAND, new Position(x, y, z)) {
+            @Override
+            public void update(long time) {
+            }
+
+            @Override
+            public void spawn() {
+            }
+        };
+    }
+
+}
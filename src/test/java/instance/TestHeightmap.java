@@ -0,0 +1,123 @@
+package instance;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Heightmap;
+import net.minestom.server.instance.PalettedChunk;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.world.biomes.Biome;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHeightmap {
+
+    private Chunk chunk;
+    private Heightmap motionBlocking;
+    private Heightmap worldSurface;
+
+    @BeforeAll
+    public static void init() {
+        MinecraftServer.init();
+    }
+
+    @BeforeEach
+    public void createChunk() {
+        Biome[] biomes = new Biome[Chunk.BIOME_COUNT];
+        Arrays.fill(biomes, Biome.PLAINS);
+        this.chunk = new PalettedChunk(biomes, 1, 0);
+        this.motionBlocking = chunk.getHeightmap(Heightmap.Type.MOTION_BLOCKING);
+        this.worldSurface = chunk.getHeightmap(Heightmap.Type.WORLD_SURFACE);
+    }
+
+    @Test
+    public void placeBlocks() {
+        assertEquals(0, motionBlocking.getHeight(4, 5));
+        assertEquals(0, worldSurface.getHeight(4, 5));
+
+        setBlock(4, 10, 5, Block.STONE);
+        assertEquals(11, motionBlocking.getHeight(4, 5));
+        assertEquals(11, worldSurface.getHeight(4, 5));
+
+        // Does not block the motion
+        setBlock(4, 11, 5, Block.TORCH);
+        assertEquals(11, motionBlocking.getHeight(4, 5));
+        assertEquals(12, worldSurface.getHeight(4, 5));
+
+        // Fluids block the motion
+        setBlock(4, 20, 5, Block.WATER);
+        assertEquals(21, motionBlocking.getHeight(4, 5));
+        assertEquals(21, worldSurface.getHeight(4, 5));
+
+        // A block below the highest one does not change anything
+        setBlock(4, 2, 5, Block.DIRT);
+        assertEquals(21, motionBlocking.getHeight(4, 5));
+
+        // Other columns are not modified, world coordinates are accepted
+        assertEquals(0, worldSurface.getHeight(5, 5));
+        assertEquals(21, worldSurface.getHeight(Chunk.CHUNK_SIZE_X + 4, 5));
+    }
+
+    @Test
+    public void removeBlocks() {
+        setBlock(4, 2, 5, Block.DIRT);
+        setBlock(4, 10, 5, Block.STONE);
+        setBlock(4, 11, 5, Block.TORCH);
+        setBlock(4, 20, 5, Block.WATER);
+
+        // The next highest block is searched below the removed one
+        setBlock(4, 20, 5, Block.AIR);
+        assertEquals(11, motionBlocking.getHeight(4, 5));
+        assertEquals(12, worldSurface.getHeight(4, 5));
+
+        setBlock(4, 10, 5, Block.AIR);
+        assertEquals(3, motionBlocking.getHeight(4, 5));
+        assertEquals(12, worldSurface.getHeight(4, 5));
+
+        setBlock(4, 11, 5, Block.AIR);
+        setBlock(4, 2, 5, Block.AIR);
+        assertEquals(0, motionBlocking.getHeight(4, 5));
+        assertEquals(0, worldSurface.getHeight(4, 5));
+    }
+
+    @Test
+    public void refresh() {
+        setBlock(0, 255, 0, Block.STONE);
+        setBlock(15, 0, 15, Block.TORCH);
+        setBlock(7, 64, 9, Block.WATER);
+
+        Heightmap refreshedMotionBlocking = new Heightmap(Heightmap.Type.MOTION_BLOCKING);
+        Heightmap refreshedWorldSurface = new Heightmap(Heightmap.Type.WORLD_SURFACE);
+        refreshedMotionBlocking.refresh(chunk);
+        refreshedWorldSurface.refresh(chunk);
+        assertArrayEquals(motionBlocking.getEncodedHeights(), refreshedMotionBlocking.getEncodedHeights());
+        assertArrayEquals(worldSurface.getEncodedHeights(), refreshedWorldSurface.getEncodedHeights());
+        assertEquals(256, refreshedMotionBlocking.getHeight(0, 0));
+        assertEquals(0, refreshedMotionBlocking.getHeight(15, 15));
+        assertEquals(1, refreshedWorldSurface.getHeight(15, 15));
+    }
+
+    @Test
+    public void encodedHeights() {
+        final long[] encodedHeights = worldSurface.getEncodedHeights();
+        // 256 heights of 9 bits, 7 per long
+        assertEquals(37, encodedHeights.length);
+        assertSame(encodedHeights, worldSurface.getEncodedHeights());
+
+        setBlock(3, 3, 3, Block.STONE);
+        final long[] modifiedHeights = worldSurface.getEncodedHeights();
+        assertNotSame(encodedHeights, modifiedHeights);
+        // Placing a block under the highest one keeps the cache
+        setBlock(3, 1, 3, Block.STONE);
+        assertSame(modifiedHeights, worldSurface.getEncodedHeights());
+    }
+
+    private void setBlock(int x, int y, int z, Block block) {
+        chunk.UNSAFE_setBlock(x, y, z, block.getBlockId(), null);
+    }
+
+}
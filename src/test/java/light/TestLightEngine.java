@@ -0,0 +1,139 @@
+package light;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.InstanceContainer;
+import net.minestom.server.instance.PalettedChunk;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.light.ChunkLight;
+import net.minestom.server.instance.light.LightEngine;
+import net.minestom.server.world.DimensionType;
+import net.minestom.server.world.biomes.Biome;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLightEngine {
+
+    private LightEngine lightEngine;
+
+    @BeforeAll
+    public static void init() {
+        MinecraftServer.init();
+    }
+
+    @BeforeEach
+    public void createEngine() {
+        InstanceContainer instance = new InstanceContainer(UUID.randomUUID(), DimensionType.OVERWORLD, null);
+        this.lightEngine = new LightEngine(instance);
+    }
+
+    @Test
+    public void placeAndRemoveTorch() {
+        Chunk chunk = loadChunk(0, 0);
+
+        setBlock(chunk, 8, 64, 8, Block.TORCH);
+        assertEquals(14, chunk.getLight().getBlockLight(8, 64, 8));
+        assertEquals(11, chunk.getLight().getBlockLight(8, 64, 11));
+        assertEquals(12, chunk.getLight().getBlockLight(8, 65, 9));
+
+        setBlock(chunk, 8, 64, 8, Block.AIR);
+        assertEquals(0, chunk.getLight().getBlockLight(8, 64, 8));
+        assertEquals(0, chunk.getLight().getBlockLight(8, 64, 11));
+        assertEquals(0, chunk.getLight().getBlockLight(8, 65, 9));
+    }
+
+    @Test
+    public void coverAndUncoverColumn() {
+        Chunk chunk = loadChunk(0, 0);
+        assertEquals(15, chunk.getLight().getSkyLight(3, 99, 3));
+
+        setBlock(chunk, 3, 100, 3, Block.STONE);
+        assertEquals(0, chunk.getLight().getSkyLight(3, 100, 3));
+        // Only lit by the neighbour columns
+        assertEquals(14, chunk.getLight().getSkyLight(3, 99, 3));
+        assertEquals(14, chunk.getLight().getSkyLight(3, 10, 3));
+        assertEquals(15, chunk.getLight().getSkyLight(4, 10, 3));
+
+        setBlock(chunk, 3, 100, 3, Block.AIR);
+        assertEquals(15, chunk.getLight().getSkyLight(3, 100, 3));
+        assertEquals(15, chunk.getLight().getSkyLight(3, 99, 3));
+        assertEquals(15, chunk.getLight().getSkyLight(3, 10, 3));
+    }
+
+    @Test
+    public void directSkyLight() {
+        Chunk chunk = createChunk(0, 0);
+        // A roof over the whole chunk
+        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                chunk.UNSAFE_setBlock(x, 100, z, Block.STONE.getBlockId(), null);
+            }
+        }
+        lightEngine.loadChunk(chunk);
+        lightEngine.flush();
+        final ChunkLight light = chunk.getLight();
+        assertEquals(15, light.getSkyLight(8, 101, 8));
+        assertEquals(15, light.getSkyLight(8, 200, 8));
+        assertEquals(0, light.getSkyLight(8, 99, 8));
+        assertEquals(0, light.getSkyLight(8, 0, 8));
+
+        // The direct sky light does not decrease going down, the light spreading sideways does
+        setBlock(chunk, 8, 100, 8, Block.AIR);
+        assertEquals(15, light.getSkyLight(8, 99, 8));
+        assertEquals(15, light.getSkyLight(8, 0, 8));
+        assertEquals(14, light.getSkyLight(9, 50, 8));
+        assertEquals(13, light.getSkyLight(10, 50, 8));
+        assertEquals(0, light.getSkyLight(8, 100, 0));
+
+        setBlock(chunk, 8, 100, 8, Block.STONE);
+        assertEquals(0, light.getSkyLight(8, 99, 8));
+        assertEquals(0, light.getSkyLight(9, 50, 8));
+    }
+
+    @Test
+    public void chunkBorders() {
+        Chunk chunk = loadChunk(0, 0);
+        setBlock(chunk, 15, 64, 8, Block.TORCH);
+
+        // Loaded after the torch has been placed
+        Chunk neighbour = loadChunk(1, 0);
+        assertEquals(13, neighbour.getLight().getBlockLight(0, 64, 8));
+        assertEquals(12, neighbour.getLight().getBlockLight(1, 64, 8));
+
+        setBlock(chunk, 15, 64, 8, Block.AIR);
+        assertEquals(0, neighbour.getLight().getBlockLight(0, 64, 8));
+        assertEquals(0, neighbour.getLight().getBlockLight(1, 64, 8));
+
+        // Placed once both chunks are loaded
+        setBlock(neighbour, 0, 64, 8, Block.GLOWSTONE);
+        assertEquals(15, neighbour.getLight().getBlockLight(0, 64, 8));
+        assertEquals(14, chunk.getLight().getBlockLight(15, 64, 8));
+        assertEquals(11, chunk.getLight().getBlockLight(12, 64, 8));
+    }
+
+    private Chunk createChunk(int chunkX, int chunkZ) {
+        Biome[] biomes = new Biome[Chunk.BIOME_COUNT];
+        Arrays.fill(biomes, Biome.PLAINS);
+        return new PalettedChunk(biomes, chunkX, chunkZ);
+    }
+
+    private Chunk loadChunk(int chunkX, int chunkZ) {
+        Chunk chunk = createChunk(chunkX, chunkZ);
+        lightEngine.loadChunk(chunk);
+        lightEngine.flush();
+        return chunk;
+    }
+
+    private void setBlock(Chunk chunk, int x, int y, int z, Block block) {
+        chunk.UNSAFE_setBlock(x, y, z, block.getBlockId(), null);
+        lightEngine.updateBlock(chunk.getChunkX() * Chunk.CHUNK_SIZE_X + x, y, chunk.getChunkZ() * Chunk.CHUNK_SIZE_Z + z);
+        lightEngine.flush();
+    }
+
+}
@@ -0,0 +1,144 @@
+package mojangAuth;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import net.minestom.server.extras.mojangAuth.Decrypter;
+import net.minestom.server.extras.mojangAuth.Encrypter;
+import net.minestom.server.extras.mojangAuth.MojangCrypt;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCipher {
+
+    private final SecretKey secretKey = new SecretKeySpec(new byte[]{
+            1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16}, "AES");
+    private final Random random = new Random(42);
+
+    private EmbeddedChannel encryptChannel;
+    private EmbeddedChannel decryptChannel;
+    // Expected output, with its own stream state
+    private Cipher referenceCipher;
+
+    @BeforeEach
+    public void createChannels() {
+        this.encryptChannel = new EmbeddedChannel(new Encrypter(MojangCrypt.getCipher(Cipher.ENCRYPT_MODE, secretKey)));
+        this.decryptChannel = new EmbeddedChannel(new Decrypter(MojangCrypt.getCipher(Cipher.DECRYPT_MODE, secretKey)));
+        this.referenceCipher = MojangCrypt.getCipher(Cipher.ENCRYPT_MODE, secretKey);
+    }
+
+    @AfterEach
+    public void closeChannels() {
+        this.encryptChannel.finishAndReleaseAll();
+        this.decryptChannel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void encryptHeapAndDirect() {
+        final byte[] first = randomBytes(100);
+        final byte[] second = randomBytes(3000);
+
+        // The cipher state is kept between the packets
+        assertArrayEquals(referenceCipher.update(first), encrypt(Unpooled.wrappedBuffer(first)));
+        ByteBuf direct = Unpooled.directBuffer(second.length).writeBytes(second);
+        assertArrayEquals(referenceCipher.update(second), encrypt(direct));
+    }
+
+    @Test
+    public void encryptComposite() {
+        final byte[] length = {5};
+        final byte[] body = randomBytes(500);
+        ByteBuf sharedBody = Unpooled.directBuffer(body.length).writeBytes(body);
+        // A shared packet, written to several connections
+        sharedBody.retain();
+        ByteBuf packet = Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(length), sharedBody);
+        assertTrue(packet.nioBufferCount() > 1);
+
+        final byte[] expected = referenceCipher.update(concat(length, body));
+        assertArrayEquals(expected, encrypt(packet));
+        // The input is not modified
+        assertArrayEquals(body, ByteBufUtil.getBytes(sharedBody, 0, body.length));
+        sharedBody.release();
+    }
+
+    @Test
+    public void decryptInPlace() {
+        final byte[] first = randomBytes(256);
+        final byte[] second = randomBytes(1000);
+
+        assertArrayEquals(first, decrypt(Unpooled.wrappedBuffer(referenceCipher.update(first))));
+        // Only the readable bytes are decrypted
+        ByteBuf direct = Unpooled.directBuffer(second.length + 8);
+        direct.writeLong(-1);
+        direct.writeBytes(referenceCipher.update(second));
+        direct.readLong();
+        assertArrayEquals(second, decrypt(direct));
+    }
+
+    @Test
+    public void decryptComposite() {
+        final byte[] first = randomBytes(64);
+        final byte[] second = randomBytes(700);
+        final byte[] third = randomBytes(10);
+
+        assertArrayEquals(first, decrypt(Unpooled.wrappedBuffer(referenceCipher.update(first))));
+        final byte[] encrypted = referenceCipher.update(second);
+        ByteBuf composite = Unpooled.wrappedBuffer(
+                Unpooled.wrappedBuffer(encrypted, 0, 300),
+                Unpooled.wrappedBuffer(encrypted, 300, encrypted.length - 300));
+        assertTrue(composite.nioBufferCount() > 1);
+        assertArrayEquals(second, decrypt(composite));
+        // The fallback path keeps the cipher state
+        assertArrayEquals(third, decrypt(Unpooled.wrappedBuffer(referenceCipher.update(third))));
+    }
+
+    @Test
+    public void roundTrip() {
+        for (int i = 0; i < 20; i++) {
+            final byte[] bytes = randomBytes(random.nextInt(2048) + 1);
+            ByteBuf buffer = i % 2 == 0 ? Unpooled.wrappedBuffer(bytes) : Unpooled.directBuffer().writeBytes(bytes);
+            assertArrayEquals(bytes, decrypt(Unpooled.wrappedBuffer(encrypt(buffer))));
+        }
+    }
+
+    private byte[] encrypt(ByteBuf buffer) {
+        assertTrue(encryptChannel.writeOutbound(buffer));
+        return readAndRelease(encryptChannel.readOutbound());
+    }
+
+    private byte[] decrypt(ByteBuf buffer) {
+        assertTrue(decryptChannel.writeInbound(buffer));
+        return readAndRelease(decryptChannel.readInbound());
+    }
+
+    private byte[] randomBytes(int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] readAndRelease(ByteBuf buffer) {
+        try {
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        final byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+}
@@ -0,0 +1,99 @@
+package network;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DecoderException;
+import net.minestom.server.network.netty.codec.PacketCompressor;
+import net.minestom.server.utils.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPacketCompressor {
+
+    private static final int THRESHOLD = 256;
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void createChannel() {
+        this.channel = new EmbeddedChannel(new PacketCompressor(THRESHOLD, Deflater.DEFAULT_COMPRESSION));
+    }
+
+    @AfterEach
+    public void closeChannel() {
+        this.channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void decompress() {
+        final byte[] packet = createPacket(1000);
+        assertTrue(channel.writeInbound(createCompressedPacket(packet.length, compress(packet, null))));
+
+        ByteBuf decompressed = channel.readInbound();
+        assertArrayEquals(packet, ByteBufUtil.getBytes(decompressed));
+        decompressed.release();
+    }
+
+    @Test
+    public void presetDictionary() {
+        final byte[] packet = createPacket(1000);
+        final byte[] compressed = compress(packet, new byte[]{1, 2, 3, 4});
+        assertThrows(DecoderException.class,
+                () -> channel.writeInbound(createCompressedPacket(packet.length, compressed)));
+    }
+
+    @Test
+    public void wrongDeclaredSize() {
+        final byte[] packet = createPacket(1000);
+        final byte[] compressed = compress(packet, null);
+        assertThrows(DecoderException.class,
+                () -> channel.writeInbound(createCompressedPacket(packet.length + 1, compressed)));
+        assertThrows(DecoderException.class,
+                () -> channel.writeInbound(createCompressedPacket(packet.length - 1, compressed)));
+        // Truncated stream
+        assertThrows(DecoderException.class,
+                () -> channel.writeInbound(createCompressedPacket(packet.length, Arrays.copyOf(compressed, compressed.length / 2))));
+
+        // The inflater is still usable
+        assertTrue(channel.writeInbound(createCompressedPacket(packet.length, compressed)));
+        ByteBuf decompressed = channel.readInbound();
+        assertEquals(packet.length, decompressed.readableBytes());
+        decompressed.release();
+    }
+
+    private static byte[] createPacket(int length) {
+        final byte[] packet = new byte[length];
+        for (int i = 0; i < length; i++) {
+            packet[i] = (byte) (i % 7);
+        }
+        return packet;
+    }
+
+    private static byte[] compress(byte[] data, byte[] dictionary) {
+        Deflater deflater = new Deflater();
+        if (dictionary != null)
+            deflater.setDictionary(dictionary);
+        deflater.setInput(data);
+        deflater.finish();
+        final byte[] buffer = new byte[data.length + 64];
+        final int length = deflater.deflate(buffer);
+        deflater.end();
+        return Arrays.copyOf(buffer, length);
+    }
+
+    private static ByteBuf createCompressedPacket(int dataLength, byte[] compressed) {
+        ByteBuf buffer = Unpooled.buffer();
+        Utils.writeVarIntBuf(buffer, dataLength);
+        buffer.writeBytes(compressed);
+        return buffer;
+    }
+
+}
@@ -0,0 +1,59 @@
+package palette;
+
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.DynamicChunk;
+import net.minestom.server.instance.PalettedChunk;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.utils.chunk.ChunkSupplier;
+import net.minestom.server.world.biomes.Biome;
+
+/**
+ * Compare the heap used by {@link DynamicChunk} and {@link PalettedChunk} for a simple terrain
+ * (stone up to y=60, dirt, then grass and only air above)
+ * <p>
+ * Run with a fixed heap (eg -Xms2G -Xmx2G) to get stable results
+ */
+public class ChunkMemoryBenchmark {
+
+    private static final int CHUNK_COUNT = 1024;
+    private static final int TERRAIN_HEIGHT = 64;
+
+    public static void main(String[] args) {
+        final long dynamicSize = measure("DynamicChunk", DynamicChunk::new);
+        final long palettedSize = measure("PalettedChunk", PalettedChunk::new);
+        System.out.println("Ratio: " + (double) dynamicSize / palettedSize);
+    }
+
+    private static long measure(String name, ChunkSupplier chunkSupplier) {
+        final long start = getUsedMemory();
+        Chunk[] chunks = new Chunk[CHUNK_COUNT];
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            Chunk chunk = chunkSupplier.createChunk(new Biome[Chunk.BIOME_COUNT], i, 0);
+            fill(chunk);
+            chunks[i] = chunk;
+        }
+        final long used = getUsedMemory() - start;
+        final long perChunk = used / chunks.length;
+        System.out.println(name + ": " + used / 1024 / 1024 + " MB for " + CHUNK_COUNT + " chunks (" + perChunk / 1024 + " KB/chunk)");
+        return used;
+    }
+
+    private static void fill(Chunk chunk) {
+        for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+            for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                for (int y = 0; y < TERRAIN_HEIGHT; y++) {
+                    final Block block = y < 60 ? Block.STONE : y < TERRAIN_HEIGHT - 1 ? Block.DIRT : Block.GRASS_BLOCK;
+                    chunk.UNSAFE_setBlock(x, y, z, block.getBlockId(), null);
+                }
+            }
+        }
+    }
+
+    private static long getUsedMemory() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+}
@@ -0,0 +1,81 @@
+package palette;
+
+import net.minestom.server.instance.palette.Section;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSection {
+
+    @Test
+    public void singleValue() {
+        Section section = new Section(15);
+        assertTrue(section.isEmpty());
+        assertEquals(0, section.getBitsPerEntry());
+        assertEquals(0, section.get(Section.getIndex(3, 4, 5)));
+
+        section.set(Section.getIndex(3, 4, 5), (short) 1);
+        assertEquals(1, section.get(Section.getIndex(3, 4, 5)));
+        assertEquals(0, section.get(Section.getIndex(3, 4, 6)));
+        assertEquals(1, section.getNonZeroCount());
+        assertEquals(Section.MIN_BITS_PER_ENTRY, section.getBitsPerEntry());
+
+        section.set(Section.getIndex(3, 4, 5), (short) 0);
+        assertTrue(section.isEmpty());
+    }
+
+    @Test
+    public void paletteGrowth() {
+        Section section = new Section(15);
+        // 17 different values do not fit in a 4 bits palette
+        for (short i = 0; i < 17; i++) {
+            section.set(i, i);
+        }
+        assertEquals(5, section.getBitsPerEntry());
+        for (short i = 0; i < 17; i++) {
+            assertEquals(i, section.get(i));
+        }
+        assertEquals(16, section.getNonZeroCount());
+    }
+
+    @Test
+    public void directStorage() {
+        Section section = new Section(15);
+        Random random = new Random(0);
+        short[] expected = new short[Section.SECTION_BLOCK_COUNT];
+        for (int i = 0; i < expected.length; i++) {
+            final short value = (short) random.nextInt(Short.MAX_VALUE);
+            expected[i] = value;
+            section.set(i, value);
+        }
+        assertEquals(15, section.getBitsPerEntry());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], section.get(i));
+        }
+    }
+
+    @Test
+    public void negativeValues() {
+        Section section = new Section(16);
+        for (int i = 0; i < 300; i++) {
+            section.set(i, (short) -i);
+        }
+        assertEquals(16, section.getBitsPerEntry());
+        for (int i = 0; i < 300; i++) {
+            assertEquals((short) -i, section.get(i));
+        }
+    }
+
+    @Test
+    public void copy() {
+        Section section = new Section(15);
+        section.set(0, (short) 9);
+        Section copy = section.copy();
+        section.set(0, (short) 10);
+        assertEquals(9, copy.get(0));
+        assertEquals(10, section.get(0));
+    }
+
+}
@@ -0,0 +1,121 @@
+package storage;
+
+import net.minestom.server.storage.StorageLocation;
+import net.minestom.server.storage.StorageManager;
+import net.minestom.server.storage.StorageOptions;
+import net.minestom.server.storage.StorageSystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestStorageLocation {
+
+    private final StorageManager storageManager = new StorageManager();
+
+    @Test
+    public void writeBehind() {
+        MemoryStorageSystem storageSystem = new MemoryStorageSystem();
+        StorageLocation location = storageManager.getLocation("write-behind", new StorageOptions(), storageSystem);
+
+        final byte[] value = {1, 2, 3};
+        location.set("key", value);
+        // Read from the cache, even if not written yet
+        assertArrayEquals(value, location.get("key"));
+        assertEquals(0, storageSystem.reads.get());
+
+        location.flush();
+        assertEquals(0, location.getPendingWriteCount());
+        assertArrayEquals(value, storageSystem.values.get("key"));
+
+        location.delete("key");
+        assertNull(location.get("key"));
+        location.flush();
+        assertFalse(storageSystem.values.containsKey("key"));
+    }
+
+    @Test
+    public void eviction() {
+        MemoryStorageSystem storageSystem = new MemoryStorageSystem();
+        StorageOptions storageOptions = new StorageOptions()
+                .setCacheSize(100)
+                .setCacheExpiration(1, TimeUnit.HOURS);
+        StorageLocation location = storageManager.getLocation("eviction", storageOptions, storageSystem);
+
+        // 40 bytes each (key and value), only 2 of them fit in the cache
+        for (int i = 0; i < 5; i++) {
+            location.set("key" + i, new byte[32]);
+        }
+        location.flush();
+        assertTrue(location.getCacheSize() <= 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(32, location.get("key" + i).length);
+        }
+        // The evicted values are read back from the storage
+        assertTrue(storageSystem.reads.get() >= 3);
+    }
+
+    @Test
+    public void writeFailure() {
+        MemoryStorageSystem storageSystem = new MemoryStorageSystem();
+        StorageLocation location = storageManager.getLocation("failure", new StorageOptions(), storageSystem);
+
+        storageSystem.failing = true;
+        location.set("key", new byte[]{4});
+        location.flush();
+        // Not written, and not lost
+        assertEquals(1, location.getPendingWriteCount());
+        assertFalse(storageSystem.values.containsKey("key"));
+        assertArrayEquals(new byte[]{4}, location.get("key"));
+
+        storageSystem.failing = false;
+        location.flush();
+        assertEquals(0, location.getPendingWriteCount());
+        assertArrayEquals(new byte[]{4}, storageSystem.values.get("key"));
+    }
+
+    private static class MemoryStorageSystem implements StorageSystem {
+
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+        private volatile boolean failing;
+
+        @Override
+        public boolean exists(String location) {
+            return true;
+        }
+
+        @Override
+        public void open(String location, StorageOptions storageOptions) {
+        }
+
+        @Override
+        public byte[] get(String key) {
+            this.reads.incrementAndGet();
+            return values.get(key);
+        }
+
+        @Override
+        public void set(String key, byte[] data) {
+            if (failing)
+                throw new IllegalStateException("Storage unavailable");
+            this.values.put(key, data);
+        }
+
+        @Override
+        public void delete(String key) {
+            if (failing)
+                throw new IllegalStateException("Storage unavailable");
+            this.values.remove(key);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+}